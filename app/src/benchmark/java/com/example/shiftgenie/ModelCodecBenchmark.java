@@ -0,0 +1,142 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local benchmark comparing the per-record cost of decoding shifts with {@link ShiftCodec} against
+ * reflective bean mapping, the approach {@code DataSnapshot.getValue(Shift.class)} takes: a no-arg
+ * constructor and one reflective setter call per field. The SDK's own mapper is internal, so an
+ * equivalent mapper with cached setters stands in for it. Both decode the same raw maps, so only the
+ * decoding itself is measured. Timings are printed; the assertions only check that both decoders agree.
+ */
+public class ModelCodecBenchmark {
+
+    private static final int[] SIZES = {10_000, 100_000}; // Number of records decoded per round.
+    private static final int ROUNDS = 5;                   // Measured rounds after one warm-up round.
+
+    @Test
+    public void codecVersusClassMapper() throws Exception {
+        Map<String, Method> setters = settersOf(Shift.class);
+        for (int size : SIZES) {
+            List<Map<String, Object>> records = records(size);
+
+            long bestMapperNanos = Long.MAX_VALUE;
+            long bestCodecNanos = Long.MAX_VALUE;
+            long mapperChecksum = 0;
+            long codecChecksum = 0;
+            for (int round = 0; round <= ROUNDS; round++) {
+                long start = System.nanoTime();
+                long checksum = 0;
+                for (Map<String, Object> record : records) {
+                    Shift shift = mapReflectively(record, setters);
+                    checksum += shift.getEarningsCents() + shift.getEnd();
+                }
+                long mapperElapsed = System.nanoTime() - start;
+                mapperChecksum = checksum;
+
+                start = System.nanoTime();
+                checksum = 0;
+                for (Map<String, Object> record : records) {
+                    Shift shift = ShiftCodec.decode(record);
+                    checksum += shift.getEarningsCents() + shift.getEnd();
+                }
+                long codecElapsed = System.nanoTime() - start;
+                codecChecksum = checksum;
+
+                if (round > 0) {
+                    bestMapperNanos = Math.min(bestMapperNanos, mapperElapsed);
+                    bestCodecNanos = Math.min(bestCodecNanos, codecElapsed);
+                }
+            }
+
+            System.out.printf("Shift decode of %d records: getValue(Class) %.0f ns/record, ShiftCodec %.0f ns/record%n",
+                    size, (double) bestMapperNanos / size, (double) bestCodecNanos / size);
+
+            assertEquals(mapperChecksum, codecChecksum);
+        }
+    }
+
+    /**
+     * Finds the setters of a bean class by property name, as a class mapper caches them.
+     *
+     * @param type The bean class.
+     * @return The one-argument setters, keyed by property name.
+     */
+    private static Map<String, Method> settersOf(Class<?> type) {
+        Map<String, Method> setters = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            String name = method.getName();
+            if (name.startsWith("set") && name.length() > 3 && method.getParameterTypes().length == 1) {
+                setters.put(Character.toLowerCase(name.charAt(3)) + name.substring(4), method);
+            }
+        }
+        return setters;
+    }
+
+    /**
+     * Decodes a record into a shift through reflection, converting numbers to each setter's type.
+     *
+     * @param record  The raw record.
+     * @param setters The setters of {@link Shift}, keyed by property name.
+     * @return The shift.
+     * @throws Exception If a setter fails.
+     */
+    private static Shift mapReflectively(Map<String, Object> record, Map<String, Method> setters) throws Exception {
+        Shift shift = Shift.class.getDeclaredConstructor().newInstance();
+        for (Map.Entry<String, Object> field : record.entrySet()) {
+            Method setter = setters.get(field.getKey());
+            if (setter == null) {
+                continue;
+            }
+            Object value = field.getValue();
+            Class<?> type = setter.getParameterTypes()[0];
+            if (value instanceof Number) {
+                Number number = (Number) value;
+                if (type == long.class) {
+                    value = number.longValue();
+                } else if (type == int.class) {
+                    value = number.intValue();
+                } else if (type == double.class) {
+                    value = number.doubleValue();
+                }
+            }
+            setter.invoke(shift, value);
+        }
+        return shift;
+    }
+
+    /**
+     * Builds raw shift records in the form the database returns them.
+     *
+     * @param count The number of records.
+     * @return The records.
+     */
+    private static List<Map<String, Object>> records(int count) {
+        Random random = new Random(13);
+        List<Map<String, Object>> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Shift shift = new Shift();
+            shift.setShiftId("shift" + i);
+            shift.setFromDateTime("01/05/2024 08:00");
+            shift.setToDateTime("01/05/2024 16:00");
+            shift.setWorkplaceName("Workplace " + random.nextInt(5));
+            shift.setUserEmail("user@example.com");
+            shift.setEarningsCents(5_000 + random.nextInt(50_000));
+            long start = 28_000_000L + random.nextInt(500_000);
+            shift.setStart(start);
+            shift.setEnd(start + 480);
+            shift.setDurationMinutes(480);
+            records.add(ShiftCodec.encode(shift));
+        }
+        return records;
+    }
+}
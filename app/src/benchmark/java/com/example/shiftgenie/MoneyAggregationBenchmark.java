@@ -0,0 +1,74 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local benchmark comparing earnings aggregation before and after the switch to cents.
+ * "Before" sums boxed decimal values, the way they came out of {@code DataSnapshot.getValue};
+ * "after" sums {@code long} cents from a primitive array. Timings and the drift of the decimal sum
+ * are printed; the assertions only check that the cents sum is exact.
+ */
+public class MoneyAggregationBenchmark {
+
+    private static final int SHIFTS = 1_000_000;   // Number of shift earnings summed per round.
+    private static final int ROUNDS = 5;           // Measured rounds after one warm-up round.
+
+    @Test
+    public void doublesVersusCents() {
+        Random random = new Random(3);
+        List<Object> boxedEarnings = new ArrayList<>(SHIFTS);
+        long[] earningsCents = new long[SHIFTS];
+        for (int i = 0; i < SHIFTS; i++) {
+            long cents = 5_000 + random.nextInt(50_000);  // $50.00 to $549.99 per shift.
+            earningsCents[i] = cents;
+            boxedEarnings.add(cents / 100.0);
+        }
+
+        long bestDoubleNanos = Long.MAX_VALUE;
+        long bestCentsNanos = Long.MAX_VALUE;
+        double doubleTotal = 0;
+        long centsTotal = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            double doubleSum = 0;
+            for (Object value : boxedEarnings) {
+                doubleSum += ((Number) value).doubleValue();
+            }
+            long doubleElapsed = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long centsSum = 0;
+            for (long cents : earningsCents) {
+                centsSum += cents;
+            }
+            long centsElapsed = System.nanoTime() - start;
+
+            if (round > 0) {
+                bestDoubleNanos = Math.min(bestDoubleNanos, doubleElapsed);
+                bestCentsNanos = Math.min(bestCentsNanos, centsElapsed);
+            }
+            doubleTotal = doubleSum;
+            centsTotal = centsSum;
+        }
+
+        // The exact total, for measuring how far the decimal sum drifted.
+        BigDecimal exact = BigDecimal.ZERO;
+        for (long cents : earningsCents) {
+            exact = exact.add(BigDecimal.valueOf(cents, 2));
+        }
+        BigDecimal drift = new BigDecimal(doubleTotal).subtract(exact).abs();
+
+        System.out.printf("Money aggregation of %d shifts: doubles %.2f ms, cents %.2f ms, double drift $%s%n",
+                SHIFTS, bestDoubleNanos / 1e6, bestCentsNanos / 1e6, drift.toPlainString());
+
+        assertEquals(exact, BigDecimal.valueOf(centsTotal, 2));
+        assertEquals(Money.format(centsTotal), Money.format(exact.movePointRight(2).longValueExact()));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local benchmark for {@link PayrollEngine}: recomputes one month for 10k users with 30 shifts each.
+ * Timings are printed; the assertion only guards the result so the test stays stable on slow machines.
+ */
+public class PayrollEngineBenchmark {
+
+    private static final int USERS = 10_000;          // Number of users recomputed per round.
+    private static final int SHIFTS_PER_USER = 30;    // Shifts per user in the month.
+    private static final int ROUNDS = 5;              // Measured rounds after one warm-up round.
+
+    @Test
+    public void monthForAllUsers() {
+        Random random = new Random(11);
+        int total = USERS * SHIFTS_PER_USER;
+        int[] days = new int[total];
+        int[] durations = new int[total];
+        for (int i = 0; i < total; i++) {
+            days[i] = 1 + random.nextInt(30);
+            durations[i] = 240 + random.nextInt(480);
+        }
+
+        Workplace workplace = new Workplace();
+        workplace.setHourlyWage(40);
+        workplace.setBreakTime(30);
+        workplace.setBonusesPreShift(15);
+        workplace.setDeductionPreShift(5);
+        workplace.setDailyTravelExpenses(12);
+        workplace.setMonthlyTravelExpenses(100);
+        workplace.setVacationPayments(8);
+
+        long bestNanos = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            long sum = 0;
+            for (int user = 0; user < USERS; user++) {
+                sum += PayrollEngine.computeMonth(days, durations, user * SHIFTS_PER_USER, SHIFTS_PER_USER, workplace).getTotalPayCents();
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round > 0) {
+                bestNanos = Math.min(bestNanos, elapsed);
+            }
+            checksum = sum;
+        }
+
+        System.out.printf("PayrollEngine: %d users x %d shifts in %.2f ms (%.1f ns/user)%n",
+                USERS, SHIFTS_PER_USER, bestNanos / 1e6, (double) bestNanos / USERS);
+
+        assertTrue(checksum > 0);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local benchmark for {@link ShiftIntervalIndex} at 100k shifts, comparing the indexed query with
+ * the linear scan the overlap check used before. Timings are printed; the assertions only guard
+ * that both approaches agree, so the test stays stable on slow machines.
+ */
+public class ShiftIntervalIndexBenchmark {
+
+    private static final int SHIFTS = 100_000;   // Number of indexed shifts.
+    private static final int QUERIES = 100_000;  // Number of overlap queries per round.
+    private static final int ROUNDS = 5;         // Measured rounds after one warm-up round.
+
+    @Test
+    public void overlapQueries_at100kShifts() {
+        Random random = new Random(7);
+        long[] starts = new long[SHIFTS];
+        long[] ends = new long[SHIFTS];
+        long[] queryFrom = new long[QUERIES];
+        long[] queryTo = new long[QUERIES];
+
+        // Back-to-back 8 hour shifts with random gaps, spread over roughly a century of minutes.
+        long time = 0;
+        for (int i = 0; i < SHIFTS; i++) {
+            time += random.nextInt(24 * 60);
+            starts[i] = time;
+            ends[i] = time + 8 * 60;
+            time = ends[i];
+        }
+        for (int q = 0; q < QUERIES; q++) {
+            queryFrom[q] = (long) (random.nextDouble() * time);
+            queryTo[q] = queryFrom[q] + 60 + random.nextInt(12 * 60);
+        }
+
+        long buildStart = System.nanoTime();
+        ShiftIntervalIndex index = ShiftIntervalIndex.build(starts, ends, SHIFTS);
+        long buildNanos = System.nanoTime() - buildStart;
+
+        long indexedNanos = Long.MAX_VALUE;
+        int indexedHits = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            int hits = 0;
+            for (int q = 0; q < QUERIES; q++) {
+                if (index.overlaps(queryFrom[q], queryTo[q])) {
+                    hits++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round > 0) {
+                indexedNanos = Math.min(indexedNanos, elapsed);
+            }
+            indexedHits = hits;
+        }
+
+        // The linear scan is far slower, so it only runs over a sample of the queries.
+        int sample = 1000;
+        int scanHits = 0;
+        int sampleIndexedHits = 0;
+        long scanStart = System.nanoTime();
+        for (int q = 0; q < sample; q++) {
+            boolean overlapping = false;
+            for (int i = 0; i < SHIFTS && !overlapping; i++) {
+                overlapping = starts[i] < queryTo[q] && ends[i] > queryFrom[q];
+            }
+            if (overlapping) {
+                scanHits++;
+            }
+            if (index.overlaps(queryFrom[q], queryTo[q])) {
+                sampleIndexedHits++;
+            }
+        }
+        long scanNanos = System.nanoTime() - scanStart;
+
+        System.out.printf("ShiftIntervalIndex: build %.2f ms, indexed query %.1f ns/op, linear scan %.1f ns/op (%d hits)%n",
+                buildNanos / 1e6, (double) indexedNanos / QUERIES, (double) scanNanos / sample, indexedHits);
+
+        assertEquals(SHIFTS, index.size());
+        assertEquals(scanHits, sampleIndexedHits);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local benchmark for {@link ShiftTimeline}: re-buckets a year of shifts for 1k users in one pass each.
+ * Timings are printed; the assertion only guards the result so the test stays stable on slow machines.
+ */
+public class ShiftTimelineBenchmark {
+
+    private static final int USERS = 1_000;           // Number of user timelines built per round.
+    private static final int SHIFTS_PER_USER = 300;   // Shifts per user in the year.
+    private static final int ROUNDS = 5;              // Measured rounds after one warm-up round.
+
+    @Test
+    public void yearForAllUsers() {
+        ZoneId zone = ZoneId.of("Europe/Berlin");
+        LocalDate firstDay = LocalDate.of(2024, 1, 1);
+        long yearStart = ShiftTimes.toEpochMinutes(firstDay.atStartOfDay(), zone);
+
+        // One shift per day on most days, starting between 06:00 and 23:00 and lasting 4 to 12 hours.
+        Random random = new Random(7);
+        long[] starts = new long[SHIFTS_PER_USER];
+        long[] ends = new long[SHIFTS_PER_USER];
+        for (int i = 0; i < SHIFTS_PER_USER; i++) {
+            starts[i] = yearStart + i * 1440L + 360 + random.nextInt(1020);
+            ends[i] = starts[i] + 240 + random.nextInt(480);
+        }
+
+        long bestNanos = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long begin = System.nanoTime();
+            long sum = 0;
+            for (int user = 0; user < USERS; user++) {
+                ShiftTimeline timeline = new ShiftTimeline(firstDay, firstDay.plusYears(1));
+                for (int i = 0; i < SHIFTS_PER_USER; i++) {
+                    timeline.add(starts[i], ends[i], zone);
+                }
+                sum += timeline.getMonthMinutes(YearMonth.of(2024, 6));
+            }
+            long elapsed = System.nanoTime() - begin;
+            if (round > 0) {
+                bestNanos = Math.min(bestNanos, elapsed);
+            }
+            checksum = sum;
+        }
+
+        System.out.printf("ShiftTimeline: %d users x %d shifts in %.2f ms (%.1f us/user-year)%n",
+                USERS, SHIFTS_PER_USER, bestNanos / 1e6, bestNanos / 1e3 / USERS);
+
+        assertTrue(checksum > 0);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local benchmark for {@link UserSearchIndex} at 50k users: building the index one user at a time,
+ * the queries of typing a name letter by letter in each order, and updating a user's totals.
+ * Timings are printed against the 16 ms frame; the assertions only check the results against a
+ * linear scan, so the test stays stable on slow machines.
+ */
+public class UserSearchIndexBenchmark {
+
+    private static final int USERS = 50_000;   // Number of indexed users.
+    private static final int ROUNDS = 5;       // Measured rounds after one warm-up round.
+    private static final String[] SYLLABLES = {"da", "na", "li", "ro", "mi", "ka", "te", "so", "vi", "el"}; // Parts of generated names.
+
+    @Test
+    public void typingAndUpdates_at50kUsers() {
+        Random random = new Random(11);
+        List<UserRow> rows = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            String first = name(random);
+            String last = name(random);
+            rows.add(UserSearchIndexTest.row(String.format(Locale.ROOT, "user%06d", i), first + " " + last,
+                    first + "." + last + i + "@example.com", String.format(Locale.ROOT, "05%d-%07d", random.nextInt(10), i),
+                    random.nextInt(500), random.nextInt(10_000_000)));
+        }
+
+        long buildStart = System.nanoTime();
+        UserSearchIndex index = new UserSearchIndex();
+        for (UserRow row : rows) {
+            index.put(row);
+        }
+        long buildNanos = System.nanoTime() - buildStart;
+
+        // Typing a name letter by letter, in each order, including the empty search.
+        String typed = "danali";
+        int keystrokes = UserSearchIndex.Sort.values().length * (typed.length() + 1);
+        long queryNanos = Long.MAX_VALUE;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (UserSearchIndex.Sort sort : UserSearchIndex.Sort.values()) {
+                for (int length = 0; length <= typed.length(); length++) {
+                    index.query(typed.substring(0, length), sort);
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round > 0) {
+                queryNanos = Math.min(queryNanos, elapsed);
+            }
+        }
+
+        // A rollup change replaces one user's row.
+        int updates = 1_000;
+        long updateStart = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            UserRow row = rows.get(random.nextInt(USERS));
+            index.put(UserSearchIndexTest.row(row.getUserId(), row.getUsername(), row.getEmail(),
+                    row.getPhoneNumber(), random.nextInt(500), random.nextInt(10_000_000)));
+        }
+        long updateNanos = System.nanoTime() - updateStart;
+
+        System.out.printf("UserSearchIndex: build %.1f ms, keystroke %.3f ms/op, update %.1f us/op (%d users)%n",
+                buildNanos / 1e6, queryNanos / 1e6 / keystrokes, updateNanos / 1e3 / updates, USERS);
+
+        assertEquals(USERS, index.size());
+        // The index finds the same users as a scan over the usernames' words.
+        for (int length = 1; length <= typed.length(); length++) {
+            String prefix = typed.substring(0, length);
+            int expected = 0;
+            for (UserRow row : rows) {
+                for (String word : row.getUsername().split(" ")) {
+                    if (word.startsWith(prefix)) {
+                        expected++;
+                        break;
+                    }
+                }
+            }
+            assertEquals(prefix, expected, index.query(prefix, UserSearchIndex.Sort.EARNINGS).size());
+        }
+        // The earnings order is descending.
+        List<UserRow> byEarnings = index.query("", UserSearchIndex.Sort.EARNINGS);
+        for (int i = 1; i < byEarnings.size(); i++) {
+            assertTrue(byEarnings.get(i - 1).getEarningsCents() >= byEarnings.get(i).getEarningsCents());
+        }
+    }
+
+    /**
+     * Generates a name of two or three syllables.
+     *
+     * @param random The source of randomness.
+     * @return The name.
+     */
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return name.toString();
+    }
+}
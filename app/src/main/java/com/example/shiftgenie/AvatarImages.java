@@ -0,0 +1,106 @@
+package com.example.shiftgenie;
+
+import android.graphics.drawable.Drawable;
+import android.widget.ImageView;
+
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.signature.ObjectKey;
+
+/**
+ * The AvatarImages class builds the Glide requests of profile images. Uploading a new image
+ * overwrites the same storage objects, so its URL may not change while its content does. Each
+ * upload therefore also writes {@link #VERSION_FIELD} on the user node, and the version is the
+ * request's signature: Glide's memory and disk caches are keyed by URL and version, so a new image
+ * is fetched once, and an unchanged one is never fetched again.
+ *
+ * <p>A view that already shows an image can skip a load that would end in the same picture, by
+ * loading through a {@link ShownImage}, which compares {@link #keyOf} of the next image with the
+ * one the view shows.</p>
+ */
+public final class AvatarImages {
+
+    static final String VERSION_FIELD = "profileImageVersion"; // User field holding the version of the profile image.
+
+    private AvatarImages() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Builds the request of a profile image, signed by its version, falling back to the default
+     * picture if the image is missing or fails to load.
+     *
+     * @param glide   The request manager of the screen.
+     * @param url     The URL of the image, or null.
+     * @param version The version of the image; 0 if the user has none.
+     * @return The request.
+     */
+    public static RequestBuilder<Drawable> request(RequestManager glide, @Nullable String url, long version) {
+        return glide.load(url)
+                .signature(new ObjectKey(version))
+                .error(R.drawable.pp); // Fallback image in case of an error or if the image is missing.
+    }
+
+    /**
+     * Tracks the image one view shows, so a rebind with the same image loads nothing. The key is
+     * only recorded once the image is on screen, so a load that failed, or was paused or cleared
+     * before it finished, is retried on the next bind.
+     */
+    public static final class ShownImage {
+
+        private String shownKey; // Key of the image the view shows, or null if none or still loading.
+
+        /**
+         * Loads an image into the view, unless the view already shows it.
+         *
+         * @param key     The key of the image, see {@link #keyOf}.
+         * @param request The request of the image.
+         * @param view    The view.
+         */
+        public void load(String key, RequestBuilder<Drawable> request, ImageView view) {
+            if (key.equals(shownKey)) {
+                return;
+            }
+            shownKey = null;
+            request.listener(new RequestListener<Drawable>() {
+                @Override
+                public boolean onLoadFailed(@Nullable GlideException e, Object model, Target<Drawable> target,
+                                            boolean isFirstResource) {
+                    // Nothing recorded, so the next bind tries again; Glide shows the error image.
+                    return false;
+                }
+
+                @Override
+                public boolean onResourceReady(Drawable resource, Object model, Target<Drawable> target,
+                                               DataSource dataSource, boolean isFirstResource) {
+                    shownKey = key;
+                    return false;
+                }
+            }).into(view);
+        }
+
+        /**
+         * Forgets the image shown, after something else was loaded into the view, so the next load runs.
+         */
+        public void forget() {
+            shownKey = null;
+        }
+    }
+
+    /**
+     * Builds the key identifying the picture a request would show.
+     *
+     * @param url     The URL of the image, or null.
+     * @param version The version of the image.
+     * @return The key.
+     */
+    public static String keyOf(@Nullable String url, long version) {
+        return url + "#" + version;
+    }
+}
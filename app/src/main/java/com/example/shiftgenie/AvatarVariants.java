@@ -0,0 +1,109 @@
+package com.example.shiftgenie;
+
+import androidx.annotation.Nullable;
+
+/**
+ * The AvatarVariants class describes the sizes a profile image is uploaded in and picks the one a
+ * view should load. Each upload stores variants with their longest side at 96, 256 and 512 px next
+ * to the full image under {@code ProfileImages/{uid}/}, and records their download URLs on the user node,
+ * in {@code profileImage96}, {@code profileImage256}, {@code profileImage512} and, for the full
+ * image, {@code profileImage}. Users who uploaded before variants existed only have the full image,
+ * which is then used everywhere.
+ *
+ * <p>A view loads the smallest variant that covers it, allowing an upscale of up to 25%, which a small
+ * circular avatar does not show: a 100 dp row loads the 256 px variant on a 3x screen instead of a
+ * full photo.</p>
+ */
+public final class AvatarVariants {
+
+    static final String ORIGINAL = "original";  // Name of the full image variant.
+    static final int[] SIZES = {96, 256, 512};  // Longest side of each reduced variant, in pixels, ascending.
+    static final int[] BYTE_BUDGETS = {8 * 1024, 32 * 1024, 96 * 1024}; // Size each reduced variant should fit in, in bytes.
+    static final int MIN_COVERAGE_PERCENT = 80; // Share of a view's size a variant must reach to be used, in percent.
+
+    private AvatarVariants() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Gets the name of a variant, used for its file and its storage object.
+     *
+     * @param size The longest side of the variant, in pixels.
+     * @return The name, such as "96".
+     */
+    public static String nameOf(int size) {
+        return String.valueOf(size);
+    }
+
+    /**
+     * Gets the names of all variants, from the smallest to the full image.
+     *
+     * @return The names.
+     */
+    public static String[] names() {
+        String[] names = new String[SIZES.length + 1];
+        for (int i = 0; i < SIZES.length; i++) {
+            names[i] = nameOf(SIZES[i]);
+        }
+        names[SIZES.length] = ORIGINAL;
+        return names;
+    }
+
+    /**
+     * Gets the user field holding the download URL of a variant.
+     *
+     * @param name The name of the variant, or {@link #ORIGINAL}.
+     * @return The field name, such as "profileImage96", or "profileImage" for the full image.
+     */
+    public static String fieldOf(String name) {
+        return ORIGINAL.equals(name) ? "profileImage" : "profileImage" + name;
+    }
+
+    /**
+     * Picks the size of the smallest variant that covers a view.
+     *
+     * @param viewSizePx The longest side of the view, in pixels; 0 or less if not known.
+     * @return The index into {@link #SIZES}, or -1 if only the full image covers the view.
+     */
+    static int pickSize(int viewSizePx) {
+        if (viewSizePx <= 0) {
+            return -1;
+        }
+        for (int i = 0; i < SIZES.length; i++) {
+            // Integer arithmetic, so a variant exactly at the limit is not lost to rounding.
+            if (SIZES[i] * 100L >= (long) viewSizePx * MIN_COVERAGE_PERCENT) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Picks the URL a view should load: the smallest variant that covers it, or the next larger one
+     * that exists, falling back to the full image, or to the largest variant if there is no full image.
+     *
+     * @param viewSizePx The longest side of the view, in pixels; 0 or less if not known.
+     * @param urls       The URLs of the reduced variants in the order of {@link #SIZES}, each possibly null.
+     * @param original   The URL of the full image, or null.
+     * @return The URL, or null if the user has no profile image.
+     */
+    @Nullable
+    public static String pick(int viewSizePx, @Nullable String[] urls, @Nullable String original) {
+        int index = pickSize(viewSizePx);
+        if (urls != null && index >= 0) {
+            for (int i = index; i < urls.length; i++) {
+                if (urls[i] != null && !urls[i].isEmpty()) {
+                    return urls[i];
+                }
+            }
+        }
+        if (original == null && urls != null) {
+            for (int i = urls.length - 1; i >= 0; i--) {
+                if (urls[i] != null && !urls[i].isEmpty()) {
+                    return urls[i];
+                }
+            }
+        }
+        return original;
+    }
+}
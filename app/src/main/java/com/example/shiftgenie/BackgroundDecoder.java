@@ -0,0 +1,165 @@
+package com.example.shiftgenie;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The BackgroundDecoder class moves the expensive part of a database callback off the main thread.
+ * Decoding snapshots with {@code getValue(Class)} is reflection-based, and doing it for thousands of
+ * children on the main thread drops frames. A job decodes, filters and aggregates on a small pool of
+ * background threads, then posts only its final result back to the main thread.
+ *
+ * <p>Each job is bound to a lifecycle: when the screen is destroyed the job is cancelled and its
+ * result is never delivered, so callbacks never touch a detached fragment. Firebase snapshots are
+ * immutable and can be read from any thread.</p>
+ */
+public final class BackgroundDecoder {
+
+    private static final String TAG = "BackgroundDecoder";  // Tag used for logging.
+    private static final int THREADS = 2;                   // Background threads decoding snapshots.
+    private static final int QUEUE_CAPACITY = 32;           // Jobs that may wait for a thread.
+    private static final long KEEP_ALIVE_SECONDS = 30;      // Idle time before the threads stop.
+
+    private static final Handler MAIN = new Handler(Looper.getMainLooper()); // Delivers results on the main thread.
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();     // Pool running the jobs.
+
+    private BackgroundDecoder() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Work done on a background thread.
+     *
+     * @param <R> The type of the result.
+     */
+    public interface Work<R> {
+        R run();
+    }
+
+    /**
+     * Callback receiving the result of a job on the main thread.
+     *
+     * @param <R> The type of the result.
+     */
+    public interface Callback<R> {
+        void onResult(R result);
+    }
+
+    /**
+     * A submitted job, which can be cancelled before its result is delivered.
+     */
+    public static final class Job implements LifecycleEventObserver {
+        private volatile boolean cancelled;     // Whether the result must not be delivered.
+        private Future<?> future;               // The running or queued work, or null if it ran inline.
+        private Lifecycle lifecycle;            // The lifecycle the job is bound to.
+
+        /**
+         * Cancels the job. Its result is dropped, and the work is interrupted if it has not finished.
+         * Must be called on the main thread.
+         */
+        public void cancel() {
+            cancelled = true;
+            if (future != null) {
+                future.cancel(true);
+            }
+            lifecycle.removeObserver(this);
+        }
+
+        /**
+         * Checks whether the job was cancelled. Long-running work may poll this to stop early.
+         *
+         * @return True if the job was cancelled.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+            if (event == Lifecycle.Event.ON_DESTROY) {
+                cancel();
+            }
+        }
+    }
+
+    /**
+     * Runs work on a background thread and delivers its result on the main thread while the lifecycle
+     * is not destroyed. Must be called on the main thread. When all threads are busy and the queue is
+     * full, the work runs on the calling thread instead, as it did before it was moved off the main thread.
+     *
+     * @param owner    The lifecycle the result belongs to, such as a fragment's view lifecycle.
+     * @param work     The work to run in the background.
+     * @param callback The callback receiving the result on the main thread.
+     * @param <R>      The type of the result.
+     * @return The job, which can be cancelled.
+     */
+    public static <R> Job submit(LifecycleOwner owner, Work<R> work, Callback<R> callback) {
+        Job job = new Job();
+        job.lifecycle = owner.getLifecycle();
+        if (job.lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            job.cancelled = true;
+            return job;
+        }
+        job.lifecycle.addObserver(job);
+
+        job.future = EXECUTOR.submit(() -> {
+            if (job.cancelled) {
+                return;
+            }
+            R result;
+            try {
+                result = work.run();
+            } catch (RuntimeException e) {
+                // A future would swallow the exception silently, so log it before dropping the result.
+                Log.w(TAG, "Background decoding failed", e);
+                return;
+            }
+            MAIN.post(() -> {
+                if (!job.cancelled) {
+                    job.lifecycle.removeObserver(job);
+                    callback.onResult(result);
+                }
+            });
+        });
+        return job;
+    }
+
+    /**
+     * Creates the bounded pool running the jobs.
+     *
+     * @return The executor.
+     */
+    private static ThreadPoolExecutor createExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(() -> {
+                        // Decode at background priority so the main thread keeps its frames.
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }, "decoder-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    Log.w(TAG, "Decode queue full, running on the calling thread");
+                    runnable.run();
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.shiftgenie;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseException;
+import com.google.firebase.database.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ChildListSync class keeps a {@link KeyedList} in step with the children of a Firebase query.
+ * Instead of re-reading the whole node on every change, it applies each added, changed or removed
+ * child to the list and submits a copy of the list to a {@link Sink}, usually a
+ * {@code ListAdapter} whose background diff rebinds only the rows that changed, so editing one shift
+ * rebinds one row.
+ *
+ * <p>Children are decoded on a background thread with the {@link BackgroundDecoder}. Events that
+ * arrive while a batch is decoding are queued and decoded as the next batch, so the initial load of
+ * thousands of children is decoded off the main thread in a few batches, and changes are always
+ * applied in the order they happened. Decoded batches are dropped once the lifecycle is destroyed.</p>
+ *
+ * <p>Several syncs may share one list, for example one per month bucket of a user's shifts; each
+ * prefixes its keys so its rows stay together. Callbacks arrive on the main thread.</p>
+ *
+ * @param <T> The type of the items.
+ */
+public final class ChildListSync<T> implements ChildEventListener {
+
+    private static final String TAG = "ChildListSync"; // Tag used for logging.
+
+    private final KeyedList<T> list;                    // The list kept in step with the query.
+    private final String keyPrefix;                     // Prefix added to the keys of this sync's rows.
+    private final Decoder<T> decoder;                   // Decodes a child into an item.
+    private final Sink<T> sink;                         // Receives a copy of the list after each change.
+    private final ErrorListener errorListener;          // Notified if the query is cancelled.
+    private final LifecycleOwner owner;                 // Lifecycle the decoded batches belong to.
+    private Query query;                                // The query listened to, or null if detached.
+    private ArrayList<Delta<DataSnapshot>> pending = new ArrayList<>(); // Children waiting to be decoded, in event order.
+    private BackgroundDecoder.Job decoding;             // The batch being decoded, or null if none.
+    private Finisher<T> finisher;                       // Completes decoded items on the main thread, or null.
+    private ChangeListener<T> changeListener;           // Notified of each row put or removed, or null.
+
+    /**
+     * A change to one child: its key and its snapshot or decoded item, or null if its row is to be removed.
+     *
+     * @param <T> The type of the value, a snapshot before decoding and an item after.
+     */
+    private static final class Delta<T> {
+        final String key;   // Key of the child.
+        final T item;       // The snapshot or decoded item, or null to remove the row.
+
+        Delta(String key, T item) {
+            this.key = key;
+            this.item = item;
+        }
+    }
+
+    /**
+     * Decodes a child snapshot into a list item.
+     *
+     * @param <T> The type of the items.
+     */
+    public interface Decoder<T> {
+        /**
+         * Decodes a child.
+         *
+         * @param snapshot The snapshot of the child.
+         * @return The item, or null to leave the child out of the list.
+         */
+        @Nullable
+        T decode(@NonNull DataSnapshot snapshot);
+    }
+
+    /**
+     * Completes a decoded item on the main thread, just before it enters the list, with state that
+     * only the main thread may read. Items may be immutable, so the finisher returns the item to insert.
+     *
+     * @param <T> The type of the items.
+     */
+    public interface Finisher<T> {
+        @NonNull
+        T finish(@NonNull T item);
+    }
+
+    /**
+     * Receives the list after it changed, such as a {@code ListAdapter}'s {@code submitList} or a
+     * {@code MutableLiveData}'s {@code setValue}. Called on the main thread.
+     *
+     * @param <T> The type of the items.
+     */
+    public interface Sink<T> {
+        void submitList(@NonNull List<T> items);
+    }
+
+    /**
+     * Listener notified of each row the sync puts into or removes from the list, before the list is
+     * submitted, so state derived from the rows, such as a search index, can follow the changes one
+     * row at a time. Only changes from the query are reported, not the rows dropped by
+     * {@link #detachAndClear()}. Called on the main thread.
+     *
+     * @param <T> The type of the items.
+     */
+    public interface ChangeListener<T> {
+        void onPut(@NonNull String key, @NonNull T item);
+
+        void onRemove(@NonNull String key);
+    }
+
+    /**
+     * Listener notified when the query is cancelled, for example because access was denied.
+     */
+    public interface ErrorListener {
+        void onError(@NonNull DatabaseError error);
+    }
+
+    /**
+     * Creates a sync that is not yet listening.
+     *
+     * @param list          The list to keep in step with the query.
+     * @param keyPrefix     The prefix added to every key, or "" for none.
+     * @param decoder       Decodes a child into an item.
+     * @param sink          Receives a copy of the list after each change.
+     * @param owner         The lifecycle the list belongs to, such as a fragment's view lifecycle or a ViewModel.
+     * @param errorListener Notified if the query is cancelled.
+     */
+    public ChildListSync(KeyedList<T> list, String keyPrefix, Decoder<T> decoder,
+                         Sink<T> sink, LifecycleOwner owner, ErrorListener errorListener) {
+        this.list = list;
+        this.keyPrefix = keyPrefix;
+        this.decoder = decoder;
+        this.sink = sink;
+        this.owner = owner;
+        this.errorListener = errorListener;
+    }
+
+    /**
+     * Sets the finisher completing decoded items on the main thread.
+     *
+     * @param finisher The finisher, or null for none.
+     */
+    public void setFinisher(@Nullable Finisher<T> finisher) {
+        this.finisher = finisher;
+    }
+
+    /**
+     * Sets the listener notified of each row put or removed.
+     *
+     * @param changeListener The listener, or null for none.
+     */
+    public void setChangeListener(@Nullable ChangeListener<T> changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Starts listening to a query. A sync listens to one query at a time.
+     *
+     * @param query The query.
+     */
+    public void attach(Query query) {
+        detach();
+        this.query = query;
+        query.addChildEventListener(this);
+    }
+
+    /**
+     * Stops listening and drops the children not yet applied. The rows already in the list are kept.
+     */
+    public void detach() {
+        if (query != null) {
+            query.removeEventListener(this);
+            query = null;
+        }
+        if (decoding != null) {
+            decoding.cancel();
+            decoding = null;
+        }
+        pending.clear();
+    }
+
+    /**
+     * Stops listening and removes this sync's rows from the list.
+     */
+    public void detachAndClear() {
+        detach();
+        int size = list.size();
+        list.removePrefix(keyPrefix);
+        if (list.size() != size) {
+            sink.submitList(list.snapshot());
+        }
+    }
+
+    @Override
+    public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        enqueue(new Delta<>(snapshot.getKey(), snapshot));
+    }
+
+    @Override
+    public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        enqueue(new Delta<>(snapshot.getKey(), snapshot));
+    }
+
+    @Override
+    public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+        // Removals are queued too, so they are applied in order with the changes before them.
+        enqueue(new Delta<>(snapshot.getKey(), null));
+    }
+
+    @Override
+    public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        // Rows are ordered by key, which never changes, so a move in the query's order moves no row.
+    }
+
+    @Override
+    public void onCancelled(@NonNull DatabaseError error) {
+        errorListener.onError(error);
+    }
+
+    /**
+     * Queues a change to a child for decoding.
+     *
+     * @param change The key and snapshot of the child, or a null snapshot if it was removed.
+     */
+    private void enqueue(Delta<DataSnapshot> change) {
+        pending.add(change);
+        if (decoding == null) {
+            decodeNextBatch();
+        }
+    }
+
+    /**
+     * Decodes the queued children on a background thread and applies them when done.
+     */
+    private void decodeNextBatch() {
+        ArrayList<Delta<DataSnapshot>> batch = pending;
+        pending = new ArrayList<>();
+        decoding = BackgroundDecoder.submit(owner, () -> decode(batch), deltas -> {
+            decoding = null;
+            apply(deltas);
+            if (!pending.isEmpty()) {
+                decodeNextBatch();
+            }
+        });
+    }
+
+    /**
+     * Decodes a batch of children. Runs on a background thread.
+     *
+     * @param batch The changes, in event order.
+     * @return The decoded changes, in the same order.
+     */
+    private List<Delta<T>> decode(List<Delta<DataSnapshot>> batch) {
+        List<Delta<T>> deltas = new ArrayList<>(batch.size());
+        for (Delta<DataSnapshot> change : batch) {
+            T item = null;
+            if (change.item != null) {
+                try {
+                    item = decoder.decode(change.item);
+                } catch (DatabaseException e) {
+                    // A malformed child is left out rather than stopping the whole sync.
+                    Log.w(TAG, "Skipping malformed child " + change.key, e);
+                }
+            }
+            deltas.add(new Delta<>(change.key, item));
+        }
+        return deltas;
+    }
+
+    /**
+     * Applies decoded children to the list and submits the result to the sink once per batch.
+     * A child that no longer decodes to an item has its row removed.
+     *
+     * @param deltas The decoded children, in event order.
+     */
+    private void apply(List<Delta<T>> deltas) {
+        boolean changed = false;
+        for (Delta<T> delta : deltas) {
+            String key = keyPrefix + delta.key;
+            if (delta.item == null) {
+                if (list.remove(key) >= 0) {
+                    changed = true;
+                    if (changeListener != null) {
+                        changeListener.onRemove(key);
+                    }
+                }
+                continue;
+            }
+            T item = finisher != null ? finisher.finish(delta.item) : delta.item;
+            list.put(key, item);
+            changed = true;
+            if (changeListener != null) {
+                changeListener.onPut(key, item);
+            }
+        }
+        if (changed) {
+            sink.submitList(list.snapshot());
+        }
+    }
+}
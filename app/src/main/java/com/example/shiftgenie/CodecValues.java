@@ -0,0 +1,108 @@
+package com.example.shiftgenie;
+
+import androidx.annotation.Nullable;
+
+import java.util.Map;
+
+/**
+ * The CodecValues class converts raw database values, as found in the maps returned by
+ * {@code DataSnapshot.getValue()}, into the field types of the models. The database returns whole
+ * numbers as {@link Long}, other numbers as {@link Double} and text as {@link String}; values written
+ * by older versions may use a different type than today, so every conversion accepts all of them
+ * instead of failing the whole record.
+ */
+final class CodecValues {
+
+    private CodecValues() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Converts a raw value to a string.
+     *
+     * @param value A string, number, boolean or null.
+     * @return The text, or null if the value is missing or not a scalar.
+     */
+    @Nullable
+    static String toString(@Nullable Object value) {
+        if (value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof Long || value instanceof Boolean) {
+            return String.valueOf(value);
+        }
+        if (value instanceof Double) {
+            // Whole numbers read back as "25", not "25.0".
+            double number = (Double) value;
+            return number == Math.rint(number) && !Double.isInfinite(number) ? String.valueOf((long) number) : String.valueOf(number);
+        }
+        return null;
+    }
+
+    /**
+     * Converts a raw value to a long.
+     *
+     * @param value A number, a numeric string or null.
+     * @return The value, rounded if it has a fraction, or 0 if it is missing or not numeric.
+     */
+    static long toLong(@Nullable Object value) {
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        if (value instanceof Number) {
+            return Math.round(((Number) value).doubleValue());
+        }
+        if (value instanceof String) {
+            try {
+                return Math.round(Double.parseDouble(((String) value).trim()));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Converts a raw value to an int.
+     *
+     * @param value A number, a numeric string or null.
+     * @return The value, clamped to the int range, or 0 if it is missing or not numeric.
+     */
+    static int toInt(@Nullable Object value) {
+        long number = toLong(value);
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, number));
+    }
+
+    /**
+     * Converts a raw value to a double.
+     *
+     * @param value A number, a numeric string or null.
+     * @return The value, or 0 if it is missing or not numeric.
+     */
+    static double toDouble(@Nullable Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Puts a string into an encoded record unless it is null, since a null child does not exist in the database.
+     *
+     * @param record The encoded record.
+     * @param key    The child key.
+     * @param value  The value, or null.
+     */
+    static void putIfPresent(Map<String, Object> record, String key, @Nullable String value) {
+        if (value != null) {
+            record.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.shiftgenie;
+
+import android.content.Context;
+import android.content.Intent;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.auth.api.signin.GoogleSignIn;
+import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
+import com.google.android.gms.auth.api.signin.GoogleSignInClient;
+import com.google.android.gms.auth.api.signin.GoogleSignInOptions;
+import com.google.android.gms.common.api.ApiException;
+import com.google.android.gms.tasks.Task;
+
+/**
+ * The GoogleAccounts class holds the app's one {@link GoogleSignInClient}, built on first use and
+ * kept for the life of the process, and implements the {@link GoogleLoginFlow.Accounts} of the
+ * login flow with it. Signing out of the app also signs out of the Google account, so the next
+ * sign-in shows the account picker; access is never revoked, so picking the same account again
+ * needs no new consent.
+ */
+public final class GoogleAccounts implements GoogleLoginFlow.Accounts {
+
+    private static GoogleAccounts instance; // The process-wide accounts.
+
+    private final GoogleSignInClient client; // Client configured to request an ID token and the email.
+
+    /**
+     * Constructor to build the client.
+     *
+     * @param context The application context.
+     */
+    private GoogleAccounts(Context context) {
+        // Request the user's ID token, for Firebase, and email.
+        GoogleSignInOptions options = new GoogleSignInOptions.Builder(GoogleSignInOptions.DEFAULT_SIGN_IN)
+                .requestIdToken(context.getString(R.string.default_web_client_id)) // Retrieve the web client ID from your Firebase console.
+                .requestEmail()
+                .build();
+        this.client = GoogleSignIn.getClient(context, options);
+    }
+
+    /**
+     * Returns the process-wide accounts, building the client on first use.
+     *
+     * @param context Any context.
+     * @return The accounts.
+     */
+    public static synchronized GoogleAccounts get(Context context) {
+        if (instance == null) {
+            instance = new GoogleAccounts(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Signs in with the account last used, without any UI. The result is often available at once.
+     *
+     * @param callback Receives the account's ID token, or fails if the user must pick an account.
+     */
+    @Override
+    public void silentSignIn(GoogleLoginFlow.Callback<String> callback) {
+        client.silentSignIn().addOnCompleteListener(task -> deliver(task, callback));
+    }
+
+    /**
+     * Gets the intent showing the account picker.
+     *
+     * @return The intent.
+     */
+    public Intent signInIntent() {
+        return client.getSignInIntent();
+    }
+
+    /**
+     * Reads the ID token from the result of the account picker.
+     *
+     * @param data     The result intent, or null if the picker was cancelled.
+     * @param callback Receives the ID token, or the failure.
+     */
+    public static void readSignInResult(@Nullable Intent data, GoogleLoginFlow.Callback<String> callback) {
+        deliver(GoogleSignIn.getSignedInAccountFromIntent(data), callback);
+    }
+
+    /**
+     * Signs out of the Google account, so the next sign-in shows the account picker.
+     */
+    public void signOut() {
+        client.signOut();
+    }
+
+    /**
+     * Passes the ID token of a completed sign-in on.
+     *
+     * @param task     The sign-in.
+     * @param callback Receives the ID token, or the failure.
+     */
+    private static void deliver(Task<GoogleSignInAccount> task, GoogleLoginFlow.Callback<String> callback) {
+        try {
+            GoogleSignInAccount account = task.getResult(ApiException.class);
+            if (account == null || account.getIdToken() == null) {
+                callback.onFailure(new IllegalStateException("No ID token"));
+                return;
+            }
+            callback.onSuccess(account.getIdToken());
+        } catch (ApiException e) {
+            callback.onFailure(e);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.shiftgenie;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The GoogleLoginFlow class runs a Google sign-in from the tap to the screen that follows it. It
+ * first tries a silent sign-in with the Google account already on the device, and only asks for the
+ * interactive account picker if that fails. Once Firebase has signed the user in, it checks whether
+ * the user has a profile and warms up the homepage data at the same time, so a returning user waits
+ * for the slower of the two instead of both in a row, and a new user is asked for their details as
+ * soon as the check answers.
+ *
+ * <p>The flow only talks to its dependencies through the interfaces below, so it can be driven by
+ * fakes in tests, and it measures each stage with its {@link Clock}. A flow runs once;
+ * every call must be made on one thread, the main thread in the app.</p>
+ */
+public final class GoogleLoginFlow {
+
+    /**
+     * Source of the current time, in milliseconds, such as the elapsed realtime.
+     */
+    public interface Clock {
+        long nowMillis();
+    }
+
+    /**
+     * Receives the outcome of an asynchronous call.
+     *
+     * @param <T> The type of the result.
+     */
+    public interface Callback<T> {
+        void onSuccess(T result);
+
+        void onFailure(Exception e);
+    }
+
+    /**
+     * The Google accounts on the device.
+     */
+    public interface Accounts {
+        /**
+         * Signs in with the account last used, without any UI.
+         *
+         * @param callback Receives the account's ID token, or fails if the user must pick an account.
+         */
+        void silentSignIn(Callback<String> callback);
+    }
+
+    /**
+     * Firebase Authentication.
+     */
+    public interface Auth {
+        /**
+         * Signs in to Firebase with a Google ID token.
+         *
+         * @param idToken  The ID token.
+         * @param callback Receives the signed-in user's ID.
+         */
+        void signInWithGoogle(String idToken, Callback<String> callback);
+    }
+
+    /**
+     * The user profiles in the database.
+     */
+    public interface Directory {
+        /**
+         * Checks whether a user has a profile.
+         *
+         * @param uid      The user ID.
+         * @param callback Receives whether the profile exists.
+         */
+        void exists(String uid, Callback<Boolean> callback);
+    }
+
+    /**
+     * Loads the data of the homepage ahead of showing it.
+     */
+    public interface Warmup {
+        /**
+         * Starts loading; {@code done} runs once, when the data arrived or loading gave up.
+         *
+         * @param uid  The signed-in user's ID.
+         * @param done Run when the warm-up ends.
+         */
+        void warm(String uid, Runnable done);
+    }
+
+    /**
+     * Listener notified of the steps the screen has to take.
+     */
+    public interface Listener {
+        /**
+         * The silent sign-in failed; the screen must show the account picker and pass its result
+         * to {@link #onInteractiveResult} or {@link #onInteractiveFailed}.
+         */
+        void onInteractiveSignInNeeded();
+
+        /**
+         * The user is signed in.
+         *
+         * @param uid     The user's ID.
+         * @param newUser Whether the user has no profile yet and must be asked for their details.
+         * @param metrics The latency of the flow.
+         */
+        void onSignedIn(String uid, boolean newUser, Metrics metrics);
+
+        /**
+         * The flow failed.
+         *
+         * @param message The message to show.
+         * @param e       The cause.
+         */
+        void onFailed(String message, Exception e);
+    }
+
+    /**
+     * The latency of one sign-in, from the tap to the decision of the screen to show.
+     */
+    public static final class Metrics {
+        private final boolean silent;       // Whether the silent sign-in succeeded.
+        private final long googleMs;        // Time until the Google ID token was known, including the picker.
+        private final long firebaseMs;      // Time Firebase took to sign in.
+        private final long readyMs;         // Time from the Firebase sign-in until the next screen was decided.
+        private final long totalMs;         // Time from the tap until the next screen was decided.
+
+        /**
+         * Constructor to initialize all latencies.
+         *
+         * @param silent     Whether the silent sign-in succeeded.
+         * @param googleMs   Time until the Google ID token was known.
+         * @param firebaseMs Time Firebase took to sign in.
+         * @param readyMs    Time from the Firebase sign-in until the next screen was decided.
+         * @param totalMs    Time from the tap until the next screen was decided.
+         */
+        Metrics(boolean silent, long googleMs, long firebaseMs, long readyMs, long totalMs) {
+            this.silent = silent;
+            this.googleMs = googleMs;
+            this.firebaseMs = firebaseMs;
+            this.readyMs = readyMs;
+            this.totalMs = totalMs;
+        }
+
+        /**
+         * Checks whether the silent sign-in succeeded, so no picker was shown.
+         *
+         * @return True for the fast path.
+         */
+        public boolean isSilent() {
+            return silent;
+        }
+
+        /**
+         * Gets the time until the Google ID token was known, including the picker.
+         *
+         * @return The time in milliseconds.
+         */
+        public long getGoogleMs() {
+            return googleMs;
+        }
+
+        /**
+         * Gets the time Firebase took to sign in.
+         *
+         * @return The time in milliseconds.
+         */
+        public long getFirebaseMs() {
+            return firebaseMs;
+        }
+
+        /**
+         * Gets the time from the Firebase sign-in until the next screen was decided, covering the
+         * profile check and the warm-up running together.
+         *
+         * @return The time in milliseconds.
+         */
+        public long getReadyMs() {
+            return readyMs;
+        }
+
+        /**
+         * Gets the time from the tap until the next screen was decided.
+         *
+         * @return The time in milliseconds.
+         */
+        public long getTotalMs() {
+            return totalMs;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return (silent ? "silent" : "interactive") + " total=" + totalMs + "ms google=" + googleMs
+                    + "ms firebase=" + firebaseMs + "ms ready=" + readyMs + "ms";
+        }
+    }
+
+    private final Accounts accounts;    // The Google accounts on the device.
+    private final Auth auth;            // Firebase Authentication.
+    private final Directory directory;  // The user profiles.
+    private final Warmup warmup;        // Loads the homepage data.
+    private final Clock clock;          // Source of the current time.
+    private final Listener listener;    // Notified of the steps to take.
+
+    private boolean started;            // Whether the flow has started.
+    private long startedAt;             // Time of the tap.
+    private long tokenAt;               // Time the Google ID token was known.
+    private long authAt;                // Time Firebase signed in.
+    private boolean silent;             // Whether the silent sign-in succeeded.
+    private String uid;                 // The signed-in user's ID, once known.
+    private Boolean exists;             // Whether the user has a profile, once the check answered.
+    private boolean warm;               // Whether the warm-up ended.
+    private boolean done;               // Whether the flow ended.
+
+    /**
+     * Constructor to initialize a flow.
+     *
+     * @param accounts  The Google accounts on the device.
+     * @param auth      Firebase Authentication.
+     * @param directory The user profiles.
+     * @param warmup    Loads the homepage data.
+     * @param clock     Source of the current time, in milliseconds.
+     * @param listener  Notified of the steps to take.
+     */
+    public GoogleLoginFlow(Accounts accounts, Auth auth, Directory directory, Warmup warmup,
+                           Clock clock, Listener listener) {
+        this.accounts = accounts;
+        this.auth = auth;
+        this.directory = directory;
+        this.warmup = warmup;
+        this.clock = clock;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts the flow with a silent sign-in.
+     */
+    public void start() {
+        started = true;
+        startedAt = clock.nowMillis();
+        accounts.silentSignIn(new Callback<String>() {
+            @Override
+            public void onSuccess(String idToken) {
+                silent = true;
+                signInToFirebase(idToken);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                // No usable account on the device yet; let the user pick one.
+                listener.onInteractiveSignInNeeded();
+            }
+        });
+    }
+
+    /**
+     * Continues the flow with the ID token of the account picked by the user. A flow created after
+     * the picker was shown, because the screen was recreated, starts here.
+     *
+     * @param idToken The ID token.
+     */
+    public void onInteractiveResult(String idToken) {
+        if (!started) {
+            started = true;
+            startedAt = clock.nowMillis();
+        }
+        signInToFirebase(idToken);
+    }
+
+    /**
+     * Ends the flow after the account picker failed or was cancelled.
+     *
+     * @param e The cause.
+     */
+    public void onInteractiveFailed(Exception e) {
+        fail("Google Sign In failed", e);
+    }
+
+    /**
+     * Signs in to Firebase with a Google ID token.
+     *
+     * @param idToken The ID token.
+     */
+    private void signInToFirebase(String idToken) {
+        tokenAt = clock.nowMillis();
+        auth.signInWithGoogle(idToken, new Callback<String>() {
+            @Override
+            public void onSuccess(String signedInUid) {
+                authAt = clock.nowMillis();
+                uid = signedInUid;
+                checkAndWarm();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                fail("Firebase Authentication failed.", e);
+            }
+        });
+    }
+
+    /**
+     * Checks the user's profile and warms up the homepage at the same time.
+     */
+    private void checkAndWarm() {
+        directory.exists(uid, new Callback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean found) {
+                exists = found;
+                maybeFinish();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                fail("Database error: " + e.getMessage(), e);
+            }
+        });
+        warmup.warm(uid, () -> {
+            warm = true;
+            maybeFinish();
+        });
+    }
+
+    /**
+     * Ends the flow once the next screen is known: at once for a new user, who is asked for their
+     * details first, and after the warm-up for a returning user.
+     */
+    private void maybeFinish() {
+        if (done || exists == null || (exists && !warm)) {
+            return;
+        }
+        done = true;
+        long now = clock.nowMillis();
+        listener.onSignedIn(uid, !exists, new Metrics(silent, tokenAt - startedAt, authAt - tokenAt,
+                now - authAt, now - startedAt));
+    }
+
+    /**
+     * Ends the flow with a failure, once.
+     *
+     * @param message The message to show.
+     * @param e       The cause.
+     */
+    private void fail(String message, @Nullable Exception e) {
+        if (done) {
+            return;
+        }
+        done = true;
+        listener.onFailed(message, e);
+    }
+}
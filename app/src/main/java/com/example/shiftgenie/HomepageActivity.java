@@ -7,19 +7,40 @@ import android.view.WindowManager;
 import android.widget.FrameLayout;
 import android.widget.ImageButton;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentTransaction;
 
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+
 /**
  * The HomepageActivity class represents the main activity for the application's homepage. 
  * This activity handles the navigation between different fragments such as Workplace, 
  * Shift Manager, Monthly Report, Profile, and Users.
+ *
+ * <p>Each tab's fragment is created the first time the tab is selected and then kept, hidden while
+ * another tab is shown, so returning to a tab shows it as it was left without recreating its views or
+ * fetching its data again. The fragment manager restores the tabs after a configuration change, and
+ * the data of the Users and Monthly Report tabs is held in activity-scoped ViewModels.</p>
  */
 public class HomepageActivity extends AppCompatActivity {
 
+    private static final String STATE_SELECTED_TAB = "selectedTab"; // Saved state key of the selected tab.
+    private static final String TAB_WORKPLACE = "workplace";          // Fragment tag of the Workplace tab.
+    private static final String TAB_SHIFT_MANAGER = "shiftManager";   // Fragment tag of the Shift Manager tab.
+    private static final String TAB_MONTHLY_REPORT = "monthlyReport"; // Fragment tag of the Monthly Report tab.
+    private static final String TAB_PROFILE = "profile";              // Fragment tag of the Profile tab.
+    private static final String TAB_USERS = "users";                  // Fragment tag of the Users tab.
+    private static final String[] TABS = {
+            TAB_WORKPLACE, TAB_SHIFT_MANAGER, TAB_MONTHLY_REPORT, TAB_PROFILE, TAB_USERS
+    }; // Fragment tags of all tabs.
+
     private FrameLayout fragmentContainer;
     private ImageButton btnHome, btnShiftManager, btnMonthlyReport, btnProfile, btnUsers;
+    private String selectedTab; // Fragment tag of the tab shown.
 
     /**
      * Called when the activity is first created. This is where you should do all of your 
@@ -45,62 +66,139 @@ public class HomepageActivity extends AppCompatActivity {
         btnProfile = findViewById(R.id.btn_profile);
         btnUsers = findViewById(R.id.btn_users);
 
-        // Set default fragment
-        loadFragment(new WorkplaceFragment());
-        updateButtonColors(btnHome);
+        // Move any shifts still stored in the legacy flat layout into the user's month buckets, once per user.
+        FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
+        if (currentUser != null) {
+            ShiftMigration.migrateUser(currentUser.getUid(), currentUser.getEmail());
+        }
+
+        // Set default fragment; after a configuration change the fragment manager has restored the tabs.
+        if (savedInstanceState == null) {
+            selectTab(TAB_WORKPLACE);
+        } else {
+            selectedTab = savedInstanceState.getString(STATE_SELECTED_TAB, TAB_WORKPLACE);
+            updateButtonColors(buttonOf(selectedTab));
+        }
 
         // Set onClick listeners for navigation buttons
         btnHome.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                loadFragment(new WorkplaceFragment());
-                updateButtonColors(btnHome);
+                selectTab(TAB_WORKPLACE);
             }
         });
 
         btnShiftManager.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                loadFragment(new ShiftFragment());
-                updateButtonColors(btnShiftManager);
+                selectTab(TAB_SHIFT_MANAGER);
             }
         });
 
         btnMonthlyReport.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                loadFragment(new MonthlyReportFragment());
-                updateButtonColors(btnMonthlyReport);
+                selectTab(TAB_MONTHLY_REPORT);
             }
         });
 
         btnProfile.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                loadFragment(new ProfileFragment());
-                updateButtonColors(btnProfile);
+                selectTab(TAB_PROFILE);
             }
         });
 
         btnUsers.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                loadFragment(new UsersFragment());
-                updateButtonColors(btnUsers);
+                selectTab(TAB_USERS);
             }
         });
     }
 
     /**
-     * Loads the specified fragment into the fragment container.
+     * Saves the selected tab, so it is selected again after a configuration change.
+     *
+     * @param outState The Bundle in which to place the saved state.
+     */
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putString(STATE_SELECTED_TAB, selectedTab);
+    }
+
+    /**
+     * Shows a tab in the fragment container and hides the others. The tab's fragment is added the
+     * first time it is selected; afterwards the retained fragment is shown again as it was left.
      *
-     * @param fragment The fragment to be loaded into the container.
+     * @param tab The fragment tag of the tab.
      */
-    private void loadFragment(Fragment fragment) {
-        FragmentTransaction transaction = getSupportFragmentManager().beginTransaction();
+    private void selectTab(String tab) {
+        if (tab.equals(selectedTab)) {
+            return;
+        }
+        FragmentManager fragmentManager = getSupportFragmentManager();
+        FragmentTransaction transaction = fragmentManager.beginTransaction();
         transaction.setCustomAnimations(R.anim.slide_in_right, R.anim.slide_out_left);
-        transaction.replace(R.id.fragment_container, fragment);
+        transaction.setReorderingAllowed(true);
+        for (String other : TABS) {
+            Fragment fragment = fragmentManager.findFragmentByTag(other);
+            if (fragment != null && !other.equals(tab) && !fragment.isHidden()) {
+                transaction.hide(fragment);
+            }
+        }
+        Fragment fragment = fragmentManager.findFragmentByTag(tab);
+        if (fragment == null) {
+            transaction.add(R.id.fragment_container, createTab(tab), tab);
+        } else {
+            transaction.show(fragment);
+        }
         transaction.commit();
+        selectedTab = tab;
+        updateButtonColors(buttonOf(tab));
+    }
+
+    /**
+     * Creates the fragment of a tab.
+     *
+     * @param tab The fragment tag of the tab.
+     * @return A new fragment for the tab.
+     */
+    private static Fragment createTab(String tab) {
+        switch (tab) {
+            case TAB_SHIFT_MANAGER:
+                return new ShiftFragment();
+            case TAB_MONTHLY_REPORT:
+                return new MonthlyReportFragment();
+            case TAB_PROFILE:
+                return new ProfileFragment();
+            case TAB_USERS:
+                return new UsersFragment();
+            default:
+                return new WorkplaceFragment();
+        }
+    }
+
+    /**
+     * Gets the navigation button of a tab.
+     *
+     * @param tab The fragment tag of the tab.
+     * @return The button selecting the tab.
+     */
+    private ImageButton buttonOf(String tab) {
+        switch (tab) {
+            case TAB_SHIFT_MANAGER:
+                return btnShiftManager;
+            case TAB_MONTHLY_REPORT:
+                return btnMonthlyReport;
+            case TAB_PROFILE:
+                return btnProfile;
+            case TAB_USERS:
+                return btnUsers;
+            default:
+                return btnHome;
+        }
     }
 
     /**
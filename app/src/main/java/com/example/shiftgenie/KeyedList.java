@@ -0,0 +1,149 @@
+package com.example.shiftgenie;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The KeyedList class is a list of items kept sorted by their database keys, which is the order
+ * Firebase returns children in when a query has no other ordering. Push IDs sort by creation time,
+ * so shifts stay in the order they were created.
+ *
+ * <p>Every change reports the position it touched, and {@link #snapshot()} hands a stable copy
+ * to a {@code ListAdapter}, whose diff rebinds only the rows that changed. Lookups are binary searches; inserts and
+ * removals shift the tail of the backing arrays like any array list.</p>
+ *
+ * @param <T> The type of the items.
+ */
+public final class KeyedList<T> {
+
+    private final ArrayList<String> keys = new ArrayList<>();   // Keys of the items, sorted.
+    private final ArrayList<T> items = new ArrayList<>();       // Items, in the order of their keys.
+    private final List<T> view = new AbstractList<T>() {        // Read-only view handed to adapters.
+        @Override
+        public T get(int index) {
+            return items.get(index);
+        }
+
+        @Override
+        public int size() {
+            return items.size();
+        }
+    };
+
+    /**
+     * Finds the position of a key.
+     *
+     * @param key The key.
+     * @return The position of the key if present; otherwise {@code -(insertion point) - 1}.
+     */
+    public int indexOf(String key) {
+        return Collections.binarySearch(keys, key);
+    }
+
+    /**
+     * Adds an item or replaces the item with the same key.
+     *
+     * @param key  The key of the item.
+     * @param item The item.
+     * @return The position of the item if it replaced an existing one; otherwise
+     * {@code -(position) - 1}, where position is where the new item was inserted.
+     */
+    public int put(String key, T item) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            items.set(index, item);
+            return index;
+        }
+        int position = -index - 1;
+        keys.add(position, key);
+        items.add(position, item);
+        return index;
+    }
+
+    /**
+     * Removes the item with a key.
+     *
+     * @param key The key of the item.
+     * @return The position the item had, or -1 if there was no such item.
+     */
+    public int remove(String key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return -1;
+        }
+        keys.remove(index);
+        items.remove(index);
+        return index;
+    }
+
+    /**
+     * Removes all items whose keys start with a prefix. Such keys are adjacent in sorted order,
+     * so the removed items form a single range.
+     *
+     * @param prefix The key prefix, such as a month bucket followed by "/".
+     * @return The start of the removed range; the number of removed items is the size difference.
+     */
+    public int removePrefix(String prefix) {
+        int start = indexOf(prefix);
+        if (start < 0) {
+            start = -start - 1;
+        }
+        int end = start;
+        while (end < keys.size() && keys.get(end).startsWith(prefix)) {
+            end++;
+        }
+        keys.subList(start, end).clear();
+        items.subList(start, end).clear();
+        return start;
+    }
+
+    /**
+     * Gets the item at a position.
+     *
+     * @param position The position.
+     * @return The item.
+     */
+    public T get(int position) {
+        return items.get(position);
+    }
+
+    /**
+     * Gets the item with a key.
+     *
+     * @param key The key.
+     * @return The item, or null if there is none.
+     */
+    public T find(String key) {
+        int index = indexOf(key);
+        return index >= 0 ? items.get(index) : null;
+    }
+
+    /**
+     * Gets the number of items.
+     *
+     * @return The number of items.
+     */
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Copies the items, for handing to a {@code ListAdapter}, which needs a list that no longer changes.
+     *
+     * @return A new list of the items, in key order.
+     */
+    public List<T> snapshot() {
+        return new ArrayList<>(items);
+    }
+
+    /**
+     * Gets a read-only view of the items that follows all later changes, for use as an adapter's data.
+     *
+     * @return The items, in key order.
+     */
+    public List<T> asList() {
+        return view;
+    }
+}
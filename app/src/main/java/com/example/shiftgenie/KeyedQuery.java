@@ -0,0 +1,76 @@
+package com.example.shiftgenie;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+
+/**
+ * The KeyedQuery class pairs a Firebase query with a key the app builds from the query's path and
+ * parameters, so the {@link LiveQueryRegistry} and the {@link QueryGateway} can tell queries apart
+ * without relying on the SDK's internal query classes. Two keyed queries with the same key must
+ * select the same data.
+ */
+public final class KeyedQuery {
+
+    private final String key;   // The reference's URL, followed by the query parameters if any.
+    private final Query query;  // The query.
+
+    /**
+     * Constructor to initialize a keyed query.
+     *
+     * @param key   The key.
+     * @param query The query.
+     */
+    private KeyedQuery(String key, Query query) {
+        this.key = key;
+        this.query = query;
+    }
+
+    /**
+     * Keys a whole node.
+     *
+     * @param ref The reference to the node.
+     * @return The keyed query, keyed by the reference's URL.
+     */
+    public static KeyedQuery of(DatabaseReference ref) {
+        return new KeyedQuery(ref.toString(), ref);
+    }
+
+    /**
+     * Keys a query over a node.
+     *
+     * @param ref    The reference to the node the query is built on.
+     * @param params The order and range of the query, such as "orderByChild=end&startAfter=123";
+     *               whatever text the caller builds, as long as it is the same exactly for the same query.
+     * @param query  The query.
+     * @return The keyed query.
+     */
+    public static KeyedQuery of(DatabaseReference ref, String params, Query query) {
+        return new KeyedQuery(ref.toString() + "?" + params, query);
+    }
+
+    /**
+     * Gets the key telling this query apart from others.
+     *
+     * @return The key.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the query.
+     *
+     * @return The query.
+     */
+    public Query getQuery() {
+        return query;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return key;
+    }
+}
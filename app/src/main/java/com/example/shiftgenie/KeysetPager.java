@@ -0,0 +1,241 @@
+package com.example.shiftgenie;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The KeysetPager class loads the children of a node ordered by key one page at a time, so a
+ * screen renders after fetching one page however large the node is. A page is requested with
+ * {@code startAfter(cursor).limitToFirst(pageSize)}, where the cursor is the last key of the page
+ * before it.
+ *
+ * <p>Pages stay live. Once a page has loaded, its listeners are moved from the limit query to the
+ * fixed key range the page covers, so children added or removed inside the range later are shown
+ * without shifting rows between pages. The last page, once it comes back short, is moved to the
+ * open range after the previous page, so children added at the end keep appearing.</p>
+ *
+ * <p>What a page listens to is up to its {@link Page}, usually a {@link ChildListSync} over the
+ * range, see {@link #syncPage}. All calls must be made on the main thread.</p>
+ */
+public final class KeysetPager {
+
+    private final Query orderedByKey;       // The node, ordered by key.
+    private final int pageSize;             // Maximum number of children in a requested page.
+    private final PageFactory pageFactory;  // Creates the listeners of each page.
+    private final List<Page> pages = new ArrayList<>(); // Listeners of the pages requested so far, in order.
+    private String cursor;                  // Last key of the last full page, or null before the first.
+    private Query probeQuery;               // Query of the page being loaded, or null if none is.
+    private ValueEventListener probe;       // Listener telling when the page being loaded has arrived.
+    private boolean exhausted;              // Whether the last page came back short.
+    private StateListener stateListener;    // Notified when loading starts or ends, or null.
+
+    /**
+     * A range of keys a page covers.
+     */
+    public static final class KeyRange {
+        private final String after; // The range starts after this key, or at the first key if null.
+        private final String last;  // The last key of the range, or null if it is open-ended.
+        private final int limit;    // Maximum number of children, or 0 for no limit.
+
+        /**
+         * Constructor to initialize all bounds of the range.
+         *
+         * @param after The key the range starts after, or null to start at the first key.
+         * @param last  The last key of the range, or null if it is open-ended.
+         * @param limit The maximum number of children, or 0 for no limit.
+         */
+        KeyRange(@Nullable String after, @Nullable String last, int limit) {
+            this.after = after;
+            this.last = last;
+            this.limit = limit;
+        }
+
+        /**
+         * Narrows a query ordered by key to the range.
+         *
+         * @param orderedByKey The query, ordered by key.
+         * @return The query over the range.
+         */
+        public Query apply(Query orderedByKey) {
+            Query query = after != null ? orderedByKey.startAfter(after) : orderedByKey;
+            if (last != null) {
+                query = query.endAt(last);
+            }
+            return limit > 0 ? query.limitToFirst(limit) : query;
+        }
+    }
+
+    /**
+     * The listeners of one page.
+     */
+    public interface Page {
+        /**
+         * Starts listening to a range, or moves the listeners to it. The rows already shown are kept.
+         *
+         * @param range The range of the page.
+         */
+        void listen(KeyRange range);
+
+        /**
+         * Stops listening. The rows already shown are kept.
+         */
+        void stop();
+    }
+
+    /**
+     * Creates the listeners of a new page.
+     */
+    public interface PageFactory {
+        Page createPage();
+    }
+
+    /**
+     * Listener notified when a page starts or finishes loading.
+     */
+    public interface StateListener {
+        void onPagingStateChanged(boolean loading, boolean exhausted);
+    }
+
+    /**
+     * Creates a pager that has not loaded any page yet.
+     *
+     * @param orderedByKey The node to page through, ordered by key.
+     * @param pageSize     The maximum number of children per page.
+     * @param pageFactory  Creates the listeners of each page.
+     */
+    public KeysetPager(Query orderedByKey, int pageSize, PageFactory pageFactory) {
+        this.orderedByKey = orderedByKey;
+        this.pageSize = pageSize;
+        this.pageFactory = pageFactory;
+    }
+
+    /**
+     * Makes a page that keeps a {@link ChildListSync} in step with the page's range of a query.
+     *
+     * @param sync         The sync showing the page.
+     * @param orderedByKey The node, ordered by key.
+     * @return The page.
+     */
+    public static Page syncPage(ChildListSync<?> sync, Query orderedByKey) {
+        return new Page() {
+            @Override
+            public void listen(KeyRange range) {
+                sync.attach(range.apply(orderedByKey));
+            }
+
+            @Override
+            public void stop() {
+                sync.detach();
+            }
+        };
+    }
+
+    /**
+     * Sets the listener notified when a page starts or finishes loading.
+     *
+     * @param stateListener The listener, or null for none.
+     */
+    public void setStateListener(@Nullable StateListener stateListener) {
+        this.stateListener = stateListener;
+    }
+
+    /**
+     * Requests the next page, unless one is loading or the last page has been loaded.
+     */
+    public void loadNextPage() {
+        if (isLoading() || exhausted) {
+            return;
+        }
+        String after = cursor;
+        KeyRange requested = new KeyRange(after, null, pageSize);
+        Page page = pageFactory.createPage();
+        pages.add(page);
+        page.listen(requested);
+
+        // The same query is already synced by the page, so this adds no download.
+        probeQuery = requested.apply(orderedByKey);
+        probe = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                String last = null;
+                for (DataSnapshot child : snapshot.getChildren()) {
+                    last = child.getKey();
+                }
+                probeQuery = null;
+                probe = null;
+                if (snapshot.getChildrenCount() < pageSize) {
+                    // The last page: keep listening past it for children added later.
+                    exhausted = true;
+                    page.listen(new KeyRange(after, null, 0));
+                } else {
+                    // A full page: pin it to the keys it covers.
+                    cursor = last;
+                    page.listen(new KeyRange(after, last, 0));
+                }
+                notifyState();
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                // The page reports the error itself; allow another attempt.
+                pages.remove(page);
+                page.stop();
+                probeQuery = null;
+                probe = null;
+                notifyState();
+            }
+        };
+        probeQuery.addListenerForSingleValueEvent(probe);
+        notifyState();
+    }
+
+    /**
+     * Checks whether a page is loading.
+     *
+     * @return True if a requested page has not arrived yet.
+     */
+    public boolean isLoading() {
+        return probe != null;
+    }
+
+    /**
+     * Checks whether the last page has been loaded.
+     *
+     * @return True if there are no more pages to request.
+     */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * Stops listening to every page. The rows already shown are kept; a detached pager is not reused.
+     */
+    public void detach() {
+        if (probeQuery != null) {
+            probeQuery.removeEventListener(probe);
+            probeQuery = null;
+            probe = null;
+        }
+        for (Page page : pages) {
+            page.stop();
+        }
+        pages.clear();
+    }
+
+    /**
+     * Notifies the state listener of the current state.
+     */
+    private void notifyState() {
+        if (stateListener != null) {
+            stateListener.onPagingStateChanged(isLoading(), exhausted);
+        }
+    }
+}
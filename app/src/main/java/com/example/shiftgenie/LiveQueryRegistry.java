@@ -0,0 +1,395 @@
+package com.example.shiftgenie;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The LiveQueryRegistry class shares one Firebase listener per query between every screen observing
+ * it. Queries are told apart by the key of their {@link KeyedQuery}, built from their path and
+ * parameters, so two screens observing the same user node share one listener, while a range of that
+ * node gets its own.
+ *
+ * <p>Observers are bound to a lifecycle and removed when it is destroyed, so a screen can never leak
+ * its listener. Subscribers are counted per query; when the last one leaves, the Firebase listener
+ * stays attached for a grace period, so a screen recreated after a configuration change, or a month
+ * paged away from and back to, finds its data without another query. An observer joining a query that
+ * is already live receives the latest data before {@code observe} returns.</p>
+ *
+ * <p>All calls must be made on the main thread, where Firebase also delivers its events.</p>
+ */
+public final class LiveQueryRegistry {
+
+    private static final String TAG = "LiveQueryRegistry";  // Tag used for logging.
+    static final long GRACE_PERIOD_MS = 5_000;              // Time a query stays live after its last subscriber leaves.
+
+    private static LiveQueryRegistry instance;              // The process-wide registry.
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper()); // Runs the delayed detaches.
+    private final Map<String, Entry> entries = new HashMap<>();             // Live queries by key.
+
+    /**
+     * A subscription of one observer to a query.
+     */
+    public interface Subscription {
+        /**
+         * Removes the observer. Calling it again, or after the lifecycle was destroyed, does nothing.
+         */
+        void cancel();
+    }
+
+    private LiveQueryRegistry() {
+        // Use getInstance().
+    }
+
+    /**
+     * Returns the process-wide registry.
+     *
+     * @return The registry.
+     */
+    public static synchronized LiveQueryRegistry getInstance() {
+        if (instance == null) {
+            instance = new LiveQueryRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Observes the value of a node until the lifecycle is destroyed or the subscription is cancelled.
+     *
+     * @param owner    The lifecycle the observer belongs to.
+     * @param ref      The node.
+     * @param listener Receives the value every time it changes.
+     * @return The subscription.
+     */
+    public Subscription observeValue(LifecycleOwner owner, DatabaseReference ref, ValueEventListener listener) {
+        return observe(owner, KeyedQuery.of(ref), listener, false);
+    }
+
+    /**
+     * Observes the value of a query until the lifecycle is destroyed or the subscription is cancelled.
+     *
+     * @param owner    The lifecycle the observer belongs to.
+     * @param query    The query.
+     * @param listener Receives the value every time it changes.
+     * @return The subscription.
+     */
+    public Subscription observeValue(LifecycleOwner owner, KeyedQuery query, ValueEventListener listener) {
+        return observe(owner, query, listener, false);
+    }
+
+    /**
+     * Observes the children of a node until the lifecycle is destroyed or the subscription is cancelled.
+     *
+     * @param owner    The lifecycle the observer belongs to.
+     * @param ref      The node.
+     * @param listener Receives every added, changed, moved or removed child.
+     * @return The subscription.
+     */
+    public Subscription observeChildren(LifecycleOwner owner, DatabaseReference ref, ChildEventListener listener) {
+        return observe(owner, KeyedQuery.of(ref), listener, true);
+    }
+
+    /**
+     * Observes the children of a query until the lifecycle is destroyed or the subscription is cancelled.
+     *
+     * @param owner    The lifecycle the observer belongs to.
+     * @param query    The query.
+     * @param listener Receives every added, changed, moved or removed child.
+     * @return The subscription.
+     */
+    public Subscription observeChildren(LifecycleOwner owner, KeyedQuery query, ChildEventListener listener) {
+        return observe(owner, query, listener, true);
+    }
+
+    /**
+     * Counts the Firebase listeners attached by the registry, including those waiting out their grace period.
+     *
+     * @return The number of live queries.
+     */
+    public int getActiveListenerCount() {
+        return entries.size();
+    }
+
+    /**
+     * Counts the subscribers of every live query, for debugging.
+     *
+     * @return The number of subscribers by query, sorted by query; 0 for queries in their grace period.
+     */
+    public Map<String, Integer> getSubscriberCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().subscriberCount());
+        }
+        return counts;
+    }
+
+    /**
+     * Adds an observer to the entry of its query, creating the entry if the query is not live.
+     *
+     * @param owner    The lifecycle the observer belongs to.
+     * @param query    The query.
+     * @param listener The value or child listener.
+     * @param children Whether the listener observes the children rather than the value.
+     * @return The subscription.
+     */
+    private Subscription observe(LifecycleOwner owner, KeyedQuery query, Object listener, boolean children) {
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            // Nothing to deliver to: never attach.
+            return () -> { };
+        }
+        String key = query.getKey();
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(key, query.getQuery());
+            entries.put(key, entry);
+            Log.d(TAG, "Attached " + key + ", " + entries.size() + " live queries");
+        }
+        Observation observation = new Observation(entry, listener, lifecycle);
+        lifecycle.addObserver(observation);
+        if (children) {
+            entry.addChildObserver((ChildEventListener) listener);
+        } else {
+            entry.addValueObserver((ValueEventListener) listener);
+        }
+        return observation;
+    }
+
+    /**
+     * Removes an entry whose Firebase listeners are detached or were cancelled by the database.
+     *
+     * @param entry The entry.
+     */
+    private void forget(Entry entry) {
+        if (entries.get(entry.key) == entry) {
+            entries.remove(entry.key);
+            Log.d(TAG, "Detached " + entry.key + ", " + entries.size() + " live queries");
+        }
+    }
+
+    /**
+     * One observer of a query, removed when its lifecycle is destroyed.
+     */
+    private final class Observation implements Subscription, LifecycleEventObserver {
+        private final Entry entry;          // The query observed.
+        private final Object listener;      // The value or child listener of the observer.
+        private final Lifecycle lifecycle;  // The lifecycle the observer belongs to.
+        private boolean cancelled;          // Whether the observer was removed.
+
+        /**
+         * Constructor to initialize the observation.
+         *
+         * @param entry     The query observed.
+         * @param listener  The value or child listener of the observer.
+         * @param lifecycle The lifecycle the observer belongs to.
+         */
+        Observation(Entry entry, Object listener, Lifecycle lifecycle) {
+            this.entry = entry;
+            this.listener = listener;
+            this.lifecycle = lifecycle;
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            lifecycle.removeObserver(this);
+            entry.removeObserver(listener);
+        }
+
+        @Override
+        public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+            if (event == Lifecycle.Event.ON_DESTROY) {
+                cancel();
+            }
+        }
+    }
+
+    /**
+     * A live query: the Firebase listeners attached to it, its observers, and the latest data for
+     * observers that join later.
+     */
+    private final class Entry implements ValueEventListener, ChildEventListener {
+        private final String key;       // Key of the query, from its path and parameters.
+        private final Query query;      // The query listened to.
+        private final List<ValueEventListener> valueObservers = new ArrayList<>(); // Observers of the value.
+        private final List<ChildEventListener> childObservers = new ArrayList<>(); // Observers of the children.
+        private final LinkedHashMap<String, DataSnapshot> children = new LinkedHashMap<>(); // Latest children, in arrival order.
+        private final Runnable detach = this::detach; // Detaches the query once its grace period ends.
+        private DataSnapshot value;     // Latest value, or null before it arrives.
+        private boolean valueAttached;  // Whether the value listener is attached.
+        private boolean childAttached;  // Whether the child listener is attached.
+        private boolean cancelled;      // Whether the database cancelled the query.
+
+        /**
+         * Constructor to initialize an entry with no observers and no listener attached.
+         *
+         * @param key   Key of the query, from its path and parameters.
+         * @param query The query.
+         */
+        Entry(String key, Query query) {
+            this.key = key;
+            this.query = query;
+        }
+
+        /**
+         * Counts the observers of the query.
+         *
+         * @return The number of observers.
+         */
+        int subscriberCount() {
+            return valueObservers.size() + childObservers.size();
+        }
+
+        /**
+         * Adds a value observer, attaching the value listener if it is the first, and delivers the
+         * latest value if there is one.
+         *
+         * @param observer The observer.
+         */
+        void addValueObserver(ValueEventListener observer) {
+            mainHandler.removeCallbacks(detach);
+            valueObservers.add(observer);
+            if (!valueAttached) {
+                valueAttached = true;
+                query.addValueEventListener(this);
+            } else if (value != null) {
+                observer.onDataChange(value);
+            }
+        }
+
+        /**
+         * Adds a child observer, attaching the child listener if it is the first, and replays the
+         * children already received.
+         *
+         * @param observer The observer.
+         */
+        void addChildObserver(ChildEventListener observer) {
+            mainHandler.removeCallbacks(detach);
+            childObservers.add(observer);
+            if (!childAttached) {
+                childAttached = true;
+                query.addChildEventListener(this);
+                return;
+            }
+            String previousKey = null;
+            for (Map.Entry<String, DataSnapshot> child : new ArrayList<>(children.entrySet())) {
+                observer.onChildAdded(child.getValue(), previousKey);
+                previousKey = child.getKey();
+            }
+        }
+
+        /**
+         * Removes an observer, and schedules the query to be detached if it was the last.
+         *
+         * @param observer The value or child listener of the observer.
+         */
+        void removeObserver(Object observer) {
+            if (!valueObservers.remove(observer)) {
+                childObservers.remove(observer);
+            }
+            if (subscriberCount() == 0 && entries.get(key) == this) {
+                mainHandler.postDelayed(detach, GRACE_PERIOD_MS);
+            }
+        }
+
+        /**
+         * Detaches the Firebase listeners and forgets the query.
+         */
+        private void detach() {
+            if (valueAttached) {
+                query.removeEventListener((ValueEventListener) this);
+            }
+            if (childAttached) {
+                query.removeEventListener((ChildEventListener) this);
+            }
+            valueAttached = false;
+            childAttached = false;
+            forget(this);
+        }
+
+        @Override
+        public void onDataChange(@NonNull DataSnapshot snapshot) {
+            value = snapshot;
+            for (ValueEventListener observer : new ArrayList<>(valueObservers)) {
+                observer.onDataChange(snapshot);
+            }
+        }
+
+        @Override
+        public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            children.put(snapshot.getKey(), snapshot);
+            for (ChildEventListener observer : new ArrayList<>(childObservers)) {
+                observer.onChildAdded(snapshot, previousChildName);
+            }
+        }
+
+        @Override
+        public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            children.put(snapshot.getKey(), snapshot);
+            for (ChildEventListener observer : new ArrayList<>(childObservers)) {
+                observer.onChildChanged(snapshot, previousChildName);
+            }
+        }
+
+        @Override
+        public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+            children.remove(snapshot.getKey());
+            for (ChildEventListener observer : new ArrayList<>(childObservers)) {
+                observer.onChildRemoved(snapshot);
+            }
+        }
+
+        @Override
+        public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            // Replays keep the arrival order; observers relying on the query's order get the move itself.
+            children.put(snapshot.getKey(), snapshot);
+            for (ChildEventListener observer : new ArrayList<>(childObservers)) {
+                observer.onChildMoved(snapshot, previousChildName);
+            }
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            // The database has removed both listeners; later observers start a fresh attempt.
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            Log.w(TAG, "Cancelled " + key + ": " + error.getMessage());
+            mainHandler.removeCallbacks(detach);
+            valueAttached = false;
+            childAttached = false;
+            forget(this);
+            for (ValueEventListener observer : new ArrayList<>(valueObservers)) {
+                observer.onCancelled(error);
+            }
+            for (ChildEventListener observer : new ArrayList<>(childObservers)) {
+                observer.onCancelled(error);
+            }
+        }
+    }
+}
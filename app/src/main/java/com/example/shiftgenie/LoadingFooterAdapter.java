@@ -0,0 +1,104 @@
+package com.example.shiftgenie;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * The LoadingFooterAdapter class shows a progress row at the end of a paged list while the next
+ * page is loading. It is placed after the list's own adapter in a {@code ConcatAdapter} and holds
+ * either one row or none.
+ */
+public class LoadingFooterAdapter extends RecyclerView.Adapter<LoadingFooterAdapter.FooterViewHolder> {
+
+    private boolean loading; // Whether the progress row is shown.
+
+    /**
+     * Constructor to initialize the adapter without a progress row, with the stable IDs a ConcatAdapter
+     * of stable-ID adapters requires.
+     */
+    public LoadingFooterAdapter() {
+        setHasStableIds(true);
+    }
+
+    /**
+     * Shows or hides the progress row.
+     *
+     * @param loading Whether a page is loading.
+     */
+    public void setLoading(boolean loading) {
+        if (this.loading == loading) {
+            return;
+        }
+        this.loading = loading;
+        if (loading) {
+            notifyItemInserted(0);
+        } else {
+            notifyItemRemoved(0);
+        }
+    }
+
+    /**
+     * Called when RecyclerView needs a new ViewHolder for the progress row.
+     *
+     * @param parent   The ViewGroup into which the new View will be added.
+     * @param viewType The view type of the new View.
+     * @return A new FooterViewHolder.
+     */
+    @NonNull
+    @Override
+    public FooterViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_loading_footer, parent, false);
+        return new FooterViewHolder(view);
+    }
+
+    /**
+     * The progress row shows no data, so there is nothing to bind.
+     *
+     * @param holder   The ViewHolder of the progress row.
+     * @param position The position of the row, always 0.
+     */
+    @Override
+    public void onBindViewHolder(@NonNull FooterViewHolder holder, int position) {
+        // Nothing to bind.
+    }
+
+    /**
+     * Returns the number of rows: one while loading, otherwise none.
+     *
+     * @return The number of rows.
+     */
+    @Override
+    public int getItemCount() {
+        return loading ? 1 : 0;
+    }
+
+    /**
+     * Returns the stable ID of the progress row.
+     *
+     * @param position The position of the row, always 0.
+     * @return The item ID.
+     */
+    @Override
+    public long getItemId(int position) {
+        return 0;
+    }
+
+    /**
+     * ViewHolder of the progress row.
+     */
+    static class FooterViewHolder extends RecyclerView.ViewHolder {
+
+        /**
+         * Constructor for initializing the FooterViewHolder.
+         *
+         * @param itemView The progress row.
+         */
+        FooterViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+}
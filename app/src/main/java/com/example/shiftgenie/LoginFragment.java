@@ -3,6 +3,7 @@ package com.example.shiftgenie;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -17,20 +18,11 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 import androidx.fragment.app.Fragment;
 
-import com.google.android.gms.auth.api.Auth;
-import com.google.android.gms.auth.api.signin.GoogleSignIn;
-import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
-import com.google.android.gms.auth.api.signin.GoogleSignInClient;
-import com.google.android.gms.auth.api.signin.GoogleSignInOptions;
-import com.google.android.gms.auth.api.signin.GoogleSignInResult;
 import com.google.android.gms.common.SignInButton;
-import com.google.android.gms.common.api.ApiException;
-import com.google.android.gms.common.api.GoogleApiClient;
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
-import com.google.firebase.auth.AuthCredential;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.auth.GoogleAuthProvider;
@@ -47,13 +39,18 @@ import java.util.Map;
  * The LoginFragment class handles user authentication in the application, allowing users to sign in
  * with their email and password or through Google Sign-In. It also manages password reset functionality
  * and additional user information collection if the user signs in with Google.
+ *
+ * <p>A Google sign-in is run by a {@link GoogleLoginFlow}, which signs in silently when the device
+ * already has the account, and checks the user's profile while the homepage data warms up.</p>
  */
 public class LoginFragment extends Fragment {
 
+    private static final String TAG = "LoginFragment"; // Tag used for logging.
+
     // Firebase Authentication instance to handle login and registration.
     private FirebaseAuth mAuth;
-    // GoogleSignInClient for Google Sign-In functionality.
-    private GoogleSignInClient mGoogleSignInClient;
+    // The Google sign-in in progress, or null.
+    private GoogleLoginFlow googleLoginFlow;
     // Request code for Google Sign-In.
     private static final int RC_SIGN_IN = 9001;
 
@@ -64,9 +61,6 @@ public class LoginFragment extends Fragment {
     private Button forgetPasswordButton;
     private SignInButton googleSignInButton;
 
-    // GoogleApiClient used for connecting to Google services.
-    private GoogleApiClient googleApiClient;
-
     /**
      * Inflates the fragment's view and initializes UI components and Firebase authentication.
      *
@@ -117,117 +111,134 @@ public class LoginFragment extends Fragment {
     }
 
     /**
-     * Initiates the Google Sign-In process.
-     * Configures Google Sign-In options and initiates the sign-in intent.
+     * Initiates the Google Sign-In process. The cached Google client first tries to sign in silently
+     * and only shows the account picker if that fails.
      */
     private void registerWithGoogle() {
-        // Configure Google Sign-In options to request the user's ID token and email.
-        GoogleSignInOptions gso = new GoogleSignInOptions.Builder(GoogleSignInOptions.DEFAULT_SIGN_IN)
-                .requestIdToken(getString(R.string.default_web_client_id)) // Retrieve the web client ID from your Firebase console.
-                .requestEmail()
-                .build();
-
-        // Build the GoogleApiClient with access to GoogleSignInAPI and the options above.
-        googleApiClient = new GoogleApiClient.Builder(getActivity())
-                .addApi(Auth.GOOGLE_SIGN_IN_API, gso)
-                .build();
-
-        // Connect the GoogleApiClient to Google's servers.
-        googleApiClient.connect();
-
-        // Revoke previous access to ensure a fresh sign-in.
-        GoogleSignIn.getClient(getActivity(), gso).revokeAccess().addOnCompleteListener(task -> {
-            // Create a sign-in intent and start the Google Sign-In activity.
-            Intent signInIntent = Auth.GoogleSignInApi.getSignInIntent(googleApiClient);
-            startActivityForResult(signInIntent, RC_SIGN_IN);
-        });
+        if (googleLoginFlow != null) {
+            return; // A sign-in is already running.
+        }
+        progressBar.setVisibility(View.VISIBLE);
+        googleLoginFlow = createGoogleLoginFlow();
+        googleLoginFlow.start();
     }
 
     /**
-     * Handles the result from the Google Sign-In intent and proceeds with Firebase authentication.
+     * Builds a Google sign-in flow on the app's Google client, Firebase Authentication, the "Users"
+     * node and the {@link StartupWarmup}.
      *
-     * @param requestCode The request code passed to startActivityForResult().
-     * @param resultCode  The result code returned by the child activity through its setResult().
-     * @param data        An Intent, which can return result data to the caller.
+     * @return The flow.
      */
-    @Override
-    public void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
-        super.onActivityResult(requestCode, resultCode, data);
+    private GoogleLoginFlow createGoogleLoginFlow() {
+        // The steps finish asynchronously, possibly after the view is gone, so everything they need is taken now.
+        GoogleAccounts accounts = GoogleAccounts.get(requireContext());
+        GoogleLoginFlow.Auth auth = (idToken, callback) ->
+                mAuth.signInWithCredential(GoogleAuthProvider.getCredential(idToken, null))
+                        .addOnCompleteListener(task -> {
+                            FirebaseUser user = mAuth.getCurrentUser();
+                            if (task.isSuccessful() && user != null) {
+                                callback.onSuccess(user.getUid());
+                            } else {
+                                callback.onFailure(task.getException() != null ? task.getException()
+                                        : new IllegalStateException("User is null. Unable to save details."));
+                            }
+                        });
+        GoogleLoginFlow.Directory directory = (uid, callback) -> {
+            // Check if the user already exists in the database.
+            DatabaseReference userRef = FirebaseDatabase.getInstance().getReference().child("Users").child(uid);
+            QueryGateway.getInstance().get(userRef, new ValueEventListener() {
+                @Override
+                public void onDataChange(@NonNull DataSnapshot snapshot) {
+                    callback.onSuccess(snapshot.exists());
+                }
 
-        // Check if the result is from the Google Sign-In activity.
-        if (requestCode == RC_SIGN_IN) {
-            // Retrieve the GoogleSignInAccount from the intent data.
-            Task<GoogleSignInAccount> task = GoogleSignIn.getSignedInAccountFromIntent(data);
-            try {
-                // If sign-in was successful, authenticate with Firebase.
-                GoogleSignInAccount account = task.getResult(ApiException.class);
-                firebaseAuthWithGoogle(account);
-            } catch (ApiException e) {
-                // If sign-in failed, log the error and show a message to the user.
-                Log.w("GoogleSignIn", "Google sign in failed", e);
-                Toast.makeText(getActivity(), "Google Sign In failed: " + e.getStatusCode(), Toast.LENGTH_SHORT).show();
-            }
-        }
+                @Override
+                public void onCancelled(@NonNull DatabaseError error) {
+                    callback.onFailure(error.toException());
+                }
+            });
+        };
+        // The fragment's own lifecycle outlives its view, so the warm-up may end after a view change.
+        GoogleLoginFlow.Warmup warmup = (uid, done) ->
+                StartupWarmup.start(this, user -> done.run());
+        return new GoogleLoginFlow(accounts, auth, directory, warmup,
+                SystemClock::elapsedRealtime, googleLoginListener);
     }
 
     /**
-     * Authenticates the user with Firebase using Google account credentials.
-     *
-     * @param acct The GoogleSignInAccount object containing the signed-in user's information.
+     * Listener taking the steps a Google sign-in asks for.
      */
-    private void firebaseAuthWithGoogle(GoogleSignInAccount acct) {
-        // Get the authentication credential using the Google account's ID token.
-        AuthCredential credential = GoogleAuthProvider.getCredential(acct.getIdToken(), null);
+    private final GoogleLoginFlow.Listener googleLoginListener = new GoogleLoginFlow.Listener() {
+        @Override
+        public void onInteractiveSignInNeeded() {
+            if (!isAdded()) {
+                // The user left the screen while signing in silently; the next tap starts over.
+                googleLoginFlow = null;
+                return;
+            }
+            // Show the account picker; its result continues the flow.
+            startActivityForResult(GoogleAccounts.get(requireContext()).signInIntent(), RC_SIGN_IN);
+        }
 
-        // Sign in with the credential and listen for success or failure.
-        mAuth.signInWithCredential(credential)
-                .addOnCompleteListener(getActivity(), task -> {
-                    if (task.isSuccessful()) {
-                        // If sign-in is successful, check if the user already exists in the database.
-                        FirebaseUser user = mAuth.getCurrentUser();
-                        if (user != null) {
-                            checkUserExists(user);
-                        } else {
-                            // If the user is null, show an error message.
-                            Toast.makeText(getActivity(), "User is null. Unable to save details.", Toast.LENGTH_SHORT).show();
-                        }
-                    } else {
-                        // If sign-in fails, show an error message.
-                        Toast.makeText(getActivity(), "Firebase Authentication failed.", Toast.LENGTH_SHORT).show();
-                    }
-                });
-    }
+        @Override
+        public void onSignedIn(String uid, boolean newUser, GoogleLoginFlow.Metrics metrics) {
+            googleLoginFlow = null;
+            Log.i(TAG, "Google sign-in: " + metrics);
+            if (getView() == null) {
+                return;
+            }
+            progressBar.setVisibility(View.GONE);
+            if (newUser) {
+                // If the user does not exist, prompt for additional information.
+                showAdditionalInfoDialog(mAuth.getCurrentUser());
+            } else {
+                // If the user exists, start the HomepageActivity.
+                startActivity(new Intent(requireActivity(), HomepageActivity.class));
+                requireActivity().finish();
+            }
+        }
+
+        @Override
+        public void onFailed(String message, Exception e) {
+            googleLoginFlow = null;
+            Log.w(TAG, message, e);
+            if (getView() == null) {
+                return;
+            }
+            progressBar.setVisibility(View.GONE);
+            Toast.makeText(getActivity(), message, Toast.LENGTH_SHORT).show();
+        }
+    };
 
     /**
-     * Checks if the signed-in user already exists in the Firebase Realtime Database.
-     * If the user does not exist, prompts the user to provide additional information.
+     * Handles the result from the Google Sign-In intent and continues the sign-in with it.
      *
-     * @param user The currently authenticated FirebaseUser.
+     * @param requestCode The request code passed to startActivityForResult().
+     * @param resultCode  The result code returned by the child activity through its setResult().
+     * @param data        An Intent, which can return result data to the caller.
      */
-    private void checkUserExists(FirebaseUser user) {
-        // Reference to the "Users" node in the Firebase Realtime Database.
-        DatabaseReference usersRef = FirebaseDatabase.getInstance().getReference().child("Users").child(user.getUid());
+    @Override
+    public void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
+        super.onActivityResult(requestCode, resultCode, data);
 
-        // Check if the user already exists in the database.
-        usersRef.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (snapshot.exists()) {
-                    // If the user exists, start the HomepageActivity.
-                    startActivity(new Intent(getActivity(), HomepageActivity.class));
-                    getActivity().finish();
-                } else {
-                    // If the user does not exist, prompt for additional information.
-                    showAdditionalInfoDialog(user);
-                }
+        // Check if the result is from the Google Sign-In activity.
+        if (requestCode == RC_SIGN_IN) {
+            if (googleLoginFlow == null) {
+                // The fragment was recreated while the picker was shown; start again from the picked account.
+                googleLoginFlow = createGoogleLoginFlow();
             }
+            GoogleAccounts.readSignInResult(data, new GoogleLoginFlow.Callback<String>() {
+                @Override
+                public void onSuccess(String idToken) {
+                    googleLoginFlow.onInteractiveResult(idToken);
+                }
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                // If there is a database error, show a message to the user.
-                Toast.makeText(getActivity(), "Database error: " + error.getMessage(), Toast.LENGTH_SHORT).show();
-            }
-        });
+                @Override
+                public void onFailure(Exception e) {
+                    googleLoginFlow.onInteractiveFailed(e);
+                }
+            });
+        }
     }
 
     /**
@@ -391,12 +402,14 @@ public class LoginFragment extends Fragment {
 
         // Show the progress bar while the login process is ongoing.
         progressBar.setVisibility(View.VISIBLE);
+        long startedAt = SystemClock.elapsedRealtime();
 
         // Sign in with email and password using Firebase Authentication.
         mAuth.signInWithEmailAndPassword(email, password)
                 .addOnCompleteListener(getActivity(), task -> {
                     // Hide the progress bar after the task is complete.
                     progressBar.setVisibility(View.GONE);
+                    Log.i(TAG, "Email sign-in took " + (SystemClock.elapsedRealtime() - startedAt) + "ms");
 
                     if (task.isSuccessful()) {
                         // If login is successful, start the HomepageActivity.
@@ -0,0 +1,129 @@
+package com.example.shiftgenie;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Money class converts between amounts in cents, which is how earnings are stored and summed,
+ * and the decimal values used for input and display. Sums of cents are exact, so totals over
+ * thousands of shifts never drift the way sums of doubles do.
+ *
+ * <p>Amounts are formatted from the digits of the cents with the locale's digit and separator
+ * symbols, which are looked up once per locale, so formatting a long list allocates nothing but the
+ * resulting strings. The output is the same as {@code String.format(locale, "%.2f", ...)}, which
+ * writes negative numbers with an ASCII minus sign in every locale, so amounts and hours do too.</p>
+ */
+public final class Money {
+
+    private static final int CENTS_SCALE = 2;                // Decimal places of an amount in cents.
+    private static final double HALF_CENT_TOLERANCE = 1e-6;  // Distance from a half cent treated as a tie.
+    private static final ConcurrentHashMap<Locale, Symbols> SYMBOLS = new ConcurrentHashMap<>(); // Number symbols of each locale used.
+
+    /**
+     * The symbols a locale writes decimal numbers with.
+     */
+    private static final class Symbols {
+        final char zeroDigit;           // The locale's digit zero; the other digits follow it.
+        final char decimalSeparator;    // Separator between whole and fractional part.
+
+        Symbols(DecimalFormatSymbols symbols) {
+            this.zeroDigit = symbols.getZeroDigit();
+            this.decimalSeparator = symbols.getDecimalSeparator();
+        }
+    }
+
+    private Money() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Converts a decimal amount to cents, rounding half up.
+     * Used for pay rates and for records saved by older versions as doubles.
+     *
+     * @param amount The amount, such as 12.5.
+     * @return The amount in cents, such as 1250.
+     */
+    public static long toCents(double amount) {
+        double scaled = amount * 100;
+        if (Math.abs(scaled - Math.floor(scaled) - 0.5) > HALF_CENT_TOLERANCE) {
+            return Math.round(scaled);
+        }
+        // Close to half a cent the binary value may sit on either side, so round the decimal value instead.
+        return BigDecimal.valueOf(amount).setScale(CENTS_SCALE, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    /**
+     * Formats cents as a dollar amount in the device's locale, such as "$12.50" or "-$3.00".
+     *
+     * @param cents The amount in cents.
+     * @return The formatted amount.
+     */
+    public static String format(long cents) {
+        StringBuilder amount = new StringBuilder(16);
+        if (cents < 0) {
+            amount.append('-');
+        }
+        amount.append('$');
+        appendHundredths(amount, Math.abs(cents), symbols(Locale.getDefault()));
+        return amount.toString();
+    }
+
+    /**
+     * Formats minutes as decimal hours in the device's locale, such as "7.50" or "-0.50".
+     *
+     * @param minutes The minutes.
+     * @return The formatted hours.
+     */
+    public static String formatHours(long minutes) {
+        Symbols symbols = symbols(Locale.getDefault());
+        // Hundredths of an hour, rounded half up: 7.5 hours is 450 minutes, 750 hundredths.
+        long hundredths = (Math.abs(minutes) * 100 + 30) / 60;
+        StringBuilder hours = new StringBuilder(12);
+        if (minutes < 0 && hundredths > 0) {
+            hours.append('-');
+        }
+        appendHundredths(hours, hundredths, symbols);
+        return hours.toString();
+    }
+
+    /**
+     * Appends a non-negative number of hundredths with two decimal places, such as "12.50" for 1250.
+     *
+     * @param out        The builder to append to.
+     * @param hundredths The number of hundredths.
+     * @param symbols    The symbols of the locale.
+     */
+    private static void appendHundredths(StringBuilder out, long hundredths, Symbols symbols) {
+        int start = out.length();
+        long whole = hundredths / 100;
+        int fraction = (int) (hundredths % 100);
+        out.append(whole);
+        if (symbols.zeroDigit != '0') {
+            // Shift each ASCII digit to the locale's digits.
+            for (int i = start; i < out.length(); i++) {
+                out.setCharAt(i, (char) (symbols.zeroDigit + (out.charAt(i) - '0')));
+            }
+        }
+        out.append(symbols.decimalSeparator)
+                .append((char) (symbols.zeroDigit + fraction / 10))
+                .append((char) (symbols.zeroDigit + fraction % 10));
+    }
+
+    /**
+     * Gets the number symbols of a locale, looking them up on first use.
+     *
+     * @param locale The locale.
+     * @return The symbols.
+     */
+    private static Symbols symbols(Locale locale) {
+        Symbols symbols = SYMBOLS.get(locale);
+        if (symbols == null) {
+            symbols = new Symbols(DecimalFormatSymbols.getInstance(locale));
+            SYMBOLS.put(locale, symbols);
+        }
+        return symbols;
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.shiftgenie;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The MonthCache class keeps recently computed month reports in memory, keyed by user and month.
+ * It holds at most a fixed number of reports and drops the least recently used one when full;
+ * reports older than the time-to-live are treated as missing, so changes made on other devices
+ * show up after a while even without an explicit invalidation.
+ *
+ * <p>Hit, miss and eviction counters are kept for diagnostics. All methods are synchronized.</p>
+ */
+public final class MonthCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 12;                            // Reports kept by the shared cache.
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);  // Lifetime of a report in the shared cache.
+
+    private static MonthCache instance; // Cache shared by the report screens.
+
+    private final int maxEntries;       // Maximum number of reports kept.
+    private final long ttlMillis;       // Time after which a report is stale.
+    private final Clock clock;          // Source of the current time.
+    private final LinkedHashMap<String, Entry> entries; // Reports keyed by "uid/yyyy-MM", least recently used first.
+    private long hits;                  // Lookups answered from the cache.
+    private long misses;                // Lookups that found no fresh report.
+    private long evictions;             // Reports dropped because the cache was full or they were stale.
+
+    /**
+     * Source of the current time, in milliseconds from an arbitrary origin.
+     */
+    public interface Clock {
+        long nowMillis();
+    }
+
+    /**
+     * A cached report with the time it was stored.
+     */
+    private static final class Entry {
+        final MonthReport report;   // The report.
+        final long storedAt;        // Time the report was stored.
+
+        Entry(MonthReport report, long storedAt) {
+            this.report = report;
+            this.storedAt = storedAt;
+        }
+    }
+
+    /**
+     * Gets the cache shared by the report screens, creating it with the default limits if needed.
+     *
+     * @return The shared cache.
+     */
+    public static synchronized MonthCache getInstance() {
+        if (instance == null) {
+            instance = new MonthCache(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS,
+                    () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+        }
+        return instance;
+    }
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxEntries The maximum number of reports kept; must be positive.
+     * @param ttlMillis  The time after which a report is stale, in milliseconds.
+     * @param clock      The source of the current time.
+     */
+    public MonthCache(int maxEntries, long ttlMillis, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Invalid cache size: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        // Access order moves every looked-up report to the end, so the eldest entry is the least recently used.
+        this.entries = new LinkedHashMap<String, Entry>(maxEntries + 1, 1f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > MonthCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets a fresh report of a user's month.
+     *
+     * @param uid      The user ID.
+     * @param monthKey The "yyyy-MM" month key.
+     * @return The report, or null if none is cached or the cached one is stale.
+     */
+    public synchronized MonthReport get(String uid, String monthKey) {
+        String key = key(uid, monthKey);
+        Entry entry = entries.get(key);
+        if (entry != null && clock.nowMillis() - entry.storedAt >= ttlMillis) {
+            entries.remove(key);
+            evictions++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.report;
+    }
+
+    /**
+     * Checks whether a fresh report of a user's month is cached, without counting a lookup or
+     * changing the order of use. Used to skip prefetching months that are already cached.
+     *
+     * @param uid      The user ID.
+     * @param monthKey The "yyyy-MM" month key.
+     * @return True if a fresh report is cached.
+     */
+    public synchronized boolean contains(String uid, String monthKey) {
+        // Iterate instead of calling get(), which would count as a use in an access-ordered map.
+        String key = key(uid, monthKey);
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (entry.getKey().equals(key)) {
+                return clock.nowMillis() - entry.getValue().storedAt < ttlMillis;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stores the report of a user's month, replacing any previous one.
+     *
+     * @param uid      The user ID.
+     * @param monthKey The "yyyy-MM" month key.
+     * @param report   The report.
+     */
+    public synchronized void put(String uid, String monthKey, MonthReport report) {
+        entries.put(key(uid, monthKey), new Entry(report, clock.nowMillis()));
+    }
+
+    /**
+     * Drops the report of a user's month, for example after one of its shifts changed.
+     *
+     * @param uid      The user ID.
+     * @param monthKey The "yyyy-MM" month key.
+     */
+    public synchronized void invalidate(String uid, String monthKey) {
+        entries.remove(key(uid, monthKey));
+    }
+
+    /**
+     * Drops all reports of a user.
+     *
+     * @param uid The user ID.
+     */
+    public synchronized void invalidateUser(String uid) {
+        String prefix = uid + "/";
+        Iterator<String> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().startsWith(prefix)) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of cached reports, including stale ones not yet dropped.
+     *
+     * @return The number of reports.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return The number of hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that found no fresh report.
+     *
+     * @return The number of misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of reports dropped because the cache was full or they were stale.
+     *
+     * @return The number of evictions.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the cache key of a user's month.
+     *
+     * @param uid      The user ID.
+     * @param monthKey The "yyyy-MM" month key.
+     * @return The key.
+     */
+    private static String key(String uid, String monthKey) {
+        return uid + "/" + monthKey;
+    }
+}
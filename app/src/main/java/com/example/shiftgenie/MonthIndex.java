@@ -0,0 +1,233 @@
+package com.example.shiftgenie;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The MonthIndex class keeps the shifts of a calendar page in memory, bucketed by the 42 days
+ * (six weeks, starting on Sunday) the month view shows. Each day holds references to the shifts that
+ * touch it and the day's minutes and earnings, so tapping a day is an array lookup.
+ *
+ * <p>The index is updated one shift at a time as the database reports changes. A shift running past
+ * midnight is listed on every day it touches and its minutes are split between them; its earnings
+ * count on the day it starts.</p>
+ */
+public final class MonthIndex {
+
+    public static final int DAYS = 42; // Number of days on a calendar page.
+
+    private final YearMonth month;                                   // The month the page shows.
+    private final LocalDate firstDay;                                // Date of the first cell of the page.
+    private final ShiftTimeline timeline;                            // Splits shifts at midnight over the page.
+    private final List<List<Shift>> shiftsByDay = new ArrayList<>(DAYS); // Shifts touching each day.
+    private final int[] dayMinutes = new int[DAYS];                  // Minutes worked on each day.
+    private final long[] dayEarningsCents = new long[DAYS];          // Earnings of the shifts starting on each day.
+    private final Map<String, Entry> entriesById = new HashMap<>();  // Indexed shifts keyed by shift ID.
+
+    /**
+     * An indexed shift together with the time zone it was split in and its formatted row.
+     */
+    private static final class Entry {
+        final Shift shift;  // The shift.
+        final ZoneId zone;  // Time zone of the shift's workplace.
+        final ShiftRow row; // Row of the shift, formatted once when it is indexed.
+
+        Entry(Shift shift, ZoneId zone) {
+            this.shift = shift;
+            this.zone = zone;
+            this.row = ShiftRow.of(shift);
+        }
+    }
+
+    /**
+     * Creates an empty index for the calendar page of a month.
+     *
+     * @param month The month.
+     */
+    public MonthIndex(YearMonth month) {
+        this.month = month;
+        this.firstDay = firstDayOfPage(month);
+        this.timeline = new ShiftTimeline(firstDay, firstDay.plusDays(DAYS));
+        for (int i = 0; i < DAYS; i++) {
+            shiftsByDay.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Gets the date of the first cell of a month's calendar page: the Sunday on or before the first of the month.
+     *
+     * @param month The month.
+     * @return The date of the first cell.
+     */
+    public static LocalDate firstDayOfPage(YearMonth month) {
+        LocalDate first = month.atDay(1);
+        int daysAfterSunday = first.getDayOfWeek().getValue() % DayOfWeek.SUNDAY.getValue();
+        return first.minusDays(daysAfterSunday);
+    }
+
+    /**
+     * Gets the month the page shows.
+     *
+     * @return The month.
+     */
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    /**
+     * Gets the date of the first cell of the page.
+     *
+     * @return The date.
+     */
+    public LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * Gets the cell of a date.
+     *
+     * @param date The date.
+     * @return The cell index, or -1 if the date is not on the page.
+     */
+    public int cellOf(LocalDate date) {
+        long cell = ChronoUnit.DAYS.between(firstDay, date);
+        return cell >= 0 && cell < DAYS ? (int) cell : -1;
+    }
+
+    /**
+     * Adds a shift or replaces the indexed version of it. Shifts without a valid time are ignored.
+     *
+     * @param shift The shift; its ID must be set.
+     * @param zone  The time zone of the shift's workplace.
+     * @return True if any day of the page changed.
+     */
+    public boolean put(Shift shift, ZoneId zone) {
+        boolean changed = remove(shift.getShiftId());
+        if (!ShiftTimes.resolve(shift)) {
+            return changed;
+        }
+
+        Entry entry = new Entry(shift, zone);
+        entriesById.put(shift.getShiftId(), entry);
+        int[] daysTouched = {0};
+        timeline.split(shift.getStart(), shift.getEnd(), zone, (day, minutes) -> {
+            shiftsByDay.get(day).add(shift);
+            dayMinutes[day] += minutes;
+            daysTouched[0]++;
+        });
+        int startCell = startCell(entry);
+        if (startCell >= 0) {
+            dayEarningsCents[startCell] += shift.getEarningsCents();
+        }
+        return changed || startCell >= 0 || daysTouched[0] > 0;
+    }
+
+    /**
+     * Removes a shift from the index.
+     *
+     * @param shiftId The shift ID.
+     * @return True if the shift was indexed.
+     */
+    public boolean remove(String shiftId) {
+        Entry entry = entriesById.remove(shiftId);
+        if (entry == null) {
+            return false;
+        }
+        Shift shift = entry.shift;
+        timeline.split(shift.getStart(), shift.getEnd(), entry.zone, (day, minutes) -> {
+            shiftsByDay.get(day).remove(shift);
+            dayMinutes[day] -= minutes;
+        });
+        int startCell = startCell(entry);
+        if (startCell >= 0) {
+            dayEarningsCents[startCell] -= shift.getEarningsCents();
+        }
+        return true;
+    }
+
+    /**
+     * Removes all shifts from the index.
+     */
+    public void clear() {
+        entriesById.clear();
+        for (int i = 0; i < DAYS; i++) {
+            shiftsByDay.get(i).clear();
+            dayMinutes[i] = 0;
+            dayEarningsCents[i] = 0;
+        }
+    }
+
+    /**
+     * Gets the shifts touching a day.
+     *
+     * @param cell The cell index of the day.
+     * @return An unmodifiable view of the shifts, in the order they were indexed.
+     */
+    public List<Shift> getShifts(int cell) {
+        return Collections.unmodifiableList(shiftsByDay.get(cell));
+    }
+
+    /**
+     * Gets the rows of the shifts touching a day, for listing them.
+     *
+     * @param cell The cell index of the day.
+     * @return A new list of the rows, in the order the shifts were indexed.
+     */
+    public List<ShiftRow> getRows(int cell) {
+        List<Shift> shifts = shiftsByDay.get(cell);
+        List<ShiftRow> rows = new ArrayList<>(shifts.size());
+        for (Shift shift : shifts) {
+            rows.add(entriesById.get(shift.getShiftId()).row);
+        }
+        return rows;
+    }
+
+    /**
+     * Gets the minutes worked on a day.
+     *
+     * @param cell The cell index of the day.
+     * @return The minutes worked.
+     */
+    public int getDayMinutes(int cell) {
+        return dayMinutes[cell];
+    }
+
+    /**
+     * Gets the earnings of the shifts starting on a day.
+     *
+     * @param cell The cell index of the day.
+     * @return The earnings in cents.
+     */
+    public long getDayEarningsCents(int cell) {
+        return dayEarningsCents[cell];
+    }
+
+    /**
+     * Gets the number of indexed shifts.
+     *
+     * @return The number of shifts.
+     */
+    public int size() {
+        return entriesById.size();
+    }
+
+    /**
+     * Finds the cell of the day an indexed shift starts on.
+     *
+     * @param entry The indexed shift.
+     * @return The cell index, or -1 if the shift starts before or after the page.
+     */
+    private int startCell(Entry entry) {
+        int[] cell = {-1};
+        timeline.split(entry.shift.getStart(), entry.shift.getStart() + 1, entry.zone, (day, minutes) -> cell[0] = day);
+        return cell[0];
+    }
+}
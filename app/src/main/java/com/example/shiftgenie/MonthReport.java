@@ -0,0 +1,86 @@
+package com.example.shiftgenie;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The MonthReport class holds the computed report of one month of a user's shifts: the shifts
+ * starting in the month, the pay breakdown and the minutes worked inside the month.
+ * Reports are immutable, so a cached report can be shown again without recomputing it; the rows
+ * listing the shifts are formatted when the report is built, on the thread that builds it.
+ */
+public final class MonthReport {
+
+    private final YearMonth month;              // The month of the report.
+    private final List<Shift> shifts;           // Shifts starting in the month.
+    private final List<ShiftRow> rows;          // Rows of the shifts, in the same order.
+    private final PayrollEngine.Result pay;     // Pay breakdown of the month.
+    private final long totalMinutes;            // Minutes worked inside the month, split at midnight.
+
+    /**
+     * Constructor to initialize all fields of the MonthReport object.
+     *
+     * @param month        The month of the report.
+     * @param shifts       Shifts starting in the month.
+     * @param pay          Pay breakdown of the month.
+     * @param totalMinutes Minutes worked inside the month, split at midnight.
+     */
+    public MonthReport(YearMonth month, List<Shift> shifts, PayrollEngine.Result pay, long totalMinutes) {
+        this.month = month;
+        this.shifts = Collections.unmodifiableList(shifts);
+        List<ShiftRow> rows = new ArrayList<>(shifts.size());
+        for (Shift shift : shifts) {
+            rows.add(ShiftRow.of(shift));
+        }
+        this.rows = Collections.unmodifiableList(rows);
+        this.pay = pay;
+        this.totalMinutes = totalMinutes;
+    }
+
+    /**
+     * Gets the month of the report.
+     *
+     * @return The month.
+     */
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    /**
+     * Gets the shifts starting in the month.
+     *
+     * @return An unmodifiable list of the shifts.
+     */
+    public List<Shift> getShifts() {
+        return shifts;
+    }
+
+    /**
+     * Gets the rows listing the shifts starting in the month.
+     *
+     * @return An unmodifiable list of the rows, in the order of the shifts.
+     */
+    public List<ShiftRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the pay breakdown of the month.
+     *
+     * @return The pay breakdown.
+     */
+    public PayrollEngine.Result getPay() {
+        return pay;
+    }
+
+    /**
+     * Gets the minutes worked inside the month.
+     *
+     * @return The minutes worked.
+     */
+    public long getTotalMinutes() {
+        return totalMinutes;
+    }
+}
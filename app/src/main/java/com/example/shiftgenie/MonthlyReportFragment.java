@@ -16,6 +16,7 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -23,17 +24,21 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.Query;
 import com.google.firebase.database.ValueEventListener;
 
-import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The MonthlyReportFragment class handles the display and management of monthly shift reports.
@@ -54,11 +59,11 @@ public class MonthlyReportFragment extends Fragment {
     private Calendar currentCalendar;
     // Formatter to display the month in a "MMMM yyyy" format.
     private SimpleDateFormat monthFormat;
-    // Database reference to the "Shifts" node in Firebase Realtime Database.
-    private DatabaseReference databaseShifts;
     // Firebase authentication instance to get the current user.
     private FirebaseAuth auth;
 
+    private MonthlyReportViewModel viewModel;  // Holds the shown month and its index for as long as the activity lives.
+
     /**
      * Called to have the fragment instantiate its user interface view.
      *
@@ -82,7 +87,8 @@ public class MonthlyReportFragment extends Fragment {
 
         // Set up the RecyclerView with a LinearLayoutManager and the ShiftsAdapter.
         shiftsRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
-        shiftsAdapter = new ShiftsAdapter(new ArrayList<>());
+        shiftsAdapter = new ShiftsAdapter();
+        shiftsRecyclerView.setRecycledViewPool(ShiftsAdapter.getViewPool(requireActivity()));
         shiftsRecyclerView.setAdapter(shiftsAdapter);
 
         // Buttons to navigate between months and fetch the monthly report.
@@ -90,13 +96,17 @@ public class MonthlyReportFragment extends Fragment {
         ImageView nextMonthButton = view.findViewById(R.id.nextMonthButton);
         Button monthlyReportButton = view.findViewById(R.id.monthlyReportButton);
 
-        // Initialize the current calendar to the current date.
+        // Initialize the current calendar to the month shown before, or to the current date.
+        viewModel = new ViewModelProvider(requireActivity()).get(MonthlyReportViewModel.class);
         currentCalendar = Calendar.getInstance();
+        YearMonth shownBefore = viewModel.getShownMonth();
+        if (shownBefore != null) {
+            currentCalendar.set(shownBefore.getYear(), shownBefore.getMonthValue() - 1, 1);
+        }
         monthFormat = new SimpleDateFormat("MMMM yyyy", Locale.getDefault());
 
-        // Initialize Firebase authentication and database reference.
+        // Initialize Firebase authentication.
         auth = FirebaseAuth.getInstance();
-        databaseShifts = FirebaseDatabase.getInstance().getReference("Shifts");
 
         // Initialize the calendar adapter and set it to the GridView.
         calendarAdapter = new CalendarAdapter(requireContext(), currentCalendar, this::onDateClick);
@@ -118,12 +128,44 @@ public class MonthlyReportFragment extends Fragment {
 
         // Set up the monthly report button to fetch and display shifts for the selected month.
         monthlyReportButton.setOnClickListener(v -> {
-            fetchShiftsForMonth(currentCalendar.getTime());
+            showMonthReport(shownMonth(), true);
         });
 
         return view;
     }
 
+    /**
+     * Called once the view exists; lists the selected day's shifts from the month index as it changes.
+     *
+     * @param view               The View returned by onCreateView.
+     * @param savedInstanceState If non-null, this fragment is being re-constructed from a previous saved state as given here.
+     */
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        viewModel.getMonthIndex().observe(getViewLifecycleOwner(), index -> showSelectedDay());
+        viewModel.getError().observe(getViewLifecycleOwner(), message -> {
+            if (message != null) {
+                Toast.makeText(requireContext(), message, Toast.LENGTH_SHORT).show();
+                viewModel.consumeError();
+            }
+        });
+    }
+
+    /**
+     * Called when the tab is hidden or shown again. The homepage keeps its tabs, so a shift added in
+     * another tab has only invalidated the cached report; the totals are reloaded when the tab returns.
+     *
+     * @param hidden Whether the fragment is now hidden.
+     */
+    @Override
+    public void onHiddenChanged(boolean hidden) {
+        super.onHiddenChanged(hidden);
+        if (!hidden && getView() != null) {
+            showMonthReport(shownMonth(), false);
+        }
+    }
+
     /**
      * Updates the month display by setting the month name and updating the calendar view.
      */
@@ -135,193 +177,299 @@ public class MonthlyReportFragment extends Fragment {
         if (calendarAdapter != null) {
             calendarAdapter.updateCalendar(currentCalendar);
         }
+
+        // Index the shifts of the new calendar page; the page shown before keeps its index.
+        YearMonth month = shownMonth();
+        FirebaseUser currentUser = auth.getCurrentUser();
+        viewModel.showMonth(currentUser != null ? currentUser.getUid() : null, month);
+
+        // Show the month's totals and warm the cache with its neighbours, so paging shows totals at once.
+        showMonthReport(month, false);
+        prefetchMonthReport(month.minusMonths(1));
+        prefetchMonthReport(month.plusMonths(1));
+    }
+
+    /**
+     * Gets the month the calendar currently shows.
+     *
+     * @return The month.
+     */
+    private YearMonth shownMonth() {
+        return YearMonth.of(currentCalendar.get(Calendar.YEAR), currentCalendar.get(Calendar.MONTH) + 1);
     }
 
     /**
-     * Handles date clicks on the calendar, fetching shifts for the selected date.
+     * Handles date clicks on the calendar, listing the shifts of the selected date from the month index.
      *
      * @param date The date that was clicked.
      */
     private void onDateClick(Date date) {
-        fetchShiftsForDate(date);
+        if (viewModel.getMonthIndex().getValue() == null) {
+            Toast.makeText(requireContext(), "User not logged in", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        viewModel.setSelectedDay(Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate());
+        showSelectedDay();
+    }
+
+    /**
+     * Lists the shifts of the selected day from the month index. Days outside the shown page list nothing.
+     */
+    private void showSelectedDay() {
+        MonthIndex monthIndex = viewModel.getMonthIndex().getValue();
+        LocalDate selectedDay = viewModel.getSelectedDay();
+        if (monthIndex == null || selectedDay == null || getView() == null) {
+            return;
+        }
+        int cell = monthIndex.cellOf(selectedDay);
+        shiftsAdapter.submitList(cell >= 0 ? monthIndex.getRows(cell) : new ArrayList<>());
     }
 
     /**
-     * Fetches shifts for a specific date from the Firebase database and updates the RecyclerView.
+     * Callback receiving a month report.
+     */
+    private interface MonthReportCallback {
+        void onMonthReport(MonthReport report);
+    }
+
+    /**
+     * Shows the totals of a month, and optionally lists its shifts. Cached reports are shown at once;
+     * otherwise the report is fetched, and it is only shown if the calendar still shows that month.
      *
-     * @param date The date for which to fetch shifts.
+     * @param month      The month to show.
+     * @param listShifts Whether to list the month's shifts instead of the selected day's.
      */
-    private void fetchShiftsForDate(Date date) {
+    private void showMonthReport(YearMonth month, boolean listShifts) {
         FirebaseUser currentUser = auth.getCurrentUser();
-        if (currentUser != null) {
-            String userEmail = currentUser.getEmail();
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-            String selectedDate = dateFormat.format(date);
-
-            // Query the database for shifts on the selected date for the current user.
-            Query shiftsQuery = databaseShifts.orderByChild("userEmail").equalTo(userEmail);
-            shiftsQuery.addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    ArrayList<Shift> shifts = new ArrayList<>();
-                    for (DataSnapshot dataSnapshot : snapshot.getChildren()) {
-                        Shift shift = dataSnapshot.getValue(Shift.class);
-                        // Filter shifts by the selected date.
-                        if (shift != null && shift.getFromDateTime().startsWith(selectedDate)) {
-                            shifts.add(shift);
-                        }
-                    }
-                    // Update the RecyclerView with the fetched shifts.
-                    shiftsAdapter.updateShifts(shifts);
-                }
-
-                @Override
-                public void onCancelled(@NonNull DatabaseError error) {
-                    // Handle errors in fetching shifts.
-                    Toast.makeText(requireContext(), "Failed to fetch shifts: " + error.getMessage(), Toast.LENGTH_SHORT).show();
-                }
-            });
-        } else {
-            Toast.makeText(requireContext(), "User not logged in", Toast.LENGTH_SHORT).show();
+        if (currentUser == null) {
+            if (listShifts) {
+                Toast.makeText(requireContext(), "User not logged in", Toast.LENGTH_SHORT).show();
+            }
+            return;
         }
+
+        loadMonthReport(currentUser.getUid(), month, report -> {
+            if (!isAdded() || !report.getMonth().equals(shownMonth())) {
+                return;
+            }
+            if (listShifts) {
+                viewModel.setSelectedDay(null);
+                shiftsAdapter.submitList(report.getRows());
+            }
+            PayrollEngine.Result pay = report.getPay();
+            totalMonthlyEarningsTextView.setText(String.format(Locale.getDefault(),
+                    "Month Earnings: %s\nGross: %s | Bonuses: %s | Deductions: %s\nTravel: %s | Vacation: %s",
+                    Money.format(pay.getTotalPayCents()), Money.format(pay.getGrossPayCents()),
+                    Money.format(pay.getBonusesCents()), Money.format(pay.getDeductionsCents()),
+                    Money.format(pay.getTravelCents()), Money.format(pay.getVacationAccrualCents())));
+            totalMonthlyHoursTextView.setText("Total Hours Worked: " + Money.formatHours(report.getTotalMinutes()));
+        });
     }
 
     /**
-     * Fetches shifts for the entire month from the Firebase database and updates the RecyclerView.
+     * Loads the report of a month into the cache in the background, unless it is already cached.
      *
-     * @param month The month for which to fetch shifts.
+     * @param month The month to load.
      */
-    private void fetchShiftsForMonth(Date month) {
+    private void prefetchMonthReport(YearMonth month) {
         FirebaseUser currentUser = auth.getCurrentUser();
-        if (currentUser != null) {
-            String userEmail = currentUser.getEmail();
-            SimpleDateFormat monthYearFormat = new SimpleDateFormat("yyyy-MM", Locale.getDefault());
-            String selectedMonthYear = monthYearFormat.format(month);
-
-            // Query the database for shifts in the selected month for the current user.
-            Query shiftsQuery = databaseShifts.orderByChild("userEmail").equalTo(userEmail);
-            shiftsQuery.addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    ArrayList<Shift> shifts = new ArrayList<>();
-                    double totalEarnings = 0.0;
-                    double totalHours = 0.0;
-
-                    for (DataSnapshot dataSnapshot : snapshot.getChildren()) {
-                        Shift shift = dataSnapshot.getValue(Shift.class);
-                        // Filter shifts by the selected month and calculate totals.
-                        if (shift != null && shift.getFromDateTime().startsWith(selectedMonthYear)) {
-                            shifts.add(shift);
-                            totalEarnings += shift.getTotalEarnings();
-                            try {
-                                totalHours += calculateShiftHours(shift);
-                            } catch (ParseException e) {
-                                throw new RuntimeException(e);
-                            }
-                        }
-                    }
-                    // Update the RecyclerView with the fetched shifts and totals.
-                    shiftsAdapter.updateShifts(shifts);
-                    totalMonthlyEarningsTextView.setText(String.format(Locale.getDefault(), "Month Earnings: $%.2f", totalEarnings));
-                    totalMonthlyHoursTextView.setText(String.format(Locale.getDefault(), "Total Hours Worked: %.2f", totalHours));
-                }
-
-                @Override
-                public void onCancelled(@NonNull DatabaseError error) {
-                    // Handle errors in fetching shifts.
-                    Toast.makeText(requireContext(), "Failed to fetch shifts: " + error.getMessage(), Toast.LENGTH_SHORT).show();
-                }
-            });
-        } else {
-            Toast.makeText(requireContext(), "User not logged in", Toast.LENGTH_SHORT).show();
+        if (currentUser != null && !MonthCache.getInstance().contains(currentUser.getUid(), month.toString())) {
+            loadMonthReport(currentUser.getUid(), month, null);
         }
     }
 
     /**
-     * Calculates the total hours worked for a given shift.
+     * Gets the report of a month from the {@link MonthCache}, or fetches it from the Firebase database
+     * and caches it. The user's bucket for that month is downloaded together with the previous month's
+     * shifts that run into it. Pay is counted in the month a shift starts in, while hours are split at
+     * midnight and counted in the month they were worked in. Reads of the same bucket already in
+     * flight, for example a prefetch of the month paged to, are joined rather than issued again.
      *
-     * @param shift The shift for which to calculate hours worked.
-     * @return The total hours worked.
+     * @param uid      The user ID.
+     * @param month    The month to load.
+     * @param callback The callback receiving the report, or null to only fill the cache.
      */
-    private double calculateShiftHours(Shift shift) throws ParseException {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
+    private void loadMonthReport(String uid, YearMonth month, @Nullable MonthReportCallback callback) {
+        String monthKey = month.toString();
+        MonthReport cachedReport = MonthCache.getInstance().get(uid, monthKey);
+        if (cachedReport != null) {
+            if (callback != null) {
+                callback.onMonthReport(cachedReport);
+            }
+            return;
+        }
 
-        // Parse the start and end times of the shift.
-        Date fromDateTime = dateFormat.parse(shift.getFromDateTime());
-        Date toDateTime = dateFormat.parse(shift.getToDateTime());
+        // Query the tail of the previous month first, then the user's bucket for the month.
+        QueryGateway.getInstance().get(ShiftBuckets.previousMonthTail(uid, monthKey), new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot previousSnapshot) {
+                QueryGateway.getInstance().get(ShiftBuckets.monthRef(uid, monthKey), new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        if (getView() == null) {
+                            return;
+                        }
+                        // Decode and aggregate in the background; the workplaces are copied here, on the main thread.
+                        Map<String, Workplace> workplaces = workplacesByName();
+                        BackgroundDecoder.submit(getViewLifecycleOwner(),
+                                () -> buildMonthReport(month, previousSnapshot, snapshot, workplaces),
+                                report -> {
+                                    MonthCache.getInstance().put(uid, monthKey, report);
+                                    if (callback != null) {
+                                        callback.onMonthReport(report);
+                                    }
+                                });
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        showFetchError(error, callback != null);
+                    }
+                });
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                showFetchError(error, callback != null);
+            }
+        });
+    }
 
-        if (fromDateTime != null && toDateTime != null) {
-            // Calculate the difference in milliseconds and convert to hours.
-            long diffInMillis = toDateTime.getTime() - fromDateTime.getTime();
-            return (double) diffInMillis / (1000 * 60 * 60);
+    /**
+     * Reports a failed fetch. Failed prefetches are not shown to the user, since nothing was asked for.
+     *
+     * @param error     The database error.
+     * @param requested Whether the user asked for the data.
+     */
+    private void showFetchError(DatabaseError error, boolean requested) {
+        if (requested && isAdded()) {
+            // Handle errors in fetching shifts.
+            Toast.makeText(requireContext(), "Failed to fetch shifts: " + error.getMessage(), Toast.LENGTH_SHORT).show();
         }
+    }
 
-        return 0.0;
+    /**
+     * Gets the signed-in user's workplaces keyed by name.
+     *
+     * @return A copy of the workplaces that can be read on a background thread; empty if no user is signed in.
+     */
+    private static Map<String, Workplace> workplacesByName() {
+        WorkplaceRepository workplaceRepository = WorkplaceRepository.getInstance();
+        return workplaceRepository != null ? workplaceRepository.getWorkplacesByName() : new HashMap<>();
     }
 
     /**
-     * RecyclerView.Adapter for displaying a list of shifts.
+     * Builds the report of a month from the downloaded snapshots. Runs on a background thread.
+     *
+     * @param month            The month.
+     * @param previousSnapshot The shifts of the previous month that may run into the month.
+     * @param snapshot         The shifts of the month's bucket.
+     * @param workplaces       The user's workplaces keyed by name.
+     * @return The report.
      */
-    private static class ShiftsAdapter extends RecyclerView.Adapter<ShiftsAdapter.ShiftViewHolder> {
+    private static MonthReport buildMonthReport(YearMonth month, DataSnapshot previousSnapshot, DataSnapshot snapshot,
+                                                Map<String, Workplace> workplaces) {
+        ArrayList<Shift> shifts = readShifts(snapshot);
 
-        private final ArrayList<Shift> shifts;
+        // Calculate the month's pay with each workplace's pay parameters.
+        PayrollEngine.Result pay = calculateMonthPay(shifts, workplaces);
 
-        ShiftsAdapter(ArrayList<Shift> shifts) {
-            this.shifts = shifts;
-        }
+        // Split all shifts touching the month at midnight and sum the minutes inside it.
+        ShiftTimeline timeline = ShiftTimeline.ofMonth(month);
+        addToTimeline(timeline, readShifts(previousSnapshot), workplaces);
+        addToTimeline(timeline, shifts, workplaces);
 
-        /**
-         * Updates the shifts list and refreshes the RecyclerView.
-         *
-         * @param newShifts The new list of shifts to display.
-         */
-        void updateShifts(ArrayList<Shift> newShifts) {
-            shifts.clear();
-            shifts.addAll(newShifts);
-            notifyDataSetChanged();
-        }
+        return new MonthReport(month, shifts, pay, timeline.getTotalMinutes());
+    }
 
-        @NonNull
-        @Override
-        public ShiftViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-            // Inflate the layout for each shift item in the list.
-            View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.shift_item, parent, false);
-            return new ShiftViewHolder(view);
+    /**
+     * Decodes the shifts of a snapshot.
+     *
+     * @param snapshot The snapshot holding the shifts.
+     * @return The decoded shifts.
+     */
+    private static ArrayList<Shift> readShifts(DataSnapshot snapshot) {
+        ArrayList<Shift> shifts = new ArrayList<>();
+        for (DataSnapshot dataSnapshot : snapshot.getChildren()) {
+            Shift shift = ShiftCodec.decode(dataSnapshot);
+            if (shift != null) {
+                shifts.add(shift);
+            }
         }
+        return shifts;
+    }
 
-        @Override
-        public void onBindViewHolder(@NonNull ShiftViewHolder holder, int position) {
-            // Bind the shift data to the views in the ViewHolder.
-            Shift shift = shifts.get(position);
-            holder.workplaceNameTextView.setText(shift.getWorkplaceName());
-            holder.fromDateTimeTextView.setText(shift.getFromDateTime());
-            holder.toDateTimeTextView.setText(shift.getToDateTime());
-            holder.totalEarningsTextView.setText(String.format(Locale.getDefault(), "$%.2f", shift.getTotalEarnings()));
+    /**
+     * Adds shifts to a timeline, splitting each at midnight in its workplace's time zone.
+     * Shifts whose times cannot be resolved are skipped.
+     *
+     * @param timeline   The timeline to add the shifts to.
+     * @param shifts     The shifts.
+     * @param workplaces The user's workplaces keyed by name.
+     */
+    private static void addToTimeline(ShiftTimeline timeline, List<Shift> shifts, Map<String, Workplace> workplaces) {
+        for (Shift shift : shifts) {
+            if (ShiftTimes.resolve(shift)) {
+                timeline.add(shift.getStart(), shift.getEnd(), ShiftTimes.zoneOf(workplaces.get(shift.getWorkplaceName())));
+            }
         }
+    }
 
-        @Override
-        public int getItemCount() {
-            return shifts.size();
+    /**
+     * Calculates the pay breakdown of a month of shifts with the {@link PayrollEngine}, using the pay
+     * parameters of each shift's workplace. Shifts at workplaces that are not available, for example
+     * deleted ones, contribute their stored earnings instead. Shifts whose times cannot be resolved
+     * count with a duration of zero, which adds no working day for travel.
+     *
+     * @param shifts     The shifts of the month.
+     * @param workplaces The user's workplaces keyed by name.
+     * @return The combined pay breakdown of all workplaces.
+     */
+    private static PayrollEngine.Result calculateMonthPay(List<Shift> shifts, Map<String, Workplace> workplaces) {
+        // Group the shifts by workplace, since every workplace has its own pay parameters.
+        Map<String, List<Shift>> shiftsByWorkplace = new HashMap<>();
+        for (Shift shift : shifts) {
+            List<Shift> group = shiftsByWorkplace.get(shift.getWorkplaceName());
+            if (group == null) {
+                group = new ArrayList<>();
+                shiftsByWorkplace.put(shift.getWorkplaceName(), group);
+            }
+            group.add(shift);
         }
 
-        /**
-         * ViewHolder for displaying individual shift details.
-         */
-        static class ShiftViewHolder extends RecyclerView.ViewHolder {
-
-            TextView workplaceNameTextView;
-            TextView fromDateTimeTextView;
-            TextView toDateTimeTextView;
-            TextView totalEarningsTextView;
-
-            ShiftViewHolder(@NonNull View itemView) {
-                super(itemView);
-                workplaceNameTextView = itemView.findViewById(R.id.workplaceNameTextView);
-                fromDateTimeTextView = itemView.findViewById(R.id.fromDateTimeTextView);
-                toDateTimeTextView = itemView.findViewById(R.id.toDateTimeTextView);
-                totalEarningsTextView = itemView.findViewById(R.id.totalEarningsTextView);
+        int[] days = new int[shifts.size()];
+        int[] durations = new int[shifts.size()];
+        int offset = 0;
+        PayrollEngine.Result total = new PayrollEngine.Result(0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+        for (Map.Entry<String, List<Shift>> entry : shiftsByWorkplace.entrySet()) {
+            List<Shift> group = entry.getValue();
+            long groupMinutes = 0;
+            long storedEarningsCents = 0;
+            Workplace workplace = workplaces.get(entry.getKey());
+            ZoneId zone = ShiftTimes.zoneOf(workplace);
+            for (int i = 0; i < group.size(); i++) {
+                Shift shift = group.get(i);
+                if (ShiftTimes.resolve(shift)) {
+                    // Day of the month the shift starts on, in its workplace's time zone.
+                    days[offset + i] = Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(shift.getStart())).atZone(zone).getDayOfMonth();
+                    durations[offset + i] = shift.getDurationMinutes();
+                } else {
+                    days[offset + i] = 0; // Not a working day, since the duration is zero.
+                    durations[offset + i] = 0;
+                }
+                groupMinutes += durations[offset + i];
+                storedEarningsCents += shift.getEarningsCents();
+            }
+
+            if (workplace != null) {
+                total = total.plus(PayrollEngine.computeMonth(days, durations, offset, group.size(), workplace));
+            } else {
+                total = total.plus(new PayrollEngine.Result(group.size(), groupMinutes, groupMinutes, storedEarningsCents, 0, 0, 0, 0, 0));
             }
+            offset += group.size();
         }
+        return total;
     }
 
     /**
@@ -0,0 +1,234 @@
+package com.example.shiftgenie;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The MonthlyReportViewModel class holds the state of the {@link MonthlyReportFragment} for as long
+ * as the homepage activity lives: the month the calendar shows, the selected day, and the live
+ * {@link MonthIndex} of the calendar page. Switching tabs or rotating the screen keeps the index and
+ * its listeners, so the page is shown again at once without issuing any query. Month totals are kept
+ * by the {@link MonthCache}. The page's queries go through the {@link LiveQueryRegistry}, so paging
+ * back to a month within its grace period finds the shifts without querying again.
+ *
+ * <p>All calls must be made on the main thread.</p>
+ */
+public class MonthlyReportViewModel extends ScopedViewModel {
+
+    private final MutableLiveData<MonthIndex> monthIndex = new MutableLiveData<>(); // The index of the shown page, set again on every change.
+    private final MutableLiveData<String> error = new MutableLiveData<>(); // Message of an error not yet shown, or null.
+    private final List<LiveQueryRegistry.Subscription> pageSubscriptions = new ArrayList<>(); // Subscriptions feeding the month index.
+    private String indexedUid; // The user whose shifts are indexed, or null if none are.
+    private YearMonth shownMonth; // The month the calendar shows, or null before it first shows one.
+    private LocalDate selectedDay; // The day whose shifts are listed, or null if the month report is shown.
+
+    /**
+     * Gets the month the calendar shows.
+     *
+     * @return The month, or null if the calendar has not shown one yet.
+     */
+    @Nullable
+    public YearMonth getShownMonth() {
+        return shownMonth;
+    }
+
+    /**
+     * Gets the day whose shifts are listed.
+     *
+     * @return The day, or null if the month report is listed instead.
+     */
+    @Nullable
+    public LocalDate getSelectedDay() {
+        return selectedDay;
+    }
+
+    /**
+     * Sets the day whose shifts are listed.
+     *
+     * @param selectedDay The day, or null to list the month report instead.
+     */
+    public void setSelectedDay(@Nullable LocalDate selectedDay) {
+        this.selectedDay = selectedDay;
+    }
+
+    /**
+     * Gets the month index of the shown calendar page. It is set again every time a shift in it changes.
+     *
+     * @return The index, or null if no user is signed in.
+     */
+    public LiveData<MonthIndex> getMonthIndex() {
+        return monthIndex;
+    }
+
+    /**
+     * Gets the message of the last error not yet shown. Call {@link #consumeError()} once it is shown,
+     * so it is not shown again after a configuration change.
+     *
+     * @return The message, or null.
+     */
+    public LiveData<String> getError() {
+        return error;
+    }
+
+    /**
+     * Marks the last error as shown.
+     */
+    public void consumeError() {
+        error.setValue(null);
+    }
+
+    /**
+     * Shows a calendar page: builds its month index and keeps it up to date. Showing the page already
+     * shown keeps its index and listeners.
+     *
+     * @param uid   The signed-in user's ID, or null if no user is signed in.
+     * @param month The month the page shows.
+     */
+    public void showMonth(@Nullable String uid, YearMonth month) {
+        if (month.equals(shownMonth) && uid != null && uid.equals(indexedUid)) {
+            return;
+        }
+        shownMonth = month;
+        attachMonthIndex(uid, month);
+    }
+
+    /**
+     * Called when the homepage activity finishes; stops listening for changes to the shown page.
+     */
+    @Override
+    protected void onCleared() {
+        detachMonthIndex();
+        super.onCleared();
+    }
+
+    /**
+     * Builds the month index of a calendar page and keeps it up to date. The page's own month bucket
+     * is read in full; the buckets of the neighbouring months are only read for the shifts that touch
+     * the page's days, with a day of margin for time zones. Each shift added, changed or removed in
+     * the database updates the index and publishes it again.
+     *
+     * @param uid   The user ID, or null if no user is signed in.
+     * @param month The month the page shows.
+     */
+    private void attachMonthIndex(@Nullable String uid, YearMonth month) {
+        detachMonthIndex();
+        if (uid == null) {
+            monthIndex.setValue(null);
+            return;
+        }
+        indexedUid = uid;
+        MonthIndex index = new MonthIndex(month);
+
+        ChildEventListener pageListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                indexShift(index, snapshot);
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                invalidateMonthReports(uid, snapshot);
+                indexShift(index, snapshot);
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                invalidateMonthReports(uid, snapshot);
+                if (index.remove(snapshot.getKey())) {
+                    monthIndex.setValue(index);
+                }
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                // The index does not depend on the order of the shifts.
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError databaseError) {
+                // Handle errors in fetching shifts.
+                error.setValue("Failed to fetch shifts: " + databaseError.getMessage());
+            }
+        };
+
+        // Query every month bucket the page's 42 days reach into.
+        LocalDate firstDay = index.getFirstDay();
+        LocalDate endDay = firstDay.plusDays(MonthIndex.DAYS);
+        long margin = TimeUnit.DAYS.toMinutes(1);
+        long pageStart = TimeUnit.SECONDS.toMinutes(firstDay.atStartOfDay(ZoneOffset.UTC).toEpochSecond()) - margin;
+        long pageEnd = TimeUnit.SECONDS.toMinutes(endDay.atStartOfDay(ZoneOffset.UTC).toEpochSecond()) + margin;
+        for (YearMonth bucket = YearMonth.from(firstDay); !bucket.isAfter(YearMonth.from(endDay.minusDays(1))); bucket = bucket.plusMonths(1)) {
+            KeyedQuery query;
+            if (bucket.isBefore(month)) {
+                query = ShiftBuckets.endingAfter(uid, bucket.toString(), pageStart);
+            } else if (bucket.isAfter(month)) {
+                query = ShiftBuckets.startingUntil(uid, bucket.toString(), pageEnd);
+            } else {
+                query = KeyedQuery.of(ShiftBuckets.monthRef(uid, bucket.toString()));
+            }
+            pageSubscriptions.add(LiveQueryRegistry.getInstance().observeChildren(this, query, pageListener));
+        }
+        monthIndex.setValue(index);
+    }
+
+    /**
+     * Stops listening for changes to the shown calendar page.
+     */
+    private void detachMonthIndex() {
+        for (LiveQueryRegistry.Subscription subscription : pageSubscriptions) {
+            subscription.cancel();
+        }
+        pageSubscriptions.clear();
+        indexedUid = null;
+    }
+
+    /**
+     * Drops the cached reports a changed shift contributes to: the report of its bucket's month and,
+     * through night shifts running past the month's end, the report of the following month.
+     *
+     * @param uid      The user ID.
+     * @param snapshot The snapshot of the changed shift.
+     */
+    private static void invalidateMonthReports(String uid, DataSnapshot snapshot) {
+        DatabaseReference bucket = snapshot.getRef().getParent();
+        if (bucket == null || bucket.getKey() == null) {
+            return;
+        }
+        YearMonth month = YearMonth.parse(bucket.getKey());
+        MonthCache.getInstance().invalidate(uid, month.toString());
+        MonthCache.getInstance().invalidate(uid, month.plusMonths(1).toString());
+    }
+
+    /**
+     * Adds a shift reported by the database to a month index, replacing its previous version, and
+     * publishes the index if it changed.
+     *
+     * @param index    The month index.
+     * @param snapshot The snapshot of the shift.
+     */
+    private void indexShift(MonthIndex index, DataSnapshot snapshot) {
+        Shift shift = ShiftCodec.decode(snapshot);
+        if (shift == null) {
+            return;
+        }
+        WorkplaceRepository workplaceRepository = WorkplaceRepository.getInstance();
+        Workplace workplace = workplaceRepository != null ? workplaceRepository.findByName(shift.getWorkplaceName()) : null;
+        if (index.put(shift, ShiftTimes.zoneOf(workplace))) {
+            monthIndex.setValue(index);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.shiftgenie;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * The NearEndScrollListener class asks for the next page of a list when the last rows come into
+ * view. It is also checked after each page arrives, so pages keep loading until the screen is
+ * full even if the user never scrolls.
+ */
+public final class NearEndScrollListener extends RecyclerView.OnScrollListener {
+
+    private final int threshold;        // Rows left below the last visible row that trigger the next page.
+    private final Runnable onNearEnd;   // Requests the next page.
+
+    /**
+     * Creates a listener.
+     *
+     * @param threshold How many rows from the end the next page is requested.
+     * @param onNearEnd Requests the next page; it is called repeatedly and must ignore calls while loading.
+     */
+    public NearEndScrollListener(int threshold, Runnable onNearEnd) {
+        this.threshold = threshold;
+        this.onNearEnd = onNearEnd;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        check(recyclerView);
+    }
+
+    /**
+     * Requests the next page if the end of the list is in view or close to it.
+     *
+     * @param recyclerView The list, laid out by a LinearLayoutManager.
+     */
+    public void check(RecyclerView recyclerView) {
+        RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (adapter == null || layoutManager == null) {
+            return;
+        }
+        // An empty list has no visible row and always asks for the first page.
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible >= adapter.getItemCount() - 1 - threshold) {
+            onNearEnd.run();
+        }
+    }
+}
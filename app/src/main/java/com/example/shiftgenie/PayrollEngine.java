@@ -0,0 +1,305 @@
+package com.example.shiftgenie;
+
+import java.util.Arrays;
+
+/**
+ * The PayrollEngine class turns a month of shifts at one workplace into a pay breakdown using the
+ * workplace's pay parameters. It works on primitive arrays and keeps no state, so it can recompute
+ * a month for every user without allocating per shift. All amounts are in cents; each item of the
+ * breakdown is rounded to the cent once, from exact minute totals.
+ *
+ * <p>The pay rules are:</p>
+ * <ul>
+ *     <li>Each shift is paid for its duration minus the workplace's unpaid break, never below zero.</li>
+ *     <li>Gross pay is the paid time multiplied by the hourly wage.</li>
+ *     <li>The break deduction reports the wage value of the unpaid break time.</li>
+ *     <li>Every shift adds the per-shift bonus and subtracts the per-shift deduction.</li>
+ *     <li>Daily travel is paid once per distinct working day; shifts without any minutes do not make a working day.</li>
+ *     <li>Monthly travel is paid once if the month has at least one shift.</li>
+ *     <li>Vacation pay accrues as {@code vacationPayments} percent of gross pay.</li>
+ * </ul>
+ */
+public final class PayrollEngine {
+
+    private static final int MINUTES_PER_HOUR = 60;
+
+    private PayrollEngine() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Computes the pay breakdown of a month of shifts at a single workplace.
+     *
+     * @param days      A key of the calendar day each shift starts on, such as the day of the month.
+     * @param durations The duration of each shift in minutes.
+     * @param offset    The position of the first shift in the arrays.
+     * @param count     The number of shifts to read from the arrays.
+     * @param workplace The workplace whose pay parameters apply.
+     * @return The pay breakdown in cents.
+     */
+    public static Result computeMonth(int[] days, int[] durations, int offset, int count, Workplace workplace) {
+        double hourlyWage = workplace.getHourlyWage();
+        int breakMinutes = Math.max(0, workplace.getBreakTime());
+
+        long workedMinutes = 0;
+        long paidMinutes = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int duration = Math.max(0, durations[i]);
+            workedMinutes += duration;
+            paidMinutes += Math.max(0, duration - breakMinutes);
+        }
+
+        long grossPay = wageCents(paidMinutes, hourlyWage);
+        long breakDeduction = wageCents(workedMinutes - paidMinutes, hourlyWage);
+        long bonuses = count * Money.toCents(workplace.getBonusesPreShift());
+        long deductions = count * Money.toCents(workplace.getDeductionPreShift());
+        long travel = countWorkedDays(days, durations, offset, count) * Money.toCents(workplace.getDailyTravelExpenses())
+                + (count > 0 ? Money.toCents(workplace.getMonthlyTravelExpenses()) : 0);
+        long vacationAccrual = Math.round(grossPay * workplace.getVacationPayments() / 100.0);
+
+        return new Result(count, workedMinutes, paidMinutes, grossPay, breakDeduction, bonuses, deductions, travel, vacationAccrual);
+    }
+
+    /**
+     * Computes the earnings of a single shift: paid time at the hourly wage, plus the per-shift bonus,
+     * minus the per-shift deduction. Travel and vacation pay are monthly items and are not included.
+     *
+     * @param durationMinutes The duration of the shift in minutes.
+     * @param workplace       The workplace whose pay parameters apply.
+     * @return The earnings of the shift in cents.
+     */
+    public static long shiftEarningsCents(int durationMinutes, Workplace workplace) {
+        int paidMinutes = Math.max(0, durationMinutes - Math.max(0, workplace.getBreakTime()));
+        return wageCents(paidMinutes, workplace.getHourlyWage())
+                + Money.toCents(workplace.getBonusesPreShift()) - Money.toCents(workplace.getDeductionPreShift());
+    }
+
+    /**
+     * Calculates the wage for a number of minutes, rounded to the cent.
+     *
+     * @param minutes    The minutes.
+     * @param hourlyWage The hourly wage.
+     * @return The wage in cents.
+     */
+    private static long wageCents(long minutes, double hourlyWage) {
+        return Math.round(minutes * hourlyWage * 100 / MINUTES_PER_HOUR);
+    }
+
+    /**
+     * Counts the distinct days of the shifts in a range that have any minutes, so a shift whose
+     * times are unknown, counted with a duration of zero, adds no travel.
+     *
+     * @param days      The day keys.
+     * @param durations The duration of each shift in minutes.
+     * @param offset    The position of the first shift.
+     * @param count     The number of shifts.
+     * @return The number of distinct days worked.
+     */
+    static int countWorkedDays(int[] days, int[] durations, int offset, int count) {
+        int worked = 0;
+        for (int i = offset; i < offset + count; i++) {
+            if (durations[i] > 0) {
+                worked++;
+            }
+        }
+        if (worked == count) {
+            return countDistinctDays(days, offset, count);
+        }
+
+        // Only copy the days in the rare month with empty shifts.
+        int[] workedDays = new int[worked];
+        int next = 0;
+        for (int i = offset; i < offset + count; i++) {
+            if (durations[i] > 0) {
+                workedDays[next++] = days[i];
+            }
+        }
+        return countDistinctDays(workedDays, 0, worked);
+    }
+
+    /**
+     * Counts the distinct day keys in a range of the array.
+     * A month spans fewer than 64 days, so a single bit mask is enough in the common case.
+     *
+     * @param days   The day keys.
+     * @param offset The position of the first day key.
+     * @param count  The number of day keys.
+     * @return The number of distinct day keys.
+     */
+    static int countDistinctDays(int[] days, int offset, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = offset; i < offset + count; i++) {
+            min = Math.min(min, days[i]);
+            max = Math.max(max, days[i]);
+        }
+
+        if ((long) max - min < Long.SIZE) {
+            long mask = 0;
+            for (int i = offset; i < offset + count; i++) {
+                mask |= 1L << (days[i] - min);
+            }
+            return Long.bitCount(mask);
+        }
+
+        // Wider ranges fall back to sorting a copy.
+        int[] sorted = new int[count];
+        System.arraycopy(days, offset, sorted, 0, count);
+        Arrays.sort(sorted);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (sorted[i] != sorted[i - 1]) {
+                distinct++;
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * The Result class holds the pay breakdown of a month at one workplace, in cents.
+     */
+    public static final class Result {
+        private final int shiftsCount;              // Number of shifts in the month.
+        private final long workedMinutes;           // Minutes worked, including breaks.
+        private final long paidMinutes;             // Minutes paid, excluding breaks.
+        private final long grossPayCents;           // Paid time at the hourly wage.
+        private final long breakDeductionCents;     // Wage value of the unpaid breaks.
+        private final long bonusesCents;            // Sum of the per-shift bonuses.
+        private final long deductionsCents;         // Sum of the per-shift deductions.
+        private final long travelCents;             // Daily and monthly travel expenses.
+        private final long vacationAccrualCents;    // Vacation pay accrued on the gross pay.
+
+        /**
+         * Constructor to initialize all fields of the Result object.
+         *
+         * @param shiftsCount          Number of shifts in the month.
+         * @param workedMinutes        Minutes worked, including breaks.
+         * @param paidMinutes          Minutes paid, excluding breaks.
+         * @param grossPayCents        Paid time at the hourly wage.
+         * @param breakDeductionCents  Wage value of the unpaid breaks.
+         * @param bonusesCents         Sum of the per-shift bonuses.
+         * @param deductionsCents      Sum of the per-shift deductions.
+         * @param travelCents          Daily and monthly travel expenses.
+         * @param vacationAccrualCents Vacation pay accrued on the gross pay.
+         */
+        public Result(int shiftsCount, long workedMinutes, long paidMinutes, long grossPayCents, long breakDeductionCents,
+                      long bonusesCents, long deductionsCents, long travelCents, long vacationAccrualCents) {
+            this.shiftsCount = shiftsCount;
+            this.workedMinutes = workedMinutes;
+            this.paidMinutes = paidMinutes;
+            this.grossPayCents = grossPayCents;
+            this.breakDeductionCents = breakDeductionCents;
+            this.bonusesCents = bonusesCents;
+            this.deductionsCents = deductionsCents;
+            this.travelCents = travelCents;
+            this.vacationAccrualCents = vacationAccrualCents;
+        }
+
+        /**
+         * Gets the number of shifts in the month.
+         *
+         * @return The number of shifts.
+         */
+        public int getShiftsCount() {
+            return shiftsCount;
+        }
+
+        /**
+         * Gets the minutes worked, including breaks.
+         *
+         * @return The minutes worked.
+         */
+        public long getWorkedMinutes() {
+            return workedMinutes;
+        }
+
+        /**
+         * Gets the minutes paid, excluding breaks.
+         *
+         * @return The minutes paid.
+         */
+        public long getPaidMinutes() {
+            return paidMinutes;
+        }
+
+        /**
+         * Gets the paid time at the hourly wage.
+         *
+         * @return The gross pay in cents.
+         */
+        public long getGrossPayCents() {
+            return grossPayCents;
+        }
+
+        /**
+         * Gets the wage value of the unpaid breaks.
+         *
+         * @return The break deduction in cents.
+         */
+        public long getBreakDeductionCents() {
+            return breakDeductionCents;
+        }
+
+        /**
+         * Gets the sum of the per-shift bonuses.
+         *
+         * @return The bonuses in cents.
+         */
+        public long getBonusesCents() {
+            return bonusesCents;
+        }
+
+        /**
+         * Gets the sum of the per-shift deductions.
+         *
+         * @return The deductions in cents.
+         */
+        public long getDeductionsCents() {
+            return deductionsCents;
+        }
+
+        /**
+         * Gets the daily and monthly travel expenses.
+         *
+         * @return The travel expenses in cents.
+         */
+        public long getTravelCents() {
+            return travelCents;
+        }
+
+        /**
+         * Gets the vacation pay accrued on the gross pay.
+         *
+         * @return The vacation accrual in cents.
+         */
+        public long getVacationAccrualCents() {
+            return vacationAccrualCents;
+        }
+
+        /**
+         * Gets the total pay: gross pay plus bonuses, travel and vacation accrual, minus deductions.
+         *
+         * @return The total pay in cents.
+         */
+        public long getTotalPayCents() {
+            return grossPayCents + bonusesCents - deductionsCents + travelCents + vacationAccrualCents;
+        }
+
+        /**
+         * Adds another breakdown to this one, for example to combine several workplaces.
+         *
+         * @param other The breakdown to add.
+         * @return The combined breakdown.
+         */
+        public Result plus(Result other) {
+            return new Result(shiftsCount + other.shiftsCount, workedMinutes + other.workedMinutes,
+                    paidMinutes + other.paidMinutes, grossPayCents + other.grossPayCents,
+                    breakDeductionCents + other.breakDeductionCents, bonusesCents + other.bonusesCents,
+                    deductionsCents + other.deductionsCents, travelCents + other.travelCents,
+                    vacationAccrualCents + other.vacationAccrualCents);
+        }
+    }
+}
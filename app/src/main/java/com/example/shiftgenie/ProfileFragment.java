@@ -2,15 +2,16 @@ package com.example.shiftgenie;
 
 import android.app.Activity;
 import android.content.Intent;
-import android.graphics.Bitmap;
+import android.content.Context;
 import android.net.Uri;
 import android.os.Bundle;
-import android.provider.MediaStore;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.ImageView;
+import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
@@ -22,18 +23,19 @@ import com.bumptech.glide.Glide;
 import com.github.dhaval2404.imagepicker.ImagePicker;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.database.ChildEventListener;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
+import com.google.firebase.database.ServerValue;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
-import com.google.firebase.storage.UploadTask;
 
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.Map;
 
 import de.hdodenhof.circleimageview.CircleImageView;
 
@@ -43,6 +45,8 @@ import de.hdodenhof.circleimageview.CircleImageView;
  */
 public class ProfileFragment extends Fragment {
 
+    private static final String TAG = "ProfileFragment"; // Tag used for logging.
+
     private CircleImageView profileImage; // Circular ImageView for displaying the user's profile picture.
     private TextView userName, userMobile, userEmail, userAge, user_email_title; // TextViews for displaying user information.
     private DatabaseReference databaseReference; // Reference to the user's data in Firebase Realtime Database.
@@ -50,6 +54,13 @@ public class ProfileFragment extends Fragment {
     private FirebaseAuth auth; // Firebase Authentication instance.
     private FirebaseUser currentUser; // Currently logged-in user.
     private Button logoutButton; // Button for logging out the user.
+    private ProgressBar uploadProgress; // Progress of the profile image upload.
+    private ProfileImageUploader imageUploader; // Uploads the encoded profile image and resumes interrupted uploads.
+    private final String[] imageVariantUrls = new String[AvatarVariants.SIZES.length]; // URLs of the reduced profile images, by size.
+    private String imageOriginalUrl; // URL of the full profile image.
+    private long imageVersion; // Version of the profile image, the signature of its loads.
+    private AvatarImages.ShownImage shownImage; // The profile image the view shows, tracked per view.
+    private final Runnable showProfileImage = this::showProfileImage; // Loads the profile image once the changed fields are in.
 
     /**
      * Called to have the fragment instantiate its user interface view.
@@ -66,6 +77,7 @@ public class ProfileFragment extends Fragment {
         View view = inflater.inflate(R.layout.fragment_profile, container, false);
 
         // Initialize UI components.
+        shownImage = new AvatarImages.ShownImage(); // A new view shows no image yet.
         profileImage = view.findViewById(R.id.profile_image);
         userName = view.findViewById(R.id.user_name);
         userMobile = view.findViewById(R.id.user_mobile);
@@ -73,6 +85,7 @@ public class ProfileFragment extends Fragment {
         user_email_title = view.findViewById(R.id.user_email_title);
         userAge = view.findViewById(R.id.user_age);
         logoutButton = view.findViewById(R.id.log);
+        uploadProgress = view.findViewById(R.id.profile_upload_progress);
 
         // Initialize Firebase Authentication and get the current user.
         auth = FirebaseAuth.getInstance();
@@ -82,6 +95,7 @@ public class ProfileFragment extends Fragment {
         databaseReference = FirebaseDatabase.getInstance().getReference("Users").child(currentUser.getUid());
         // Initialize Firebase Storage reference for storing profile images.
         storageReference = FirebaseStorage.getInstance().getReference("ProfileImages");
+        imageUploader = new ProfileImageUploader(requireContext(), storageReference.child(currentUser.getUid()));
 
         // Set an onClick listener for the profile image to allow the user to change it.
         profileImage.setOnClickListener(new View.OnClickListener() {
@@ -96,12 +110,11 @@ public class ProfileFragment extends Fragment {
             }
         });
 
-        // Load user information from Firebase Realtime Database.
-        loadUserInfo();
-
         // Set an onClick listener for the logout button to sign the user out.
         logoutButton.setOnClickListener(v -> {
             auth.signOut(); // Sign out the user from Firebase Authentication.
+            // Sign out of the Google account too, so the next Google sign-in shows the account picker.
+            GoogleAccounts.get(requireContext()).signOut();
             // Redirect the user to the MainActivity.
             startActivity(new Intent(getActivity(), MainActivity.class));
             getActivity().finish(); // Close the current activity.
@@ -110,34 +123,50 @@ public class ProfileFragment extends Fragment {
         return view;
     }
 
+    /**
+     * Called once the view exists; starts listening for changes to the user's information until the view is destroyed.
+     *
+     * @param view               The View returned by onCreateView.
+     * @param savedInstanceState If non-null, this fragment is being re-constructed from a previous saved state as given here.
+     */
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        // Load user information from Firebase Realtime Database.
+        loadUserInfo();
+        // Pick up an upload still running, or resume one interrupted with the app.
+        if (imageUploader.resumePending(requireActivity(), uploadListener)) {
+            showUploadProgress(0);
+        }
+    }
+
     /**
      * Loads the user's information from Firebase Realtime Database and updates the UI.
+     * Each field of the user is listened to on its own, so a changed field only updates its own view;
+     * in particular the profile image is only reloaded when the URL it picks changes. The listener is shared
+     * through the {@link LiveQueryRegistry} and removed with the view.
      */
     private void loadUserInfo() {
-        // Add a listener to retrieve user data from the database.
-        databaseReference.addValueEventListener(new ValueEventListener() {
+        // Add a listener to retrieve the user's fields from the database.
+        ChildEventListener userInfoListener = new ChildEventListener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (snapshot.exists()) {
-                    // Retrieve user information from the database snapshot.
-                    String name = snapshot.child("username").getValue(String.class);
-                    String mobile = snapshot.child("phoneNumber").getValue(String.class);
-                    String email = snapshot.child("email").getValue(String.class);
-                    String age = snapshot.child("age").getValue(String.class);
-                    String profileImageUrl = snapshot.child("profileImage").getValue(String.class);
-
-                    // Update the UI with the retrieved information.
-                    userName.setText(name);
-                    user_email_title.setText(name);
-                    userMobile.setText(mobile);
-                    userEmail.setText(email);
-                    userAge.setText(age);
-
-                    // Load the profile image using Glide if the URL is available.
-                    if (profileImageUrl != null && !profileImageUrl.isEmpty()) {
-                        Glide.with(ProfileFragment.this).load(profileImageUrl).into(profileImage);
-                    }
-                }
+            public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                showUserField(snapshot.getKey(), snapshot.getValue());
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                showUserField(snapshot.getKey(), snapshot.getValue());
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                showUserField(snapshot.getKey(), null);
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                // The order of the fields does not matter.
             }
 
             @Override
@@ -145,7 +174,75 @@ public class ProfileFragment extends Fragment {
                 // Show an error message if the user info fails to load.
                 Toast.makeText(getActivity(), "Failed to load user info", Toast.LENGTH_SHORT).show();
             }
-        });
+        };
+        LiveQueryRegistry.getInstance().observeChildren(getViewLifecycleOwner(), databaseReference, userInfoListener);
+    }
+
+    /**
+     * Updates the view showing one field of the user's information.
+     *
+     * @param field The name of the field in the database.
+     * @param value The new value of the field, or null if it was removed.
+     */
+    private void showUserField(String field, @Nullable Object value) {
+        String text = value != null ? String.valueOf(value) : null;
+        switch (field) {
+            case "username":
+                userName.setText(text);
+                user_email_title.setText(text);
+                break;
+            case "phoneNumber":
+                userMobile.setText(text);
+                break;
+            case "email":
+                userEmail.setText(text);
+                break;
+            case "age":
+                userAge.setText(text);
+                break;
+            case "profileImage":
+                imageOriginalUrl = text;
+                scheduleProfileImage();
+                break;
+            case AvatarImages.VERSION_FIELD:
+                imageVersion = CodecValues.toLong(value);
+                scheduleProfileImage();
+                break;
+            default:
+                for (int i = 0; i < AvatarVariants.SIZES.length; i++) {
+                    if (AvatarVariants.fieldOf(AvatarVariants.nameOf(AvatarVariants.SIZES[i])).equals(field)) {
+                        imageVariantUrls[i] = text;
+                        scheduleProfileImage();
+                    }
+                }
+                // Other fields, such as the shift totals, are not shown on the profile.
+                break;
+        }
+    }
+
+    /**
+     * Loads the profile image after the fields changed together have all arrived, so the image
+     * fields of one update load a single variant.
+     */
+    private void scheduleProfileImage() {
+        profileImage.removeCallbacks(showProfileImage);
+        profileImage.post(showProfileImage);
+    }
+
+    /**
+     * Loads the smallest profile image variant that covers the view using Glide, signed by its
+     * version, unless it is already shown.
+     */
+    private void showProfileImage() {
+        if (getView() == null) {
+            return;
+        }
+        String url = AvatarVariants.pick(profileImage.getLayoutParams().width, imageVariantUrls, imageOriginalUrl);
+        if (url == null || url.isEmpty()) {
+            return;
+        }
+        shownImage.load(AvatarImages.keyOf(url, imageVersion),
+                AvatarImages.request(Glide.with(ProfileFragment.this), url, imageVersion), profileImage);
     }
 
     /**
@@ -158,45 +255,105 @@ public class ProfileFragment extends Fragment {
     @Override
     public void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
         super.onActivityResult(requestCode, resultCode, data);
-        if (resultCode == Activity.RESULT_OK && data != null) {
+        if (resultCode == Activity.RESULT_OK && data != null && data.getData() != null) {
             // Get the URI of the selected image.
             Uri uri = data.getData();
-            profileImage.setImageURI(uri); // Display the selected image in the ImageView.
-            try {
-                uploadImageToFirebase(uri); // Upload the selected image to Firebase Storage.
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+            // Display the selected image, decoded in the background at the size of the view.
+            Glide.with(ProfileFragment.this).load(uri).into(profileImage);
+            shownImage.forget(); // The uploaded image replaces the preview once its URLs arrive.
+            uploadImageToFirebase(uri); // Upload the selected image to Firebase Storage.
         }
     }
 
     /**
-     * Uploads the selected profile image to Firebase Storage and updates the database.
+     * Uploads the selected profile image to Firebase Storage and updates the database. The image is
+     * downsampled, turned upright and encoded in each of its {@link AvatarVariants} within their byte
+     * budgets on a background thread, then the encoded files are streamed to Firebase Storage with
+     * their progress shown.
      *
      * @param uri The URI of the selected image.
      */
-    private void uploadImageToFirebase(Uri uri) throws IOException {
-        // Convert the image URI to a Bitmap.
-        Bitmap bitmap = MediaStore.Images.Media.getBitmap(getActivity().getContentResolver(), uri);
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.JPEG, 100, baos); // Compress the bitmap to JPEG format.
-        byte[] data = baos.toByteArray(); // Convert the bitmap to a byte array.
-
-        // Create a reference to the profile image location in Firebase Storage.
-        StorageReference profileImageRef = storageReference.child(currentUser.getUid() + ".jpg");
-        // Upload the image data to Firebase Storage.
-        UploadTask uploadTask = profileImageRef.putBytes(data);
-        uploadTask.addOnSuccessListener(taskSnapshot -> {
-            // Get the download URL of the uploaded image and update the user's profile image URL in the database.
-            profileImageRef.getDownloadUrl().addOnSuccessListener(uri1 -> {
-                HashMap<String, Object> map = new HashMap<>();
-                map.put("profileImage", uri1.toString());
-                databaseReference.updateChildren(map); // Update the user's profile image URL in the database.
-                Toast.makeText(getActivity(), "Profile image uploaded", Toast.LENGTH_SHORT).show();
-            });
-        }).addOnFailureListener(e -> {
+    private void uploadImageToFirebase(Uri uri) {
+        Context appContext = requireContext().getApplicationContext();
+        showUploadProgress(0);
+        BackgroundDecoder.submit(getViewLifecycleOwner(), () -> encodeImage(appContext, uri), files -> {
+            if (files == null) {
+                hideUploadProgress();
+                Toast.makeText(getActivity(), "Failed to upload profile image", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            imageUploader.upload(requireActivity(), files, uploadListener);
+        });
+    }
+
+    /**
+     * Encodes an image into the upload files of its variants. Runs on a background thread.
+     *
+     * @param context The application context, whose files directory holds the upload files.
+     * @param uri     The URI of the image.
+     * @return The files written by variant name, or null if the image could not be encoded.
+     */
+    @Nullable
+    private static Map<String, File> encodeImage(Context context, Uri uri) {
+        try {
+            return ProfileImageEncoder.encodeVariants(context.getContentResolver(), uri, context.getFilesDir());
+        } catch (IOException | OutOfMemoryError e) {
+            Log.w(TAG, "Could not encode " + uri, e);
+            return null;
+        }
+    }
+
+    /**
+     * Listener showing the progress of the profile image upload and saving the URLs of its variants once uploaded.
+     */
+    private final ProfileImageUploader.Listener uploadListener = new ProfileImageUploader.Listener() {
+        @Override
+        public void onProgress(int percent) {
+            showUploadProgress(percent);
+        }
+
+        @Override
+        public void onUploaded(@NonNull Map<String, Uri> downloadUrls) {
+            hideUploadProgress();
+            // Update the URLs of all variants in the database in one write.
+            HashMap<String, Object> map = new HashMap<>();
+            for (Map.Entry<String, Uri> downloadUrl : downloadUrls.entrySet()) {
+                map.put(AvatarVariants.fieldOf(downloadUrl.getKey()), downloadUrl.getValue().toString());
+            }
+            // A new version makes every cached copy of the old image stale, even under the same URLs.
+            map.put(AvatarImages.VERSION_FIELD, ServerValue.TIMESTAMP);
+            databaseReference.updateChildren(map);
+            Toast.makeText(getActivity(), "Profile image uploaded", Toast.LENGTH_SHORT).show();
+        }
+
+        @Override
+        public void onFailed(@NonNull Exception e) {
             // Show an error message if the upload fails.
+            hideUploadProgress();
+            Log.w(TAG, "Profile image upload failed", e);
             Toast.makeText(getActivity(), "Failed to upload profile image", Toast.LENGTH_SHORT).show();
-        });
+        }
+    };
+
+    /**
+     * Shows the upload progress bar.
+     *
+     * @param percent The share of the image uploaded, from 0 to 100.
+     */
+    private void showUploadProgress(int percent) {
+        if (getView() == null) {
+            return;
+        }
+        uploadProgress.setVisibility(View.VISIBLE);
+        uploadProgress.setProgress(percent);
+    }
+
+    /**
+     * Hides the upload progress bar.
+     */
+    private void hideUploadProgress() {
+        if (getView() != null) {
+            uploadProgress.setVisibility(View.GONE);
+        }
     }
 }
@@ -0,0 +1,293 @@
+package com.example.shiftgenie;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.net.Uri;
+import android.os.Build;
+
+import androidx.exifinterface.media.ExifInterface;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The ProfileImageEncoder class turns a picked photo into a small upload file. A 12 MP photo
+ * decoded in full takes about 48 MB and encodes to several megabytes, while a profile picture is
+ * never shown larger than a few hundred pixels.
+ *
+ * <p>The photo is decoded with an {@code inSampleSize} that keeps it at least as large as the
+ * target, then scaled to the target and turned upright according to its EXIF orientation in one
+ * step. It is encoded as lossy WebP where available and as JPEG otherwise, at the highest quality
+ * that fits the byte budget. The {@link AvatarVariants} are scaled from the same decoded image, so
+ * the photo is read and decoded once per upload. All of this runs on a background thread.</p>
+ */
+public final class ProfileImageEncoder {
+
+    static final int MAX_DIMENSION = 1024;      // Longest side of the full encoded image, in pixels.
+    static final int BYTE_BUDGET = 200 * 1024;  // Size the full encoded image should fit in, in bytes.
+    static final int MAX_QUALITY = 90;          // Quality tried first.
+    static final int MIN_QUALITY = 40;          // Lowest quality used, even if the budget is exceeded.
+    private static final int QUALITY_STEP = 5;  // Granularity of the quality search.
+
+    private ProfileImageEncoder() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Gets the format images are encoded in: lossy WebP from Android 11, where it is a distinct
+     * format, and JPEG before.
+     *
+     * @return The compress format.
+     */
+    @SuppressWarnings("deprecation")
+    public static Bitmap.CompressFormat format() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R ? Bitmap.CompressFormat.WEBP_LOSSY : Bitmap.CompressFormat.JPEG;
+    }
+
+    /**
+     * Gets the file extension of the format images are encoded in.
+     *
+     * @return "webp" or "jpg".
+     */
+    public static String extension() {
+        return format() == Bitmap.CompressFormat.JPEG ? "jpg" : "webp";
+    }
+
+    /**
+     * Gets the MIME type of the format images are encoded in.
+     *
+     * @return "image/webp" or "image/jpeg".
+     */
+    public static String mimeType() {
+        return format() == Bitmap.CompressFormat.JPEG ? "image/jpeg" : "image/webp";
+    }
+
+    /**
+     * Decodes, scales and orients an image once, then encodes the full image and each of its
+     * {@link AvatarVariants} into files. Runs on a background thread.
+     *
+     * @param resolver The content resolver opening the image.
+     * @param uri      The URI of the image.
+     * @param dir      The directory to write the files to; files of an earlier encode are replaced.
+     * @return The files written, keyed by variant name, from the smallest variant to the full image.
+     * @throws IOException If the image cannot be read or a file cannot be written.
+     */
+    public static Map<String, File> encodeVariants(ContentResolver resolver, Uri uri, File dir) throws IOException {
+        Bitmap upright = decodeUpright(resolver, uri, MAX_DIMENSION);
+        Bitmap.CompressFormat format = format();
+        Map<String, File> files = new LinkedHashMap<>();
+        try {
+            int longest = Math.max(upright.getWidth(), upright.getHeight());
+            for (int i = 0; i < AvatarVariants.SIZES.length; i++) {
+                // Each variant is scaled from the decoded image, never from a smaller variant.
+                int size = AvatarVariants.SIZES[i];
+                Bitmap scaled = upright;
+                if (size < longest) {
+                    scaled = Bitmap.createScaledBitmap(upright, Math.max(1, upright.getWidth() * size / longest),
+                            Math.max(1, upright.getHeight() * size / longest), true);
+                }
+                String name = AvatarVariants.nameOf(size);
+                files.put(name, write(compressToBudget(scaled, format, AvatarVariants.BYTE_BUDGETS[i]), fileOf(dir, name)));
+                if (scaled != upright) {
+                    scaled.recycle();
+                }
+            }
+            files.put(AvatarVariants.ORIGINAL, write(compressToBudget(upright, format, BYTE_BUDGET), fileOf(dir, AvatarVariants.ORIGINAL)));
+        } finally {
+            upright.recycle();
+        }
+        return files;
+    }
+
+    /**
+     * Gets the file a variant is encoded into.
+     *
+     * @param dir  The directory of the encoded files.
+     * @param name The name of the variant.
+     * @return The file.
+     */
+    public static File fileOf(File dir, String name) {
+        return new File(dir, "profile_upload_" + name + "." + extension());
+    }
+
+    /**
+     * Decodes an image no larger than needed, scaled to fit a size and turned upright.
+     *
+     * @param resolver     The content resolver opening the image.
+     * @param uri          The URI of the image.
+     * @param maxDimension The longest side of the result, in pixels.
+     * @return The bitmap.
+     * @throws IOException If the image cannot be read.
+     */
+    private static Bitmap decodeUpright(ContentResolver resolver, Uri uri, int maxDimension) throws IOException {
+        // Read the size and orientation without decoding any pixels.
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(resolver, uri)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Not an image: " + uri);
+        }
+        int orientation;
+        try (InputStream in = open(resolver, uri)) {
+            orientation = new ExifInterface(in).getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        }
+
+        // Decode at the smallest power-of-two reduction that is still at least as large as the target.
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = computeInSampleSize(bounds.outWidth, bounds.outHeight, maxDimension);
+        Bitmap decoded;
+        try (InputStream in = open(resolver, uri)) {
+            decoded = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (decoded == null) {
+            throw new IOException("Cannot decode " + uri);
+        }
+
+        // Scale to the target and turn upright in one pass.
+        float scale = Math.min(1f, (float) maxDimension / Math.max(decoded.getWidth(), decoded.getHeight()));
+        Matrix matrix = new Matrix();
+        matrix.setScale(scale, scale);
+        applyOrientation(matrix, orientation);
+        Bitmap upright = Bitmap.createBitmap(decoded, 0, 0, decoded.getWidth(), decoded.getHeight(), matrix, true);
+        if (upright != decoded) {
+            decoded.recycle();
+        }
+        return upright;
+    }
+
+    /**
+     * Writes encoded bytes to a file, replacing it.
+     *
+     * @param bytes The encoded image.
+     * @param file  The file.
+     * @return The file.
+     * @throws IOException If the file cannot be written.
+     */
+    private static File write(byte[] bytes, File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(bytes);
+        }
+        return file;
+    }
+
+    /**
+     * Computes the largest power-of-two reduction that keeps the longest side of an image at least
+     * as long as the target's, so the final scaling only ever shrinks.
+     *
+     * @param width        The width of the image, in pixels.
+     * @param height       The height of the image, in pixels.
+     * @param maxDimension The longest side of the target, in pixels.
+     * @return The sample size, at least 1.
+     */
+    static int computeInSampleSize(int width, int height, int maxDimension) {
+        int longest = Math.max(width, height);
+        int sampleSize = 1;
+        while (longest / (sampleSize * 2) >= maxDimension) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * Adds the rotation or flip that turns an image upright to a matrix.
+     *
+     * @param matrix      The matrix, already scaling the image.
+     * @param orientation The EXIF orientation of the image.
+     */
+    private static void applyOrientation(Matrix matrix, int orientation) {
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.postRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.postScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.postRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.postRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.postRotate(-90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.postRotate(-90);
+                break;
+            default:
+                // Already upright.
+                break;
+        }
+    }
+
+    /**
+     * Encodes a bitmap at the highest quality, in steps of {@link #QUALITY_STEP}, that fits the byte
+     * budget, found by binary search so only a few encodes are needed. If even the lowest quality
+     * does not fit, the image is encoded at the lowest quality.
+     *
+     * @param bitmap     The bitmap.
+     * @param format     The format to encode in.
+     * @param byteBudget The size the encoded image should fit in, in bytes.
+     * @return The encoded image.
+     */
+    private static byte[] compressToBudget(Bitmap bitmap, Bitmap.CompressFormat format, int byteBudget) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(byteBudget);
+        bitmap.compress(format, MAX_QUALITY, out);
+        if (out.size() <= byteBudget) {
+            return out.toByteArray();
+        }
+        // Search the qualities below the first attempt; the lowest is the fallback.
+        int low = 0;
+        int high = (MAX_QUALITY - MIN_QUALITY) / QUALITY_STEP - 1;
+        byte[] best = null;
+        while (low <= high) {
+            int step = (low + high) >>> 1;
+            out.reset();
+            bitmap.compress(format, MIN_QUALITY + step * QUALITY_STEP, out);
+            if (out.size() <= byteBudget) {
+                best = out.toByteArray();
+                low = step + 1;
+            } else {
+                high = step - 1;
+            }
+        }
+        if (best == null) {
+            out.reset();
+            bitmap.compress(format, MIN_QUALITY, out);
+            best = out.toByteArray();
+        }
+        return best;
+    }
+
+    /**
+     * Opens an image for reading.
+     *
+     * @param resolver The content resolver.
+     * @param uri      The URI of the image.
+     * @return The stream.
+     * @throws FileNotFoundException If the image cannot be opened.
+     */
+    private static InputStream open(ContentResolver resolver, Uri uri) throws FileNotFoundException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) {
+            throw new FileNotFoundException("Cannot open " + uri);
+        }
+        return in;
+    }
+}
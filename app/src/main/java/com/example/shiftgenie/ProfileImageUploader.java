@@ -0,0 +1,246 @@
+package com.example.shiftgenie;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.storage.StorageMetadata;
+import com.google.firebase.storage.StorageReference;
+import com.google.firebase.storage.UploadTask;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ProfileImageUploader class uploads the encoded files of a profile image, one per
+ * {@link AvatarVariants} variant, to Firebase Storage with {@code putFile}, which streams each file
+ * in chunks instead of holding it in memory, and reports their combined progress. Each variant is
+ * stored as {@code {name}.{extension}} in the uploader's directory.
+ *
+ * <p>The upload sessions are saved as the uploads go, so uploads interrupted by the process being
+ * killed resume where they stopped the next time the profile is shown, variants already uploaded
+ * are not sent again, and uploads still running when the screen is recreated are picked up again.</p>
+ *
+ * <p>Listeners are bound to an activity and removed when it stops.</p>
+ */
+public final class ProfileImageUploader {
+
+    private static final String TAG = "ProfileImageUploader";       // Tag used for logging.
+    private static final String PREFS_NAME = "profile_image_upload"; // Preferences holding the interrupted upload.
+    private static final String KEY_FILE = "file_";                 // Prefix of the path of each variant's file.
+    private static final String KEY_SESSION = "session_";           // Prefix of the URI of each variant's upload session.
+    private static final String KEY_DONE = "done_";                 // Prefix of the flag set once a variant is uploaded.
+
+    private final SharedPreferences prefs;  // Holds the upload to resume.
+    private final StorageReference dirRef;  // Directory the variants are uploaded to.
+
+    /**
+     * Listener notified of the progress and outcome of an upload, on the main thread.
+     */
+    public interface Listener {
+        void onProgress(int percent);
+
+        void onUploaded(@NonNull Map<String, Uri> downloadUrls);
+
+        void onFailed(@NonNull Exception e);
+    }
+
+    /**
+     * The bytes sent of each variant in one upload, combined into one progress.
+     */
+    private static final class Progress {
+        final Map<String, Long> sent = new HashMap<>(); // Bytes sent by variant name.
+        final Map<String, Long> sizes = new HashMap<>(); // Size by variant name, in bytes.
+
+        /**
+         * Computes the progress over all variants.
+         *
+         * @return The percentage of bytes sent.
+         */
+        int percent() {
+            long total = 0;
+            long done = 0;
+            for (Map.Entry<String, Long> size : sizes.entrySet()) {
+                total += size.getValue();
+                Long sentBytes = sent.get(size.getKey());
+                done += sentBytes != null ? Math.min(sentBytes, size.getValue()) : 0;
+            }
+            return total > 0 ? (int) (100 * done / total) : 0;
+        }
+    }
+
+    /**
+     * Constructor to initialize an uploader for one directory.
+     *
+     * @param context The context, used for the preferences.
+     * @param dirRef  The directory the variants are uploaded to.
+     */
+    public ProfileImageUploader(Context context, StorageReference dirRef) {
+        this.prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.dirRef = dirRef;
+    }
+
+    /**
+     * Starts uploading the variants of an image, replacing any interrupted upload.
+     *
+     * @param activity The activity the listener is bound to.
+     * @param files    The encoded files by variant name; each is deleted once uploaded.
+     * @param listener The listener.
+     */
+    public void upload(Activity activity, Map<String, File> files, Listener listener) {
+        // Record every file first, so a partial upload knows which variants are still missing.
+        SharedPreferences.Editor editor = prefs.edit().clear();
+        for (Map.Entry<String, File> file : files.entrySet()) {
+            editor.putString(KEY_FILE + file.getKey(), file.getValue().getPath());
+        }
+        editor.apply();
+
+        Progress progress = new Progress();
+        List<Task<Uri>> urls = new ArrayList<>();
+        for (Map.Entry<String, File> file : files.entrySet()) {
+            String name = file.getKey();
+            progress.sizes.put(name, file.getValue().length());
+            UploadTask task = variantRef(name).putFile(Uri.fromFile(file.getValue()), metadata());
+            urls.add(track(activity, task, name, file.getValue(), false, progress, listener));
+        }
+        complete(activity, new ArrayList<>(files.keySet()), urls, listener);
+    }
+
+    /**
+     * Picks up uploads still running in this process, or resumes those interrupted with the process.
+     *
+     * @param activity The activity the listener is bound to.
+     * @param listener The listener.
+     * @return True if an upload was picked up or resumed.
+     */
+    public boolean resumePending(Activity activity, Listener listener) {
+        List<String> names = new ArrayList<>();
+        for (String name : AvatarVariants.names()) {
+            if (prefs.contains(KEY_FILE + name)) {
+                names.add(name);
+            }
+        }
+        if (names.isEmpty()) {
+            return false;
+        }
+
+        Progress progress = new Progress();
+        List<Task<Uri>> urls = new ArrayList<>();
+        for (String name : names) {
+            StorageReference ref = variantRef(name);
+            File file = new File(prefs.getString(KEY_FILE + name, ""));
+            String session = prefs.getString(KEY_SESSION + name, null);
+            List<UploadTask> running = ref.getActiveUploadTasks();
+            if (prefs.getBoolean(KEY_DONE + name, false)) {
+                // Uploaded before the interruption; only its URL is needed.
+                urls.add(ref.getDownloadUrl());
+            } else if (!running.isEmpty()) {
+                progress.sizes.put(name, file.length());
+                urls.add(track(activity, running.get(0), name, file, false, progress, listener));
+            } else if (!file.exists()) {
+                // The encoded file is gone, so the image cannot be completed.
+                Log.w(TAG, "Dropping upload, " + file + " is missing");
+                prefs.edit().clear().apply();
+                return false;
+            } else if (session != null) {
+                Log.d(TAG, "Resuming upload of " + file);
+                progress.sizes.put(name, file.length());
+                UploadTask task = ref.putFile(Uri.fromFile(file), metadata(), Uri.parse(session));
+                urls.add(track(activity, task, name, file, true, progress, listener));
+            } else {
+                progress.sizes.put(name, file.length());
+                urls.add(track(activity, ref.putFile(Uri.fromFile(file), metadata()), name, file, false, progress, listener));
+            }
+        }
+        complete(activity, names, urls, listener);
+        return true;
+    }
+
+    /**
+     * Reports the progress of one variant's upload, saving its session so it can be resumed.
+     *
+     * @param activity The activity the listener is bound to.
+     * @param task     The upload.
+     * @param name     The name of the variant.
+     * @param file     The file uploaded.
+     * @param resumed  Whether the upload resumes an earlier session, which is dropped if it fails.
+     * @param progress The progress of all variants of the upload.
+     * @param listener The listener.
+     * @return The download URL of the variant once it is uploaded.
+     */
+    private Task<Uri> track(Activity activity, UploadTask task, String name, File file, boolean resumed,
+                            Progress progress, Listener listener) {
+        String sessionKey = KEY_SESSION + name;
+        task.addOnProgressListener(activity, snapshot -> {
+            Uri session = snapshot.getUploadSessionUri();
+            if (session != null && !session.toString().equals(prefs.getString(sessionKey, null))) {
+                prefs.edit().putString(sessionKey, session.toString()).apply();
+            }
+            progress.sent.put(name, snapshot.getBytesTransferred());
+            listener.onProgress(progress.percent());
+        }).addOnFailureListener(activity, e -> {
+            // A failed fresh upload keeps its session to resume; a failed resume starts over next time.
+            if (resumed) {
+                prefs.edit().remove(sessionKey).apply();
+            }
+        });
+        return task.continueWithTask(upload -> {
+            if (!upload.isSuccessful()) {
+                return Tasks.forException(upload.getException());
+            }
+            prefs.edit().remove(sessionKey).putBoolean(KEY_DONE + name, true).apply();
+            if (!file.delete()) {
+                Log.w(TAG, "Could not delete " + file);
+            }
+            return variantRef(name).getDownloadUrl();
+        });
+    }
+
+    /**
+     * Reports the download URLs once every variant is uploaded, and forgets the upload.
+     *
+     * @param activity The activity the listener is bound to.
+     * @param names    The names of the variants, in the order of their URLs.
+     * @param urls     The download URL of each variant.
+     * @param listener The listener.
+     */
+    private void complete(Activity activity, List<String> names, List<Task<Uri>> urls, Listener listener) {
+        Tasks.whenAllSuccess(urls).addOnSuccessListener(activity, results -> {
+            prefs.edit().clear().apply();
+            Map<String, Uri> downloadUrls = new LinkedHashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                downloadUrls.put(names.get(i), (Uri) results.get(i));
+            }
+            listener.onUploaded(downloadUrls);
+        }).addOnFailureListener(activity, listener::onFailed);
+    }
+
+    /**
+     * Gets the storage location of a variant.
+     *
+     * @param name The name of the variant.
+     * @return The location, {@code {name}.{extension}} in the directory.
+     */
+    private StorageReference variantRef(String name) {
+        return dirRef.child(name + "." + ProfileImageEncoder.extension());
+    }
+
+    /**
+     * Builds the metadata of the uploaded image.
+     *
+     * @return The metadata with the image's content type.
+     */
+    private static StorageMetadata metadata() {
+        return new StorageMetadata.Builder().setContentType(ProfileImageEncoder.mimeType()).build();
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.shiftgenie;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The QueryGateway class issues one-shot reads, joining callers to a read of the same query that is
+ * already in flight instead of issuing another. Queries are told apart by the key of their
+ * {@link KeyedQuery}, as in the {@link LiveQueryRegistry}. Fast repeated taps, such as paging quickly through months or
+ * saving a shift twice, then cost one download.
+ *
+ * <p>A caller may also accept a result that arrived within a freshness window, in which case it is
+ * answered from memory. Reads of data the user edits use no window, so they always see their own
+ * writes. The reads issued and the reads saved are counted, see {@link #getMetrics()}.</p>
+ *
+ * <p>All calls must be made on the main thread, where Firebase also delivers its results.</p>
+ */
+public final class QueryGateway {
+
+    private static final String TAG = "QueryGateway";   // Tag used for logging.
+    static final int MAX_FRESH_RESULTS = 32;            // Results kept for freshness windows.
+
+    private static QueryGateway instance;               // The process-wide gateway.
+
+    private final Map<String, InFlight> inFlight = new HashMap<>(); // Reads in flight by query key.
+    private final LinkedHashMap<String, FreshResult> freshResults = new LinkedHashMap<String, FreshResult>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FreshResult> eldest) {
+            return size() > MAX_FRESH_RESULTS;
+        }
+    }; // Latest result of each query, least recently used first.
+    private long issued;        // Reads sent to the database.
+    private long joined;        // Reads joined to one already in flight.
+    private long servedFresh;   // Reads answered from a result within its freshness window.
+
+    /**
+     * A read in flight and the callers waiting for it.
+     */
+    private static final class InFlight {
+        final List<ValueEventListener> waiting = new ArrayList<>(); // Callers waiting for the result, in call order.
+        boolean keep;   // Whether a caller accepts fresh results, so the result is kept for later callers.
+    }
+
+    /**
+     * A result and when it arrived.
+     */
+    private static final class FreshResult {
+        final DataSnapshot snapshot;    // The result.
+        final long receivedAt;          // Elapsed realtime when it arrived, in milliseconds.
+
+        /**
+         * Constructor to initialize a result.
+         *
+         * @param snapshot   The result.
+         * @param receivedAt Elapsed realtime when it arrived, in milliseconds.
+         */
+        FreshResult(DataSnapshot snapshot, long receivedAt) {
+            this.snapshot = snapshot;
+            this.receivedAt = receivedAt;
+        }
+    }
+
+    /**
+     * The counts of reads issued and saved since the process started.
+     */
+    public static final class Metrics {
+        private final long issued;      // Reads sent to the database.
+        private final long joined;      // Reads joined to one already in flight.
+        private final long servedFresh; // Reads answered from a fresh result.
+
+        /**
+         * Constructor to initialize all counts.
+         *
+         * @param issued      Reads sent to the database.
+         * @param joined      Reads joined to one already in flight.
+         * @param servedFresh Reads answered from a fresh result.
+         */
+        Metrics(long issued, long joined, long servedFresh) {
+            this.issued = issued;
+            this.joined = joined;
+            this.servedFresh = servedFresh;
+        }
+
+        /**
+         * Counts the reads sent to the database.
+         *
+         * @return The issued reads.
+         */
+        public long getIssued() {
+            return issued;
+        }
+
+        /**
+         * Counts the reads joined to one already in flight.
+         *
+         * @return The joined reads.
+         */
+        public long getJoined() {
+            return joined;
+        }
+
+        /**
+         * Counts the reads answered from a result within its freshness window.
+         *
+         * @return The fresh reads.
+         */
+        public long getServedFresh() {
+            return servedFresh;
+        }
+
+        /**
+         * Counts the reads that did not reach the database.
+         *
+         * @return The joined and fresh reads.
+         */
+        public long getSaved() {
+            return joined + servedFresh;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "issued=%d joined=%d fresh=%d saved=%d", issued, joined, servedFresh, getSaved());
+        }
+    }
+
+    private QueryGateway() {
+        // Use getInstance().
+    }
+
+    /**
+     * Returns the process-wide gateway.
+     *
+     * @return The gateway.
+     */
+    public static synchronized QueryGateway getInstance() {
+        if (instance == null) {
+            instance = new QueryGateway();
+        }
+        return instance;
+    }
+
+    /**
+     * Reads a node once, sharing a read of the same node already in flight.
+     *
+     * @param ref      The node.
+     * @param callback Receives the result or the error.
+     */
+    public void get(DatabaseReference ref, ValueEventListener callback) {
+        get(KeyedQuery.of(ref), 0, callback);
+    }
+
+    /**
+     * Reads a query once, sharing a read of the same query already in flight.
+     *
+     * @param query    The query.
+     * @param callback Receives the result or the error.
+     */
+    public void get(KeyedQuery query, ValueEventListener callback) {
+        get(query, 0, callback);
+    }
+
+    /**
+     * Reads a node once, answering from a result that arrived at most {@code maxAgeMs} ago.
+     *
+     * @param ref      The node.
+     * @param maxAgeMs How old a result may be, in milliseconds; 0 to always wait for a new read.
+     * @param callback Receives the result or the error.
+     * @see #get(KeyedQuery, long, ValueEventListener)
+     */
+    public void get(DatabaseReference ref, long maxAgeMs, ValueEventListener callback) {
+        get(KeyedQuery.of(ref), maxAgeMs, callback);
+    }
+
+    /**
+     * Reads a query once, answering from a result that arrived at most {@code maxAgeMs} ago, or
+     * else sharing a read of the same query already in flight. A result from memory is delivered
+     * before this method returns.
+     *
+     * @param query    The query.
+     * @param maxAgeMs How old a result may be, in milliseconds; 0 to always wait for a new read.
+     * @param callback Receives the result or the error.
+     */
+    public void get(KeyedQuery query, long maxAgeMs, ValueEventListener callback) {
+        String key = query.getKey();
+        if (maxAgeMs > 0) {
+            FreshResult fresh = freshResults.get(key);
+            if (fresh != null && SystemClock.elapsedRealtime() - fresh.receivedAt <= maxAgeMs) {
+                servedFresh++;
+                callback.onDataChange(fresh.snapshot);
+                return;
+            }
+        }
+
+        InFlight read = inFlight.get(key);
+        if (read != null) {
+            joined++;
+            read.waiting.add(callback);
+            read.keep |= maxAgeMs > 0;
+            return;
+        }
+        read = new InFlight();
+        read.waiting.add(callback);
+        read.keep = maxAgeMs > 0;
+        inFlight.put(key, read);
+        issued++;
+        query.getQuery().addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                InFlight completed = complete(key);
+                if (completed.keep) {
+                    // Only results someone accepts from memory are kept, so large one-off reads are not held.
+                    freshResults.put(key, new FreshResult(snapshot, SystemClock.elapsedRealtime()));
+                }
+                for (ValueEventListener waiter : completed.waiting) {
+                    waiter.onDataChange(snapshot);
+                }
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.w(TAG, "Read of " + key + " failed: " + error.getMessage());
+                for (ValueEventListener waiter : complete(key).waiting) {
+                    waiter.onCancelled(error);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops the result of a query kept for freshness windows, for example after writing to it.
+     *
+     * @param query The query.
+     */
+    public void invalidate(KeyedQuery query) {
+        freshResults.remove(query.getKey());
+    }
+
+    /**
+     * Returns the counts of reads issued and saved.
+     *
+     * @return The counts.
+     */
+    public Metrics getMetrics() {
+        return new Metrics(issued, joined, servedFresh);
+    }
+
+    /**
+     * Ends the read of a query, so the next caller issues a new one.
+     *
+     * @param key The key of the query.
+     * @return The read, with the callers that waited for it.
+     */
+    private InFlight complete(String key) {
+        InFlight read = inFlight.remove(key);
+        Log.d(TAG, "Completed " + key + " for " + read.waiting.size() + " callers, " + getMetrics());
+        return read;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.shiftgenie;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import androidx.lifecycle.ViewModel;
+
+/**
+ * The ScopedViewModel class is a ViewModel that is also a {@link LifecycleOwner}, so work bound to a
+ * lifecycle, such as {@link BackgroundDecoder} jobs and {@link ChildListSync} batches, can belong to
+ * the ViewModel instead of a screen. Its lifecycle is resumed while the ViewModel exists and is
+ * destroyed when the ViewModel is cleared, so such work outlives configuration changes and hidden
+ * tabs, and is dropped only when the activity finishes.
+ *
+ * <p>A ViewModel is created and cleared on the main thread, which the lifecycle requires.</p>
+ */
+public abstract class ScopedViewModel extends ViewModel implements LifecycleOwner {
+
+    private final LifecycleRegistry lifecycle = new LifecycleRegistry(this); // Lifecycle of the ViewModel.
+
+    /**
+     * Constructor to start the ViewModel's lifecycle.
+     */
+    protected ScopedViewModel() {
+        lifecycle.setCurrentState(Lifecycle.State.RESUMED);
+    }
+
+    /**
+     * Returns the lifecycle of the ViewModel.
+     *
+     * @return The lifecycle, resumed until the ViewModel is cleared.
+     */
+    @NonNull
+    @Override
+    public Lifecycle getLifecycle() {
+        return lifecycle;
+    }
+
+    /**
+     * Called when the ViewModel is no longer used; destroys its lifecycle, cancelling the work bound to it.
+     * Subclasses stop their listeners first and then call this.
+     */
+    @Override
+    protected void onCleared() {
+        lifecycle.setCurrentState(Lifecycle.State.DESTROYED);
+        super.onCleared();
+    }
+}
@@ -1,8 +1,14 @@
 package com.example.shiftgenie;
 
+import com.google.firebase.database.Exclude;
+
+import java.time.ZoneId;
+
 /**
  * The Shift class represents a work shift, including details such as the shift ID, 
  * start and end times, workplace name, user email, and total earnings.
+ * The start and end are stored both as display strings and as UTC epoch minutes; calculations
+ * use the epoch minutes, see {@link ShiftTimes}.
  */
 public class Shift {
     private String shiftId;          // Unique identifier for the shift.
@@ -10,7 +16,10 @@ public class Shift {
     private String toDateTime;       // End date and time of the shift.
     private String workplaceName;    // Name of the workplace where the shift took place.
     private String userEmail;        // Email of the user who worked the shift.
-    private double totalEarnings;    // Total earnings for the shift.
+    private long earningsCents;      // Total earnings for the shift, in cents.
+    private long start;              // Start of the shift in UTC epoch minutes.
+    private long end;                // End of the shift in UTC epoch minutes.
+    private int durationMinutes;     // Length of the shift in minutes.
 
     /**
      * Default constructor required for calls to DataSnapshot.getValue(Shift.class).
@@ -23,19 +32,21 @@ public class Shift {
      * Constructor to initialize all fields of the Shift object.
      *
      * @param shiftId       Unique identifier for the shift.
-     * @param fromDateTime  Start date and time of the shift.
-     * @param toDateTime    End date and time of the shift.
+     * @param start         Start of the shift in UTC epoch minutes.
+     * @param end           End of the shift in UTC epoch minutes.
+     * @param zone          Time zone of the workplace, used for the date-time strings.
      * @param workplaceName Name of the workplace where the shift took place.
      * @param userEmail     Email of the user who worked the shift.
-     * @param totalEarnings Total earnings for the shift.
+     * @param earningsCents Total earnings for the shift, in cents.
      */
-    public Shift(String shiftId, String fromDateTime, String toDateTime, String workplaceName, String userEmail, double totalEarnings) {
+    public Shift(String shiftId, long start, long end, ZoneId zone, String workplaceName, String userEmail, long earningsCents) {
         this.shiftId = shiftId;
-        this.fromDateTime = fromDateTime;
-        this.toDateTime = toDateTime;
+        this.fromDateTime = ShiftTimes.format(start, zone);
+        this.toDateTime = ShiftTimes.format(end, zone);
         this.workplaceName = workplaceName;
         this.userEmail = userEmail;
-        this.totalEarnings = totalEarnings;
+        this.earningsCents = earningsCents;
+        setTimes(start, end);
     }
 
     /**
@@ -131,18 +142,105 @@ public class Shift {
     /**
      * Gets the total earnings for the shift.
      *
-     * @return The total earnings for the shift.
+     * @return The total earnings for the shift, in cents.
      */
-    public double getTotalEarnings() {
-        return totalEarnings;
+    public long getEarningsCents() {
+        return earningsCents;
     }
 
     /**
      * Sets the total earnings for the shift.
      *
+     * @param earningsCents The total earnings for the shift, in cents.
+     */
+    public void setEarningsCents(long earningsCents) {
+        this.earningsCents = earningsCents;
+    }
+
+    /**
+     * Sets the total earnings from the decimal value stored by older versions. There is no matching
+     * getter, so the legacy value is read but never written back.
+     *
      * @param totalEarnings The total earnings for the shift.
      */
     public void setTotalEarnings(double totalEarnings) {
-        this.totalEarnings = totalEarnings;
+        this.earningsCents = Money.toCents(totalEarnings);
+    }
+
+    /**
+     * Gets the start of the shift.
+     *
+     * @return The start in UTC epoch minutes.
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Sets the start of the shift.
+     *
+     * @param start The start in UTC epoch minutes.
+     */
+    public void setStart(long start) {
+        this.start = start;
+    }
+
+    /**
+     * Gets the end of the shift.
+     *
+     * @return The end in UTC epoch minutes.
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Sets the end of the shift.
+     *
+     * @param end The end in UTC epoch minutes.
+     */
+    public void setEnd(long end) {
+        this.end = end;
+    }
+
+    /**
+     * Gets the length of the shift.
+     *
+     * @return The duration in minutes.
+     */
+    public int getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    /**
+     * Sets the length of the shift.
+     *
+     * @param durationMinutes The duration in minutes.
+     */
+    public void setDurationMinutes(int durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
+    /**
+     * Sets the start and end of the shift and derives its duration.
+     *
+     * @param start The start in UTC epoch minutes.
+     * @param end   The end in UTC epoch minutes.
+     */
+    public void setTimes(long start, long end) {
+        this.start = start;
+        this.end = end;
+        this.durationMinutes = (int) (end - start);
+    }
+
+    /**
+     * Checks whether the shift carries epoch-minute times. Shifts saved by older versions only have
+     * the date-time strings until {@link ShiftTimes#resolve(Shift)} parses them.
+     *
+     * @return True if the start and end are set.
+     */
+    @Exclude
+    public boolean hasEpochTimes() {
+        return start != 0 || end != 0;
     }
 }
@@ -0,0 +1,149 @@
+package com.example.shiftgenie;
+
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ShiftBuckets class describes how shifts are partitioned in the Firebase Realtime Database.
+ * Shifts are stored per owner and per month under {@code Shifts/{uid}/{yyyy-MM}/{shiftId}},
+ * so a screen only downloads the months it actually shows.
+ */
+public final class ShiftBuckets {
+
+    public static final String ROOT = "Shifts"; // Root node holding all shift buckets.
+
+    private static final int MONTH_KEY_LENGTH = 7; // Length of a "yyyy-MM" month key.
+
+    private ShiftBuckets() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Gets the month bucket key for a shift date-time string.
+     *
+     * @param dateTime A date-time string in the "yyyy-MM-dd HH:mm" format used by shifts.
+     * @return The "yyyy-MM" month key of the date-time.
+     */
+    public static String monthKey(String dateTime) {
+        if (dateTime == null || dateTime.length() < MONTH_KEY_LENGTH) {
+            throw new IllegalArgumentException("Invalid shift date-time: " + dateTime);
+        }
+        return dateTime.substring(0, MONTH_KEY_LENGTH);
+    }
+
+    /**
+     * Gets the month bucket key for a date.
+     *
+     * @param date The date inside the month.
+     * @return The "yyyy-MM" month key of the date.
+     */
+    public static String monthKey(Date date) {
+        return new SimpleDateFormat("yyyy-MM", Locale.ROOT).format(date);
+    }
+
+    /**
+     * Gets the month bucket key for a point in time, as seen in a time zone.
+     *
+     * @param epochMinutes The time in UTC epoch minutes.
+     * @param zone         The time zone.
+     * @return The "yyyy-MM" month key of the time.
+     */
+    public static String monthKey(long epochMinutes, ZoneId zone) {
+        Instant instant = Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(epochMinutes));
+        return YearMonth.from(instant.atZone(zone)).toString();
+    }
+
+    /**
+     * Gets the database path of a single shift relative to the database root.
+     *
+     * @param uid      The owner's user ID.
+     * @param monthKey The "yyyy-MM" month key.
+     * @param shiftId  The shift ID.
+     * @return The path of the shift node.
+     */
+    public static String shiftPath(String uid, String monthKey, String shiftId) {
+        return ROOT + "/" + uid + "/" + monthKey + "/" + shiftId;
+    }
+
+    /**
+     * Gets the reference holding all month buckets of a user.
+     *
+     * @param uid The owner's user ID.
+     * @return The reference to {@code Shifts/{uid}}.
+     */
+    public static DatabaseReference userRef(String uid) {
+        return FirebaseDatabase.getInstance().getReference(ROOT).child(uid);
+    }
+
+    /**
+     * Gets the reference holding a single month of a user's shifts.
+     *
+     * @param uid      The owner's user ID.
+     * @param monthKey The "yyyy-MM" month key.
+     * @return The reference to {@code Shifts/{uid}/{monthKey}}.
+     */
+    public static DatabaseReference monthRef(String uid, String monthKey) {
+        return userRef(uid).child(monthKey);
+    }
+
+    /**
+     * Gets the shifts of the previous month's bucket that may run into a month, such as a night shift
+     * starting on the last evening of the previous month. Only shifts ending after the month starts
+     * can do so; a day of margin covers the month start in every time zone.
+     *
+     * @param uid      The owner's user ID.
+     * @param monthKey The "yyyy-MM" month key.
+     * @return The query over the previous month's bucket.
+     */
+    public static KeyedQuery previousMonthTail(String uid, String monthKey) {
+        YearMonth month = YearMonth.parse(monthKey);
+        long monthStart = month.atDay(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond() / TimeUnit.MINUTES.toSeconds(1);
+        return endingAfter(uid, month.minusMonths(1).toString(), monthStart - TimeUnit.DAYS.toMinutes(1));
+    }
+
+    /**
+     * Gets the shifts of a month bucket that end after a point in time. Until the user is migrated,
+     * shifts saved by older versions may lack the epoch-minute times the query orders by, so the
+     * whole bucket is read instead; callers filter the shifts by time either way.
+     *
+     * @param uid          The owner's user ID.
+     * @param monthKey     The "yyyy-MM" month key of the bucket.
+     * @param epochMinutes The time in UTC epoch minutes.
+     * @return The query over the bucket.
+     */
+    public static KeyedQuery endingAfter(String uid, String monthKey, long epochMinutes) {
+        DatabaseReference ref = monthRef(uid, monthKey);
+        if (!ShiftMigration.isMigrated(uid)) {
+            return KeyedQuery.of(ref);
+        }
+        return KeyedQuery.of(ref, "orderByChild=end&startAfter=" + epochMinutes,
+                ref.orderByChild("end").startAfter(epochMinutes));
+    }
+
+    /**
+     * Gets the shifts of a month bucket that start at or before a point in time. Until the user is
+     * migrated, the whole bucket is read instead, as for {@link #endingAfter}.
+     *
+     * @param uid          The owner's user ID.
+     * @param monthKey     The "yyyy-MM" month key of the bucket.
+     * @param epochMinutes The time in UTC epoch minutes.
+     * @return The query over the bucket.
+     */
+    public static KeyedQuery startingUntil(String uid, String monthKey, long epochMinutes) {
+        DatabaseReference ref = monthRef(uid, monthKey);
+        if (!ShiftMigration.isMigrated(uid)) {
+            return KeyedQuery.of(ref);
+        }
+        return KeyedQuery.of(ref, "orderByChild=start&endAt=" + epochMinutes,
+                ref.orderByChild("start").endAt(epochMinutes));
+    }
+}
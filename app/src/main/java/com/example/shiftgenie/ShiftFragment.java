@@ -22,33 +22,37 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.Query;
 import com.google.firebase.database.ValueEventListener;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * The ShiftFragment class allows users to create a new shift by selecting a workplace, 
- * specifying start and end times, and calculating the total earnings based on the selected workplace's hourly wage.
+ * specifying start and end times, and calculating the total earnings based on the selected workplace's pay parameters.
  */
 public class ShiftFragment extends Fragment {
 
     private Spinner workplaceSpinner; // Spinner for selecting a workplace.
     private EditText etFrom, etTo; // EditTexts for selecting start and end times.
     private Button btnCreate; // Button to create a new shift.
-    private DatabaseReference databaseShifts, workplacesRef; // Firebase references for shifts and workplaces.
     private FirebaseAuth auth; // Firebase authentication instance.
+    private WorkplaceRepository workplaceRepository; // In-memory repository of the user's workplaces.
     private ArrayList<String> workplaceList; // List of workplace names.
+    private ArrayAdapter<String> workplaceAdapter; // Adapter showing the workplace names in the spinner.
     private String selectedWorkplace; // Selected workplace name.
     private Calendar fromCalendar, toCalendar; // Calendars for managing date and time selection.
-    private SimpleDateFormat dateTimeFormat; // Format for displaying and parsing date-time strings.
-    private double hourlyWage; // Hourly wage of the selected workplace.
+    private final WorkplaceRepository.Listener workplacesListener = this::onWorkplacesChanged; // Listener refreshing the spinner.
 
     /**
      * Called to have the fragment instantiate its user interface view.
@@ -71,11 +75,13 @@ public class ShiftFragment extends Fragment {
 
         // Initialize Firebase instances.
         auth = FirebaseAuth.getInstance();
-        databaseShifts = FirebaseDatabase.getInstance().getReference("Shifts");
-        workplacesRef = FirebaseDatabase.getInstance().getReference("Workplace");
 
         workplaceList = new ArrayList<>();
-        dateTimeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
+
+        // Set up the workplace spinner; it is filled as soon as the workplaces are available.
+        workplaceAdapter = new ArrayAdapter<>(requireContext(), android.R.layout.simple_spinner_item, workplaceList);
+        workplaceAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        workplaceSpinner.setAdapter(workplaceAdapter);
 
         // Load workplaces into the spinner.
         loadWorkplaces();
@@ -86,17 +92,14 @@ public class ShiftFragment extends Fragment {
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
                 if (position >= 0 && position < workplaceList.size()) {
                     selectedWorkplace = workplaceList.get(position);
-                    fetchHourlyWage(selectedWorkplace); // Fetch hourly wage for the selected workplace.
                 } else {
                     selectedWorkplace = null;
-                    hourlyWage = 0;
                 }
             }
 
             @Override
             public void onNothingSelected(AdapterView<?> parent) {
                 selectedWorkplace = null;
-                hourlyWage = 0;
             }
         });
 
@@ -122,44 +125,24 @@ public class ShiftFragment extends Fragment {
     }
 
     /**
-     * Loads the list of workplaces from Firebase and populates the workplace spinner.
+     * Called when the view previously created by onCreateView has been detached from the fragment.
+     * Stops listening to workplace changes.
      */
-    private void loadWorkplaces() {
-        FirebaseUser currentUser = auth.getCurrentUser();
-        if (currentUser != null) {
-            String userEmail = currentUser.getEmail();
-            Query userWorkplacesQuery = workplacesRef.orderByChild("userEmail").equalTo(userEmail);
-            userWorkplacesQuery.addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    if (snapshot.exists()) {
-                        for (DataSnapshot dataSnapshot : snapshot.getChildren()) {
-                            String workplaceName = dataSnapshot.child("workplaceName").getValue(String.class);
-                            if (workplaceName != null) {
-                                workplaceList.add(workplaceName);
-                            }
-                        }
-                        // Set up the workplace spinner with the retrieved list of workplaces.
-                        if (isAdded() && getActivity() != null) {
-                            ArrayAdapter<String> adapter = new ArrayAdapter<>(requireContext(),
-                                    android.R.layout.simple_spinner_item, workplaceList);
-                            adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-                            workplaceSpinner.setAdapter(adapter);
-                        }
-                    } else {
-                        if (isAdded() && getActivity() != null) {
-                            Toast.makeText(requireContext(), "No workplaces found for the user", Toast.LENGTH_SHORT).show();
-                        }
-                    }
-                }
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (workplaceRepository != null) {
+            workplaceRepository.removeListener(workplacesListener);
+        }
+    }
 
-                @Override
-                public void onCancelled(@NonNull DatabaseError error) {
-                    if (isAdded() && getActivity() != null) {
-                        Toast.makeText(requireContext(), "Failed to fetch workplaces: " + error.getMessage(), Toast.LENGTH_SHORT).show();
-                    }
-                }
-            });
+    /**
+     * Starts listening to the user's workplaces, which fills the workplace spinner.
+     */
+    private void loadWorkplaces() {
+        workplaceRepository = WorkplaceRepository.getInstance();
+        if (workplaceRepository != null) {
+            workplaceRepository.addListener(workplacesListener);
         } else {
             if (isAdded() && getActivity() != null) {
                 Toast.makeText(requireContext(), "User not logged in", Toast.LENGTH_SHORT).show();
@@ -168,30 +151,22 @@ public class ShiftFragment extends Fragment {
     }
 
     /**
-     * Fetches the hourly wage for the selected workplace from Firebase.
+     * Updates the workplace spinner with the user's current workplaces.
      *
-     * @param workplace The selected workplace name.
+     * @param workplaces The user's workplaces.
      */
-    private void fetchHourlyWage(String workplace) {
-        Query workplaceQuery = workplacesRef.orderByChild("workplaceName").equalTo(workplace);
-        workplaceQuery.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (snapshot.exists()) {
-                    for (DataSnapshot dataSnapshot : snapshot.getChildren()) {
-                        String wage = dataSnapshot.child("hourlyWage").getValue(String.class);
-                        if (wage != null) {
-                            hourlyWage = Double.parseDouble(wage); // Parse and store the hourly wage.
-                        }
-                    }
-                }
+    private void onWorkplacesChanged(List<Workplace> workplaces) {
+        workplaceList.clear();
+        for (Workplace workplace : workplaces) {
+            if (workplace.getWorkplaceName() != null) {
+                workplaceList.add(workplace.getWorkplaceName());
             }
+        }
+        workplaceAdapter.notifyDataSetChanged();
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Toast.makeText(requireContext(), "Failed to fetch hourly wage: " + error.getMessage(), Toast.LENGTH_SHORT).show();
-            }
-        });
+        if (workplaceList.isEmpty() && isAdded() && getActivity() != null) {
+            Toast.makeText(requireContext(), "No workplaces found for the user", Toast.LENGTH_SHORT).show();
+        }
     }
 
     /**
@@ -211,7 +186,7 @@ public class ShiftFragment extends Fragment {
             new TimePickerDialog(requireContext(), (timeView, hourOfDay, minute) -> {
                 calendar.set(Calendar.HOUR_OF_DAY, hourOfDay);
                 calendar.set(Calendar.MINUTE, minute);
-                editText.setText(dateTimeFormat.format(calendar.getTime())); // Display the selected date-time in the EditText.
+                editText.setText(ShiftTimes.format(ShiftTimes.fromMillis(calendar.getTimeInMillis()))); // Display the selected date-time in the EditText.
 
                 toCalendar.setTime(calendar.getTime()); // Set the "To" calendar to the selected time.
             }, calendar.get(Calendar.HOUR_OF_DAY), calendar.get(Calendar.MINUTE), true).show();
@@ -237,6 +212,8 @@ public class ShiftFragment extends Fragment {
 
     /**
      * Validates the input fields and creates a new shift in Firebase.
+     * A "To" time that is not after the "From" time ends the shift on the following day,
+     * so night shifts such as 22:00 to 06:00 are entered as one shift.
      */
     private void createShift() {
         String fromDateTime = etFrom.getText().toString();
@@ -247,79 +224,232 @@ public class ShiftFragment extends Fragment {
             return;
         }
 
-        String[] fromDateTimeParts = fromDateTime.split(" ");
-        String toDateTime = fromDateTimeParts[0] + " " + toTime;
+        Workplace workplaceDetails = workplaceRepository != null ? workplaceRepository.findByName(selectedWorkplace) : null;
+        if (workplaceDetails == null) {
+            Toast.makeText(requireContext(), "Workplace details are not available yet.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        LocalDateTime from;
+        LocalTime to;
+        try {
+            from = LocalDateTime.parse(fromDateTime, ShiftTimes.DATE_TIME_FORMAT);
+            to = LocalTime.parse(toTime);
+        } catch (DateTimeParseException e) {
+            Toast.makeText(requireContext(), "Invalid shift time.", Toast.LENGTH_SHORT).show();
+            return;
+        }
 
-        if (fromCalendar.getTimeInMillis() > toCalendar.getTimeInMillis()) {
-            Toast.makeText(requireContext(), "'To' time should be after 'From' time.", Toast.LENGTH_SHORT).show();
+        if (to.equals(from.toLocalTime())) {
+            Toast.makeText(requireContext(), "'To' time should differ from 'From' time.", Toast.LENGTH_SHORT).show();
             return;
         }
 
+        // Resolve the wall-clock times in the workplace's time zone, so DST transitions are accounted for.
+        ZoneId zone = ShiftTimes.zoneOf(workplaceDetails);
+        long fromMinutes = ShiftTimes.toEpochMinutes(from, zone);
+        long toMinutes = ShiftTimes.toEpochMinutes(ShiftTimes.endAfter(from, to), zone);
+
         // Check for overlapping shifts before creating a new one.
-        checkForOverlappingShifts(fromDateTime, toDateTime, selectedWorkplace);
+        checkForOverlappingShifts(fromMinutes, toMinutes, zone, selectedWorkplace);
     }
 
     /**
-     * Checks for overlapping shifts in the selected workplace and creates the shift if no overlaps are found.
+     * Checks whether the new shift overlaps any of the user's shifts, at any workplace, and creates
+     * the shift if it does not. The shift is checked against the month it starts in and, if it runs
+     * into the next month, against that month as well.
      *
-     * @param fromDateTime The start date and time of the shift.
-     * @param toDateTime   The end date and time of the shift.
-     * @param workplace    The selected workplace name.
+     * @param fromMinutes The start of the shift in epoch minutes.
+     * @param toMinutes   The end of the shift in epoch minutes.
+     * @param zone        The time zone of the workplace.
+     * @param workplace   The selected workplace name.
+     */
+    private void checkForOverlappingShifts(long fromMinutes, long toMinutes, ZoneId zone, String workplace) {
+        FirebaseUser currentUser = auth.getCurrentUser();
+        if (currentUser == null) {
+            Toast.makeText(requireContext(), "User not logged in", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        String uid = currentUser.getUid();
+        String startMonthKey = ShiftBuckets.monthKey(fromMinutes, zone);
+        String endMonthKey = ShiftBuckets.monthKey(toMinutes - 1, zone);
+        // Until the save completes the cached indexes miss this shift, so no second shift may be checked against them.
+        btnCreate.setEnabled(false);
+        loadOverlapIndex(uid, startMonthKey, startIndex -> {
+            if (startIndex.overlaps(fromMinutes, toMinutes)) {
+                Toast.makeText(requireContext(), "Shift overlaps another shift", Toast.LENGTH_SHORT).show();
+                btnCreate.setEnabled(true);
+            } else if (startMonthKey.equals(endMonthKey)) {
+                saveShift(fromMinutes, toMinutes, zone, workplace);
+            } else {
+                loadOverlapIndex(uid, endMonthKey, endIndex -> saveShiftIfFree(endIndex, fromMinutes, toMinutes, zone, workplace));
+            }
+        });
+    }
+
+    /**
+     * Callback receiving the overlap index of a month.
      */
-    private void checkForOverlappingShifts(String fromDateTime, String toDateTime, String workplace) {
-        DatabaseReference shiftsRef = FirebaseDatabase.getInstance().getReference().child("Shifts");
+    private interface OverlapIndexCallback {
+        void onIndexLoaded(ShiftIntervalIndex index);
+    }
 
-        Query query = shiftsRef.orderByChild("workplaceName").equalTo(workplace);
-        query.addListenerForSingleValueEvent(new ValueEventListener() {
+    /**
+     * Loads the interval index of a month and passes it to a callback while the fragment is attached.
+     * The index holds the user's shifts of that month plus the shifts of the previous month that run
+     * into it. It is read again for every check, since shifts may have been added meanwhile from
+     * another screen or device; a check started while the same read is in flight joins it.
+     *
+     * @param uid      The user ID.
+     * @param monthKey The "yyyy-MM" month key.
+     * @param callback The callback receiving the index.
+     */
+    private void loadOverlapIndex(String uid, String monthKey, OverlapIndexCallback callback) {
+        QueryGateway.getInstance().get(ShiftBuckets.previousMonthTail(uid, monthKey), new ValueEventListener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                boolean isOverlapping = false;
-
-                for (DataSnapshot shiftSnapshot : snapshot.getChildren()) {
-                    String existingFromDateTime = shiftSnapshot.child("fromDateTime").getValue(String.class);
-                    String existingToDateTime = shiftSnapshot.child("toDateTime").getValue(String.class);
-
-                    // Check if the new shift overlaps with an existing shift.
-                    if (existingFromDateTime != null && existingToDateTime != null &&
-                            existingFromDateTime.equals(fromDateTime) && existingToDateTime.equals(toDateTime)) {
-                        isOverlapping = true;
-                        break;
+            public void onDataChange(@NonNull DataSnapshot previousSnapshot) {
+                QueryGateway.getInstance().get(ShiftBuckets.monthRef(uid, monthKey), new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        if (getView() == null) {
+                            return;
+                        }
+                        // Decode the shifts and build the index in the background; it is only delivered while the view exists.
+                        BackgroundDecoder.submit(getViewLifecycleOwner(), () -> buildOverlapIndex(previousSnapshot, snapshot),
+                                callback::onIndexLoaded);
                     }
-                }
 
-                if (isOverlapping) {
-                    Toast.makeText(requireContext(), "Shift already Occupied", Toast.LENGTH_SHORT).show();
-                } else {
-                    saveShift(fromDateTime, toDateTime, workplace);
-                }
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        showOverlapCheckError(error);
+                    }
+                });
             }
 
             @Override
             public void onCancelled(@NonNull DatabaseError error) {
-                Toast.makeText(requireContext(), "Failed to check for overlapping shifts: " + error.getMessage(), Toast.LENGTH_SHORT).show();
+                showOverlapCheckError(error);
             }
         });
     }
 
+    /**
+     * Builds the interval index of all the user's shifts in two snapshots, across workplaces.
+     * Runs on a background thread.
+     *
+     * @param previousSnapshot The shifts of the previous month that may run into the month.
+     * @param snapshot         The shifts of the month's bucket.
+     * @return The interval index.
+     */
+    private static ShiftIntervalIndex buildOverlapIndex(DataSnapshot previousSnapshot, DataSnapshot snapshot) {
+        int capacity = (int) (previousSnapshot.getChildrenCount() + snapshot.getChildrenCount());
+        long[] starts = new long[capacity];
+        long[] ends = new long[capacity];
+        int count = collectIntervals(previousSnapshot, starts, ends, 0);
+        count = collectIntervals(snapshot, starts, ends, count);
+        return ShiftIntervalIndex.build(starts, ends, count);
+    }
+
+    /**
+     * Copies the intervals of the shifts in a snapshot into parallel arrays.
+     * Malformed shifts are skipped rather than blocking new ones.
+     *
+     * @param snapshot The snapshot holding the shifts.
+     * @param starts   The array receiving the shift starts.
+     * @param ends     The array receiving the shift ends.
+     * @param count    The number of intervals already in the arrays.
+     * @return The number of intervals in the arrays afterwards.
+     */
+    private static int collectIntervals(DataSnapshot snapshot, long[] starts, long[] ends, int count) {
+        for (DataSnapshot shiftSnapshot : snapshot.getChildren()) {
+            Shift existingShift = ShiftCodec.decode(shiftSnapshot);
+            if (existingShift != null && ShiftTimes.resolve(existingShift)) {
+                starts[count] = existingShift.getStart();
+                ends[count] = existingShift.getEnd();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Shows an error message for a failed overlap check while the fragment is attached.
+     *
+     * @param error The database error.
+     */
+    private void showOverlapCheckError(DatabaseError error) {
+        if (isAdded() && getView() != null) {
+            Toast.makeText(requireContext(), "Failed to check for overlapping shifts: " + error.getMessage(), Toast.LENGTH_SHORT).show();
+            btnCreate.setEnabled(true);
+        }
+    }
+
+    /**
+     * Saves the new shift unless it overlaps a shift in the index.
+     *
+     * @param index       The interval index of the user's shifts in the month.
+     * @param fromMinutes The start of the shift in epoch minutes.
+     * @param toMinutes   The end of the shift in epoch minutes.
+     * @param zone        The time zone of the workplace.
+     * @param workplace   The selected workplace name.
+     */
+    private void saveShiftIfFree(ShiftIntervalIndex index, long fromMinutes, long toMinutes, ZoneId zone, String workplace) {
+        if (index.overlaps(fromMinutes, toMinutes)) {
+            Toast.makeText(requireContext(), "Shift overlaps another shift", Toast.LENGTH_SHORT).show();
+            btnCreate.setEnabled(true);
+        } else {
+            saveShift(fromMinutes, toMinutes, zone, workplace);
+        }
+    }
+
     /**
      * Saves the new shift to Firebase if there are no overlapping shifts.
+     * The shift is written into the owner's bucket for the month it starts in, and the owner's
+     * {@link UserStats} rollup is incremented in the same multi-path update. The Create button stays
+     * disabled until the update completes, so a second shift is only checked once the indexes hold this one.
      *
-     * @param fromDateTime The start date and time of the shift.
-     * @param toDateTime   The end date and time of the shift.
-     * @param workplace    The selected workplace name.
+     * @param fromMinutes The start of the shift in epoch minutes.
+     * @param toMinutes   The end of the shift in epoch minutes.
+     * @param zone        The time zone of the workplace.
+     * @param workplace   The selected workplace name.
      */
-    private void saveShift(String fromDateTime, String toDateTime, String workplace) {
-        String shiftId = databaseShifts.push().getKey();
+    private void saveShift(long fromMinutes, long toMinutes, ZoneId zone, String workplace) {
         FirebaseUser currentUser = auth.getCurrentUser();
-        String userEmail = currentUser != null ? currentUser.getEmail() : "";
+        if (currentUser == null) {
+            Toast.makeText(requireContext(), "User not logged in", Toast.LENGTH_SHORT).show();
+            btnCreate.setEnabled(true);
+            return;
+        }
 
-        if (shiftId != null) {
-            double totalHours = calculateTotalHours(fromDateTime, toDateTime);
-            double totalEarnings = totalHours * hourlyWage;
+        String uid = currentUser.getUid();
+        String monthKey = ShiftBuckets.monthKey(fromMinutes, zone);
+        String shiftId = ShiftBuckets.monthRef(uid, monthKey).push().getKey();
+        String userEmail = currentUser.getEmail();
 
-            // Create a new Shift object and save it to Firebase.
-            Shift shift = new Shift(shiftId, fromDateTime, toDateTime, workplace, userEmail, totalEarnings);
-            databaseShifts.child(shiftId).setValue(shift).addOnCompleteListener(task -> {
+        if (shiftId != null) {
+            // The workplace is already in memory, so its pay parameters are never stale or missing.
+            Workplace workplaceDetails = workplaceRepository != null ? workplaceRepository.findByName(workplace) : null;
+            int totalMinutes = (int) (toMinutes - fromMinutes);
+            long earningsCents = workplaceDetails != null ? PayrollEngine.shiftEarningsCents(totalMinutes, workplaceDetails) : 0;
+
+            // Create a new Shift object and save it together with the stats increments in one atomic update.
+            Shift shift = new Shift(shiftId, fromMinutes, toMinutes, zone, workplace, userEmail, earningsCents);
+            Map<String, Object> updates = new HashMap<>();
+            updates.put(ShiftBuckets.shiftPath(uid, monthKey, shiftId), ShiftCodec.encode(shift));
+            UserStatsStore.addShiftIncrements(updates, uid, monthKey, earningsCents, totalMinutes);
+
+            FirebaseDatabase.getInstance().getReference().updateChildren(updates).addOnCompleteListener(task -> {
+                if (task.isSuccessful()) {
+                    // Drop the cached reports of the shift's month and of the month its night part may run into.
+                    MonthCache.getInstance().invalidate(uid, monthKey);
+                    MonthCache.getInstance().invalidate(uid, YearMonth.parse(monthKey).plusMonths(1).toString());
+                }
+                // The user may have left the tab or the activity while the update was in flight.
+                if (!isAdded() || getView() == null) {
+                    return;
+                }
+                btnCreate.setEnabled(true);
                 if (task.isSuccessful()) {
                     Toast.makeText(requireContext(), "Shift created successfully", Toast.LENGTH_SHORT).show();
                     clearFields(); // Clear the input fields after creating the shift.
@@ -327,30 +457,11 @@ public class ShiftFragment extends Fragment {
                     Toast.makeText(requireContext(), "Failed to create shift", Toast.LENGTH_SHORT).show();
                 }
             });
+        } else {
+            btnCreate.setEnabled(true);
         }
     }
 
-    /**
-     * Calculates the total hours worked between the start and end times.
-     *
-     * @param fromDateTime The start date and time.
-     * @param toDateTime   The end date and time.
-     * @return The total hours worked.
-     */
-    private double calculateTotalHours(String fromDateTime, String toDateTime) {
-        long fromMillis = 0;
-        long toMillis = 0;
-
-        try {
-            fromMillis = dateTimeFormat.parse(fromDateTime).getTime();
-            toMillis = dateTimeFormat.parse(toDateTime).getTime();
-        } catch (ParseException e) {
-            e.printStackTrace();
-        }
-
-        return (double) (toMillis - fromMillis) / (1000 * 60 * 60); // Convert milliseconds to hours.
-    }
-
     /**
      * Clears the input fields after a shift is created.
      */
@@ -0,0 +1,62 @@
+package com.example.shiftgenie;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+/**
+ * The ShiftGenieGlideModule class configures Glide for the app. The only images loaded are profile
+ * pictures, which are small, opaque and reused across the users list, the user details and the
+ * profile, so the caches are sized for them rather than for Glide's general defaults.
+ *
+ * <p>The memory cache holds two screens of decoded images, enough for the visible rows and those
+ * preloaded ahead of the scroll, and the disk cache is kept small in the app's cache directory.
+ * Images are decoded as RGB_565, half the memory of ARGB_8888, since photos have no transparency
+ * and the circular crop is drawn by the view.</p>
+ */
+@GlideModule
+public final class ShiftGenieGlideModule extends AppGlideModule {
+
+    static final int MEMORY_CACHE_SCREENS = 2;              // Screens of decoded images kept in memory.
+    static final int BITMAP_POOL_SCREENS = 3;               // Screens of bitmaps kept for reuse.
+    static final long DISK_CACHE_BYTES = 50L * 1024 * 1024; // Size of the disk cache, in bytes.
+    static final String DISK_CACHE_DIR = "glide_avatars";   // Directory of the disk cache, in the cache directory.
+
+    /**
+     * Sizes the caches and sets the default decode format.
+     *
+     * @param context The application context.
+     * @param builder The builder of the Glide instance.
+     */
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(MEMORY_CACHE_SCREENS)
+                .setBitmapPoolScreens(BITMAP_POOL_SCREENS)
+                .build();
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_DIR, DISK_CACHE_BYTES));
+        builder.setDefaultRequestOptions(new RequestOptions().format(DecodeFormat.PREFER_RGB_565));
+        builder.setLogLevel(Log.ERROR);
+    }
+
+    /**
+     * Disables the scan of the manifest for Glide 3 modules; the app declares none.
+     *
+     * @return False.
+     */
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
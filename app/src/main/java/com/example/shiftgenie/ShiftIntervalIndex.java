@@ -0,0 +1,146 @@
+package com.example.shiftgenie;
+
+import java.util.Arrays;
+
+/**
+ * The ShiftIntervalIndex class answers "does [from, to) intersect any existing shift" in logarithmic time.
+ * Shifts are kept as half-open intervals sorted by start, together with the running maximum of their ends.
+ * An interval [from, to) intersects a shift exactly when some shift starts before {@code to} and ends after
+ * {@code from}; a binary search finds the last shift starting before {@code to}, and the running maximum
+ * tells whether any of the shifts up to it ends after {@code from}.
+ *
+ * <p>Times are plain {@code long} values; callers use epoch minutes. Instances are immutable and
+ * therefore safe to share between threads.</p>
+ */
+public final class ShiftIntervalIndex {
+
+    private static final ShiftIntervalIndex EMPTY = new ShiftIntervalIndex(new long[0], new long[0]);
+
+    private final long[] starts;   // Shift starts, sorted ascending.
+    private final long[] maxEnds;  // maxEnds[i] is the latest end among shifts 0..i.
+
+    /**
+     * Creates an index over already sorted starts and their running maximum ends.
+     *
+     * @param starts  The sorted shift starts.
+     * @param maxEnds The running maximum of the shift ends.
+     */
+    private ShiftIntervalIndex(long[] starts, long[] maxEnds) {
+        this.starts = starts;
+        this.maxEnds = maxEnds;
+    }
+
+    /**
+     * Gets an index without any shifts.
+     *
+     * @return The empty index.
+     */
+    public static ShiftIntervalIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds an index from parallel arrays of shift starts and ends. The arrays are copied, not modified.
+     * Shifts with an end not after their start are empty and ignored. The starts must lie within
+     * {@link Integer#MAX_VALUE} of each other, about 4000 years in epoch minutes.
+     *
+     * @param starts The shift starts.
+     * @param ends   The shift ends, exclusive.
+     * @param count  The number of shifts to read from the arrays.
+     * @return The index over the shifts.
+     * @throws IllegalArgumentException If the count is out of range or the starts are too far apart.
+     */
+    public static ShiftIntervalIndex build(long[] starts, long[] ends, int count) {
+        if (count < 0 || count > starts.length || count > ends.length) {
+            throw new IllegalArgumentException("Invalid shift count: " + count);
+        }
+
+        // Keep the positions of the non-empty intervals; the caller's arrays stay untouched.
+        int[] positions = new int[count];
+        int size = 0;
+        long minStart = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            if (ends[i] > starts[i]) {
+                positions[size++] = i;
+                minStart = Math.min(minStart, starts[i]);
+            }
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+
+        // Sort the intervals by start as one array of keys: the start's offset from the earliest
+        // start in the high half, and the interval's position in the low half.
+        long[] keys = new long[size];
+        for (int k = 0; k < size; k++) {
+            long offset = starts[positions[k]] - minStart;
+            if (Long.compareUnsigned(offset, Integer.MAX_VALUE) > 0) {
+                throw new IllegalArgumentException("Shift starts too far apart: " + minStart + " and " + starts[positions[k]]);
+            }
+            keys[k] = offset << 32 | positions[k];
+        }
+        Arrays.sort(keys);
+
+        long[] sortedStarts = new long[size];
+        long[] sortedEnds = new long[size];
+        for (int k = 0; k < size; k++) {
+            sortedStarts[k] = minStart + (keys[k] >>> 32);
+            sortedEnds[k] = ends[(int) keys[k]];
+        }
+
+        // Turn the ends into their running maximum.
+        for (int i = 1; i < size; i++) {
+            if (sortedEnds[i] < sortedEnds[i - 1]) {
+                sortedEnds[i] = sortedEnds[i - 1];
+            }
+        }
+        return new ShiftIntervalIndex(sortedStarts, sortedEnds);
+    }
+
+    /**
+     * Checks whether the half-open interval [from, to) intersects any indexed shift.
+     * Shifts that only touch the interval, such as one ending exactly at {@code from}, do not intersect it.
+     *
+     * @param from The interval start.
+     * @param to   The interval end, exclusive.
+     * @return True if at least one shift intersects the interval.
+     */
+    public boolean overlaps(long from, long to) {
+        if (to <= from) {
+            return false;
+        }
+        int last = lastStartBefore(to);
+        return last >= 0 && maxEnds[last] > from;
+    }
+
+    /**
+     * Gets the number of indexed shifts.
+     *
+     * @return The number of shifts.
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * Finds the position of the last shift starting strictly before a time.
+     *
+     * @param time The time to compare the starts against.
+     * @return The position of the last such shift, or -1 if every shift starts at or after the time.
+     */
+    private int lastStartBefore(long time) {
+        int low = 0;
+        int high = starts.length - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < time) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.shiftgenie;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ShiftMigration class re-homes shifts stored with the legacy flat layout
+ * ({@code Shifts/{shiftId}} with a {@code userEmail} child) into the month buckets
+ * described by {@link ShiftBuckets}. Every legacy shift is moved with a single
+ * multi-path update, so a shift is never visible in both places or lost halfway.
+ * Once a user's shifts are in place their {@link UserStats} rollup is (re)built, which also writes
+ * the epoch-minute times of shifts saved by older versions.
+ *
+ * <p>The rollup's schema version marks a user as migrated: a user whose rollup is current on the
+ * server costs one read of that version, on any device, and never runs the legacy query again.</p>
+ */
+public final class ShiftMigration {
+
+    private static final String TAG = "ShiftMigration"; // Tag used for logging.
+
+    private static final Set<String> migratedUids = Collections.newSetFromMap(new ConcurrentHashMap<>()); // Users known to be migrated in this process.
+    private static final Set<String> runningUids = Collections.newSetFromMap(new ConcurrentHashMap<>());  // Users being checked or migrated right now.
+
+    private ShiftMigration() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Checks whether a user's shifts are all in month buckets and carry epoch-minute times, as far as
+     * this process knows. Until {@link #migrateUser} has read the user's rollup version, this is false.
+     *
+     * @param uid The user ID.
+     * @return True if the user is migrated.
+     */
+    public static boolean isMigrated(String uid) {
+        return migratedUids.contains(uid);
+    }
+
+    /**
+     * Moves all legacy shifts of a single user into that user's month buckets and rebuilds their
+     * rollup, unless the user's rollup on the server already has the current schema version.
+     * A user checked or migrated by this process already, or right now, is skipped.
+     *
+     * @param uid   The owner's user ID.
+     * @param email The owner's email address, used by the legacy layout.
+     */
+    public static void migrateUser(String uid, String email) {
+        if (uid == null || email == null || migratedUids.contains(uid) || !runningUids.add(uid)) {
+            return;
+        }
+
+        UserStatsStore.statsRef(uid).child("schemaVersion").addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                Integer schemaVersion = snapshot.getValue(Integer.class);
+                if (schemaVersion != null && schemaVersion >= UserStats.SCHEMA_VERSION) {
+                    markMigrated(uid);
+                    return;
+                }
+                moveLegacyShifts(uid, email);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.w(TAG, "Failed to read stats for user " + uid + ": " + error.getMessage());
+                runningUids.remove(uid);
+            }
+        });
+    }
+
+    /**
+     * Moves the legacy shifts of a user into the user's month buckets, then rebuilds the user's rollup.
+     *
+     * @param uid   The owner's user ID.
+     * @param email The owner's email address, used by the legacy layout.
+     */
+    private static void moveLegacyShifts(String uid, String email) {
+        DatabaseReference shiftsRef = FirebaseDatabase.getInstance().getReference(ShiftBuckets.ROOT);
+        // Bucketed nodes have no "userEmail" child, so only legacy shifts match this query.
+        shiftsRef.orderByChild("userEmail").equalTo(email).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                Map<String, Object> updates = new HashMap<>();
+                for (DataSnapshot shiftSnapshot : snapshot.getChildren()) {
+                    String fromDateTime = shiftSnapshot.child("fromDateTime").getValue(String.class);
+                    if (fromDateTime == null) {
+                        Log.w(TAG, "Skipping legacy shift without a start time: " + shiftSnapshot.getKey());
+                        continue;
+                    }
+                    String shiftId = shiftSnapshot.getKey();
+                    String monthKey = ShiftBuckets.monthKey(fromDateTime);
+                    // Write the shift into its bucket and remove the legacy node in the same update.
+                    updates.put(uid + "/" + monthKey + "/" + shiftId, shiftSnapshot.getValue());
+                    updates.put(shiftId, null);
+                }
+
+                if (updates.isEmpty()) {
+                    // Nothing to move; still rebuild, to write the times of older shifts and a current rollup.
+                    rebuildAndMark(uid);
+                    return;
+                }
+
+                shiftsRef.updateChildren(updates).addOnCompleteListener(task -> {
+                    if (task.isSuccessful()) {
+                        Log.i(TAG, "Migrated " + updates.size() / 2 + " shifts for user " + uid);
+                        // The moved shifts were never counted, so recompute the rollup.
+                        rebuildAndMark(uid);
+                    } else {
+                        Log.w(TAG, "Failed to migrate shifts for user " + uid, task.getException());
+                        runningUids.remove(uid);
+                    }
+                });
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.w(TAG, "Failed to read legacy shifts for user " + uid + ": " + error.getMessage());
+                runningUids.remove(uid);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds a user's rollup and, once it is stored, remembers the user as migrated.
+     *
+     * @param uid The user ID.
+     */
+    private static void rebuildAndMark(String uid) {
+        UserStatsStore.rebuild(uid).addOnCompleteListener(task -> {
+            if (task.isSuccessful()) {
+                markMigrated(uid);
+            } else {
+                runningUids.remove(uid);
+            }
+        });
+    }
+
+    /**
+     * Remembers a user as migrated for the rest of the process.
+     *
+     * @param uid The user ID.
+     */
+    private static void markMigrated(String uid) {
+        migratedUids.add(uid);
+        runningUids.remove(uid);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.shiftgenie;
+
+import androidx.annotation.Nullable;
+
+import java.util.Objects;
+
+/**
+ * The ShiftRow class is the display form of a shift in a list: the texts of its row, formatted
+ * once when the shift arrives, on the thread that decoded it. Binding a row only assigns these
+ * texts to its views. Rows are immutable; a changed shift gets a new row.
+ */
+public final class ShiftRow {
+
+    private final String shiftId;         // ID of the shift, the row's identity.
+    private final String workplaceName;   // Name of the workplace.
+    private final String fromText;        // Start date and time, as entered.
+    private final String toText;          // End date and time, as entered.
+    private final String earningsText;    // Earnings, formatted as money.
+
+    /**
+     * Constructor to initialize all texts of the row.
+     *
+     * @param shiftId       ID of the shift.
+     * @param workplaceName Name of the workplace.
+     * @param fromText      Start date and time.
+     * @param toText        End date and time.
+     * @param earningsText  Formatted earnings.
+     */
+    private ShiftRow(String shiftId, String workplaceName, String fromText, String toText, String earningsText) {
+        this.shiftId = shiftId;
+        this.workplaceName = workplaceName;
+        this.fromText = fromText;
+        this.toText = toText;
+        this.earningsText = earningsText;
+    }
+
+    /**
+     * Formats the row of a shift.
+     *
+     * @param shift The shift.
+     * @return The row.
+     */
+    public static ShiftRow of(Shift shift) {
+        return new ShiftRow(shift.getShiftId(), shift.getWorkplaceName(), shift.getFromDateTime(),
+                shift.getToDateTime(), " " + Money.format(shift.getEarningsCents()));
+    }
+
+    /**
+     * Formats the row of a shift that may be missing.
+     *
+     * @param shift The shift, or null.
+     * @return The row, or null if there is no shift.
+     */
+    @Nullable
+    public static ShiftRow ofNullable(@Nullable Shift shift) {
+        return shift != null ? of(shift) : null;
+    }
+
+    /**
+     * Gets the ID of the shift.
+     *
+     * @return The shift ID.
+     */
+    public String getShiftId() {
+        return shiftId;
+    }
+
+    /**
+     * Gets the name of the workplace.
+     *
+     * @return The workplace name.
+     */
+    public String getWorkplaceName() {
+        return workplaceName;
+    }
+
+    /**
+     * Gets the start date and time.
+     *
+     * @return The start text.
+     */
+    public String getFromText() {
+        return fromText;
+    }
+
+    /**
+     * Gets the end date and time.
+     *
+     * @return The end text.
+     */
+    public String getToText() {
+        return toText;
+    }
+
+    /**
+     * Gets the formatted earnings.
+     *
+     * @return The earnings text.
+     */
+    public String getEarningsText() {
+        return earningsText;
+    }
+
+    /**
+     * Checks whether two rows would show the same texts.
+     *
+     * @param other The other row.
+     * @return True if every text is equal.
+     */
+    public boolean hasSameContent(ShiftRow other) {
+        return Objects.equals(workplaceName, other.workplaceName)
+                && Objects.equals(fromText, other.fromText)
+                && Objects.equals(toText, other.toText)
+                && Objects.equals(earningsText, other.earningsText);
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.shiftgenie;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ShiftTimeline class splits shifts into per-day segments over a range of local dates and sums
+ * the minutes worked on each day. A shift that runs past midnight counts towards both days, and one
+ * that crosses a month boundary towards both months.
+ *
+ * <p>Days are cut at local midnight in the time zone of the shift's workplace, so days that are 23 or
+ * 25 hours long around daylight saving transitions are measured correctly. The midnights of each zone
+ * are computed once per timeline; adding a shift is then a binary search plus one step per day it
+ * touches, so a whole year of shifts is re-bucketed in a single pass.</p>
+ */
+public final class ShiftTimeline {
+
+    private final LocalDate firstDay;                               // First local date of the range.
+    private final int[] dayMinutes;                                 // Minutes worked on each local date of the range.
+    private final Map<ZoneId, long[]> midnightsByZone = new HashMap<>(); // Epoch minutes of each midnight, per zone.
+    private long totalMinutes;                                      // Minutes worked inside the range.
+    private final SegmentConsumer accumulator = this::accumulate;   // Adds segments to the day totals.
+
+    /**
+     * Receives the segments of a shift split at midnight.
+     */
+    public interface SegmentConsumer {
+        /**
+         * Called for each day of the range the shift covers.
+         *
+         * @param day     The index of the day in the range, 0 for the first day.
+         * @param minutes The minutes of the shift on that day.
+         */
+        void accept(int day, int minutes);
+    }
+
+    /**
+     * Creates an empty timeline over a range of local dates.
+     *
+     * @param firstDay The first date of the range, inclusive.
+     * @param endDay   The end of the range, exclusive.
+     */
+    public ShiftTimeline(LocalDate firstDay, LocalDate endDay) {
+        long days = ChronoUnit.DAYS.between(firstDay, endDay);
+        if (days <= 0 || days > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid timeline range: " + firstDay + " to " + endDay);
+        }
+        this.firstDay = firstDay;
+        this.dayMinutes = new int[(int) days];
+    }
+
+    /**
+     * Creates an empty timeline over the days of a month.
+     *
+     * @param month The month.
+     * @return The timeline.
+     */
+    public static ShiftTimeline ofMonth(YearMonth month) {
+        return new ShiftTimeline(month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    /**
+     * Adds a shift, splitting it at every local midnight of its time zone. Parts of the shift outside
+     * the timeline's range are ignored, and shifts whose end is not after their start add nothing.
+     *
+     * @param start The start of the shift in UTC epoch minutes.
+     * @param end   The end of the shift in UTC epoch minutes.
+     * @param zone  The time zone of the shift's workplace.
+     */
+    public void add(long start, long end, ZoneId zone) {
+        split(start, end, zone, accumulator);
+    }
+
+    /**
+     * Adds a segment to the day totals.
+     *
+     * @param day     The index of the day in the range.
+     * @param minutes The minutes of the segment.
+     */
+    private void accumulate(int day, int minutes) {
+        dayMinutes[day] += minutes;
+        totalMinutes += minutes;
+    }
+
+    /**
+     * Splits a shift at every local midnight of its time zone without adding it, and reports the minutes
+     * it covers on each day of the range. Parts outside the range are not reported.
+     *
+     * @param start    The start of the shift in UTC epoch minutes.
+     * @param end      The end of the shift in UTC epoch minutes.
+     * @param zone     The time zone of the shift's workplace.
+     * @param consumer The consumer receiving each day's segment, in day order.
+     */
+    public void split(long start, long end, ZoneId zone, SegmentConsumer consumer) {
+        long[] midnights = midnights(zone);
+        long from = Math.max(start, midnights[0]);
+        long to = Math.min(end, midnights[dayMinutes.length]);
+        if (to <= from) {
+            return;
+        }
+
+        // Walk the days the shift touches, cutting it at each midnight.
+        int day = dayContaining(midnights, from);
+        while (from < to) {
+            long segmentEnd = Math.min(to, midnights[day + 1]);
+            consumer.accept(day, (int) (segmentEnd - from));
+            from = segmentEnd;
+            day++;
+        }
+    }
+
+    /**
+     * Gets the number of days in the range.
+     *
+     * @return The number of days.
+     */
+    public int getDayCount() {
+        return dayMinutes.length;
+    }
+
+    /**
+     * Gets the minutes worked on a local date.
+     *
+     * @param date The date.
+     * @return The minutes worked, or 0 if the date is outside the range.
+     */
+    public int getDayMinutes(LocalDate date) {
+        long index = ChronoUnit.DAYS.between(firstDay, date);
+        return index >= 0 && index < dayMinutes.length ? dayMinutes[(int) index] : 0;
+    }
+
+    /**
+     * Gets the minutes worked in a month, limited to the part of the month inside the range.
+     *
+     * @param month The month.
+     * @return The minutes worked.
+     */
+    public long getMonthMinutes(YearMonth month) {
+        long from = Math.max(0, ChronoUnit.DAYS.between(firstDay, month.atDay(1)));
+        long to = Math.min(dayMinutes.length, ChronoUnit.DAYS.between(firstDay, month.plusMonths(1).atDay(1)));
+        long minutes = 0;
+        for (long i = from; i < to; i++) {
+            minutes += dayMinutes[(int) i];
+        }
+        return minutes;
+    }
+
+    /**
+     * Gets the minutes worked inside the whole range.
+     *
+     * @return The minutes worked.
+     */
+    public long getTotalMinutes() {
+        return totalMinutes;
+    }
+
+    /**
+     * Gets the epoch minutes of every local midnight of the range in a time zone, computing them on first use.
+     * A midnight that falls into a daylight saving gap is replaced by the first valid time of that day.
+     *
+     * @param zone The time zone.
+     * @return The midnights; entry i is the start of day i and the last entry is the end of the range.
+     */
+    private long[] midnights(ZoneId zone) {
+        long[] midnights = midnightsByZone.get(zone);
+        if (midnights == null) {
+            midnights = new long[dayMinutes.length + 1];
+            for (int i = 0; i < midnights.length; i++) {
+                long epochSecond = firstDay.plusDays(i).atStartOfDay(zone).toEpochSecond();
+                midnights[i] = Math.floorDiv(epochSecond, TimeUnit.MINUTES.toSeconds(1));
+            }
+            midnightsByZone.put(zone, midnights);
+        }
+        return midnights;
+    }
+
+    /**
+     * Finds the day of the range containing a time.
+     *
+     * @param midnights The midnights of the range.
+     * @param time      A time inside the range, in epoch minutes.
+     * @return The index of the day.
+     */
+    private static int dayContaining(long[] midnights, long time) {
+        int low = 0;
+        int high = midnights.length - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (midnights[mid] <= time) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.shiftgenie;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ShiftTimes class converts between the "yyyy-MM-dd HH:mm" shift date-time strings and UTC epoch minutes.
+ * Shifts store their times as epoch minutes, so durations and totals are plain integer arithmetic;
+ * the strings are only formatted for display and parsed once for shifts saved by older versions.
+ *
+ * <p>The formatter is immutable and thread-safe, so a single instance is shared by all callers.
+ * java.time is available on every supported API level through core library desugaring.</p>
+ */
+public final class ShiftTimes {
+
+    /** Format of the shift date-time strings. */
+    public static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm", Locale.ROOT);
+
+    private ShiftTimes() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Parses a shift date-time string in the device's time zone.
+     *
+     * @param dateTime The date-time string in the "yyyy-MM-dd HH:mm" format.
+     * @return The minutes since the epoch.
+     * @throws DateTimeParseException If the string cannot be parsed.
+     */
+    public static long parse(String dateTime) {
+        return parse(dateTime, ZoneId.systemDefault());
+    }
+
+    /**
+     * Parses a shift date-time string in a given time zone.
+     *
+     * @param dateTime The date-time string in the "yyyy-MM-dd HH:mm" format.
+     * @param zone     The time zone the wall-clock time belongs to.
+     * @return The minutes since the epoch.
+     * @throws DateTimeParseException If the string cannot be parsed.
+     */
+    public static long parse(String dateTime, ZoneId zone) {
+        return toEpochMinutes(LocalDateTime.parse(dateTime, DATE_TIME_FORMAT), zone);
+    }
+
+    /**
+     * Converts a wall-clock date-time in a time zone to epoch minutes. A time that falls into a
+     * daylight saving gap is moved forward by the length of the gap.
+     *
+     * @param dateTime The wall-clock date-time.
+     * @param zone     The time zone the wall-clock time belongs to.
+     * @return The minutes since the epoch.
+     */
+    public static long toEpochMinutes(LocalDateTime dateTime, ZoneId zone) {
+        return Math.floorDiv(dateTime.atZone(zone).toEpochSecond(), TimeUnit.MINUTES.toSeconds(1));
+    }
+
+    /**
+     * Gets the end of a shift from its start and the wall-clock time it ends at. A shift whose end time
+     * is not after its start time, such as 22:00 to 06:00, ends on the following day.
+     *
+     * @param from   The start of the shift.
+     * @param toTime The wall-clock time the shift ends at.
+     * @return The end of the shift.
+     */
+    public static LocalDateTime endAfter(LocalDateTime from, LocalTime toTime) {
+        LocalDateTime to = from.toLocalDate().atTime(toTime);
+        return to.isAfter(from) ? to : to.plusDays(1);
+    }
+
+    /**
+     * Gets the time zone of a workplace. Workplaces saved before time zones were recorded, and
+     * workplaces with an unknown zone ID, use the device's time zone.
+     *
+     * @param workplace The workplace, or null if it is not known.
+     * @return The time zone.
+     */
+    public static ZoneId zoneOf(Workplace workplace) {
+        if (workplace != null && workplace.getTimeZone() != null) {
+            try {
+                return ZoneId.of(workplace.getTimeZone());
+            } catch (DateTimeException e) {
+                // Fall through to the device's zone.
+            }
+        }
+        return ZoneId.systemDefault();
+    }
+
+    /**
+     * Formats epoch minutes as a shift date-time string in the device's time zone.
+     *
+     * @param epochMinutes The minutes since the epoch.
+     * @return The date-time string in the "yyyy-MM-dd HH:mm" format.
+     */
+    public static String format(long epochMinutes) {
+        return format(epochMinutes, ZoneId.systemDefault());
+    }
+
+    /**
+     * Formats epoch minutes as a shift date-time string in a given time zone.
+     *
+     * @param epochMinutes The minutes since the epoch.
+     * @param zone         The time zone to show the wall-clock time in.
+     * @return The date-time string in the "yyyy-MM-dd HH:mm" format.
+     */
+    public static String format(long epochMinutes, ZoneId zone) {
+        Instant instant = Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(epochMinutes));
+        return DATE_TIME_FORMAT.format(LocalDateTime.ofInstant(instant, zone));
+    }
+
+    /**
+     * Converts epoch milliseconds, such as {@link java.util.Calendar#getTimeInMillis()}, to epoch minutes.
+     *
+     * @param epochMillis The milliseconds since the epoch.
+     * @return The minutes since the epoch, rounded down.
+     */
+    public static long fromMillis(long epochMillis) {
+        return Math.floorDiv(epochMillis, TimeUnit.MINUTES.toMillis(1));
+    }
+
+    /**
+     * Makes sure a shift carries its epoch-minute times. Shifts saved by older versions only have the
+     * date-time strings; those are parsed here, once, and the result is stored on the shift.
+     *
+     * @param shift The shift to resolve.
+     * @return True if the shift has valid epoch times, false if its strings are missing or malformed.
+     */
+    public static boolean resolve(Shift shift) {
+        if (shift.hasEpochTimes()) {
+            return true;
+        }
+        if (shift.getFromDateTime() == null || shift.getToDateTime() == null) {
+            return false;
+        }
+        try {
+            shift.setTimes(parse(shift.getFromDateTime()), parse(shift.getToDateTime()));
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
@@ -1,32 +1,70 @@
 package com.example.shiftgenie;
 
+import android.app.Activity;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
 
 /**
- * The ShiftsAdapter class is a RecyclerView.Adapter that binds Shift data to views
+ * The ShiftsAdapter class is a RecyclerView adapter that binds Shift data to views
  * displayed in a RecyclerView. It helps in displaying a list of shifts with relevant
  * details such as workplace name, start and end times, and total earnings.
+ *
+ * <p>Shifts are shown as {@link ShiftRow}s, whose texts are formatted when the shift arrives, so
+ * binding a row only assigns them. Lists are handed over with {@link #submitList}; the difference
+ * to the previous list is computed on a background thread, and only the rows whose shift was added,
+ * removed or changed are bound again. Every screen listing shifts uses this adapter, so the rows of all of them can share
+ * one view pool, see {@link #getViewPool(Activity)}.</p>
  */
-public class ShiftsAdapter extends RecyclerView.Adapter<ShiftsAdapter.ShiftViewHolder> {
+public class ShiftsAdapter extends ListAdapter<ShiftRow, ShiftsAdapter.ShiftViewHolder> {
 
-    private final List<Shift> shiftList; // List of Shift objects to be displayed.
+    /**
+     * Decides which shifts are the same record and whether their rows would show the same text.
+     */
+    static final DiffUtil.ItemCallback<ShiftRow> DIFF_CALLBACK = new DiffUtil.ItemCallback<ShiftRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ShiftRow oldRow, @NonNull ShiftRow newRow) {
+            return Objects.equals(oldRow.getShiftId(), newRow.getShiftId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ShiftRow oldRow, @NonNull ShiftRow newRow) {
+            return oldRow.hasSameContent(newRow);
+        }
+    };
 
     /**
-     * Constructor to initialize the adapter with a list of shifts.
+     * Constructor to initialize an empty adapter with stable IDs taken from the shift IDs.
+     */
+    public ShiftsAdapter() {
+        super(DIFF_CALLBACK);
+        setHasStableIds(true);
+    }
+
+    /**
+     * Gets the view pool shared by the shift lists of an activity, creating it on first use.
+     * The pool is kept on the activity's window, so it lives exactly as long as the activity whose
+     * context its rows were inflated with, and survives its fragments' views being recreated.
      *
-     * @param shiftList A list of Shift objects.
+     * @param activity The activity showing the lists.
+     * @return The activity's shift row pool.
      */
-    public ShiftsAdapter(List<Shift> shiftList) {
-        this.shiftList = shiftList;
+    public static RecyclerView.RecycledViewPool getViewPool(Activity activity) {
+        View decorView = activity.getWindow().getDecorView();
+        RecyclerView.RecycledViewPool pool = (RecyclerView.RecycledViewPool) decorView.getTag(R.id.shift_view_pool);
+        if (pool == null) {
+            pool = new RecyclerView.RecycledViewPool();
+            decorView.setTag(R.id.shift_view_pool, pool);
+        }
+        return pool;
     }
 
     /**
@@ -53,19 +91,19 @@ public class ShiftsAdapter extends RecyclerView.Adapter<ShiftsAdapter.ShiftViewH
      */
     @Override
     public void onBindViewHolder(@NonNull ShiftViewHolder holder, int position) {
-        // Get the Shift object at the specified position and bind it to the ViewHolder.
-        Shift shift = shiftList.get(position);
-        holder.bind(shift);
+        // Get the row at the specified position and bind it to the ViewHolder.
+        holder.bind(getItem(position));
     }
 
     /**
-     * Returns the total number of items in the data set held by the adapter.
+     * Returns the stable ID of the item at a position, derived from its shift ID.
      *
-     * @return The total number of Shift items.
+     * @param position The position of the item within the adapter's data set.
+     * @return The item ID.
      */
     @Override
-    public int getItemCount() {
-        return shiftList.size();
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getShiftId());
     }
 
     /**
@@ -94,16 +132,16 @@ public class ShiftsAdapter extends RecyclerView.Adapter<ShiftsAdapter.ShiftViewH
         }
 
         /**
-         * Binds the Shift data to the TextViews in the ViewHolder.
+         * Binds a shift's row to the TextViews in the ViewHolder.
          *
-         * @param shift The Shift object containing the data to be displayed.
+         * @param row The row, with its texts already formatted.
          */
-        public void bind(Shift shift) {
-            // Set the text of each TextView to the corresponding data from the Shift object.
-            textViewWorkplaceName.setText(shift.getWorkplaceName());
-            textViewFrom.setText(shift.getFromDateTime());
-            textViewTo.setText(shift.getToDateTime());
-            totalEarningsTextView.setText(String.format(Locale.getDefault(), " $%.2f", shift.getTotalEarnings()));
+        public void bind(ShiftRow row) {
+            // Set the text of each TextView to the corresponding text of the row.
+            textViewWorkplaceName.setText(row.getWorkplaceName());
+            textViewFrom.setText(row.getFromText());
+            textViewTo.setText(row.getToText());
+            totalEarningsTextView.setText(row.getEarningsText());
         }
     }
 }
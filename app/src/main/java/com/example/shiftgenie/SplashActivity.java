@@ -2,7 +2,6 @@ package com.example.shiftgenie;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
 import android.view.Window;
 import android.view.WindowManager;
 
@@ -10,7 +9,9 @@ import androidx.appcompat.app.AppCompatActivity;
 
 /**
  * SplashActivity is the initial screen that is displayed when the app is launched.
- * It shows a splash screen for a set duration before navigating to the MainActivity.
+ * While it is shown, the {@link StartupWarmup} resolves the signed-in user and fetches the data of
+ * the first screen in parallel. Once the data has arrived, or after at most {@link StartupWarmup#CAP_MS},
+ * it routes straight to the HomepageActivity for a signed-in user and to the MainActivity otherwise.
  */
 public class SplashActivity extends AppCompatActivity {
 
@@ -34,17 +35,16 @@ public class SplashActivity extends AppCompatActivity {
         // Set the layout for the splash screen.
         setContentView(R.layout.activity_splash);
 
-        // Use a Handler to delay the transition to MainActivity by 3 seconds (3000 milliseconds).
-        new Handler().postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                // Start MainActivity after the delay.
-                Intent intent = new Intent(SplashActivity.this, MainActivity.class);
-                startActivity(intent);
-
-                // Close the SplashActivity so that the user cannot return to it by pressing the back button.
-                finish();
-            }
-        }, 3000); // 3000 milliseconds = 3 seconds
+        // Warm up the first screen's data, then route to it.
+        StartupWarmup.start(this, user -> {
+            // Signed-in users skip the login screen.
+            Class<?> next = user != null ? HomepageActivity.class : MainActivity.class;
+            startActivity(new Intent(SplashActivity.this, next));
+            // Let the system record the time until the first screen's data was ready.
+            reportFullyDrawn();
+
+            // Close the SplashActivity so that the user cannot return to it by pressing the back button.
+            finish();
+        });
     }
 }
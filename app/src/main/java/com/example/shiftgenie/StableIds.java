@@ -0,0 +1,38 @@
+package com.example.shiftgenie;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * The StableIds class turns the string keys of database records into the {@code long} item IDs
+ * RecyclerView uses for stable IDs. The ID is a 64-bit FNV-1a hash of the key, so the same record
+ * keeps its ID across list updates and screens without keeping a table of the keys seen.
+ */
+public final class StableIds {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L; // Initial value of the FNV-1a hash.
+    private static final long FNV_PRIME = 0x100000001b3L;             // Multiplier of the FNV-1a hash.
+
+    private StableIds() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Gets the item ID of a record key.
+     *
+     * @param key The record key, such as a shift or user ID.
+     * @return The item ID, or {@link RecyclerView#NO_ID} if the key is null.
+     */
+    public static long of(@Nullable String key) {
+        if (key == null) {
+            return RecyclerView.NO_ID;
+        }
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        // NO_ID is -1; a key hashing to it is moved next door.
+        return hash == RecyclerView.NO_ID ? 0 : hash;
+    }
+}
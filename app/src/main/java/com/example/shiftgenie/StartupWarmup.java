@@ -0,0 +1,280 @@
+package com.example.shiftgenie;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The StartupWarmup class uses the splash screen to load what the first screen needs. It resolves
+ * the signed-in user and, for a signed-in user, opens the database connection and fetches their
+ * profile, their workplaces and the totals of the current month, all at once. It reports when
+ * everything has arrived, or when {@link #CAP_MS} has passed, whichever comes first, so a slow
+ * network never holds the splash longer than that.
+ *
+ * <p>The fetched queries are observed through the {@link LiveQueryRegistry} on the splash's
+ * lifecycle, so their listeners stay attached for its grace period after the splash closes and the
+ * first screen reads them from memory. The workplaces are loaded into the {@link WorkplaceRepository},
+ * which keeps them.</p>
+ *
+ * <p>The time from process start to the first data and to the end of the warm-up is logged and
+ * kept as the {@link Metrics} of the last start.</p>
+ */
+public final class StartupWarmup {
+
+    private static final String TAG = "StartupWarmup";  // Tag used for logging.
+    static final long CAP_MS = 2_500;                   // Longest the warm-up waits for its data, in milliseconds.
+
+    private static Metrics lastMetrics;                 // Metrics of the last warm-up, or null before the first.
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper()); // Runs the cap.
+    private final LifecycleOwner owner;     // The splash screen the queries are observed on.
+    private final Listener listener;        // Notified once the warm-up ends.
+    private final long startedAt;           // Elapsed realtime the warm-up started, in milliseconds.
+    private FirebaseUser user;              // The signed-in user, or null.
+    private int pendingSteps;               // Steps whose data has not arrived yet.
+    private int totalSteps;                 // Steps started.
+    private long firstDataAt;               // Elapsed realtime the first data arrived, or 0.
+    private boolean finished;               // Whether the listener was notified.
+    private WorkplaceRepository.Listener workplacesListener; // Waits for the workplaces, removed at the end.
+    private final Runnable cap = () -> finish(true); // Ends the warm-up when the cap is reached.
+
+    /**
+     * Listener notified once, on the main thread, when the warm-up ends.
+     */
+    public interface Listener {
+        void onReady(@Nullable FirebaseUser user);
+    }
+
+    /**
+     * The timings of one warm-up. Times are measured from the start of the process.
+     */
+    public static final class Metrics {
+        private final long timeToFirstDataMs;   // Time until the first data arrived, or -1 if none did.
+        private final long timeToReadyMs;       // Time until the warm-up ended.
+        private final int completedSteps;       // Steps whose data arrived.
+        private final int totalSteps;           // Steps started.
+
+        /**
+         * Constructor to initialize all timings.
+         *
+         * @param timeToFirstDataMs Time until the first data arrived, or -1 if none did.
+         * @param timeToReadyMs     Time until the warm-up ended.
+         * @param completedSteps    Steps whose data arrived.
+         * @param totalSteps        Steps started.
+         */
+        Metrics(long timeToFirstDataMs, long timeToReadyMs, int completedSteps, int totalSteps) {
+            this.timeToFirstDataMs = timeToFirstDataMs;
+            this.timeToReadyMs = timeToReadyMs;
+            this.completedSteps = completedSteps;
+            this.totalSteps = totalSteps;
+        }
+
+        /**
+         * Gets the time from process start until the first data arrived.
+         *
+         * @return The time in milliseconds, or -1 if no data arrived before the warm-up ended.
+         */
+        public long getTimeToFirstDataMs() {
+            return timeToFirstDataMs;
+        }
+
+        /**
+         * Gets the time from process start until the warm-up ended.
+         *
+         * @return The time in milliseconds.
+         */
+        public long getTimeToReadyMs() {
+            return timeToReadyMs;
+        }
+
+        /**
+         * Checks whether the warm-up ended at the cap, before all its data arrived.
+         *
+         * @return True if some data was still missing.
+         */
+        public boolean isCapped() {
+            return completedSteps < totalSteps;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "firstData=%dms ready=%dms steps=%d/%d",
+                    timeToFirstDataMs, timeToReadyMs, completedSteps, totalSteps);
+        }
+    }
+
+    /**
+     * Constructor to initialize a warm-up.
+     *
+     * @param owner    The splash screen the queries are observed on.
+     * @param listener Notified once the warm-up ends.
+     */
+    private StartupWarmup(LifecycleOwner owner, Listener listener) {
+        this.owner = owner;
+        this.listener = listener;
+        this.startedAt = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * Starts warming up. The listener is notified once, possibly before this method returns if no
+     * user is signed in.
+     *
+     * @param owner    The splash screen the queries are observed on; the listener is not notified after it is destroyed.
+     * @param listener Notified once the warm-up ends, with the signed-in user.
+     */
+    public static void start(LifecycleOwner owner, Listener listener) {
+        new StartupWarmup(owner, listener).run();
+    }
+
+    /**
+     * Gets the timings of the last warm-up of this process.
+     *
+     * @return The metrics, or null if no warm-up has ended.
+     */
+    @Nullable
+    public static Metrics getLastMetrics() {
+        return lastMetrics;
+    }
+
+    /**
+     * Resolves the signed-in user and starts every fetch in parallel.
+     */
+    private void run() {
+        // The signed-in user is restored from disk, so it is known without a network round trip.
+        user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) {
+            finish(false);
+            return;
+        }
+        String uid = user.getUid();
+        FirebaseDatabase database = FirebaseDatabase.getInstance();
+        database.goOnline();
+        mainHandler.postDelayed(cap, CAP_MS);
+
+        // The profile, shown by the profile screen.
+        observe(database.getReference("Users").child(uid));
+        // The totals of the current month, shown by the reports.
+        observe(UserStatsStore.statsRef(uid).child("months").child(ShiftBuckets.monthKey(new Date())));
+        // The workplaces, shown by the first tab.
+        WorkplaceRepository workplaces = WorkplaceRepository.getInstance();
+        if (workplaces != null) {
+            totalSteps++;
+            pendingSteps++;
+            workplacesListener = new WorkplaceRepository.Listener() {
+                @Override
+                public void onWorkplacesChanged(List<Workplace> loaded) {
+                    // Changes may arrive before the initial load completes; only the completed load counts.
+                    if (!workplaces.isLoaded()) {
+                        return;
+                    }
+                    workplaces.removeListener(this);
+                    workplacesListener = null;
+                    stepDone();
+                }
+            };
+            workplaces.addListener(workplacesListener);
+        }
+    }
+
+    /**
+     * Starts observing one node, counting it as a step until its first value arrives.
+     *
+     * @param ref The node.
+     */
+    private void observe(DatabaseReference ref) {
+        totalSteps++;
+        pendingSteps++;
+        LiveQueryRegistry.getInstance().observeValue(owner, ref, new ValueEventListener() {
+            private boolean arrived; // Whether the first value arrived.
+
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                if (!arrived) {
+                    arrived = true;
+                    stepDone();
+                }
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                // A failed fetch no longer holds up the start; the screen reports it when it reads again.
+                Log.w(TAG, "Warm-up of " + ref + " failed: " + error.getMessage());
+                if (!arrived) {
+                    arrived = true;
+                    pendingSteps--;
+                    totalSteps--;
+                    checkDone();
+                }
+            }
+        });
+    }
+
+    /**
+     * Records that the data of a step arrived.
+     */
+    private void stepDone() {
+        if (firstDataAt == 0) {
+            firstDataAt = SystemClock.elapsedRealtime();
+        }
+        pendingSteps--;
+        checkDone();
+    }
+
+    /**
+     * Ends the warm-up once no step is pending.
+     */
+    private void checkDone() {
+        if (pendingSteps == 0) {
+            finish(false);
+        }
+    }
+
+    /**
+     * Ends the warm-up, records its metrics and notifies the listener, once.
+     *
+     * @param capped Whether the cap was reached.
+     */
+    private void finish(boolean capped) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        mainHandler.removeCallbacks(cap);
+        WorkplaceRepository workplaces = WorkplaceRepository.getInstance();
+        if (workplacesListener != null && workplaces != null) {
+            workplaces.removeListener(workplacesListener);
+        }
+
+        // Measure from the start of the process, which includes the time before the splash was created.
+        long processStart = Process.getStartElapsedRealtime();
+        long now = SystemClock.elapsedRealtime();
+        lastMetrics = new Metrics(firstDataAt != 0 ? firstDataAt - processStart : -1, now - processStart,
+                totalSteps - pendingSteps, totalSteps);
+        Log.i(TAG, (capped ? "Capped after " : "Ready after ") + (now - startedAt) + "ms: " + lastMetrics);
+
+        // The splash may still be in onCreate, so only a destroyed one is skipped.
+        if (owner.getLifecycle().getCurrentState() != Lifecycle.State.DESTROYED) {
+            listener.onReady(user);
+        }
+    }
+}
@@ -9,11 +9,13 @@ public class User {
     private String id;                // Unique identifier for the user.
     private String username;          // The username chosen by the user.
     private String profileImage;      // URL of the user's profile image.
+    private String[] profileImageVariants; // URLs of the reduced profile images, in the order of AvatarVariants.SIZES, or null.
+    private long profileImageVersion; // Version of the profile image, changed by each upload; 0 if none.
     private String age;               // The user's age.
     private String phoneNumber;       // The user's phone number.
     private String email;             // The user's email address.
     private int shiftsCount;          // Number of shifts the user has completed.
-    private double totalEarnings;     // The total earnings the user has accumulated.
+    private long earningsCents;       // The total earnings the user has accumulated, in cents.
 
     /**
      * Default constructor for creating a User object.
@@ -76,6 +78,42 @@ public class User {
         this.profileImage = profileImage;
     }
 
+    /**
+     * Gets the URLs of the reduced variants of the user's profile image.
+     *
+     * @return The URLs in the order of {@link AvatarVariants#SIZES}, each possibly null, or null if the user has none.
+     */
+    public String[] getProfileImageVariants() {
+        return profileImageVariants;
+    }
+
+    /**
+     * Sets the URLs of the reduced variants of the user's profile image.
+     *
+     * @param profileImageVariants The URLs in the order of {@link AvatarVariants#SIZES}, or null.
+     */
+    public void setProfileImageVariants(String[] profileImageVariants) {
+        this.profileImageVariants = profileImageVariants;
+    }
+
+    /**
+     * Gets the version of the user's profile image, which changes with each upload.
+     *
+     * @return The version, or 0 if the image has none.
+     */
+    public long getProfileImageVersion() {
+        return profileImageVersion;
+    }
+
+    /**
+     * Sets the version of the user's profile image.
+     *
+     * @param profileImageVersion The version.
+     */
+    public void setProfileImageVersion(long profileImageVersion) {
+        this.profileImageVersion = profileImageVersion;
+    }
+
     /**
      * Gets the age of the user.
      *
@@ -151,18 +189,27 @@ public class User {
     /**
      * Gets the total earnings the user has accumulated.
      *
-     * @return The total earnings.
+     * @return The total earnings in cents.
      */
-    public double getTotalEarnings() {
-        return totalEarnings;
+    public long getEarningsCents() {
+        return earningsCents;
     }
 
     /**
      * Sets the total earnings the user has accumulated.
      *
+     * @param earningsCents The total earnings in cents.
+     */
+    public void setEarningsCents(long earningsCents) {
+        this.earningsCents = earningsCents;
+    }
+
+    /**
+     * Sets the total earnings from the decimal value stored by older versions.
+     *
      * @param totalEarnings The total earnings.
      */
     public void setTotalEarnings(double totalEarnings) {
-        this.totalEarnings = totalEarnings;
+        this.earningsCents = Money.toCents(totalEarnings);
     }
 }
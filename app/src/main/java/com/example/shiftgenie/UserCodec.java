@@ -0,0 +1,168 @@
+package com.example.shiftgenie;
+
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The UserCodec class converts the records under {@code Users/{uid}} to and from the {@link User}
+ * and {@link Users} models without reflection, reading the raw map of a snapshot and assigning
+ * the fields directly. The user ID is the record's key and is not stored inside the record.
+ *
+ * <p>Sign-up stores the age as text; the {@link Users} model keeps it as a number, so it is parsed
+ * here, and records whose age was saved as a number still decode into {@link User}.</p>
+ */
+public final class UserCodec {
+
+    private UserCodec() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Decodes a user snapshot, taking the user ID from the snapshot's key.
+     *
+     * @param snapshot The user snapshot.
+     * @return The user, or null if the snapshot does not hold a record.
+     */
+    @Nullable
+    public static User decode(DataSnapshot snapshot) {
+        User user = decode(snapshot.getValue());
+        if (user != null) {
+            user.setId(snapshot.getKey());
+        }
+        return user;
+    }
+
+    /**
+     * Decodes a user from its raw database value. The ID is left unset.
+     *
+     * @param value The raw value, as returned by {@code DataSnapshot.getValue()}.
+     * @return The user, or null if the value is not a record.
+     */
+    @Nullable
+    public static User decode(@Nullable Object value) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> record = (Map<?, ?>) value;
+        User user = new User();
+        user.setUsername(CodecValues.toString(record.get("username")));
+        user.setProfileImage(CodecValues.toString(record.get("profileImage")));
+        user.setProfileImageVariants(decodeVariants(record));
+        user.setProfileImageVersion(CodecValues.toLong(record.get(AvatarImages.VERSION_FIELD)));
+        user.setAge(CodecValues.toString(record.get("age")));
+        user.setPhoneNumber(CodecValues.toString(record.get("phoneNumber")));
+        user.setEmail(CodecValues.toString(record.get("email")));
+        user.setShiftsCount(CodecValues.toInt(record.get("shiftsCount")));
+
+        Object earningsCents = record.get("earningsCents");
+        if (earningsCents != null) {
+            user.setEarningsCents(CodecValues.toLong(earningsCents));
+        } else {
+            user.setTotalEarnings(CodecValues.toDouble(record.get("totalEarnings")));
+        }
+        return user;
+    }
+
+    /**
+     * Reads the URLs of the reduced profile image variants of a user record.
+     *
+     * @param record The user record.
+     * @return The URLs in the order of {@link AvatarVariants#SIZES}, or null if the record has none.
+     */
+    @Nullable
+    private static String[] decodeVariants(Map<?, ?> record) {
+        String[] variants = null;
+        for (int i = 0; i < AvatarVariants.SIZES.length; i++) {
+            String url = CodecValues.toString(record.get(AvatarVariants.fieldOf(AvatarVariants.nameOf(AvatarVariants.SIZES[i]))));
+            if (url != null) {
+                if (variants == null) {
+                    variants = new String[AvatarVariants.SIZES.length];
+                }
+                variants[i] = url;
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * Encodes the profile fields of a user for a database write. The totals are maintained in the
+     * {@link UserStats} rollups and the ID is the record's key, so neither is written.
+     *
+     * @param user The user.
+     * @return The record, keyed by child name.
+     */
+    public static Map<String, Object> encode(User user) {
+        Map<String, Object> record = new HashMap<>();
+        CodecValues.putIfPresent(record, "username", user.getUsername());
+        CodecValues.putIfPresent(record, "profileImage", user.getProfileImage());
+        String[] variants = user.getProfileImageVariants();
+        if (variants != null) {
+            for (int i = 0; i < AvatarVariants.SIZES.length && i < variants.length; i++) {
+                CodecValues.putIfPresent(record, AvatarVariants.fieldOf(AvatarVariants.nameOf(AvatarVariants.SIZES[i])), variants[i]);
+            }
+        }
+        if (user.getProfileImageVersion() != 0) {
+            record.put(AvatarImages.VERSION_FIELD, user.getProfileImageVersion());
+        }
+        CodecValues.putIfPresent(record, "age", user.getAge());
+        CodecValues.putIfPresent(record, "phoneNumber", user.getPhoneNumber());
+        CodecValues.putIfPresent(record, "email", user.getEmail());
+        return record;
+    }
+
+    /**
+     * Decodes a user snapshot into the {@link Users} model, taking the user ID from the snapshot's key
+     * unless the record stores one.
+     *
+     * @param snapshot The user snapshot.
+     * @return The user, or null if the snapshot does not hold a record.
+     */
+    @Nullable
+    public static Users decodeUsers(DataSnapshot snapshot) {
+        Users users = decodeUsers(snapshot.getValue());
+        if (users != null && users.getUserId() == null) {
+            users.setUserId(snapshot.getKey());
+        }
+        return users;
+    }
+
+    /**
+     * Decodes a user from its raw database value into the {@link Users} model.
+     *
+     * @param value The raw value, as returned by {@code DataSnapshot.getValue()}.
+     * @return The user, or null if the value is not a record.
+     */
+    @Nullable
+    public static Users decodeUsers(@Nullable Object value) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> record = (Map<?, ?>) value;
+        return new Users(CodecValues.toString(record.get("userId")),
+                CodecValues.toString(record.get("username")),
+                CodecValues.toString(record.get("email")),
+                CodecValues.toString(record.get("phoneNumber")),
+                CodecValues.toInt(record.get("age")));
+    }
+
+    /**
+     * Encodes a user in the {@link Users} model for a database write. The age is written as text,
+     * the way sign-up stores it.
+     *
+     * @param users The user.
+     * @return The record, keyed by child name.
+     */
+    public static Map<String, Object> encode(Users users) {
+        Map<String, Object> record = new HashMap<>();
+        CodecValues.putIfPresent(record, "userId", users.getUserId());
+        CodecValues.putIfPresent(record, "username", users.getUsername());
+        CodecValues.putIfPresent(record, "email", users.getEmail());
+        CodecValues.putIfPresent(record, "phoneNumber", users.getPhoneNumber());
+        record.put("age", String.valueOf(users.getAge()));
+        return record;
+    }
+}
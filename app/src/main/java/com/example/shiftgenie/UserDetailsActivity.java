@@ -8,32 +8,44 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.ConcatAdapter;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.google.firebase.database.ChildEventListener;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
 import com.google.firebase.database.ValueEventListener;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
 
 /**
  * UserDetailsActivity is an activity that displays detailed information about a user,
  * including their profile picture, username, age, phone number, and email.
- * It also displays a list of shifts associated with the user.
+ * It also displays a list of shifts associated with the user, fetched a page at a time, month by
+ * month, as the end of the list scrolls into view.
  */
 public class UserDetailsActivity extends AppCompatActivity {
 
+    private static final long DETAILS_MAX_AGE_MS = 30_000; // How old the user's details and totals may be when the screen is reopened.
+
     private ImageView imageViewProfile; // ImageView for displaying the user's profile picture.
+    private final AvatarImages.ShownImage shownImage = new AvatarImages.ShownImage(); // The profile image the view shows.
     private TextView textViewUsername, textViewAge, textViewPhone, textViewEmail, user_email_title; // TextViews for displaying user details.
+    private TextView textViewShiftsSummary; // TextView for displaying the user's shift totals.
     private RecyclerView recyclerViewShifts; // RecyclerView for displaying the user's shifts.
     private ShiftsAdapter shiftsAdapter; // Adapter for managing the shift data in the RecyclerView.
-    private List<Shift> shiftList; // List to store the user's shifts.
+    private final KeyedList<ShiftRow> shifts = new KeyedList<>(); // Rows of the user's shifts, keyed by "yyyy-MM/shiftId".
+    private final TreeMap<String, KeysetPager> monthPagers = new TreeMap<>(); // Shift pagers of the user's months, in month order.
+    private LoadingFooterAdapter footerAdapter; // Adapter showing a progress row while a page loads.
+    private NearEndScrollListener scrollListener; // Requests the next page near the end of the list.
 
     /**
      * Called when the activity is first created. This is where the activity initializes its user interface and data.
@@ -61,20 +73,30 @@ public class UserDetailsActivity extends AppCompatActivity {
         textViewEmail = findViewById(R.id.textViewEmail);
         recyclerViewShifts = findViewById(R.id.recyclerViewShifts);
         user_email_title = findViewById(R.id.user_email_title);
+        textViewShiftsSummary = findViewById(R.id.textViewShiftsSummary);
 
         // Set up the RecyclerView with a linear layout manager and an adapter.
         recyclerViewShifts.setLayoutManager(new LinearLayoutManager(this));
 
-        // Initialize the list and adapter for the shifts.
-        shiftList = new ArrayList<>();
-        shiftsAdapter = new ShiftsAdapter(shiftList);
-        recyclerViewShifts.setAdapter(shiftsAdapter);
+        // Initialize the adapter; the keyed shift list is submitted to it as it changes.
+        shiftsAdapter = new ShiftsAdapter();
+        recyclerViewShifts.setRecycledViewPool(ShiftsAdapter.getViewPool(this));
+        // Show the shifts followed by a progress row while the next page loads.
+        footerAdapter = new LoadingFooterAdapter();
+        ConcatAdapter.Config config = new ConcatAdapter.Config.Builder()
+                .setStableIdMode(ConcatAdapter.Config.StableIdMode.ISOLATED_STABLE_IDS).build();
+        recyclerViewShifts.setAdapter(new ConcatAdapter(config, shiftsAdapter, footerAdapter));
+
+        // Fetch the next page when the end of the list comes within half a page.
+        scrollListener = new NearEndScrollListener(getResources().getInteger(R.integer.shifts_page_size) / 2, this::loadMoreShifts);
+        recyclerViewShifts.addOnScrollListener(scrollListener);
 
         // Retrieve the user ID passed from the previous activity.
         String userId = getIntent().getStringExtra("userId");
         if (userId != null) {
-            // Fetch the user's details if the user ID is available.
+            // Fetch the user's details and shift totals if the user ID is available.
             fetchUserDetails(userId);
+            fetchUserStats(userId);
         } else {
             // Show an error message if the user ID is missing.
             Toast.makeText(this, "User ID is missing.", Toast.LENGTH_SHORT).show();
@@ -83,34 +105,19 @@ public class UserDetailsActivity extends AppCompatActivity {
     }
 
     /**
-     * Fetches and displays the user's details from the Firebase Realtime Database.
+     * Fetches and displays the user's details from the Firebase Realtime Database. Reopening the
+     * same user shortly after shows the details read then.
      *
      * @param userId The unique identifier of the user.
      */
     private void fetchUserDetails(String userId) {
         // Reference to the user's data in the Firebase Realtime Database.
         DatabaseReference userRef = FirebaseDatabase.getInstance().getReference("Users").child(userId);
-        userRef.addListenerForSingleValueEvent(new ValueEventListener() {
+        QueryGateway.getInstance().get(userRef, DETAILS_MAX_AGE_MS, new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot snapshot) {
-                // Retrieve the User object from the snapshot.
-                User user = snapshot.getValue(User.class);
-                if (user != null) {
-                    // Load the user's profile image using Glide.
-                    Glide.with(UserDetailsActivity.this).load(user.getProfileImage())
-                            .error(R.drawable.pp) // Fallback image in case of an error or if the image is missing.
-                            .into(imageViewProfile);
-
-                    // Display the user's details in the respective TextViews.
-                    textViewUsername.setText(user.getUsername());
-                    user_email_title.setText(user.getUsername());
-                    textViewAge.setText(user.getAge());
-                    textViewPhone.setText(user.getPhoneNumber());
-                    textViewEmail.setText(user.getEmail());
-
-                    // Fetch the user's shifts based on their email.
-                    fetchUserShifts(user.getEmail());
-                }
+                // Retrieve the User object from the snapshot in the background.
+                BackgroundDecoder.submit(UserDetailsActivity.this, () -> UserCodec.decode(snapshot), user -> showUserDetails(userId, user));
             }
 
             @Override
@@ -122,34 +129,196 @@ public class UserDetailsActivity extends AppCompatActivity {
     }
 
     /**
-     * Fetches and displays the list of shifts associated with the user from the Firebase Realtime Database.
+     * Displays the user's details and starts fetching their shifts.
+     *
+     * @param userId The unique identifier of the user.
+     * @param user   The decoded user, or null if the user does not exist.
+     */
+    private void showUserDetails(String userId, User user) {
+        if (user != null) {
+            // Load the smallest variant of the user's profile image that covers the view using Glide,
+            // unless the details were fetched again and the image is unchanged.
+            String imageUrl = AvatarVariants.pick(imageViewProfile.getLayoutParams().width,
+                    user.getProfileImageVariants(), user.getProfileImage());
+            String imageKey = AvatarImages.keyOf(imageUrl, user.getProfileImageVersion());
+            shownImage.load(imageKey, AvatarImages.request(Glide.with(UserDetailsActivity.this), imageUrl,
+                    user.getProfileImageVersion()), imageViewProfile);
+
+            // Display the user's details in the respective TextViews.
+            textViewUsername.setText(user.getUsername());
+            user_email_title.setText(user.getUsername());
+            textViewAge.setText(user.getAge());
+            textViewPhone.setText(user.getPhoneNumber());
+            textViewEmail.setText(user.getEmail());
+
+            // Fetch the user's shifts from their month buckets.
+            fetchUserShifts(userId, user.getEmail());
+        }
+    }
+
+    /**
+     * Fetches and displays the user's shift totals from their "UserStats" rollup in one request,
+     * or from the totals read within the last {@link #DETAILS_MAX_AGE_MS}.
      *
-     * @param userEmail The email address of the user.
+     * @param userId The unique identifier of the user.
      */
-    private void fetchUserShifts(String userEmail) {
-        // Reference to the shifts data in the Firebase Realtime Database.
-        DatabaseReference shiftsRef = FirebaseDatabase.getInstance().getReference("Shifts");
-        shiftsRef.orderByChild("userEmail").equalTo(userEmail).addValueEventListener(new ValueEventListener() {
+    private void fetchUserStats(String userId) {
+        QueryGateway.getInstance().get(UserStatsStore.statsRef(userId), DETAILS_MAX_AGE_MS, new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot snapshot) {
-                // Clear the current list of shifts.
-                shiftList.clear();
-                // Iterate over all the shifts in the snapshot and add them to the list.
-                for (DataSnapshot shiftSnapshot : snapshot.getChildren()) {
-                    Shift shift = shiftSnapshot.getValue(Shift.class);
-                    if (shift != null) {
-                        shiftList.add(shift);
+                // Decode the rollup, including its months, in the background.
+                BackgroundDecoder.submit(UserDetailsActivity.this, () -> UserStatsCodec.decode(snapshot), stats -> {
+                    if (stats != null) {
+                        // Display the totals, with minutes shown as hours.
+                        textViewShiftsSummary.setText(String.format(Locale.getDefault(), "Total Shifts: %d | Hours: %s | Earnings: %s",
+                                stats.getShiftsCount(), Money.formatHours(stats.getTotalMinutes()), Money.format(stats.getEarningsCents())));
                     }
+                });
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                // Show an error message if fetching the totals fails.
+                Toast.makeText(UserDetailsActivity.this, "Failed to fetch shift totals: " + error.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    /**
+     * Called when the activity is destroyed; stops listening for changes to the user's shifts.
+     * The months listener is removed by the {@link LiveQueryRegistry} with the activity.
+     */
+    @Override
+    protected void onDestroy() {
+        for (KeysetPager monthPager : monthPagers.values()) {
+            monthPager.detach();
+        }
+        monthPagers.clear();
+        super.onDestroy();
+    }
+
+    /**
+     * Starts listening to the shifts associated with the user in the Firebase Realtime Database.
+     * The months the user has shifts in are taken from the months of their "UserStats" rollup if it
+     * is current, since every shift write updates it. A missing or outdated rollup may lack months,
+     * so the months are then taken from the keys of the user's buckets instead, which reads every
+     * shift once, and the user is migrated so the next visit can use the rollup.
+     *
+     * @param userId The unique identifier of the user.
+     * @param email  The user's email address, used to migrate the user's legacy shifts.
+     */
+    private void fetchUserShifts(String userId, String email) {
+        QueryGateway.getInstance().get(UserStatsStore.statsRef(userId).child("schemaVersion"), new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                Integer schemaVersion = snapshot.getValue(Integer.class);
+                if (schemaVersion != null && schemaVersion >= UserStats.SCHEMA_VERSION) {
+                    observeMonths(userId, UserStatsStore.statsRef(userId).child("months"));
+                } else {
+                    ShiftMigration.migrateUser(userId, email);
+                    observeMonths(userId, ShiftBuckets.userRef(userId));
                 }
-                // Notify the adapter that the data has changed so the RecyclerView can be updated.
-                shiftsAdapter.notifyDataSetChanged();
             }
 
             @Override
             public void onCancelled(@NonNull DatabaseError error) {
-                // Show an error message if fetching shifts fails.
                 Toast.makeText(UserDetailsActivity.this, "Failed to fetch shifts: " + error.getMessage(), Toast.LENGTH_SHORT).show();
             }
         });
     }
+
+    /**
+     * Listens to the months the user has shifts in, given as the keys of a node's children. Each
+     * month bucket gets its own pager, whose pages listen to their children so a changed shift
+     * updates only its own row. Months are paged through in order, see {@link #loadMoreShifts()}.
+     *
+     * @param userId    The unique identifier of the user.
+     * @param monthsRef The node whose children are keyed by the "yyyy-MM" months.
+     */
+    private void observeMonths(String userId, DatabaseReference monthsRef) {
+        int pageSize = getResources().getInteger(R.integer.shifts_page_size);
+        ChildListSync.ErrorListener errorListener = error -> {
+            // Show an error message if fetching shifts fails.
+            Toast.makeText(UserDetailsActivity.this, "Failed to fetch shifts: " + error.getMessage(), Toast.LENGTH_SHORT).show();
+        };
+
+        ChildEventListener monthsListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                // Page through the shifts of the month's bucket; keys are prefixed so months sort in order.
+                // Each shift is decoded and formatted into its row in the background.
+                String monthKey = snapshot.getKey();
+                Query bucket = ShiftBuckets.monthRef(userId, monthKey).orderByKey();
+                KeysetPager monthPager = new KeysetPager(bucket, pageSize, () -> KeysetPager.syncPage(
+                        new ChildListSync<>(shifts, monthKey + "/", shift -> ShiftRow.ofNullable(ShiftCodec.decode(shift)),
+                                shiftsAdapter::submitList, UserDetailsActivity.this, errorListener), bucket));
+                monthPager.setStateListener((loading, exhausted) -> {
+                    footerAdapter.setLoading(loading);
+                    if (!loading) {
+                        checkNearEnd();
+                    }
+                });
+                monthPagers.put(monthKey, monthPager);
+                checkNearEnd();
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                // The month's totals or shifts changed; its pages already apply the shifts themselves.
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                // The month has no shifts left: stop its pages and drop its rows.
+                String monthKey = snapshot.getKey();
+                KeysetPager monthPager = monthPagers.remove(monthKey);
+                if (monthPager != null) {
+                    if (monthPager.isLoading()) {
+                        footerAdapter.setLoading(false);
+                    }
+                    monthPager.detach();
+                    int size = shifts.size();
+                    shifts.removePrefix(monthKey + "/");
+                    if (shifts.size() != size) {
+                        shiftsAdapter.submitList(shifts.snapshot());
+                    }
+                    checkNearEnd();
+                }
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                // Rows are ordered by month key, not by the order of the months node.
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                errorListener.onError(error);
+            }
+        };
+        LiveQueryRegistry.getInstance().observeChildren(this, monthsRef, monthsListener);
+    }
+
+    /**
+     * Checks once the list has been laid out whether its end is in view, and if so loads more shifts.
+     */
+    private void checkNearEnd() {
+        recyclerViewShifts.post(() -> scrollListener.check(recyclerViewShifts));
+    }
+
+    /**
+     * Loads the next page of shifts: the next page of the earliest month that has more, unless a
+     * page is already loading. Pages are loaded one at a time, so rows are appended in order.
+     */
+    private void loadMoreShifts() {
+        for (KeysetPager monthPager : monthPagers.values()) {
+            if (monthPager.isLoading()) {
+                return;
+            }
+            if (!monthPager.isExhausted()) {
+                monthPager.loadNextPage();
+                return;
+            }
+        }
+    }
 }
@@ -0,0 +1,249 @@
+package com.example.shiftgenie;
+
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The UserRow class is the display form of a user in a list: the texts of their row, formatted
+ * once when the user arrives, on the thread that decoded them. Binding a row only assigns these
+ * texts to its views. Rows are immutable; when a user's totals change, {@link #withTotals} makes
+ * a new row that reuses the profile texts and formats only the totals.
+ */
+public final class UserRow {
+
+    private final String userId;          // ID of the user, the row's identity.
+    private final String username;        // The username.
+    private final String profileImage;    // URL of the full profile image, or null.
+    private final String[] profileImageVariants; // URLs of the reduced profile images, or null.
+    private final long profileImageVersion; // Version of the profile image, the signature of its loads.
+    private final String ageText;         // Age, with its label.
+    private final String phoneText;       // Phone number, with its label.
+    private final String shiftsText;      // Number of shifts, with its label.
+    private final String earningsText;    // Total earnings, formatted as money, with its label.
+    private final String email;           // The email, searched but not shown, or null.
+    private final String phoneNumber;     // The phone number as entered, or null.
+    private final long shiftsCount;       // Number of shifts, for sorting.
+    private final long earningsCents;     // Total earnings in cents, for sorting.
+
+    /**
+     * Constructor to initialize all texts of the row.
+     *
+     * @param userId       ID of the user.
+     * @param username     The username.
+     * @param profileImage URL of the full profile image, or null.
+     * @param profileImageVariants URLs of the reduced profile images, or null.
+     * @param profileImageVersion Version of the profile image.
+     * @param ageText      Labelled age.
+     * @param phoneText    Labelled phone number.
+     * @param shiftsText   Labelled number of shifts.
+     * @param earningsText Labelled total earnings.
+     * @param email        The email, or null.
+     * @param phoneNumber  The phone number, or null.
+     * @param shiftsCount  Number of shifts.
+     * @param earningsCents Total earnings in cents.
+     */
+    private UserRow(String userId, String username, String profileImage, String[] profileImageVariants,
+                    long profileImageVersion, String ageText, String phoneText, String shiftsText, String earningsText,
+                    String email, String phoneNumber, long shiftsCount, long earningsCents) {
+        this.userId = userId;
+        this.username = username;
+        this.profileImage = profileImage;
+        this.profileImageVariants = profileImageVariants;
+        this.profileImageVersion = profileImageVersion;
+        this.ageText = ageText;
+        this.phoneText = phoneText;
+        this.shiftsText = shiftsText;
+        this.earningsText = earningsText;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.shiftsCount = shiftsCount;
+        this.earningsCents = earningsCents;
+    }
+
+    /**
+     * Formats the row of a user, with the totals stored on the user.
+     *
+     * @param user The user; their ID must be set.
+     * @return The row.
+     */
+    public static UserRow of(User user) {
+        String[] variants = user.getProfileImageVariants();
+        return new UserRow(user.getId(), user.getUsername(), user.getProfileImage(),
+                variants != null ? variants.clone() : null, user.getProfileImageVersion(),
+                "Age: " + user.getAge(), "Phone: " + user.getPhoneNumber(),
+                shiftsText(user.getShiftsCount()), earningsText(user.getEarningsCents()),
+                user.getEmail(), user.getPhoneNumber(), user.getShiftsCount(), user.getEarningsCents());
+    }
+
+    /**
+     * Formats the row of a user that may be missing.
+     *
+     * @param user The user, or null.
+     * @return The row, or null if there is no user.
+     */
+    @Nullable
+    public static UserRow ofNullable(@Nullable User user) {
+        return user != null ? of(user) : null;
+    }
+
+    /**
+     * Makes a row with the totals of a rollup and the profile texts of this row.
+     *
+     * @param stats The user's rollup, or null if they have none.
+     * @return The new row.
+     */
+    public UserRow withTotals(@Nullable UserStats stats) {
+        long shiftsCount = stats != null ? stats.getShiftsCount() : 0;
+        long earningsCents = stats != null ? stats.getEarningsCents() : 0;
+        return new UserRow(userId, username, profileImage, profileImageVariants, profileImageVersion, ageText, phoneText,
+                shiftsText(shiftsCount), earningsText(earningsCents), email, phoneNumber, shiftsCount, earningsCents);
+    }
+
+    /**
+     * Formats a number of shifts with its label.
+     *
+     * @param shiftsCount The number of shifts.
+     * @return The text.
+     */
+    private static String shiftsText(long shiftsCount) {
+        return "Total Shifts: " + shiftsCount;
+    }
+
+    /**
+     * Formats total earnings with their label.
+     *
+     * @param earningsCents The earnings in cents.
+     * @return The text.
+     */
+    private static String earningsText(long earningsCents) {
+        return "Earnings: " + Money.format(earningsCents);
+    }
+
+    /**
+     * Gets the ID of the user.
+     *
+     * @return The user ID.
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets the username.
+     *
+     * @return The username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Gets the URL of the smallest profile image variant that covers a view, see {@link AvatarVariants#pick}.
+     *
+     * @param viewSizePx The longest side of the view, in pixels.
+     * @return The URL, or null if the user has no profile image.
+     */
+    public String getProfileImage(int viewSizePx) {
+        return AvatarVariants.pick(viewSizePx, profileImageVariants, profileImage);
+    }
+
+    /**
+     * Gets the version of the profile image, the signature of its loads, see {@link AvatarImages}.
+     *
+     * @return The version, or 0 if the image has none.
+     */
+    public long getProfileImageVersion() {
+        return profileImageVersion;
+    }
+
+    /**
+     * Gets the email.
+     *
+     * @return The email, or null.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Gets the phone number as entered.
+     *
+     * @return The phone number, or null.
+     */
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    /**
+     * Gets the number of shifts.
+     *
+     * @return The shifts count.
+     */
+    public long getShiftsCount() {
+        return shiftsCount;
+    }
+
+    /**
+     * Gets the total earnings.
+     *
+     * @return The earnings in cents.
+     */
+    public long getEarningsCents() {
+        return earningsCents;
+    }
+
+    /**
+     * Gets the labelled age.
+     *
+     * @return The age text.
+     */
+    public String getAgeText() {
+        return ageText;
+    }
+
+    /**
+     * Gets the labelled phone number.
+     *
+     * @return The phone text.
+     */
+    public String getPhoneText() {
+        return phoneText;
+    }
+
+    /**
+     * Gets the labelled number of shifts.
+     *
+     * @return The shifts text.
+     */
+    public String getShiftsText() {
+        return shiftsText;
+    }
+
+    /**
+     * Gets the labelled total earnings.
+     *
+     * @return The earnings text.
+     */
+    public String getEarningsText() {
+        return earningsText;
+    }
+
+    /**
+     * Checks whether two rows would show the same content.
+     *
+     * @param other The other row.
+     * @return True if every text and the profile image are equal.
+     */
+    public boolean hasSameContent(UserRow other) {
+        return Objects.equals(username, other.username)
+                && Objects.equals(profileImage, other.profileImage)
+                && Arrays.equals(profileImageVariants, other.profileImageVariants)
+                && profileImageVersion == other.profileImageVersion
+                && Objects.equals(ageText, other.ageText)
+                && Objects.equals(phoneText, other.phoneText)
+                && Objects.equals(shiftsText, other.shiftsText)
+                && Objects.equals(earningsText, other.earningsText);
+    }
+}
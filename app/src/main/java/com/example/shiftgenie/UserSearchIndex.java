@@ -0,0 +1,298 @@
+package com.example.shiftgenie;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The UserSearchIndex class searches and sorts the rows of the users list in memory. Each user's
+ * username and each of its words, email and phone digits are search terms, kept in one sorted map
+ * keyed by term and user ID, so the users matching a prefix are the range of keys from the prefix up
+ * to the prefix followed by the highest character. Case is ignored, and phone numbers match
+ * whatever separators the query uses.
+ *
+ * <p>Every {@link Sort} order is kept sorted as users are added, changed and removed, so a keystroke
+ * never sorts the whole list: it either filters the kept order by the matches or, when only a few
+ * users match, sorts just those. Matches are marked on the users themselves rather than collected
+ * into a hash set, so even a one-letter search matching most users stays well within a frame.</p>
+ *
+ * <p>The terms and orders are balanced trees rather than sorted arrays like the {@link KeyedList},
+ * because users arrive in key order but their terms and totals do not, and inserting tens of
+ * thousands of them into the middle of arrays would stall the main thread. All methods must be
+ * called on one thread.</p>
+ */
+public final class UserSearchIndex {
+
+    /**
+     * The orders the users can be listed in.
+     */
+    public enum Sort {
+        KEY(Comparator.comparing(UserRow::getUserId)),          // Database order, oldest users first.
+        SHIFTS(byDescending(UserRow::getShiftsCount)),          // Most shifts first.
+        EARNINGS(byDescending(UserRow::getEarningsCents));      // Highest earnings first.
+
+        final Comparator<UserRow> comparator; // Total order of the rows; ties are broken by user ID.
+
+        /**
+         * Constructor to initialize an order.
+         *
+         * @param comparator The total order of the rows.
+         */
+        Sort(Comparator<UserRow> comparator) {
+            this.comparator = comparator;
+        }
+    }
+
+    /**
+     * Reads a number of a row.
+     */
+    private interface LongField {
+        long of(UserRow row);
+    }
+
+    /**
+     * An indexed user: the current row and the last query that matched it.
+     */
+    private static final class Indexed {
+        UserRow row;    // The current row.
+        int mark;       // Number of the last query that matched the user.
+
+        Indexed(UserRow row) {
+            this.row = row;
+        }
+    }
+
+    private static final char SEPARATOR = '\u0000';                 // Separates the term from the user ID in an entry key.
+
+    private final Map<String, Indexed> usersById = new HashMap<>(); // Indexed users by user ID.
+    private final TreeMap<String, Indexed> entries = new TreeMap<>(); // Users by search term, followed by the separator and the user ID.
+    private final Map<Sort, TreeSet<Indexed>> orders = new EnumMap<>(Sort.class); // The users in every order.
+    private final Map<Sort, ArrayList<Indexed>> flatOrders = new EnumMap<>(Sort.class); // Orders copied to arrays since the last change.
+    private int queries;                                            // Number of queries run, used to mark their matches.
+
+    /**
+     * Constructor to initialize an empty index.
+     */
+    public UserSearchIndex() {
+        for (Sort sort : Sort.values()) {
+            orders.put(sort, new TreeSet<>((a, b) -> sort.comparator.compare(a.row, b.row)));
+        }
+    }
+
+    /**
+     * Adds a row or replaces the row of the same user, updating only that user's terms and positions.
+     *
+     * @param row The row.
+     */
+    public void put(UserRow row) {
+        Indexed user = usersById.get(row.getUserId());
+        if (user == null) {
+            user = new Indexed(row);
+            usersById.put(row.getUserId(), user);
+        } else {
+            // The orders find the user by its row, so it leaves them before the row changes.
+            unindex(user);
+            user.row = row;
+        }
+        for (String term : termsOf(row)) {
+            entries.put(term + SEPARATOR + row.getUserId(), user);
+        }
+        for (TreeSet<Indexed> order : orders.values()) {
+            order.add(user);
+        }
+        flatOrders.clear();
+    }
+
+    /**
+     * Removes the row of a user.
+     *
+     * @param userId The user ID.
+     */
+    public void remove(String userId) {
+        Indexed user = usersById.remove(userId);
+        if (user != null) {
+            unindex(user);
+        }
+    }
+
+    /**
+     * Gets the number of indexed users.
+     *
+     * @return The number of users.
+     */
+    public int size() {
+        return usersById.size();
+    }
+
+    /**
+     * Finds the users with a term starting with the query, in an order.
+     *
+     * @param query The text typed; blank lists every user.
+     * @param sort  The order of the result.
+     * @return A new list of the matching rows.
+     */
+    public List<UserRow> query(String query, Sort sort) {
+        ArrayList<Indexed> order = flatOrder(sort);
+        String text = normalize(query);
+        if (text.isEmpty()) {
+            ArrayList<UserRow> result = new ArrayList<>(order.size());
+            for (Indexed user : order) {
+                result.add(user.row);
+            }
+            return result;
+        }
+        int mark = ++queries;
+        ArrayList<Indexed> matches = new ArrayList<>();
+        collectMatches(text, mark, matches);
+        String digits = digitsOf(text);
+        if (digits.length() > 0 && !digits.equals(text)) {
+            collectMatches(digits, mark, matches);
+        }
+
+        // Sorting a few matches is cheaper than filtering the whole order.
+        int count = matches.size();
+        ArrayList<UserRow> result = new ArrayList<>(count);
+        if ((long) count * (32 - Integer.numberOfLeadingZeros(count)) < order.size()) {
+            for (Indexed user : matches) {
+                result.add(user.row);
+            }
+            Collections.sort(result, sort.comparator);
+            return result;
+        }
+        for (Indexed user : order) {
+            if (user.mark == mark) {
+                result.add(user.row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets an order as an array, copying it from its tree after a change, since a typed search
+     * walks it on every keystroke and an array is walked several times faster.
+     *
+     * @param sort The order.
+     * @return The users in that order; not to be modified.
+     */
+    private ArrayList<Indexed> flatOrder(Sort sort) {
+        ArrayList<Indexed> order = flatOrders.get(sort);
+        if (order == null) {
+            order = new ArrayList<>(orders.get(sort));
+            flatOrders.put(sort, order);
+        }
+        return order;
+    }
+
+    /**
+     * Marks and adds the users with a term starting with a prefix, each once.
+     *
+     * @param prefix  The normalized prefix.
+     * @param mark    The number of the query.
+     * @param matches The users found so far.
+     */
+    private void collectMatches(String prefix, int mark, List<Indexed> matches) {
+        // Every key starting with the prefix sorts between the prefix and the prefix followed by the highest character.
+        for (Indexed user : entries.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            if (user.mark != mark) {
+                user.mark = mark;
+                matches.add(user);
+            }
+        }
+    }
+
+    /**
+     * Removes a user's terms and positions.
+     *
+     * @param user The user, with the row it was indexed with.
+     */
+    private void unindex(Indexed user) {
+        for (String term : termsOf(user.row)) {
+            entries.remove(term + SEPARATOR + user.row.getUserId());
+        }
+        for (TreeSet<Indexed> order : orders.values()) {
+            order.remove(user);
+        }
+        flatOrders.clear();
+    }
+
+    /**
+     * Lists the search terms of a row: the username and each of its later words, the email and the
+     * digits of the phone number, without duplicates.
+     *
+     * @param row The row.
+     * @return The normalized terms.
+     */
+    static Set<String> termsOf(UserRow row) {
+        Set<String> terms = new LinkedHashSet<>();
+        String username = normalize(row.getUsername());
+        if (!username.isEmpty()) {
+            terms.add(username);
+            for (String word : username.split("\\s+")) {
+                if (!word.isEmpty()) {
+                    terms.add(word);
+                }
+            }
+        }
+        String email = normalize(row.getEmail());
+        if (!email.isEmpty()) {
+            terms.add(email);
+        }
+        String phone = digitsOf(row.getPhoneNumber());
+        if (!phone.isEmpty()) {
+            terms.add(phone);
+        }
+        return terms;
+    }
+
+    /**
+     * Normalizes a text for matching: trimmed and in lower case.
+     *
+     * @param text The text, or null.
+     * @return The normalized text, "" for null.
+     */
+    static String normalize(String text) {
+        return text != null ? text.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Keeps the digits of a text, so phone numbers match whatever separators they were typed with.
+     *
+     * @param text The text, or null.
+     * @return The digits, "" for null.
+     */
+    static String digitsOf(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    /**
+     * Orders rows by a number, largest first, then by user ID.
+     *
+     * @param field The number.
+     * @return The comparator.
+     */
+    private static Comparator<UserRow> byDescending(LongField field) {
+        return (a, b) -> {
+            int cmp = Long.compare(field.of(b), field.of(a));
+            return cmp != 0 ? cmp : a.getUserId().compareTo(b.getUserId());
+        };
+    }
+}
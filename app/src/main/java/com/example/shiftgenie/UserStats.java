@@ -0,0 +1,229 @@
+package com.example.shiftgenie;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The UserStats class represents the rollup stored under {@code UserStats/{uid}}.
+ * It holds the user's lifetime shift count, earnings and minutes worked, as well as
+ * the same totals per "yyyy-MM" month. The rollup is updated together with every shift write,
+ * so screens can show totals without downloading any shifts.
+ */
+public class UserStats {
+
+    public static final String ROOT = "UserStats"; // Root node holding the per-user rollups.
+    public static final int SCHEMA_VERSION = 2;    // Version of the rollup layout; 2 stores earnings in cents.
+
+    private int schemaVersion;                 // Layout version the rollup was built with.
+    private long shiftsCount;                  // Number of shifts the user has logged.
+    private long earningsCents;                // Total earnings over all shifts, in cents.
+    private long totalMinutes;                 // Total minutes worked over all shifts.
+    private Map<String, MonthStats> months;    // Subtotals keyed by "yyyy-MM" month.
+
+    /**
+     * Constructor to initialize an empty rollup, also used by {@link UserStatsCodec}.
+     */
+    public UserStats() {
+        months = new HashMap<>();
+    }
+
+    /**
+     * Adds a single shift to the lifetime and monthly totals.
+     *
+     * @param monthKey      The "yyyy-MM" month the shift belongs to.
+     * @param earningsCents The earnings of the shift, in cents.
+     * @param minutes       The minutes worked in the shift.
+     */
+    public void addShift(String monthKey, long earningsCents, long minutes) {
+        shiftsCount++;
+        this.earningsCents += earningsCents;
+        totalMinutes += minutes;
+
+        MonthStats month = months.get(monthKey);
+        if (month == null) {
+            month = new MonthStats();
+            months.put(monthKey, month);
+        }
+        month.shiftsCount++;
+        month.earningsCents += earningsCents;
+        month.totalMinutes += minutes;
+    }
+
+    /**
+     * Gets the layout version the rollup was built with.
+     *
+     * @return The schema version, or 0 for rollups built before versions were recorded.
+     */
+    public int getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    /**
+     * Sets the layout version the rollup was built with.
+     *
+     * @param schemaVersion The schema version.
+     */
+    public void setSchemaVersion(int schemaVersion) {
+        this.schemaVersion = schemaVersion;
+    }
+
+    /**
+     * Gets the number of shifts the user has logged.
+     *
+     * @return The number of shifts.
+     */
+    public long getShiftsCount() {
+        return shiftsCount;
+    }
+
+    /**
+     * Sets the number of shifts the user has logged.
+     *
+     * @param shiftsCount The number of shifts.
+     */
+    public void setShiftsCount(long shiftsCount) {
+        this.shiftsCount = shiftsCount;
+    }
+
+    /**
+     * Gets the total earnings over all shifts.
+     *
+     * @return The total earnings in cents.
+     */
+    public long getEarningsCents() {
+        return earningsCents;
+    }
+
+    /**
+     * Sets the total earnings over all shifts.
+     *
+     * @param earningsCents The total earnings in cents.
+     */
+    public void setEarningsCents(long earningsCents) {
+        this.earningsCents = earningsCents;
+    }
+
+    /**
+     * Sets the total earnings from the decimal value stored by older versions.
+     *
+     * @param totalEarnings The total earnings.
+     */
+    public void setTotalEarnings(double totalEarnings) {
+        this.earningsCents = Money.toCents(totalEarnings);
+    }
+
+    /**
+     * Gets the total minutes worked over all shifts.
+     *
+     * @return The total minutes worked.
+     */
+    public long getTotalMinutes() {
+        return totalMinutes;
+    }
+
+    /**
+     * Sets the total minutes worked over all shifts.
+     *
+     * @param totalMinutes The total minutes worked.
+     */
+    public void setTotalMinutes(long totalMinutes) {
+        this.totalMinutes = totalMinutes;
+    }
+
+    /**
+     * Gets the subtotals keyed by "yyyy-MM" month.
+     *
+     * @return The monthly subtotals.
+     */
+    public Map<String, MonthStats> getMonths() {
+        return months;
+    }
+
+    /**
+     * Sets the subtotals keyed by "yyyy-MM" month.
+     *
+     * @param months The monthly subtotals.
+     */
+    public void setMonths(Map<String, MonthStats> months) {
+        this.months = months != null ? months : new HashMap<>();
+    }
+
+    /**
+     * The MonthStats class holds the totals of a single month.
+     */
+    public static class MonthStats {
+        private long shiftsCount;      // Number of shifts in the month.
+        private long earningsCents;    // Total earnings in the month, in cents.
+        private long totalMinutes;     // Total minutes worked in the month.
+
+        /**
+         * Default constructor required for calls to DataSnapshot.getValue(MonthStats.class).
+         */
+        public MonthStats() {
+            // No-argument constructor required for Firebase.
+        }
+
+        /**
+         * Gets the number of shifts in the month.
+         *
+         * @return The number of shifts.
+         */
+        public long getShiftsCount() {
+            return shiftsCount;
+        }
+
+        /**
+         * Sets the number of shifts in the month.
+         *
+         * @param shiftsCount The number of shifts.
+         */
+        public void setShiftsCount(long shiftsCount) {
+            this.shiftsCount = shiftsCount;
+        }
+
+        /**
+         * Gets the total earnings in the month.
+         *
+         * @return The total earnings in cents.
+         */
+        public long getEarningsCents() {
+            return earningsCents;
+        }
+
+        /**
+         * Sets the total earnings in the month.
+         *
+         * @param earningsCents The total earnings in cents.
+         */
+        public void setEarningsCents(long earningsCents) {
+            this.earningsCents = earningsCents;
+        }
+
+        /**
+         * Sets the total earnings from the decimal value stored by older versions.
+         *
+         * @param totalEarnings The total earnings.
+         */
+        public void setTotalEarnings(double totalEarnings) {
+            this.earningsCents = Money.toCents(totalEarnings);
+        }
+
+        /**
+         * Gets the total minutes worked in the month.
+         *
+         * @return The total minutes worked.
+         */
+        public long getTotalMinutes() {
+            return totalMinutes;
+        }
+
+        /**
+         * Sets the total minutes worked in the month.
+         *
+         * @param totalMinutes The total minutes worked.
+         */
+        public void setTotalMinutes(long totalMinutes) {
+            this.totalMinutes = totalMinutes;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.shiftgenie;
+
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The UserStatsCodec class converts the rollups under {@code UserStats/{uid}} to and from the
+ * {@link UserStats} model without reflection, like {@link ShiftCodec} does for shifts. The users list
+ * decodes a rollup for every user it loads, on the main thread, so the class mapper's per-property
+ * lookups would add up over a search or sort that loads every page.
+ *
+ * <p>Rollups built before the schema version was recorded store decimal {@code totalEarnings};
+ * they are converted the same way {@link UserStats#setTotalEarnings(double)} does.</p>
+ */
+public final class UserStatsCodec {
+
+    private UserStatsCodec() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Decodes a rollup snapshot.
+     *
+     * @param snapshot The rollup snapshot.
+     * @return The rollup, or null if the snapshot does not hold a record.
+     */
+    @Nullable
+    public static UserStats decode(DataSnapshot snapshot) {
+        return decode(snapshot.getValue());
+    }
+
+    /**
+     * Decodes a rollup from its raw database value.
+     *
+     * @param value The raw value, as returned by {@code DataSnapshot.getValue()}.
+     * @return The rollup, or null if the value is not a record.
+     */
+    @Nullable
+    public static UserStats decode(@Nullable Object value) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> record = (Map<?, ?>) value;
+        UserStats stats = new UserStats();
+        stats.setSchemaVersion(CodecValues.toInt(record.get("schemaVersion")));
+        stats.setShiftsCount(CodecValues.toLong(record.get("shiftsCount")));
+        stats.setTotalMinutes(CodecValues.toLong(record.get("totalMinutes")));
+        Object earningsCents = record.get("earningsCents");
+        if (earningsCents != null) {
+            stats.setEarningsCents(CodecValues.toLong(earningsCents));
+        } else {
+            stats.setTotalEarnings(CodecValues.toDouble(record.get("totalEarnings")));
+        }
+
+        Object months = record.get("months");
+        if (months instanceof Map) {
+            for (Map.Entry<?, ?> month : ((Map<?, ?>) months).entrySet()) {
+                if (month.getValue() instanceof Map) {
+                    stats.getMonths().put(String.valueOf(month.getKey()), decodeMonth((Map<?, ?>) month.getValue()));
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Decodes the totals of one month.
+     *
+     * @param record The month's record.
+     * @return The month's totals.
+     */
+    private static UserStats.MonthStats decodeMonth(Map<?, ?> record) {
+        UserStats.MonthStats month = new UserStats.MonthStats();
+        month.setShiftsCount(CodecValues.toLong(record.get("shiftsCount")));
+        month.setTotalMinutes(CodecValues.toLong(record.get("totalMinutes")));
+        Object earningsCents = record.get("earningsCents");
+        if (earningsCents != null) {
+            month.setEarningsCents(CodecValues.toLong(earningsCents));
+        } else {
+            month.setTotalEarnings(CodecValues.toDouble(record.get("totalEarnings")));
+        }
+        return month;
+    }
+
+    /**
+     * Encodes a rollup for a database write, with the same keys the class mapper would write.
+     *
+     * @param stats The rollup.
+     * @return The record, keyed by child name.
+     */
+    public static Map<String, Object> encode(UserStats stats) {
+        Map<String, Object> record = new HashMap<>();
+        record.put("schemaVersion", stats.getSchemaVersion());
+        record.put("shiftsCount", stats.getShiftsCount());
+        record.put("earningsCents", stats.getEarningsCents());
+        record.put("totalMinutes", stats.getTotalMinutes());
+
+        Map<String, Object> months = new HashMap<>();
+        for (Map.Entry<String, UserStats.MonthStats> month : stats.getMonths().entrySet()) {
+            Map<String, Object> monthRecord = new HashMap<>();
+            monthRecord.put("shiftsCount", month.getValue().getShiftsCount());
+            monthRecord.put("earningsCents", month.getValue().getEarningsCents());
+            monthRecord.put("totalMinutes", month.getValue().getTotalMinutes());
+            months.put(month.getKey(), monthRecord);
+        }
+        if (!months.isEmpty()) {
+            record.put("months", months);
+        }
+        return record;
+    }
+}
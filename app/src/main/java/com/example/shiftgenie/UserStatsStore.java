@@ -0,0 +1,172 @@
+package com.example.shiftgenie;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.ServerValue;
+import com.google.firebase.database.Transaction;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The UserStatsStore class maintains the {@link UserStats} rollups in the Firebase Realtime Database.
+ * Shift writes add their increments to the same multi-path update as the shift itself, and
+ * the rebuild recomputes a rollup from the raw shift buckets when it is missing or outdated.
+ */
+public final class UserStatsStore {
+
+    private static final String TAG = "UserStatsStore"; // Tag used for logging.
+
+    private UserStatsStore() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Gets the reference of a user's rollup.
+     *
+     * @param uid The user ID.
+     * @return The reference to {@code UserStats/{uid}}.
+     */
+    public static DatabaseReference statsRef(String uid) {
+        return FirebaseDatabase.getInstance().getReference(UserStats.ROOT).child(uid);
+    }
+
+    /**
+     * Adds the rollup increments of a new shift to a multi-path update rooted at the database root.
+     * The increments are applied server-side, so concurrent writers never overwrite each other.
+     *
+     * @param updates       The multi-path update the shift itself is written with.
+     * @param uid           The owner's user ID.
+     * @param monthKey      The "yyyy-MM" month of the shift.
+     * @param earningsCents The earnings of the shift, in cents.
+     * @param minutes       The minutes worked in the shift.
+     */
+    public static void addShiftIncrements(Map<String, Object> updates, String uid, String monthKey, long earningsCents, long minutes) {
+        String base = UserStats.ROOT + "/" + uid + "/";
+        String monthBase = base + "months/" + monthKey + "/";
+
+        updates.put(base + "shiftsCount", ServerValue.increment(1));
+        updates.put(base + "earningsCents", ServerValue.increment(earningsCents));
+        updates.put(base + "totalMinutes", ServerValue.increment(minutes));
+        updates.put(monthBase + "shiftsCount", ServerValue.increment(1));
+        updates.put(monthBase + "earningsCents", ServerValue.increment(earningsCents));
+        updates.put(monthBase + "totalMinutes", ServerValue.increment(minutes));
+    }
+
+    /**
+     * Recomputes a user's rollup from their shift buckets and stores it, unless the stored rollup is
+     * current already. A current rollup is kept up to date by the increments of every shift write, so
+     * overwriting it would lose the increments of shifts saved while the rebuild was reading.
+     * Shifts saved by older versions are migrated in place: missing epoch-minute times are written back,
+     * so their date-time strings are parsed only once, and decimal earnings are replaced by cents.
+     *
+     * @param uid The user ID.
+     * @return A task completing once the migrated shifts and the rollup are stored, or the stored
+     *         rollup was found to be current.
+     */
+    public static Task<Void> rebuild(String uid) {
+        TaskCompletionSource<Void> done = new TaskCompletionSource<>();
+        ShiftBuckets.userRef(uid).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                UserStats stats = new UserStats();
+                stats.setSchemaVersion(UserStats.SCHEMA_VERSION);
+                Map<String, Object> backfill = new HashMap<>();
+
+                // Walk every month bucket and add each shift to the rollup.
+                for (DataSnapshot monthSnapshot : snapshot.getChildren()) {
+                    String monthKey = monthSnapshot.getKey();
+                    for (DataSnapshot shiftSnapshot : monthSnapshot.getChildren()) {
+                        Shift shift = ShiftCodec.decode(shiftSnapshot);
+                        if (shift == null) {
+                            continue;
+                        }
+                        String shiftBase = monthKey + "/" + shiftSnapshot.getKey() + "/";
+                        if (shiftSnapshot.hasChild("totalEarnings")) {
+                            // The decimal value was already converted by Shift.setTotalEarnings.
+                            backfill.put(shiftBase + "earningsCents", shift.getEarningsCents());
+                            backfill.put(shiftBase + "totalEarnings", null);
+                        }
+
+                        long minutes = 0;
+                        if (shift.hasEpochTimes()) {
+                            minutes = shift.getDurationMinutes();
+                        } else if (ShiftTimes.resolve(shift)) {
+                            minutes = shift.getDurationMinutes();
+                            backfill.put(shiftBase + "start", shift.getStart());
+                            backfill.put(shiftBase + "end", shift.getEnd());
+                            backfill.put(shiftBase + "durationMinutes", minutes);
+                        } else {
+                            Log.w(TAG, "Skipping duration of malformed shift " + shiftSnapshot.getKey());
+                        }
+                        stats.addShift(monthKey, shift.getEarningsCents(), minutes);
+                    }
+                }
+
+                // Write the migrated shifts first, so a current rollup always means the shifts are migrated too.
+                Task<Void> migrated = backfill.isEmpty() ? Tasks.forResult(null) : ShiftBuckets.userRef(uid).updateChildren(backfill);
+                migrated.addOnCompleteListener(task -> {
+                    if (task.isSuccessful()) {
+                        storeIfOutdated(uid, stats, done);
+                    } else {
+                        Log.w(TAG, "Failed to migrate shifts for user " + uid, task.getException());
+                        done.setException(task.getException());
+                    }
+                });
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.w(TAG, "Failed to read shifts for user " + uid + ": " + error.getMessage());
+                done.setException(error.toException());
+            }
+        });
+        return done.getTask();
+    }
+
+    /**
+     * Stores a rebuilt rollup in a transaction, which leaves a rollup already at the current schema
+     * version, maybe built by another device in the meantime, untouched.
+     *
+     * @param uid   The user ID.
+     * @param stats The rebuilt rollup.
+     * @param done  The completion of the rebuild.
+     */
+    private static void storeIfOutdated(String uid, UserStats stats, TaskCompletionSource<Void> done) {
+        statsRef(uid).runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                Integer schemaVersion = currentData.child("schemaVersion").getValue(Integer.class);
+                if (schemaVersion != null && schemaVersion >= UserStats.SCHEMA_VERSION) {
+                    return Transaction.abort();
+                }
+                currentData.setValue(UserStatsCodec.encode(stats));
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed, @Nullable DataSnapshot currentData) {
+                if (error != null) {
+                    Log.w(TAG, "Failed to store rebuilt stats for user " + uid + ": " + error.getMessage());
+                    done.setException(error.toException());
+                } else {
+                    // Not committed means the stored rollup was current, which is just as good.
+                    done.setResult(null);
+                }
+            }
+        });
+    }
+}
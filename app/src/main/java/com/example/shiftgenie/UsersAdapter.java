@@ -1,5 +1,6 @@
 package com.example.shiftgenie;
 
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -7,32 +8,68 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
 
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
 
 /**
- * The UsersAdapter class is a RecyclerView.Adapter that binds User data to views
+ * The UsersAdapter class is a RecyclerView adapter that binds User data to views
  * displayed in a RecyclerView. It helps in displaying a list of users with relevant
  * details such as profile image, username, age, phone number, number of shifts, and total earnings.
+ *
+ * <p>Users are shown as {@link UserRow}s, whose texts are formatted when the user arrives, so
+ * binding a row only assigns them. Lists are handed over with {@link #submitList}; the difference
+ * to the previous list is computed on a background thread, and only the rows whose user changed
+ * are bound again.</p>
+ *
+ * <p>The adapter also tells a {@code RecyclerViewPreloader} which profile images the rows ahead of
+ * the scroll will show, with the same request a bound row makes, so they are decoded into Glide's
+ * memory cache before the rows appear. A row whose image has not changed is not loaded again.</p>
  */
-public class UsersAdapter extends RecyclerView.Adapter<UsersAdapter.UserViewHolder> {
+public class UsersAdapter extends ListAdapter<UserRow, UsersAdapter.UserViewHolder>
+        implements ListPreloader.PreloadModelProvider<UserRow> {
+
+    /**
+     * Decides which users are the same record and whether their rows would show the same content.
+     */
+    static final DiffUtil.ItemCallback<UserRow> DIFF_CALLBACK = new DiffUtil.ItemCallback<UserRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull UserRow oldRow, @NonNull UserRow newRow) {
+            return Objects.equals(oldRow.getUserId(), newRow.getUserId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull UserRow oldRow, @NonNull UserRow newRow) {
+            return oldRow.hasSameContent(newRow);
+        }
+    };
 
-    private final List<User> userList; // List of User objects to be displayed.
     private final OnUserClickListener onUserClickListener; // Listener for handling user click events.
+    private final RequestManager glide; // Loads the profile images, bound to the screen's lifecycle.
+    private final int avatarSizePx; // Size of the profile pictures, picking the image variant to load.
 
     /**
-     * Constructor to initialize the adapter with a list of users and a click listener.
+     * Constructor to initialize an empty adapter with a click listener and stable IDs taken from the user IDs.
      *
-     * @param userList            A list of User objects.
+     * @param glide               The request manager loading the profile images.
+     * @param avatarSizePx        The size of the profile pictures, in pixels.
      * @param onUserClickListener A listener to handle click events on a user item.
      */
-    public UsersAdapter(List<User> userList, OnUserClickListener onUserClickListener) {
-        this.userList = userList;
+    public UsersAdapter(RequestManager glide, int avatarSizePx, OnUserClickListener onUserClickListener) {
+        super(DIFF_CALLBACK);
+        this.glide = glide;
+        this.avatarSizePx = avatarSizePx;
         this.onUserClickListener = onUserClickListener;
+        setHasStableIds(true);
     }
 
     /**
@@ -47,7 +84,7 @@ public class UsersAdapter extends RecyclerView.Adapter<UsersAdapter.UserViewHold
     public UserViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         // Inflate the layout for a user item and create a new ViewHolder.
         View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_user, parent, false);
-        return new UserViewHolder(view);
+        return new UserViewHolder(view, this);
     }
 
     /**
@@ -60,18 +97,58 @@ public class UsersAdapter extends RecyclerView.Adapter<UsersAdapter.UserViewHold
     @Override
     public void onBindViewHolder(@NonNull UserViewHolder holder, int position) {
         // Get the User object at the specified position and bind it to the ViewHolder.
-        User user = userList.get(position);
-        holder.bind(user, onUserClickListener);
+        UserRow row = getItem(position);
+        holder.bind(row, onUserClickListener);
+    }
+
+    /**
+     * Returns the stable ID of the item at a position, derived from its user ID.
+     *
+     * @param position The position of the item within the adapter's data set.
+     * @return The item ID.
+     */
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getUserId());
     }
 
     /**
-     * Returns the total number of items in the data set held by the adapter.
+     * Returns the rows whose profile images to preload for a position.
      *
-     * @return The total number of User items.
+     * @param position The position of the item; positions past the users belong to other adapters.
+     * @return The row at the position, or nothing if there is none.
      */
+    @NonNull
     @Override
-    public int getItemCount() {
-        return userList.size();
+    public List<UserRow> getPreloadItems(int position) {
+        if (position < 0 || position >= getItemCount()) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(getItem(position));
+    }
+
+    /**
+     * Builds the request preloading the profile image of a row.
+     *
+     * @param row The row.
+     * @return The request, identical to the one the bound row makes.
+     */
+    @Nullable
+    @Override
+    public RequestBuilder<?> getPreloadRequestBuilder(@NonNull UserRow row) {
+        return avatarRequest(row);
+    }
+
+    /**
+     * Builds the request of a row's profile image: the smallest variant covering the picture,
+     * cropped as the picture shows it, so bound rows and preloads share cache entries.
+     *
+     * @param row The row.
+     * @return The request.
+     */
+    private RequestBuilder<Drawable> avatarRequest(UserRow row) {
+        return AvatarImages.request(glide, row.getProfileImage(avatarSizePx), row.getProfileImageVersion())
+                .centerCrop();
     }
 
     /**
@@ -80,7 +157,9 @@ public class UsersAdapter extends RecyclerView.Adapter<UsersAdapter.UserViewHold
      */
     static class UserViewHolder extends RecyclerView.ViewHolder {
 
+        private final UsersAdapter adapter; // The adapter, building the profile image requests.
         private final ImageView imageViewProfile; // ImageView for displaying the user's profile picture.
+        private final AvatarImages.ShownImage shownImage = new AvatarImages.ShownImage(); // The profile image the view shows.
         private final TextView textViewUsername; // TextView for displaying the user's username.
         private final TextView textViewAge; // TextView for displaying the user's age.
         private final TextView textViewPhone; // TextView for displaying the user's phone number.
@@ -91,9 +170,11 @@ public class UsersAdapter extends RecyclerView.Adapter<UsersAdapter.UserViewHold
          * Constructor for initializing the UserViewHolder with references to the necessary views.
          *
          * @param itemView The item view representing a single user in the RecyclerView.
+         * @param adapter  The adapter.
          */
-        public UserViewHolder(@NonNull View itemView) {
+        public UserViewHolder(@NonNull View itemView, UsersAdapter adapter) {
             super(itemView);
+            this.adapter = adapter;
             // Initialize the views from the layout.
             imageViewProfile = itemView.findViewById(R.id.imageViewProfile);
             textViewUsername = itemView.findViewById(R.id.textViewUsername);
@@ -104,27 +185,25 @@ public class UsersAdapter extends RecyclerView.Adapter<UsersAdapter.UserViewHold
         }
 
         /**
-         * Binds the User data to the views in the ViewHolder.
+         * Binds a user's row to the views in the ViewHolder.
          *
-         * @param user                 The User object containing the data to be displayed.
+         * @param row                  The row, with its texts already formatted.
          * @param onUserClickListener  A listener to handle click events on the user item.
          */
-        public void bind(User user, OnUserClickListener onUserClickListener) {
-            // Load the user's profile image using Glide.
-            Glide.with(itemView.getContext())
-                    .load(user.getProfileImage())
-                    .error(R.drawable.pp) // Fallback image in case of an error or if the image is missing.
-                    .into(imageViewProfile);
+        public void bind(UserRow row, OnUserClickListener onUserClickListener) {
+            // Load the user's profile image using Glide, unless the view already shows it.
+            String imageKey = AvatarImages.keyOf(row.getProfileImage(adapter.avatarSizePx), row.getProfileImageVersion());
+            shownImage.load(imageKey, adapter.avatarRequest(row), imageViewProfile);
 
             // Set the user's details in the respective TextViews.
-            textViewUsername.setText(user.getUsername());
-            textViewAge.setText("Age: " + user.getAge());
-            textViewPhone.setText("Phone: " + user.getPhoneNumber());
-            textViewShiftsCount.setText("Total Shifts: " + user.getShiftsCount());
-            textViewTotalEarnings.setText(String.format(Locale.getDefault(), "Earnings: $%.2f", user.getTotalEarnings())); // Set total earnings
+            textViewUsername.setText(row.getUsername());
+            textViewAge.setText(row.getAgeText());
+            textViewPhone.setText(row.getPhoneText());
+            textViewShiftsCount.setText(row.getShiftsText());
+            textViewTotalEarnings.setText(row.getEarningsText()); // Set total earnings
 
             // Set an OnClickListener on the itemView to handle click events.
-            itemView.setOnClickListener(v -> onUserClickListener.onUserClick(user));
+            itemView.setOnClickListener(v -> onUserClickListener.onUserClick(row));
         }
     }
 
@@ -132,6 +211,6 @@ public class UsersAdapter extends RecyclerView.Adapter<UsersAdapter.UserViewHold
      * Interface for handling click events on a user item.
      */
     interface OnUserClickListener {
-        void onUserClick(User user);
+        void onUserClick(UserRow row);
     }
 }
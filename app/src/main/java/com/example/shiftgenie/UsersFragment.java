@@ -2,37 +2,53 @@ package com.example.shiftgenie;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.EditText;
+import android.widget.RadioGroup;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.ConcatAdapter;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
 
 /**
  * UsersFragment is a fragment that displays a list of users in a RecyclerView.
  * It fetches user data from Firebase Realtime Database, including shifts count and total earnings,
  * and displays it in a list format. Users can click on a user item to view detailed information
  * about the selected user in a new activity.
+ *
+ * <p>Users are fetched a page at a time in key order, and the next page is fetched as the end of
+ * the list scrolls into view, so the first screen only waits for one page. The loaded users are held
+ * by the activity's {@link UsersViewModel}, so a new view shows them at once without fetching again.
+ * The profile images of the rows ahead of the scroll are preloaded.</p>
+ *
+ * <p>The list can be searched by name, email or phone number and sorted by shifts count or
+ * earnings; the ViewModel answers each keystroke from its in-memory index.</p>
  */
 public class UsersFragment extends Fragment {
 
+    static final int PRELOAD_AHEAD_ROWS = 10; // Rows ahead of the scroll whose profile images are preloaded.
+
     private RecyclerView recyclerViewUsers; // RecyclerView for displaying the list of users.
     private UsersAdapter usersAdapter; // Adapter for managing the user data in the RecyclerView.
-    private List<User> userList; // List to store the users fetched from the database.
+    private LoadingFooterAdapter footerAdapter; // Adapter showing a progress row while a page loads.
+    private NearEndScrollListener scrollListener; // Requests the next page near the end of the list.
+    private UsersViewModel viewModel; // Holds the users for as long as the activity lives.
+    private EditText etSearchUsers; // Search text for the users.
+    private RadioGroup rgSortUsers; // The order of the users.
 
     /**
      * Called to have the fragment instantiate its user interface view.
@@ -51,92 +67,106 @@ public class UsersFragment extends Fragment {
         // Initialize the RecyclerView and set its layout manager.
         recyclerViewUsers = view.findViewById(R.id.recyclerViewUsers);
         recyclerViewUsers.setLayoutManager(new LinearLayoutManager(getContext()));
+        int pageSize = getResources().getInteger(R.integer.users_page_size);
+        viewModel = new ViewModelProvider(requireActivity()).get(UsersViewModel.class);
 
-        // Initialize the user list and adapter.
-        userList = new ArrayList<>();
-        usersAdapter = new UsersAdapter(userList, user -> {
+        // Initialize the adapter; the users are submitted to it as they change.
+        RequestManager glide = Glide.with(this);
+        int avatarSizePx = getResources().getDimensionPixelSize(R.dimen.user_avatar_size);
+        usersAdapter = new UsersAdapter(glide, avatarSizePx, row -> {
             // Handle user item clicks to navigate to UserDetailsActivity.
             Intent intent = new Intent(getContext(), UserDetailsActivity.class);
-            intent.putExtra("userId", user.getId());
+            intent.putExtra("userId", row.getUserId());
             startActivity(intent);
         });
-        recyclerViewUsers.setAdapter(usersAdapter);
-
-        // Fetch the list of users from the database.
-        fetchUsers();
-
-        return view;
-    }
+        // Show the users followed by a progress row while the next page loads.
+        footerAdapter = new LoadingFooterAdapter();
+        ConcatAdapter.Config config = new ConcatAdapter.Config.Builder()
+                .setStableIdMode(ConcatAdapter.Config.StableIdMode.ISOLATED_STABLE_IDS).build();
+        recyclerViewUsers.setAdapter(new ConcatAdapter(config, usersAdapter, footerAdapter));
+
+        // Fetch the next page when the end of the list comes within half a page.
+        scrollListener = new NearEndScrollListener(pageSize / 2, () -> viewModel.loadNextPage());
+        recyclerViewUsers.addOnScrollListener(scrollListener);
+        // Decode the profile images of the next rows before they scroll into view.
+        recyclerViewUsers.addOnScrollListener(new RecyclerViewPreloader<>(glide, usersAdapter,
+                new FixedPreloadSizeProvider<>(avatarSizePx, avatarSizePx), PRELOAD_AHEAD_ROWS));
+
+        // Search and sort as the user types or picks an order.
+        etSearchUsers = view.findViewById(R.id.etSearchUsers);
+        rgSortUsers = view.findViewById(R.id.rgSortUsers);
+        etSearchUsers.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
 
-    /**
-     * Fetches the list of users from the Firebase Realtime Database.
-     * Also, it fetches the shifts count and total earnings for each user.
-     */
-    private void fetchUsers() {
-        // Reference to the "Users" node in the Firebase Realtime Database.
-        DatabaseReference usersRef = FirebaseDatabase.getInstance().getReference("Users");
-        usersRef.addValueEventListener(new ValueEventListener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                // Clear the current user list.
-                userList.clear();
-                // Iterate over all users in the snapshot.
-                for (DataSnapshot userSnapshot : snapshot.getChildren()) {
-                    // Retrieve the User object from the snapshot.
-                    User user = userSnapshot.getValue(User.class);
-                    if (user != null) {
-                        user.setId(userSnapshot.getKey());
-                        // Fetch the shifts count and total earnings for the user.
-                        fetchUserShiftsCount(user);
-                        // Add the user to the list.
-                        userList.add(user);
-                    }
-                }
-                // Notify the adapter that the data has changed so the RecyclerView can be updated.
-                usersAdapter.notifyDataSetChanged();
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                // Show an error message if fetching users fails.
-                Toast.makeText(getContext(), "Failed to fetch users: " + error.getMessage(), Toast.LENGTH_SHORT).show();
+            public void afterTextChanged(Editable s) {
+                applySearch();
             }
         });
+        rgSortUsers.setOnCheckedChangeListener((group, checkedId) -> applySearch());
+
+        return view;
     }
 
     /**
-     * Fetches the number of shifts and total earnings for a specific user from the Firebase Realtime Database.
+     * Called once the view exists; shows the users held by the ViewModel as they change, and starts
+     * loading them the first time.
      *
-     * @param user The user for whom the shifts count and total earnings are being fetched.
+     * @param view               The View returned by onCreateView.
+     * @param savedInstanceState If non-null, this fragment is being re-constructed from a previous saved state as given here.
      */
-    private void fetchUserShiftsCount(User user) {
-        // Reference to the "Shifts" node in the Firebase Realtime Database.
-        DatabaseReference shiftsRef = FirebaseDatabase.getInstance().getReference("Shifts");
-        shiftsRef.orderByChild("userEmail").equalTo(user.getEmail()).addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                // Count the number of shifts and calculate the total earnings.
-                long shiftsCount = snapshot.getChildrenCount();
-                double totalEarnings = 0.0;
-                for (DataSnapshot dataSnapshot : snapshot.getChildren()) {
-                    Shift shift = dataSnapshot.getValue(Shift.class);
-                    if (shift != null) {
-                        totalEarnings += shift.getTotalEarnings();
-                    }
-                }
-                // Set the shifts count and total earnings for the user.
-                user.setShiftsCount((int) shiftsCount);
-                user.setTotalEarnings(totalEarnings);
-                // Notify the adapter of data change.
-                usersAdapter.notifyDataSetChanged();
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        viewModel.getUsers().observe(getViewLifecycleOwner(), rows -> usersAdapter.submitList(rows));
+        // Show a progress row while a page loads, and check again once it has arrived, until the screen is full.
+        viewModel.getLoading().observe(getViewLifecycleOwner(), loading -> {
+            footerAdapter.setLoading(loading);
+            if (!loading) {
+                recyclerViewUsers.post(() -> scrollListener.check(recyclerViewUsers));
             }
-
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                // Show an error message if fetching shifts count and earnings fails.
-                Toast.makeText(getContext(), "Failed to fetch shifts count and earnings for user: " + user.getUsername(), Toast.LENGTH_SHORT).show();
+        });
+        viewModel.getError().observe(getViewLifecycleOwner(), message -> {
+            if (message != null) {
+                // Show an error message if fetching users or their totals fails.
+                Toast.makeText(getContext(), message, Toast.LENGTH_SHORT).show();
+                viewModel.consumeError();
             }
         });
+        // Fetch the list of users from the database, unless the ViewModel already holds it.
+        viewModel.start(getResources().getInteger(R.integer.users_page_size));
+    }
+
+    /**
+     * Called once the views have restored their state; applies the restored search and order.
+     *
+     * @param savedInstanceState If non-null, this fragment is being re-constructed from a previous saved state as given here.
+     */
+    @Override
+    public void onViewStateRestored(@Nullable Bundle savedInstanceState) {
+        super.onViewStateRestored(savedInstanceState);
+        applySearch();
     }
 
+    /**
+     * Passes the search text and the chosen order to the ViewModel.
+     */
+    private void applySearch() {
+        UserSearchIndex.Sort sort;
+        int checkedId = rgSortUsers.getCheckedRadioButtonId();
+        if (checkedId == R.id.rbSortShifts) {
+            sort = UserSearchIndex.Sort.SHIFTS;
+        } else if (checkedId == R.id.rbSortEarnings) {
+            sort = UserSearchIndex.Sort.EARNINGS;
+        } else {
+            sort = UserSearchIndex.Sort.KEY;
+        }
+        viewModel.setSearch(etSearchUsers.getText().toString(), sort);
+    }
 }
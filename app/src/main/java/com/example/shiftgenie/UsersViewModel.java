@@ -0,0 +1,287 @@
+package com.example.shiftgenie;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The UsersViewModel class holds the users list of the {@link UsersFragment} for as long as the
+ * homepage activity lives. The users are paged in from the "Users" node with their "UserStats"
+ * rollups, and the pages stay live, so switching tabs or rotating the screen shows the rows already
+ * loaded at once without issuing any query.
+ *
+ * <p>The rows can be searched by username, email or phone number and sorted by shifts count or
+ * earnings. Every loaded row is kept in a {@link UserSearchIndex} that follows each change, so a
+ * keystroke only queries the index. Searching and sorting cover every user, so while either is
+ * active the remaining pages are loaded one after the other.</p>
+ *
+ * <p>Users whose rollup is missing or outdated are migrated as they are listed, so their totals
+ * appear without them opening the app first.</p>
+ *
+ * <p>The rows are published through LiveData, observed with the fragment's view lifecycle.
+ * All calls must be made on the main thread.</p>
+ */
+public class UsersViewModel extends ScopedViewModel {
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper()); // Coalesces the submits of rollup changes.
+    private final KeyedList<UserRow> users = new KeyedList<>(); // Rows of the users fetched from the database, keyed by user ID.
+    private final Map<String, UserStats> statsById = new HashMap<>(); // Latest "UserStats" rollup of each user.
+    private final UserSearchIndex index = new UserSearchIndex(); // The loaded rows, searchable and in every order.
+    private final MutableLiveData<List<UserRow>> rows = new MutableLiveData<>(); // The rows shown, matching the search, in the chosen order.
+    private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false); // Whether a page is loading.
+    private final MutableLiveData<String> error = new MutableLiveData<>(); // Message of an error not yet shown, or null.
+    private final DatabaseReference usersRef = FirebaseDatabase.getInstance().getReference("Users"); // Reference to the "Users" node.
+    private final DatabaseReference statsRef = FirebaseDatabase.getInstance().getReference(UserStats.ROOT); // Reference to the "UserStats" node.
+    private ChildEventListener statsListener; // Listener applying rollup changes to the users.
+    private KeysetPager usersPager; // Loads the users a page at a time, or null before the first page.
+    private boolean statsSubmitPosted; // Whether the users changed by rollups are already due to be submitted.
+    private String search = ""; // The search text, or "" to show every user.
+    private UserSearchIndex.Sort sort = UserSearchIndex.Sort.KEY; // The order of the rows.
+
+    /**
+     * Gets the rows of the loaded users.
+     *
+     * @return The rows matching the search, in the chosen order; unset until the first users arrive.
+     */
+    public LiveData<List<UserRow>> getUsers() {
+        return rows;
+    }
+
+    /**
+     * Searches and sorts the rows. Unless both are off, every remaining page is loaded, since the
+     * matches and the top users may be on any of them.
+     *
+     * @param text The search text, matched against the start of the username or any of its words,
+     *             the email and the phone number; "" for none.
+     * @param sort The order of the rows.
+     */
+    public void setSearch(String text, UserSearchIndex.Sort sort) {
+        String normalized = UserSearchIndex.normalize(text);
+        if (normalized.equals(search) && sort == this.sort) {
+            return;
+        }
+        search = normalized;
+        this.sort = sort;
+        if (isFiltered()) {
+            loadNextPage();
+        }
+        if (rows.getValue() != null) {
+            publish();
+        }
+    }
+
+    /**
+     * Gets whether a page of users is loading.
+     *
+     * @return True while a requested page has not arrived yet.
+     */
+    public LiveData<Boolean> getLoading() {
+        return loading;
+    }
+
+    /**
+     * Gets the message of the last error not yet shown. Call {@link #consumeError()} once it is shown,
+     * so it is not shown again after a configuration change.
+     *
+     * @return The message, or null.
+     */
+    public LiveData<String> getError() {
+        return error;
+    }
+
+    /**
+     * Marks the last error as shown.
+     */
+    public void consumeError() {
+        error.setValue(null);
+    }
+
+    /**
+     * Starts loading the users with the first page, unless they are already loaded or loading.
+     *
+     * @param pageSize The maximum number of users per page.
+     */
+    public void start(int pageSize) {
+        if (usersPager != null) {
+            return;
+        }
+        // The listener keeping the latest rollup of each user, attached to the rollups of every page.
+        statsListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                applyStats(snapshot.getKey(), UserStatsCodec.decode(snapshot));
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                applyStats(snapshot.getKey(), UserStatsCodec.decode(snapshot));
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                applyStats(snapshot.getKey(), null);
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                // The order of the rollups does not matter.
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError databaseError) {
+                // Still show the users, just without their totals.
+                error.setValue("Failed to fetch shifts count and earnings: " + databaseError.getMessage());
+            }
+        };
+
+        // Page through the "Users" node by key.
+        usersPager = new KeysetPager(usersRef.orderByKey(), pageSize, UsersPage::new);
+        usersPager.setStateListener((isLoading, exhausted) -> {
+            loading.setValue(isLoading);
+            // A search or sort needs every user, so keep loading until the last page.
+            if (!isLoading && !exhausted && isFiltered()) {
+                usersPager.loadNextPage();
+            }
+        });
+        usersPager.loadNextPage();
+    }
+
+    /**
+     * Requests the next page of users, unless one is loading or every user has been loaded.
+     */
+    public void loadNextPage() {
+        if (usersPager != null) {
+            usersPager.loadNextPage();
+        }
+    }
+
+    /**
+     * Called when the homepage activity finishes; stops listening for changes to the users and their totals.
+     */
+    @Override
+    protected void onCleared() {
+        if (usersPager != null) {
+            usersPager.detach();
+        }
+        mainHandler.removeCallbacksAndMessages(null);
+        super.onCleared();
+    }
+
+    /**
+     * The listeners of one page of users: the users in the page's key range, and their rollups.
+     */
+    private final class UsersPage implements KeysetPager.Page {
+
+        private final ChildListSync<UserRow> usersSync; // Keeps the page's users in step with the database.
+        private Query statsQuery; // Rollups of the page's key range, or null if not listening.
+
+        /**
+         * Creates the listeners of a page, not yet listening.
+         */
+        UsersPage() {
+            // Decode and format each user once in the background when it is added or changed.
+            usersSync = new ChildListSync<>(users, "", snapshot -> UserRow.ofNullable(UserCodec.decode(snapshot)),
+                    items -> publish(), UsersViewModel.this,
+                    databaseError -> error.setValue("Failed to fetch users: " + databaseError.getMessage()));
+            // The rollups are only touched on the main thread, so the totals are set as each user enters the list.
+            usersSync.setFinisher(row -> row.withTotals(statsById.get(row.getUserId())));
+            // Keep the search index in step one row at a time.
+            usersSync.setChangeListener(new ChildListSync.ChangeListener<UserRow>() {
+                @Override
+                public void onPut(@NonNull String key, @NonNull UserRow row) {
+                    index.put(row);
+                    // Users who have not opened this version since the rollups were added have none yet.
+                    UserStats stats = statsById.get(key);
+                    if (stats == null || stats.getSchemaVersion() < UserStats.SCHEMA_VERSION) {
+                        ShiftMigration.migrateUser(key, row.getEmail());
+                    }
+                }
+
+                @Override
+                public void onRemove(@NonNull String key) {
+                    index.remove(key);
+                }
+            });
+        }
+
+        @Override
+        public void listen(KeysetPager.KeyRange range) {
+            usersSync.attach(range.apply(usersRef.orderByKey()));
+            // Rollups are keyed by user ID, so the same range holds the rollups of the page's users.
+            if (statsQuery != null) {
+                statsQuery.removeEventListener(statsListener);
+            }
+            statsQuery = range.apply(statsRef.orderByKey());
+            statsQuery.addChildEventListener(statsListener);
+        }
+
+        @Override
+        public void stop() {
+            usersSync.detach();
+            if (statsQuery != null) {
+                statsQuery.removeEventListener(statsListener);
+                statsQuery = null;
+            }
+        }
+    }
+
+    /**
+     * Stores a user's rollup and updates the user's row if it is loaded. The row is replaced by one
+     * with the new totals, and the rollups arriving together are published as one update.
+     *
+     * @param userId The user ID.
+     * @param stats  The rollup, or null if it was removed.
+     */
+    private void applyStats(String userId, @Nullable UserStats stats) {
+        if (stats != null) {
+            statsById.put(userId, stats);
+        } else {
+            statsById.remove(userId);
+        }
+        UserRow shown = users.find(userId);
+        if (shown == null) {
+            return;
+        }
+        UserRow updated = shown.withTotals(stats);
+        users.put(userId, updated);
+        index.put(updated);
+        if (!statsSubmitPosted) {
+            statsSubmitPosted = true;
+            mainHandler.post(() -> {
+                statsSubmitPosted = false;
+                publish();
+            });
+        }
+    }
+
+    /**
+     * Checks whether the rows are searched or sorted, rather than all shown in key order.
+     *
+     * @return True if a search or sort is active.
+     */
+    private boolean isFiltered() {
+        return !search.isEmpty() || sort != UserSearchIndex.Sort.KEY;
+    }
+
+    /**
+     * Publishes the rows matching the search, in the chosen order.
+     */
+    private void publish() {
+        rows.setValue(isFiltered() ? index.query(search, sort) : users.snapshot());
+    }
+}
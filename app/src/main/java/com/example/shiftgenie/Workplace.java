@@ -0,0 +1,225 @@
+package com.example.shiftgenie;
+
+/**
+ * The Workplace class represents a workplace of a user, including its name and the pay parameters
+ * used to calculate earnings: hourly wage, vacation payments, per-shift bonuses and deductions,
+ * unpaid break time and travel expenses, and the time zone its shifts are scheduled in.
+ */
+public class Workplace {
+    private String workplaceId;            // Unique identifier for the workplace.
+    private String workplaceName;          // Name of the workplace.
+    private String userEmail;              // Email of the user the workplace belongs to.
+    private double hourlyWage;             // Wage paid per hour worked.
+    private double vacationPayments;       // Vacation payments of the workplace.
+    private double deductionPreShift;      // Amount deducted for every shift.
+    private double bonusesPreShift;        // Bonus paid for every shift.
+    private int breakTime;                 // Unpaid break per shift, in minutes.
+    private double dailyTravelExpenses;    // Travel expenses paid per working day.
+    private double monthlyTravelExpenses;  // Travel expenses paid per month.
+    private String timeZone;               // IANA time zone ID the workplace's shifts are scheduled in.
+
+    /**
+     * Default constructor required for calls to DataSnapshot.getValue(Workplace.class).
+     */
+    public Workplace() {
+        // No-argument constructor required for Firebase.
+    }
+
+    /**
+     * Gets the unique identifier for the workplace.
+     *
+     * @return The workplace ID.
+     */
+    public String getWorkplaceId() {
+        return workplaceId;
+    }
+
+    /**
+     * Sets the unique identifier for the workplace.
+     *
+     * @param workplaceId The workplace ID.
+     */
+    public void setWorkplaceId(String workplaceId) {
+        this.workplaceId = workplaceId;
+    }
+
+    /**
+     * Gets the name of the workplace.
+     *
+     * @return The workplace name.
+     */
+    public String getWorkplaceName() {
+        return workplaceName;
+    }
+
+    /**
+     * Sets the name of the workplace.
+     *
+     * @param workplaceName The workplace name.
+     */
+    public void setWorkplaceName(String workplaceName) {
+        this.workplaceName = workplaceName;
+    }
+
+    /**
+     * Gets the email of the user the workplace belongs to.
+     *
+     * @return The user's email.
+     */
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    /**
+     * Sets the email of the user the workplace belongs to.
+     *
+     * @param userEmail The user's email.
+     */
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    /**
+     * Gets the wage paid per hour worked.
+     *
+     * @return The hourly wage.
+     */
+    public double getHourlyWage() {
+        return hourlyWage;
+    }
+
+    /**
+     * Sets the wage paid per hour worked.
+     *
+     * @param hourlyWage The hourly wage.
+     */
+    public void setHourlyWage(double hourlyWage) {
+        this.hourlyWage = hourlyWage;
+    }
+
+    /**
+     * Gets the vacation payments of the workplace.
+     *
+     * @return The vacation payments.
+     */
+    public double getVacationPayments() {
+        return vacationPayments;
+    }
+
+    /**
+     * Sets the vacation payments of the workplace.
+     *
+     * @param vacationPayments The vacation payments.
+     */
+    public void setVacationPayments(double vacationPayments) {
+        this.vacationPayments = vacationPayments;
+    }
+
+    /**
+     * Gets the amount deducted for every shift.
+     *
+     * @return The deduction per shift.
+     */
+    public double getDeductionPreShift() {
+        return deductionPreShift;
+    }
+
+    /**
+     * Sets the amount deducted for every shift.
+     *
+     * @param deductionPreShift The deduction per shift.
+     */
+    public void setDeductionPreShift(double deductionPreShift) {
+        this.deductionPreShift = deductionPreShift;
+    }
+
+    /**
+     * Gets the bonus paid for every shift.
+     *
+     * @return The bonus per shift.
+     */
+    public double getBonusesPreShift() {
+        return bonusesPreShift;
+    }
+
+    /**
+     * Sets the bonus paid for every shift.
+     *
+     * @param bonusesPreShift The bonus per shift.
+     */
+    public void setBonusesPreShift(double bonusesPreShift) {
+        this.bonusesPreShift = bonusesPreShift;
+    }
+
+    /**
+     * Gets the unpaid break per shift.
+     *
+     * @return The break time in minutes.
+     */
+    public int getBreakTime() {
+        return breakTime;
+    }
+
+    /**
+     * Sets the unpaid break per shift.
+     *
+     * @param breakTime The break time in minutes.
+     */
+    public void setBreakTime(int breakTime) {
+        this.breakTime = breakTime;
+    }
+
+    /**
+     * Gets the travel expenses paid per working day.
+     *
+     * @return The daily travel expenses.
+     */
+    public double getDailyTravelExpenses() {
+        return dailyTravelExpenses;
+    }
+
+    /**
+     * Sets the travel expenses paid per working day.
+     *
+     * @param dailyTravelExpenses The daily travel expenses.
+     */
+    public void setDailyTravelExpenses(double dailyTravelExpenses) {
+        this.dailyTravelExpenses = dailyTravelExpenses;
+    }
+
+    /**
+     * Gets the travel expenses paid per month.
+     *
+     * @return The monthly travel expenses.
+     */
+    public double getMonthlyTravelExpenses() {
+        return monthlyTravelExpenses;
+    }
+
+    /**
+     * Sets the travel expenses paid per month.
+     *
+     * @param monthlyTravelExpenses The monthly travel expenses.
+     */
+    public void setMonthlyTravelExpenses(double monthlyTravelExpenses) {
+        this.monthlyTravelExpenses = monthlyTravelExpenses;
+    }
+
+    /**
+     * Gets the time zone the workplace's shifts are scheduled in.
+     *
+     * @return The IANA time zone ID, or null for workplaces saved before zones were recorded.
+     */
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    /**
+     * Sets the time zone the workplace's shifts are scheduled in.
+     *
+     * @param timeZone The IANA time zone ID, such as "Europe/Berlin".
+     */
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+}
@@ -18,8 +18,7 @@ import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.ZoneId;
 
 /**
  * WorkplaceFragment allows users to input and save data related to their workplace, such as hourly wage,
@@ -60,7 +59,7 @@ public class WorkplaceFragment extends Fragment {
 
         // Initialize Firebase Authentication and Database Reference.
         auth = FirebaseAuth.getInstance();
-        databaseReference = FirebaseDatabase.getInstance().getReference("Workplace");
+        databaseReference = FirebaseDatabase.getInstance().getReference(WorkplaceRepository.ROOT);
 
         // Set an onClickListener to the save button to handle the saving of workplace data.
         btnSave.setOnClickListener(new View.OnClickListener() {
@@ -105,20 +104,27 @@ public class WorkplaceFragment extends Fragment {
             // Generate a unique ID for the workplace entry.
             String workplaceId = databaseReference.push().getKey();
 
-            // Create a map to store the workplace data.
-            Map<String, Object> workplaceData = new HashMap<>();
-            workplaceData.put("workplaceName", workplaceName);
-            workplaceData.put("hourlyWage", hourlyWage);
-            workplaceData.put("vacationPayments", vacationPayments);
-            workplaceData.put("deductionPreShift", deductionPreShift);
-            workplaceData.put("bonusesPreShift", bonusesPreShift);
-            workplaceData.put("breakTime", breakTime);
-            workplaceData.put("dailyTravelExpenses", dailyTravelExpenses);
-            workplaceData.put("monthlyTravelExpenses", monthlyTravelExpenses);
-            workplaceData.put("userEmail", userEmail); // Include current user's email for reference.
+            // Create the workplace with its pay parameters stored as numbers.
+            Workplace workplace = new Workplace();
+            try {
+                workplace.setHourlyWage(Double.parseDouble(hourlyWage));
+                workplace.setVacationPayments(Double.parseDouble(vacationPayments));
+                workplace.setDeductionPreShift(Double.parseDouble(deductionPreShift));
+                workplace.setBonusesPreShift(Double.parseDouble(bonusesPreShift));
+                workplace.setBreakTime(Integer.parseInt(breakTime));
+                workplace.setDailyTravelExpenses(Double.parseDouble(dailyTravelExpenses));
+                workplace.setMonthlyTravelExpenses(Double.parseDouble(monthlyTravelExpenses));
+            } catch (NumberFormatException e) {
+                Toast.makeText(getContext(), "Please enter valid numbers", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            workplace.setWorkplaceId(workplaceId);
+            workplace.setWorkplaceName(workplaceName);
+            workplace.setUserEmail(userEmail); // Include current user's email for reference.
+            workplace.setTimeZone(ZoneId.systemDefault().getId()); // Shifts are entered in the device's time zone.
 
             // Save the workplace data in the database.
-            databaseReference.child(workplaceId).setValue(workplaceData).addOnCompleteListener(task -> {
+            databaseReference.child(workplaceId).setValue(workplace).addOnCompleteListener(task -> {
                 if (task.isSuccessful()) {
                     // Show a success message and clear the fields.
                     Toast.makeText(getContext(), "Workplace data saved successfully", Toast.LENGTH_SHORT).show();
@@ -0,0 +1,273 @@
+package com.example.shiftgenie;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The WorkplaceRepository class keeps the signed-in user's workplaces in memory.
+ * The workplaces are loaded once and then kept current with a child listener, so screens
+ * can look up a workplace and its pay parameters synchronously, without a network round trip.
+ * All methods are meant to be called on the main thread, where Firebase delivers its callbacks.
+ */
+public final class WorkplaceRepository {
+
+    private static final String TAG = "WorkplaceRepository"; // Tag used for logging.
+    public static final String ROOT = "Workplace"; // Root node holding all workplaces.
+
+    private static WorkplaceRepository instance; // Repository of the currently signed-in user.
+
+    private final String userEmail; // Email of the user the workplaces belong to.
+    private final Query query; // Query selecting the user's workplaces.
+    private final Map<String, Workplace> workplacesById = new LinkedHashMap<>(); // Workplaces keyed by ID, in load order.
+    private final List<Listener> listeners = new ArrayList<>(); // Listeners notified on every change.
+    private final ChildEventListener childListener; // Listener keeping the workplaces current.
+    private final ValueEventListener loadedListener; // Listener signalling that the initial load is complete.
+    private boolean loaded; // Whether the initial load has completed.
+
+    /**
+     * Listener notified whenever the user's workplaces change.
+     */
+    public interface Listener {
+        void onWorkplacesChanged(List<Workplace> workplaces);
+    }
+
+    /**
+     * Gets the repository of the signed-in user, creating it and starting the load if needed.
+     * A repository of a previously signed-in user is closed and replaced.
+     *
+     * @return The repository, or null if no user is signed in.
+     */
+    @Nullable
+    public static WorkplaceRepository getInstance() {
+        FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
+        if (currentUser == null || currentUser.getEmail() == null) {
+            return null;
+        }
+        if (instance != null && !instance.userEmail.equals(currentUser.getEmail())) {
+            instance.close();
+            instance = null;
+        }
+        if (instance == null) {
+            instance = new WorkplaceRepository(currentUser.getEmail());
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a repository for a user and starts listening to their workplaces.
+     *
+     * @param userEmail The email of the user the workplaces belong to.
+     */
+    private WorkplaceRepository(String userEmail) {
+        this.userEmail = userEmail;
+        this.query = FirebaseDatabase.getInstance().getReference(ROOT).orderByChild("userEmail").equalTo(userEmail);
+
+        childListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                put(snapshot);
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                put(snapshot);
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                workplacesById.remove(snapshot.getKey());
+                notifyListeners();
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                // Order is not significant for workplaces.
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.w(TAG, "Workplace sync cancelled: " + error.getMessage());
+            }
+        };
+
+        // Value events for a query fire after its child events, so this marks the end of the initial load.
+        loadedListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                loaded = true;
+                query.removeEventListener(this);
+                notifyListeners();
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.w(TAG, "Failed to load workplaces: " + error.getMessage());
+            }
+        };
+
+        query.addChildEventListener(childListener);
+        query.addValueEventListener(loadedListener);
+    }
+
+    /**
+     * Registers a listener. If the workplaces are already loaded, it is notified immediately.
+     *
+     * @param listener The listener to register.
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+        if (loaded) {
+            listener.onWorkplacesChanged(getWorkplaces());
+        }
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener The listener to unregister.
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Checks whether the initial load of the workplaces has completed.
+     *
+     * @return True if the workplaces are loaded.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Gets the user's workplaces in load order.
+     *
+     * @return An unmodifiable snapshot of the workplaces.
+     */
+    public List<Workplace> getWorkplaces() {
+        return Collections.unmodifiableList(new ArrayList<>(workplacesById.values()));
+    }
+
+    /**
+     * Gets the user's workplaces keyed by name, as a copy that can be read on a background thread.
+     *
+     * @return An unmodifiable snapshot of the workplaces keyed by name.
+     */
+    public Map<String, Workplace> getWorkplacesByName() {
+        Map<String, Workplace> workplacesByName = new HashMap<>();
+        for (Workplace workplace : workplacesById.values()) {
+            if (workplace.getWorkplaceName() != null && !workplacesByName.containsKey(workplace.getWorkplaceName())) {
+                workplacesByName.put(workplace.getWorkplaceName(), workplace);
+            }
+        }
+        return Collections.unmodifiableMap(workplacesByName);
+    }
+
+    /**
+     * Finds one of the user's workplaces by name.
+     *
+     * @param workplaceName The workplace name.
+     * @return The workplace, or null if the user has no workplace with that name.
+     */
+    @Nullable
+    public Workplace findByName(String workplaceName) {
+        for (Workplace workplace : workplacesById.values()) {
+            if (workplace.getWorkplaceName() != null && workplace.getWorkplaceName().equals(workplaceName)) {
+                return workplace;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stops listening to the workplaces and forgets all listeners.
+     */
+    private void close() {
+        query.removeEventListener(childListener);
+        query.removeEventListener(loadedListener);
+        listeners.clear();
+    }
+
+    /**
+     * Decodes a workplace snapshot and stores it.
+     *
+     * @param snapshot The workplace snapshot.
+     */
+    private void put(DataSnapshot snapshot) {
+        workplacesById.put(snapshot.getKey(), decode(snapshot));
+        if (loaded) {
+            notifyListeners();
+        }
+    }
+
+    /**
+     * Notifies all listeners of the current workplaces.
+     */
+    private void notifyListeners() {
+        List<Workplace> workplaces = getWorkplaces();
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onWorkplacesChanged(workplaces);
+        }
+    }
+
+    /**
+     * Decodes a workplace snapshot. Workplaces saved by older versions store their numbers as strings,
+     * so numeric fields accept both numbers and numeric strings.
+     *
+     * @param snapshot The workplace snapshot.
+     * @return The decoded workplace.
+     */
+    static Workplace decode(DataSnapshot snapshot) {
+        Workplace workplace = new Workplace();
+        workplace.setWorkplaceId(snapshot.getKey());
+        workplace.setWorkplaceName(snapshot.child("workplaceName").getValue(String.class));
+        workplace.setUserEmail(snapshot.child("userEmail").getValue(String.class));
+        workplace.setHourlyWage(toDouble(snapshot.child("hourlyWage").getValue()));
+        workplace.setVacationPayments(toDouble(snapshot.child("vacationPayments").getValue()));
+        workplace.setDeductionPreShift(toDouble(snapshot.child("deductionPreShift").getValue()));
+        workplace.setBonusesPreShift(toDouble(snapshot.child("bonusesPreShift").getValue()));
+        workplace.setBreakTime((int) Math.round(toDouble(snapshot.child("breakTime").getValue())));
+        workplace.setDailyTravelExpenses(toDouble(snapshot.child("dailyTravelExpenses").getValue()));
+        workplace.setMonthlyTravelExpenses(toDouble(snapshot.child("monthlyTravelExpenses").getValue()));
+        workplace.setTimeZone(snapshot.child("timeZone").getValue(String.class));
+        return workplace;
+    }
+
+    /**
+     * Converts a raw database value to a double.
+     *
+     * @param value A number, a numeric string or null.
+     * @return The numeric value, or 0 if the value is missing or not numeric.
+     */
+    static double toDouble(@Nullable Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble(((String) value).trim());
+            } catch (NumberFormatException e) {
+                Log.w(TAG, "Ignoring non-numeric workplace value: " + value);
+            }
+        }
+        return 0;
+    }
+}
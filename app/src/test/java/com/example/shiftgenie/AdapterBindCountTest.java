@@ -0,0 +1,164 @@
+package com.example.shiftgenie;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Counts the rows {@link ShiftsAdapter} and {@link UsersAdapter} bind per list update, by running
+ * their diff callbacks through the same {@link DiffUtil} pass their background differ runs. A row is
+ * bound when it is inserted or changed; a regression that rebinds the whole list shows up as a count
+ * equal to the list size.
+ */
+public class AdapterBindCountTest {
+
+    private static final int ROWS = 200; // Rows in the lists compared.
+
+    /**
+     * Records the updates a diff dispatches, as a RecyclerView would receive them.
+     */
+    private static final class BindCounter implements ListUpdateCallback {
+        int inserted;   // Rows inserted, each bound once.
+        int changed;    // Rows changed, each bound again.
+        int removed;    // Rows removed, not bound.
+        int moved;      // Rows moved, not bound.
+
+        @Override
+        public void onInserted(int position, int count) {
+            inserted += count;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            removed += count;
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            moved++;
+        }
+
+        @Override
+        public void onChanged(int position, int count, @Nullable Object payload) {
+            changed += count;
+        }
+
+        int binds() {
+            return inserted + changed;
+        }
+    }
+
+    /**
+     * Diffs two lists with an adapter's item callback and counts the resulting updates.
+     */
+    private static <T> BindCounter count(List<T> oldList, List<T> newList, DiffUtil.ItemCallback<T> callback) {
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldList.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newList.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                return callback.areItemsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                return callback.areContentsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+            }
+        });
+        BindCounter counter = new BindCounter();
+        result.dispatchUpdatesTo(counter);
+        return counter;
+    }
+
+    private static ShiftRow shift(int i, long earningsCents) {
+        Shift shift = new Shift();
+        shift.setShiftId(String.format("s%04d", i));
+        shift.setWorkplaceName("Cafe");
+        shift.setFromDateTime("01/05/2024 08:00");
+        shift.setToDateTime("01/05/2024 16:00");
+        shift.setEarningsCents(earningsCents);
+        return ShiftRow.of(shift);
+    }
+
+    private static List<ShiftRow> shifts() {
+        List<ShiftRow> shifts = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            shifts.add(shift(i, 10_000 + i));
+        }
+        return shifts;
+    }
+
+    @Test
+    public void redecodedIdenticalShifts_bindNothing() {
+        BindCounter counter = count(shifts(), shifts(), ShiftsAdapter.DIFF_CALLBACK);
+
+        assertEquals(0, counter.binds());
+        assertEquals(0, counter.removed);
+    }
+
+    @Test
+    public void editedShift_bindsOneRow() {
+        List<ShiftRow> updated = shifts();
+        updated.set(57, shift(57, 99_999));
+
+        BindCounter counter = count(shifts(), updated, ShiftsAdapter.DIFF_CALLBACK);
+
+        assertEquals(1, counter.changed);
+        assertEquals(1, counter.binds());
+    }
+
+    @Test
+    public void addedAndRemovedShifts_bindOnlyTheNewRow() {
+        List<ShiftRow> updated = shifts();
+        updated.remove(10);
+        updated.add(120, shift(ROWS, 5_000));
+
+        BindCounter counter = count(shifts(), updated, ShiftsAdapter.DIFF_CALLBACK);
+
+        assertEquals(1, counter.inserted);
+        assertEquals(1, counter.removed);
+        assertEquals(1, counter.binds());
+    }
+
+    @Test
+    public void changedUserTotals_bindOneRow() {
+        List<UserRow> users = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            User user = new User();
+            user.setId("u" + i);
+            user.setUsername("user" + i);
+            users.add(UserRow.of(user));
+        }
+        UserStats stats = new UserStats();
+        stats.setShiftsCount(4);
+        List<UserRow> updated = new ArrayList<>(users);
+        updated.set(3, users.get(3).withTotals(stats));
+
+        BindCounter counter = count(users, updated, UsersAdapter.DIFF_CALLBACK);
+
+        assertEquals(1, counter.binds());
+        assertEquals("Total Shifts: 0", users.get(3).getShiftsText());
+        assertEquals("Total Shifts: 4", updated.get(3).getShiftsText());
+    }
+
+    @Test
+    public void stableIds_followTheKey() {
+        assertEquals(StableIds.of("s0001"), StableIds.of(new String("s0001")));
+        assertNotEquals(StableIds.of("s0001"), StableIds.of("s0002"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link AvatarVariants}: a view must get the smallest stored image that covers it,
+ * and users with only some of the variants, or only the full image, must still get an image.
+ */
+public class AvatarVariantsTest {
+
+    private static final String[] ALL = {"u96", "u256", "u512"};
+
+    @Test
+    public void smallestCoveringVariant_isPicked() {
+        assertEquals("u96", AvatarVariants.pick(96, ALL, "full"));
+        // A variant may be upscaled by up to 25%: 96 px still serves a 120 px view, but not a 121 px one.
+        assertEquals("u96", AvatarVariants.pick(120, ALL, "full"));
+        assertEquals("u256", AvatarVariants.pick(121, ALL, "full"));
+        // A 100 dp row on a 3x screen is 300 px; 256 px covers it within the tolerance.
+        assertEquals("u256", AvatarVariants.pick(300, ALL, "full"));
+        assertEquals("u512", AvatarVariants.pick(450, ALL, "full"));
+    }
+
+    @Test
+    public void viewLargerThanEveryVariant_getsTheFullImage() {
+        assertEquals("full", AvatarVariants.pick(1000, ALL, "full"));
+        assertEquals("full", AvatarVariants.pick(0, ALL, "full"));
+    }
+
+    @Test
+    public void missingVariant_fallsBackToALargerOne() {
+        assertEquals("u512", AvatarVariants.pick(96, new String[]{null, "", "u512"}, "full"));
+        assertEquals("full", AvatarVariants.pick(96, new String[]{null, null, null}, "full"));
+    }
+
+    @Test
+    public void legacyUser_getsTheFullImage() {
+        assertEquals("full", AvatarVariants.pick(96, null, "full"));
+        assertNull(AvatarVariants.pick(96, null, null));
+    }
+
+    @Test
+    public void noFullImage_getsTheLargestVariant() {
+        assertEquals("u512", AvatarVariants.pick(2000, ALL, null));
+    }
+
+    @Test
+    public void fields_matchTheVariantNames() {
+        assertArrayEquals(new String[]{"96", "256", "512", AvatarVariants.ORIGINAL}, AvatarVariants.names());
+        assertEquals("profileImage", AvatarVariants.fieldOf(AvatarVariants.ORIGINAL));
+        assertEquals("profileImage256", AvatarVariants.fieldOf("256"));
+    }
+}
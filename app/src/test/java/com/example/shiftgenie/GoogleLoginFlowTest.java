@@ -0,0 +1,165 @@
+package com.example.shiftgenie;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link GoogleLoginFlow}, driven by fakes that complete when the test says so: the
+ * silent sign-in must skip the picker, the profile check and the warm-up must run together, and the
+ * latency of each stage must be measured.
+ */
+public class GoogleLoginFlowTest {
+
+    private long now; // Current time of the test clock.
+
+    private GoogleLoginFlow.Callback<String> silentCallback;    // Pending silent sign-in.
+    private GoogleLoginFlow.Callback<String> authCallback;      // Pending Firebase sign-in.
+    private String authToken;                                   // Token the Firebase sign-in was given.
+    private GoogleLoginFlow.Callback<Boolean> existsCallback;   // Pending profile check.
+    private Runnable warmupDone;                                // Pending warm-up.
+    private final List<String> events = new ArrayList<>();      // Steps reported to the listener, in order.
+    private GoogleLoginFlow.Metrics metrics;                    // Metrics of the finished flow.
+
+    private GoogleLoginFlow flow;                               // The flow under test.
+
+    @Before
+    public void setUp() {
+        GoogleLoginFlow.Listener listener = new GoogleLoginFlow.Listener() {
+            @Override
+            public void onInteractiveSignInNeeded() {
+                events.add("picker");
+            }
+
+            @Override
+            public void onSignedIn(String uid, boolean newUser, GoogleLoginFlow.Metrics result) {
+                events.add((newUser ? "new:" : "home:") + uid);
+                metrics = result;
+            }
+
+            @Override
+            public void onFailed(String message, Exception e) {
+                events.add("failed:" + message);
+            }
+        };
+        flow = new GoogleLoginFlow(
+                callback -> silentCallback = callback,
+                (idToken, callback) -> {
+                    authToken = idToken;
+                    authCallback = callback;
+                },
+                (uid, callback) -> existsCallback = callback,
+                (uid, done) -> warmupDone = done,
+                () -> now,
+                listener);
+    }
+
+    @Test
+    public void silentSignIn_skipsThePickerAndMeasuresEachStage() {
+        flow.start();
+        now = 40;
+        silentCallback.onSuccess("token");
+        assertEquals("token", authToken);
+        now = 240;
+        authCallback.onSuccess("u1");
+
+        // Both run before either answers.
+        assertNotNull(existsCallback);
+        assertNotNull(warmupDone);
+        now = 300;
+        existsCallback.onSuccess(true);
+        assertTrue("must wait for the warm-up", events.isEmpty());
+        now = 500;
+        warmupDone.run();
+
+        assertEquals(1, events.size());
+        assertEquals("home:u1", events.get(0));
+        assertTrue(metrics.isSilent());
+        assertEquals(40, metrics.getGoogleMs());
+        assertEquals(200, metrics.getFirebaseMs());
+        assertEquals(260, metrics.getReadyMs());
+        assertEquals(500, metrics.getTotalMs());
+    }
+
+    @Test
+    public void warmupFirst_stillWaitsForTheProfileCheck() {
+        flow.start();
+        silentCallback.onSuccess("token");
+        authCallback.onSuccess("u1");
+        warmupDone.run();
+        assertTrue(events.isEmpty());
+        existsCallback.onSuccess(true);
+        assertEquals("home:u1", events.get(0));
+    }
+
+    @Test
+    public void failedSilentSignIn_asksForThePicker() {
+        flow.start();
+        silentCallback.onFailure(new Exception("sign in required"));
+        assertEquals("picker", events.get(0));
+        assertNull(authCallback);
+
+        now = 5_000;
+        flow.onInteractiveResult("picked");
+        assertEquals("picked", authToken);
+        authCallback.onSuccess("u2");
+        existsCallback.onSuccess(true);
+        warmupDone.run();
+
+        assertEquals("home:u2", events.get(1));
+        assertFalse(metrics.isSilent());
+        assertEquals(5_000, metrics.getGoogleMs());
+    }
+
+    @Test
+    public void newUser_isAskedForDetailsWithoutWaitingForTheWarmup() {
+        flow.start();
+        silentCallback.onSuccess("token");
+        authCallback.onSuccess("u3");
+        existsCallback.onSuccess(false);
+
+        assertEquals(1, events.size());
+        assertEquals("new:u3", events.get(0));
+        warmupDone.run();
+        assertEquals("the flow ends once", 1, events.size());
+    }
+
+    @Test
+    public void failures_endTheFlowOnce() {
+        flow.start();
+        silentCallback.onSuccess("token");
+        authCallback.onSuccess("u4");
+        existsCallback.onFailure(new Exception("offline"));
+        warmupDone.run();
+
+        assertEquals(1, events.size());
+        assertEquals("failed:Database error: offline", events.get(0));
+    }
+
+    @Test
+    public void failedFirebaseSignIn_isReported() {
+        flow.start();
+        silentCallback.onSuccess("token");
+        authCallback.onFailure(new Exception("bad token"));
+
+        assertEquals("failed:Firebase Authentication failed.", events.get(0));
+        assertNull(existsCallback);
+    }
+
+    @Test
+    public void flowRecreatedAfterThePicker_startsAtTheResult() {
+        now = 10_000;
+        flow.onInteractiveResult("picked");
+        now = 10_100;
+        authCallback.onSuccess("u5");
+        existsCallback.onSuccess(true);
+        warmupDone.run();
+
+        assertEquals("home:u5", events.get(0));
+        assertEquals(100, metrics.getTotalMs());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link KeyedList}.
+ */
+public class KeyedListTest {
+
+    @Test
+    public void put_insertsInKeyOrderAndReportsPosition() {
+        KeyedList<String> list = new KeyedList<>();
+        assertEquals(-1, list.put("b", "B"));  // Inserted at 0.
+        assertEquals(-2, list.put("d", "D"));  // Inserted at 1.
+        assertEquals(-2, list.put("c", "C"));  // Inserted at 1, between b and d.
+        assertEquals(-1, list.put("a", "A"));  // Inserted at 0.
+
+        assertEquals(Arrays.asList("A", "B", "C", "D"), list.asList());
+    }
+
+    @Test
+    public void put_replacesExistingKeyInPlace() {
+        KeyedList<String> list = new KeyedList<>();
+        list.put("a", "A");
+        list.put("b", "B");
+
+        assertEquals(1, list.put("b", "B2"));
+        assertEquals(2, list.size());
+        assertEquals("B2", list.find("b"));
+    }
+
+    @Test
+    public void remove_reportsFormerPosition() {
+        KeyedList<String> list = new KeyedList<>();
+        list.put("a", "A");
+        list.put("b", "B");
+        list.put("c", "C");
+
+        assertEquals(1, list.remove("b"));
+        assertEquals(-1, list.remove("b"));
+        assertEquals(Arrays.asList("A", "C"), list.asList());
+        assertNull(list.find("b"));
+    }
+
+    @Test
+    public void removePrefix_removesOneContiguousRange() {
+        KeyedList<String> list = new KeyedList<>();
+        list.put("2024-04/x", "april");
+        list.put("2024-05/a", "may-a");
+        list.put("2024-05/b", "may-b");
+        list.put("2024-06/a", "june");
+
+        assertEquals(1, list.removePrefix("2024-05/"));
+        assertEquals(Arrays.asList("april", "june"), list.asList());
+
+        // A prefix with no rows removes nothing and points at where such rows would go.
+        assertEquals(1, list.removePrefix("2024-05/"));
+        assertEquals(2, list.size());
+    }
+
+    @Test
+    public void asList_followsLaterChanges() {
+        KeyedList<String> list = new KeyedList<>();
+        List<String> view = list.asList();
+        list.put("a", "A");
+        list.put("b", "B");
+
+        assertEquals(2, view.size());
+        assertEquals("B", view.get(1));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void asList_isReadOnly() {
+        new KeyedList<String>().asList().add("A");
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ShiftCodec}, {@link UserCodec} and {@link UserStatsCodec}, on the raw maps returned by
+ * {@code DataSnapshot.getValue()}.
+ */
+public class ModelCodecTest {
+
+    @Test
+    public void shift_roundTripsThroughEncode() {
+        Shift shift = new Shift();
+        shift.setShiftId("s1");
+        shift.setFromDateTime("01/05/2024 08:00");
+        shift.setToDateTime("01/05/2024 16:30");
+        shift.setWorkplaceName("Cafe");
+        shift.setUserEmail("a@b.c");
+        shift.setEarningsCents(12_345);
+        shift.setStart(28_580_000);
+        shift.setEnd(28_580_510);
+        shift.setDurationMinutes(510);
+
+        Shift decoded = ShiftCodec.decode(ShiftCodec.encode(shift));
+
+        assertNotNull(decoded);
+        assertEquals("s1", decoded.getShiftId());
+        assertEquals("01/05/2024 08:00", decoded.getFromDateTime());
+        assertEquals("01/05/2024 16:30", decoded.getToDateTime());
+        assertEquals("Cafe", decoded.getWorkplaceName());
+        assertEquals("a@b.c", decoded.getUserEmail());
+        assertEquals(12_345, decoded.getEarningsCents());
+        assertEquals(28_580_000, decoded.getStart());
+        assertEquals(28_580_510, decoded.getEnd());
+        assertEquals(510, decoded.getDurationMinutes());
+    }
+
+    @Test
+    public void shift_encodeSkipsMissingText() {
+        Map<String, Object> record = ShiftCodec.encode(new Shift());
+
+        assertFalse(record.containsKey("shiftId"));
+        assertFalse(record.containsKey("workplaceName"));
+        assertEquals(0L, record.get("earningsCents"));
+    }
+
+    @Test
+    public void shift_legacyDecimalEarningsBecomeCents() {
+        Map<String, Object> record = new HashMap<>();
+        record.put("totalEarnings", 123.45);
+
+        Shift decoded = ShiftCodec.decode(record);
+
+        assertNotNull(decoded);
+        assertEquals(12_345, decoded.getEarningsCents());
+        assertEquals(0, decoded.getStart());
+        assertNull(decoded.getShiftId());
+    }
+
+    @Test
+    public void shift_acceptsNumbersOfAnyStoredType() {
+        Map<String, Object> record = new HashMap<>();
+        record.put("earningsCents", 500.0);
+        record.put("start", "1200");
+        record.put("end", 1260L);
+        record.put("durationMinutes", 60.4);
+
+        Shift decoded = ShiftCodec.decode(record);
+
+        assertNotNull(decoded);
+        assertEquals(500, decoded.getEarningsCents());
+        assertEquals(1200, decoded.getStart());
+        assertEquals(1260, decoded.getEnd());
+        assertEquals(60, decoded.getDurationMinutes());
+    }
+
+    @Test
+    public void decode_rejectsNonRecords() {
+        assertNull(ShiftCodec.decode((Object) null));
+        assertNull(ShiftCodec.decode("text"));
+        assertNull(UserCodec.decode((Object) 5L));
+        assertNull(UserCodec.decodeUsers((Object) null));
+    }
+
+    @Test
+    public void user_readsProfileAndLegacyTotals() {
+        Map<String, Object> record = new HashMap<>();
+        record.put("username", "dana");
+        record.put("age", 31L);
+        record.put("phoneNumber", "0501234567");
+        record.put("shiftsCount", 4L);
+        record.put("totalEarnings", 99.99);
+
+        User user = UserCodec.decode(record);
+
+        assertNotNull(user);
+        assertEquals("dana", user.getUsername());
+        assertEquals("31", user.getAge());
+        assertEquals(4, user.getShiftsCount());
+        assertEquals(9_999, user.getEarningsCents());
+        assertNull(user.getEmail());
+        assertFalse(UserCodec.encode(user).containsKey("shiftsCount"));
+    }
+
+    @Test
+    public void user_roundTripsImageVariantsAndVersion() {
+        Map<String, Object> record = new HashMap<>();
+        record.put("profileImage", "full");
+        record.put("profileImage256", "u256");
+        record.put(AvatarImages.VERSION_FIELD, 1_700_000_000_000L);
+
+        User user = UserCodec.decode(record);
+
+        assertNotNull(user);
+        assertArrayEquals(new String[]{null, "u256", null}, user.getProfileImageVariants());
+        assertEquals(1_700_000_000_000L, user.getProfileImageVersion());
+        assertEquals(record, UserCodec.encode(user));
+
+        User legacy = UserCodec.decode(new HashMap<String, Object>());
+        assertNotNull(legacy);
+        assertNull(legacy.getProfileImageVariants());
+        assertEquals(0, legacy.getProfileImageVersion());
+        assertFalse(UserCodec.encode(legacy).containsKey(AvatarImages.VERSION_FIELD));
+    }
+
+    @Test
+    public void users_parsesTextAgeAndWritesItBackAsText() {
+        Map<String, Object> record = new HashMap<>();
+        record.put("username", "dana");
+        record.put("email", "d@x.y");
+        record.put("age", "27");
+
+        Users users = UserCodec.decodeUsers(record);
+
+        assertNotNull(users);
+        assertEquals(27, users.getAge());
+        assertEquals("d@x.y", users.getEmail());
+        assertEquals("27", UserCodec.encode(users).get("age"));
+    }
+
+    @Test
+    public void userStats_roundTripsThroughEncode() {
+        UserStats stats = new UserStats();
+        stats.setSchemaVersion(UserStats.SCHEMA_VERSION);
+        stats.addShift("2024-05", 12_345, 510);
+        stats.addShift("2024-05", 1_000, 60);
+        stats.addShift("2024-06", 500, 30);
+
+        UserStats decoded = UserStatsCodec.decode(UserStatsCodec.encode(stats));
+
+        assertNotNull(decoded);
+        assertEquals(UserStats.SCHEMA_VERSION, decoded.getSchemaVersion());
+        assertEquals(3, decoded.getShiftsCount());
+        assertEquals(13_845, decoded.getEarningsCents());
+        assertEquals(600, decoded.getTotalMinutes());
+        assertEquals(2, decoded.getMonths().size());
+        assertEquals(2, decoded.getMonths().get("2024-05").getShiftsCount());
+        assertEquals(13_345, decoded.getMonths().get("2024-05").getEarningsCents());
+        assertEquals(30, decoded.getMonths().get("2024-06").getTotalMinutes());
+    }
+
+    @Test
+    public void userStats_legacyDecimalEarningsBecomeCents() {
+        Map<String, Object> month = new HashMap<>();
+        month.put("shiftsCount", 2L);
+        month.put("totalEarnings", 10.5);
+        Map<String, Object> months = new HashMap<>();
+        months.put("2023-12", month);
+        Map<String, Object> record = new HashMap<>();
+        record.put("shiftsCount", 2L);
+        record.put("totalEarnings", 10.5);
+        record.put("months", months);
+
+        UserStats decoded = UserStatsCodec.decode(record);
+
+        assertNotNull(decoded);
+        assertEquals(0, decoded.getSchemaVersion());
+        assertEquals(1_050, decoded.getEarningsCents());
+        assertEquals(1_050, decoded.getMonths().get("2023-12").getEarningsCents());
+        assertNull(UserStatsCodec.decode("not a record"));
+    }
+}
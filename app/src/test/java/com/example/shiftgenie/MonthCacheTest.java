@@ -0,0 +1,103 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MonthCache}.
+ */
+public class MonthCacheTest {
+
+    private long now; // Current time of the test clock.
+
+    /**
+     * Creates an empty report of a month.
+     */
+    private static MonthReport report(String monthKey) {
+        return new MonthReport(YearMonth.parse(monthKey), new ArrayList<>(),
+                new PayrollEngine.Result(0, 0, 0, 0, 0, 0, 0, 0, 0), 0);
+    }
+
+    @Test
+    public void get_countsHitsAndMisses() {
+        MonthCache cache = new MonthCache(3, 1000, () -> now);
+        MonthReport may = report("2024-05");
+        cache.put("u1", "2024-05", may);
+
+        assertSame(may, cache.get("u1", "2024-05"));
+        assertNull(cache.get("u1", "2024-06"));
+        assertNull(cache.get("u2", "2024-05"));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void full_evictsLeastRecentlyUsed() {
+        MonthCache cache = new MonthCache(2, 1000, () -> now);
+        cache.put("u1", "2024-04", report("2024-04"));
+        cache.put("u1", "2024-05", report("2024-05"));
+        cache.get("u1", "2024-04"); // April is now more recently used than May.
+        cache.put("u1", "2024-06", report("2024-06"));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNotNull(cache.get("u1", "2024-04"));
+        assertNull(cache.get("u1", "2024-05"));
+        assertNotNull(cache.get("u1", "2024-06"));
+    }
+
+    @Test
+    public void staleReports_areDropped() {
+        MonthCache cache = new MonthCache(3, 1000, () -> now);
+        cache.put("u1", "2024-05", report("2024-05"));
+
+        now = 999;
+        assertTrue(cache.contains("u1", "2024-05"));
+        assertNotNull(cache.get("u1", "2024-05"));
+
+        now = 1000;
+        assertFalse(cache.contains("u1", "2024-05"));
+        assertNull(cache.get("u1", "2024-05"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void contains_doesNotCountOrReorder() {
+        MonthCache cache = new MonthCache(2, 1000, () -> now);
+        cache.put("u1", "2024-04", report("2024-04"));
+        cache.put("u1", "2024-05", report("2024-05"));
+        assertTrue(cache.contains("u1", "2024-04"));
+        cache.put("u1", "2024-06", report("2024-06"));
+
+        // April was only checked, not used, so it is still the eldest entry.
+        assertFalse(cache.contains("u1", "2024-04"));
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    public void invalidate_dropsOneMonthOrOneUser() {
+        MonthCache cache = new MonthCache(5, 1000, () -> now);
+        cache.put("u1", "2024-05", report("2024-05"));
+        cache.put("u1", "2024-06", report("2024-06"));
+        cache.put("u2", "2024-05", report("2024-05"));
+
+        cache.invalidate("u1", "2024-05");
+        assertFalse(cache.contains("u1", "2024-05"));
+        assertTrue(cache.contains("u1", "2024-06"));
+
+        cache.invalidateUser("u1");
+        assertFalse(cache.contains("u1", "2024-06"));
+        assertTrue(cache.contains("u2", "2024-05"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroEntries_isRejected() {
+        new MonthCache(0, 1000, () -> now);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MonthIndex}.
+ */
+public class MonthIndexTest {
+
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    /**
+     * Creates a shift from "yyyy-MM-dd HH:mm" wall-clock times in Berlin.
+     */
+    private static Shift shift(String id, String from, String to, long earningsCents) {
+        return new Shift(id, ShiftTimes.parse(from, BERLIN), ShiftTimes.parse(to, BERLIN), BERLIN,
+                "Cafe", "user@example.com", earningsCents);
+    }
+
+    @Test
+    public void page_startsOnTheSundayBeforeTheMonth() {
+        // May 2024 starts on a Wednesday; September 2024 starts on a Sunday.
+        assertEquals(LocalDate.of(2024, 4, 28), MonthIndex.firstDayOfPage(YearMonth.of(2024, 5)));
+        assertEquals(LocalDate.of(2024, 9, 1), MonthIndex.firstDayOfPage(YearMonth.of(2024, 9)));
+
+        MonthIndex index = new MonthIndex(YearMonth.of(2024, 5));
+        assertEquals(0, index.cellOf(LocalDate.of(2024, 4, 28)));
+        assertEquals(MonthIndex.DAYS - 1, index.cellOf(LocalDate.of(2024, 6, 8)));
+        assertEquals(-1, index.cellOf(LocalDate.of(2024, 6, 9)));
+        assertEquals(-1, index.cellOf(LocalDate.of(2024, 4, 27)));
+    }
+
+    @Test
+    public void nightShift_isListedOnBothDays() {
+        MonthIndex index = new MonthIndex(YearMonth.of(2024, 5));
+        Shift night = shift("a", "2024-05-10 22:00", "2024-05-11 06:00", 8000);
+        index.put(night, BERLIN);
+
+        int friday = index.cellOf(LocalDate.of(2024, 5, 10));
+        int saturday = index.cellOf(LocalDate.of(2024, 5, 11));
+        assertEquals(1, index.getShifts(friday).size());
+        assertSame(night, index.getShifts(saturday).get(0));
+        assertEquals(120, index.getDayMinutes(friday));
+        assertEquals(360, index.getDayMinutes(saturday));
+        assertEquals(8000, index.getDayEarningsCents(friday));
+        assertEquals(0, index.getDayEarningsCents(saturday));
+    }
+
+    @Test
+    public void put_replacesThePreviousVersion() {
+        MonthIndex index = new MonthIndex(YearMonth.of(2024, 5));
+        index.put(shift("a", "2024-05-10 09:00", "2024-05-10 17:00", 8000), BERLIN);
+        index.put(shift("a", "2024-05-12 09:00", "2024-05-12 13:00", 4000), BERLIN);
+
+        int oldDay = index.cellOf(LocalDate.of(2024, 5, 10));
+        int newDay = index.cellOf(LocalDate.of(2024, 5, 12));
+        assertEquals(1, index.size());
+        assertTrue(index.getShifts(oldDay).isEmpty());
+        assertEquals(0, index.getDayMinutes(oldDay));
+        assertEquals(0, index.getDayEarningsCents(oldDay));
+        assertEquals(240, index.getDayMinutes(newDay));
+        assertEquals(4000, index.getDayEarningsCents(newDay));
+    }
+
+    @Test
+    public void remove_clearsEveryDayOfTheShift() {
+        MonthIndex index = new MonthIndex(YearMonth.of(2024, 5));
+        index.put(shift("a", "2024-05-10 22:00", "2024-05-11 06:00", 8000), BERLIN);
+        index.put(shift("b", "2024-05-11 10:00", "2024-05-11 12:00", 2000), BERLIN);
+
+        assertTrue(index.remove("a"));
+        assertFalse(index.remove("a"));
+
+        int saturday = index.cellOf(LocalDate.of(2024, 5, 11));
+        assertEquals(1, index.getShifts(saturday).size());
+        assertEquals("b", index.getShifts(saturday).get(0).getShiftId());
+        assertEquals(120, index.getDayMinutes(saturday));
+        assertEquals(0, index.getDayMinutes(index.cellOf(LocalDate.of(2024, 5, 10))));
+    }
+
+    @Test
+    public void shiftsOffThePage_changeNothing() {
+        MonthIndex index = new MonthIndex(YearMonth.of(2024, 5));
+        assertFalse(index.put(shift("a", "2024-07-01 09:00", "2024-07-01 17:00", 8000), BERLIN));
+
+        // A shift on the trailing days of the previous month is still shown.
+        assertTrue(index.put(shift("b", "2024-04-29 09:00", "2024-04-29 17:00", 8000), BERLIN));
+        assertEquals(480, index.getDayMinutes(index.cellOf(LocalDate.of(2024, 4, 29))));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Golden-value tests for {@link PayrollEngine}. Every expected value is worked out by hand in the comments,
+ * in cents.
+ */
+public class PayrollEngineTest {
+
+    /**
+     * Creates the workplace used by most tests: $40/h, 30 minute unpaid break, $15 bonus and $5 deduction
+     * per shift, $12 daily travel, $100 monthly travel and 8% vacation pay.
+     */
+    private static Workplace workplace() {
+        Workplace workplace = new Workplace();
+        workplace.setWorkplaceName("Cafe");
+        workplace.setHourlyWage(40);
+        workplace.setBreakTime(30);
+        workplace.setBonusesPreShift(15);
+        workplace.setDeductionPreShift(5);
+        workplace.setDailyTravelExpenses(12);
+        workplace.setMonthlyTravelExpenses(100);
+        workplace.setVacationPayments(8);
+        return workplace;
+    }
+
+    @Test
+    public void month_breakdownMatchesGoldenValues() {
+        // Three shifts on two days: 8h and 4h on day 3, 6h on day 4.
+        int[] days = {3, 3, 4};
+        int[] durations = {480, 240, 360};
+
+        PayrollEngine.Result result = PayrollEngine.computeMonth(days, durations, 0, 3, workplace());
+
+        assertEquals(3, result.getShiftsCount());
+        assertEquals(1080, result.getWorkedMinutes());              // 480 + 240 + 360
+        assertEquals(990, result.getPaidMinutes());                 // 1080 - 3 * 30
+        assertEquals(66000, result.getGrossPayCents());             // 990 / 60 * 40
+        assertEquals(6000, result.getBreakDeductionCents());        // 90 / 60 * 40
+        assertEquals(4500, result.getBonusesCents());               // 3 * 15
+        assertEquals(1500, result.getDeductionsCents());            // 3 * 5
+        assertEquals(12400, result.getTravelCents());               // 2 days * 12 + 100
+        assertEquals(5280, result.getVacationAccrualCents());       // 660 * 8%
+        assertEquals(86680, result.getTotalPayCents());             // 660 + 45 - 15 + 124 + 52.8
+    }
+
+    @Test
+    public void emptyMonth_paysNothing() {
+        PayrollEngine.Result result = PayrollEngine.computeMonth(new int[0], new int[0], 0, 0, workplace());
+
+        assertEquals(0, result.getShiftsCount());
+        assertEquals(0, result.getTravelCents());  // No monthly travel without shifts.
+        assertEquals(0, result.getTotalPayCents());
+    }
+
+    @Test
+    public void shiftShorterThanBreak_isNotPaidNegativeTime() {
+        // A 20 minute shift with a 30 minute break is paid for no time, but still gets the bonus and deduction.
+        PayrollEngine.Result result = PayrollEngine.computeMonth(new int[]{1}, new int[]{20}, 0, 1, workplace());
+
+        assertEquals(0, result.getPaidMinutes());
+        assertEquals(0, result.getGrossPayCents());
+        assertEquals(1333, result.getBreakDeductionCents());            // 20 / 60 * 40 = 13.333
+        assertEquals(1500 - 500 + 1200 + 10000, result.getTotalPayCents());
+    }
+
+    @Test
+    public void offsetAndCount_selectOnlyTheRange() {
+        // Only the middle shift (day 9, 7.5h) is part of the range.
+        int[] days = {1, 9, 20};
+        int[] durations = {600, 450, 600};
+
+        PayrollEngine.Result result = PayrollEngine.computeMonth(days, durations, 1, 1, workplace());
+
+        assertEquals(1, result.getShiftsCount());
+        assertEquals(420, result.getPaidMinutes());           // 450 - 30
+        assertEquals(28000, result.getGrossPayCents());       // 7h * 40
+        assertEquals(11200, result.getTravelCents());         // 1 day * 12 + 100
+    }
+
+    @Test
+    public void shiftEarnings_includesPerShiftItemsOnly() {
+        // 8h shift: 7.5h paid * 40 = 300, + 15 bonus - 5 deduction.
+        assertEquals(31000, PayrollEngine.shiftEarningsCents(480, workplace()));
+    }
+
+    @Test
+    public void plainWageWorkplace_matchesHoursTimesWage() {
+        Workplace workplace = new Workplace();
+        workplace.setHourlyWage(32.5);
+
+        PayrollEngine.Result result = PayrollEngine.computeMonth(new int[]{1, 2}, new int[]{480, 300}, 0, 2, workplace);
+
+        assertEquals(13 * 3250, result.getTotalPayCents());
+        assertEquals(8 * 3250, PayrollEngine.shiftEarningsCents(480, workplace));
+    }
+
+    @Test
+    public void distinctDays_handlesWideRanges() {
+        assertEquals(3, PayrollEngine.countDistinctDays(new int[]{5, 5, 6, 7}, 0, 4));
+        assertEquals(3, PayrollEngine.countDistinctDays(new int[]{20000, 19000, 20000, 18000}, 0, 4));
+        assertEquals(0, PayrollEngine.countDistinctDays(new int[]{1}, 0, 0));
+    }
+
+    @Test
+    public void shiftsWithoutMinutes_addNoTravelDay() {
+        // A shift on day 3 and one whose times are unknown, passed as day 0 with no minutes.
+        PayrollEngine.Result result = PayrollEngine.computeMonth(new int[]{3, 0}, new int[]{480, 0}, 0, 2, workplace());
+
+        assertEquals(2, result.getShiftsCount());
+        assertEquals(11200, result.getTravelCents());         // 1 day * 12 + 100
+        assertEquals(1, PayrollEngine.countWorkedDays(new int[]{9, 3, 3, 0}, new int[]{0, 60, 120, 0}, 1, 3));
+    }
+
+    @Test
+    public void results_addUpAcrossWorkplaces() {
+        PayrollEngine.Result first = PayrollEngine.computeMonth(new int[]{3, 3, 4}, new int[]{480, 240, 360}, 0, 3, workplace());
+        PayrollEngine.Result second = PayrollEngine.computeMonth(new int[]{1}, new int[]{20}, 0, 1, workplace());
+
+        PayrollEngine.Result total = first.plus(second);
+
+        assertEquals(4, total.getShiftsCount());
+        assertEquals(first.getTotalPayCents() + second.getTotalPayCents(), total.getTotalPayCents());
+    }
+
+    @Test
+    public void fractionalCents_roundOncePerItem() {
+        // $10/h for 7 shifts of 7 minutes: 49 / 60 * 10 = 8.1667, rounded once to $8.17.
+        // Rounding every shift first would give 7 * 1.17 = $8.19.
+        Workplace workplace = new Workplace();
+        workplace.setHourlyWage(10);
+        workplace.setVacationPayments(2.5);
+        int[] days = {1, 2, 3, 4, 5, 6, 7};
+        int[] durations = {7, 7, 7, 7, 7, 7, 7};
+
+        PayrollEngine.Result result = PayrollEngine.computeMonth(days, durations, 0, 7, workplace);
+
+        assertEquals(817, result.getGrossPayCents());
+        assertEquals(20, result.getVacationAccrualCents());  // 2.5% of 817 = 20.425
+    }
+}
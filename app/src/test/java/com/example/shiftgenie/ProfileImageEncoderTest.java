@@ -0,0 +1,40 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the decode sampling of {@link ProfileImageEncoder}: the sample size must shrink a
+ * photo as far as possible in the decoder while never leaving it smaller than the target.
+ */
+public class ProfileImageEncoderTest {
+
+    @Test
+    public void twelveMegapixelPhoto_decodesAtHalfSize() {
+        // 4000x3000 decodes at 2000x1500; a quarter would be 1000 px, below the 1024 px target.
+        assertEquals(2, ProfileImageEncoder.computeInSampleSize(4000, 3000, 1024));
+    }
+
+    @Test
+    public void portraitPhoto_usesTheLongestSide() {
+        assertEquals(4, ProfileImageEncoder.computeInSampleSize(2448, 4352, 1024));
+        assertEquals(4, ProfileImageEncoder.computeInSampleSize(4352, 2448, 1024));
+    }
+
+    @Test
+    public void smallImage_isNotSampled() {
+        assertEquals(1, ProfileImageEncoder.computeInSampleSize(800, 600, 1024));
+        assertEquals(1, ProfileImageEncoder.computeInSampleSize(1024, 1024, 1024));
+        assertEquals(1, ProfileImageEncoder.computeInSampleSize(2047, 1000, 1024));
+    }
+
+    @Test
+    public void sampledImage_neverFallsBelowTheTarget() {
+        for (int side = 1024; side <= 20_000; side += 37) {
+            int sampleSize = ProfileImageEncoder.computeInSampleSize(side, side / 2, 1024);
+            assertTrue(side + " px sampled by " + sampleSize, side / sampleSize >= 1024);
+            assertTrue(side + " px could be sampled further", side / (sampleSize * 2) < 1024);
+        }
+    }
+}
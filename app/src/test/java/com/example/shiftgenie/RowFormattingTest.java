@@ -0,0 +1,102 @@
+package com.example.shiftgenie;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the cached money formatting of {@link Money} and the rows built with it,
+ * checked against {@code String.format} in locales with different digits and separators.
+ */
+public class RowFormattingTest {
+
+    private static final Locale[] LOCALES = {
+            Locale.US, Locale.GERMANY, new Locale("ar", "EG"), new Locale("fa", "IR"), new Locale("hi", "IN")
+    }; // Locales with ASCII and non-ASCII digits, and dot and comma separators.
+
+    private final Locale defaultLocale = Locale.getDefault(); // Locale to restore after each test.
+
+    @After
+    public void restoreLocale() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    public void format_matchesStringFormatInEveryLocale() {
+        long[] amounts = {0, 5, 99, 100, 1250, 123_456_789, -5, -1250};
+        for (Locale locale : LOCALES) {
+            Locale.setDefault(locale);
+            for (long cents : amounts) {
+                String expected = String.format(locale, "$%.2f", BigDecimal.valueOf(Math.abs(cents), 2));
+                assertEquals(locale + " " + cents, cents < 0 ? "-" + expected : expected, Money.format(cents));
+            }
+        }
+    }
+
+    @Test
+    public void formatHours_matchesStringFormatInEveryLocale() {
+        long[] minutes = {0, 1, 29, 30, 450, 481, 10_000, -30, -481};
+        for (Locale locale : LOCALES) {
+            Locale.setDefault(locale);
+            for (long value : minutes) {
+                String expected = String.format(locale, "%.2f",
+                        BigDecimal.valueOf(value).divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP));
+                assertEquals(locale + " " + value, expected, Money.formatHours(value));
+            }
+        }
+    }
+
+    @Test
+    public void negativeAmountsAndHours_useTheSameMinusSign() {
+        for (Locale locale : LOCALES) {
+            Locale.setDefault(locale);
+            assertEquals(locale.toString(), Money.format(-150).charAt(0), Money.formatHours(-90).charAt(0));
+        }
+    }
+
+    @Test
+    public void shiftRow_holdsTheBoundTexts() {
+        Locale.setDefault(Locale.US);
+        Shift shift = new Shift();
+        shift.setShiftId("s1");
+        shift.setWorkplaceName("Cafe");
+        shift.setFromDateTime("01/05/2024 08:00");
+        shift.setToDateTime("01/05/2024 16:00");
+        shift.setEarningsCents(12_345);
+
+        ShiftRow row = ShiftRow.of(shift);
+
+        assertEquals("s1", row.getShiftId());
+        assertEquals("Cafe", row.getWorkplaceName());
+        assertEquals(" $123.45", row.getEarningsText());
+        assertTrue(row.hasSameContent(ShiftRow.of(shift)));
+        assertNull(ShiftRow.ofNullable(null));
+    }
+
+    @Test
+    public void userRow_withTotalsKeepsTheProfileTexts() {
+        Locale.setDefault(Locale.US);
+        User user = new User();
+        user.setId("u1");
+        user.setUsername("dana");
+        user.setAge("31");
+        user.setPhoneNumber("0501234567");
+        UserStats stats = new UserStats();
+        stats.setShiftsCount(3);
+        stats.setEarningsCents(9_999);
+
+        UserRow row = UserRow.of(user).withTotals(stats);
+
+        assertEquals("u1", row.getUserId());
+        assertEquals("Age: 31", row.getAgeText());
+        assertEquals("Phone: 0501234567", row.getPhoneText());
+        assertEquals("Total Shifts: 3", row.getShiftsText());
+        assertEquals("Earnings: $99.99", row.getEarningsText());
+        assertEquals("Total Shifts: 0", row.withTotals(null).getShiftsText());
+    }
+}
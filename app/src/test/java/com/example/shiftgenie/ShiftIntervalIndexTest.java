@@ -0,0 +1,104 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link ShiftIntervalIndex}.
+ */
+public class ShiftIntervalIndexTest {
+
+    @Test
+    public void emptyIndex_neverOverlaps() {
+        ShiftIntervalIndex index = ShiftIntervalIndex.empty();
+        assertEquals(0, index.size());
+        assertFalse(index.overlaps(0, 1000));
+    }
+
+    @Test
+    public void partialOverlap_isDetected() {
+        // 09:00-17:00 on the same day, in minutes.
+        ShiftIntervalIndex index = ShiftIntervalIndex.build(new long[]{540}, new long[]{1020}, 1);
+        assertTrue(index.overlaps(480, 600));   // Starts before, ends inside.
+        assertTrue(index.overlaps(960, 1080));  // Starts inside, ends after.
+        assertTrue(index.overlaps(600, 700));   // Fully inside.
+        assertTrue(index.overlaps(480, 1080));  // Fully covering.
+        assertTrue(index.overlaps(540, 1020));  // Identical.
+    }
+
+    @Test
+    public void touchingIntervals_doNotOverlap() {
+        ShiftIntervalIndex index = ShiftIntervalIndex.build(new long[]{540}, new long[]{1020}, 1);
+        assertFalse(index.overlaps(1020, 1100)); // Starts exactly at the end.
+        assertFalse(index.overlaps(400, 540));   // Ends exactly at the start.
+    }
+
+    @Test
+    public void longShiftBeforeShortOnes_isStillFound() {
+        // A long shift followed by later, shorter shifts: the running maximum end must keep the long one visible.
+        long[] starts = {0, 100, 200};
+        long[] ends = {1000, 110, 210};
+        ShiftIntervalIndex index = ShiftIntervalIndex.build(starts, ends, 3);
+        assertTrue(index.overlaps(500, 600));
+        assertFalse(index.overlaps(1000, 1200));
+    }
+
+    @Test
+    public void unsortedInput_isSortedWithoutTouchingCallerArrays() {
+        long[] starts = {300, 100, 200};
+        long[] ends = {350, 150, 250};
+        ShiftIntervalIndex index = ShiftIntervalIndex.build(starts, ends, 3);
+        assertTrue(index.overlaps(120, 130));
+        assertFalse(index.overlaps(150, 200));
+        assertArrayEquals(new long[]{300, 100, 200}, starts);
+        assertArrayEquals(new long[]{350, 150, 250}, ends);
+    }
+
+    @Test
+    public void emptyIntervals_areIgnored() {
+        ShiftIntervalIndex index = ShiftIntervalIndex.build(new long[]{100, 200}, new long[]{100, 150}, 2);
+        assertEquals(0, index.size());
+        assertFalse(index.overlaps(0, 1000));
+        assertFalse(ShiftIntervalIndex.build(new long[]{100}, new long[]{200}, 1).overlaps(150, 150));
+    }
+
+    @Test
+    public void negativeAndEqualStarts_areSortedWithTheirEnds() {
+        ShiftIntervalIndex index = ShiftIntervalIndex.build(new long[]{50, -100, 50}, new long[]{60, -90, 200}, 3);
+        assertEquals(3, index.size());
+        assertTrue(index.overlaps(-95, -94));
+        assertFalse(index.overlaps(-90, 50));
+        assertTrue(index.overlaps(150, 160));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void startsTooFarApart_areRejected() {
+        ShiftIntervalIndex.build(new long[]{0, 1L << 40}, new long[]{10, (1L << 40) + 10}, 2);
+    }
+
+    @Test
+    public void randomIntervals_matchLinearScan() {
+        Random random = new Random(42);
+        int count = 2000;
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = random.nextInt(100_000);
+            ends[i] = starts[i] + 1 + random.nextInt(600);
+        }
+        ShiftIntervalIndex index = ShiftIntervalIndex.build(starts, ends, count);
+
+        for (int q = 0; q < 5000; q++) {
+            long from = random.nextInt(101_000);
+            long to = from + 1 + random.nextInt(600);
+            boolean expected = false;
+            for (int i = 0; i < count && !expected; i++) {
+                expected = starts[i] < to && ends[i] > from;
+            }
+            assertEquals("Query [" + from + ", " + to + ")", expected, index.overlaps(from, to));
+        }
+    }
+}
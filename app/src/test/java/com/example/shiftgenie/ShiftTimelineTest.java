@@ -0,0 +1,115 @@
+package com.example.shiftgenie;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ShiftTimeline} and the night-shift handling in {@link ShiftTimes}.
+ */
+public class ShiftTimelineTest {
+
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    /**
+     * Converts a "yyyy-MM-dd HH:mm" wall-clock time in Berlin to epoch minutes.
+     */
+    private static long berlin(String dateTime) {
+        return ShiftTimes.parse(dateTime, BERLIN);
+    }
+
+    @Test
+    public void nightShift_endsOnTheNextDay() {
+        LocalDateTime from = LocalDateTime.of(2024, 5, 10, 22, 0);
+        LocalDateTime to = ShiftTimes.endAfter(from, LocalTime.of(6, 0));
+
+        assertEquals(LocalDateTime.of(2024, 5, 11, 6, 0), to);
+        assertEquals(LocalDateTime.of(2024, 5, 10, 23, 0), ShiftTimes.endAfter(from, LocalTime.of(23, 0)));
+    }
+
+    @Test
+    public void nightShift_isSplitAtMidnight() {
+        ShiftTimeline timeline = ShiftTimeline.ofMonth(YearMonth.of(2024, 5));
+        timeline.add(berlin("2024-05-10 22:00"), berlin("2024-05-11 06:00"), BERLIN);
+
+        assertEquals(120, timeline.getDayMinutes(LocalDate.of(2024, 5, 10)));
+        assertEquals(360, timeline.getDayMinutes(LocalDate.of(2024, 5, 11)));
+        assertEquals(480, timeline.getTotalMinutes());
+    }
+
+    @Test
+    public void shiftAcrossMonthEnd_isSplitBetweenMonths() {
+        ShiftTimeline timeline = new ShiftTimeline(LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1));
+        timeline.add(berlin("2024-05-31 20:00"), berlin("2024-06-01 04:00"), BERLIN);
+
+        assertEquals(240, timeline.getMonthMinutes(YearMonth.of(2024, 5)));
+        assertEquals(240, timeline.getMonthMinutes(YearMonth.of(2024, 6)));
+    }
+
+    @Test
+    public void partOutsideRange_isIgnored() {
+        // The June timeline only sees the part of the night shift after midnight.
+        ShiftTimeline timeline = ShiftTimeline.ofMonth(YearMonth.of(2024, 6));
+        timeline.add(berlin("2024-05-31 20:00"), berlin("2024-06-01 04:00"), BERLIN);
+
+        assertEquals(240, timeline.getTotalMinutes());
+        assertEquals(240, timeline.getDayMinutes(LocalDate.of(2024, 6, 1)));
+        assertEquals(0, timeline.getDayMinutes(LocalDate.of(2024, 5, 31)));
+    }
+
+    @Test
+    public void springForward_nightIsOneHourShorter() {
+        // Clocks jump from 02:00 to 03:00 on 31 March 2024 in Berlin.
+        ShiftTimeline timeline = ShiftTimeline.ofMonth(YearMonth.of(2024, 3));
+        timeline.add(berlin("2024-03-30 22:00"), berlin("2024-03-31 06:00"), BERLIN);
+
+        assertEquals(120, timeline.getDayMinutes(LocalDate.of(2024, 3, 30)));
+        assertEquals(300, timeline.getDayMinutes(LocalDate.of(2024, 3, 31)));
+    }
+
+    @Test
+    public void fallBack_nightIsOneHourLonger() {
+        // Clocks go back from 03:00 to 02:00 on 27 October 2024 in Berlin.
+        ShiftTimeline timeline = ShiftTimeline.ofMonth(YearMonth.of(2024, 10));
+        timeline.add(berlin("2024-10-26 22:00"), berlin("2024-10-27 06:00"), BERLIN);
+
+        assertEquals(120, timeline.getDayMinutes(LocalDate.of(2024, 10, 26)));
+        assertEquals(420, timeline.getDayMinutes(LocalDate.of(2024, 10, 27)));
+    }
+
+    @Test
+    public void days_areCutInTheWorkplaceZone() {
+        // 23:00 to 01:00 in New York is 05:00 to 07:00 in Berlin, all on one Berlin day.
+        ZoneId newYork = ZoneId.of("America/New_York");
+        long start = ShiftTimes.parse("2024-05-10 23:00", newYork);
+        long end = ShiftTimes.parse("2024-05-11 01:00", newYork);
+
+        ShiftTimeline timeline = ShiftTimeline.ofMonth(YearMonth.of(2024, 5));
+        timeline.add(start, end, newYork);
+        timeline.add(start, end, BERLIN);
+
+        assertEquals(60 + 120, timeline.getDayMinutes(LocalDate.of(2024, 5, 11)));
+        assertEquals(60, timeline.getDayMinutes(LocalDate.of(2024, 5, 10)));
+    }
+
+    @Test
+    public void emptyShift_addsNothing() {
+        ShiftTimeline timeline = ShiftTimeline.ofMonth(YearMonth.of(2024, 5));
+        long start = berlin("2024-05-10 08:00");
+        timeline.add(start, start, BERLIN);
+        timeline.add(start, start - 60, BERLIN);
+
+        assertEquals(0, timeline.getTotalMinutes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyRange_isRejected() {
+        new ShiftTimeline(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 1));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.shiftgenie;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link UserSearchIndex}.
+ */
+public class UserSearchIndexTest {
+
+    private UserSearchIndex index; // The index under test.
+
+    @Before
+    public void setUp() {
+        index = new UserSearchIndex();
+        index.put(row("u1", "Dana Levi", "dana@example.com", "050-123-4567", 3, 9_000));
+        index.put(row("u2", "Avi Cohen", "avi.c@mail.com", "052 765 4321", 10, 4_000));
+        index.put(row("u3", "daniel", "dl@example.com", null, 7, 12_000));
+    }
+
+    @Test
+    public void query_matchesThePrefixOfEachField() {
+        assertEquals(Arrays.asList("u1", "u3"), ids(index.query("Dan", UserSearchIndex.Sort.KEY)));
+        assertEquals(Arrays.asList("u1"), ids(index.query("levi", UserSearchIndex.Sort.KEY)));
+        assertEquals(Arrays.asList("u2"), ids(index.query("avi.c@", UserSearchIndex.Sort.KEY)));
+        assertEquals(Arrays.asList("u1"), ids(index.query("  DANA@EX ", UserSearchIndex.Sort.KEY)));
+        assertTrue(index.query("example", UserSearchIndex.Sort.KEY).isEmpty());
+    }
+
+    @Test
+    public void query_matchesPhoneNumbersWhateverTheSeparators() {
+        assertEquals(Arrays.asList("u1"), ids(index.query("0501234", UserSearchIndex.Sort.KEY)));
+        assertEquals(Arrays.asList("u1"), ids(index.query("050-12", UserSearchIndex.Sort.KEY)));
+        assertEquals(Arrays.asList("u1", "u2"), ids(index.query("05", UserSearchIndex.Sort.KEY)));
+    }
+
+    @Test
+    public void query_sortsByShiftsAndEarningsDescending() {
+        assertEquals(Arrays.asList("u2", "u3", "u1"), ids(index.query("", UserSearchIndex.Sort.SHIFTS)));
+        assertEquals(Arrays.asList("u3", "u1", "u2"), ids(index.query("", UserSearchIndex.Sort.EARNINGS)));
+        assertEquals(Arrays.asList("u3", "u1"), ids(index.query("dan", UserSearchIndex.Sort.SHIFTS)));
+    }
+
+    @Test
+    public void put_replacesTheUsersTermsAndPosition() {
+        index.put(row("u1", "Noa Levi", "noa@example.com", "050-123-4567", 20, 1_000));
+
+        assertEquals(3, index.size());
+        assertEquals(Arrays.asList("u3"), ids(index.query("dan", UserSearchIndex.Sort.KEY)));
+        assertEquals(Arrays.asList("u1"), ids(index.query("noa", UserSearchIndex.Sort.KEY)));
+        assertEquals(Arrays.asList("u1", "u2", "u3"), ids(index.query("", UserSearchIndex.Sort.SHIFTS)));
+        assertEquals(Arrays.asList("u3", "u2", "u1"), ids(index.query("", UserSearchIndex.Sort.EARNINGS)));
+    }
+
+    @Test
+    public void remove_dropsTheUserFromEveryOrder() {
+        index.remove("u3");
+        index.remove("missing");
+
+        assertEquals(2, index.size());
+        assertEquals(Arrays.asList("u1"), ids(index.query("dan", UserSearchIndex.Sort.KEY)));
+        assertEquals(Arrays.asList("u2", "u1"), ids(index.query("", UserSearchIndex.Sort.SHIFTS)));
+    }
+
+    @Test
+    public void equalTotals_areOrderedByUserId() {
+        index.put(row("u0", "Zoe", null, null, 10, 0));
+
+        assertEquals(Arrays.asList("u0", "u2", "u3", "u1"), ids(index.query("", UserSearchIndex.Sort.SHIFTS)));
+    }
+
+    /**
+     * Builds the row of a user with totals.
+     *
+     * @param id            The user ID.
+     * @param username      The username.
+     * @param email         The email, or null.
+     * @param phoneNumber   The phone number, or null.
+     * @param shiftsCount   Number of shifts.
+     * @param earningsCents Earnings in cents.
+     * @return The row.
+     */
+    static UserRow row(String id, String username, String email, String phoneNumber,
+                       int shiftsCount, long earningsCents) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPhoneNumber(phoneNumber);
+        UserStats stats = new UserStats();
+        stats.setShiftsCount(shiftsCount);
+        stats.setEarningsCents(earningsCents);
+        return UserRow.of(user).withTotals(stats);
+    }
+
+    /**
+     * Lists the user IDs of rows.
+     *
+     * @param rows The rows.
+     * @return The IDs, in order.
+     */
+    private static List<String> ids(List<UserRow> rows) {
+        List<String> ids = new ArrayList<>();
+        for (UserRow row : rows) {
+            ids.add(row.getUserId());
+        }
+        return ids;
+    }
+}